@@ -0,0 +1,93 @@
+package med.voll.api.consulta.disponibilidade;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda;
+import med.voll.api.consulta.ocupacao.OcupacaoConsulta;
+import med.voll.api.dtos.DadosDisponibilidadeMedico;
+import med.voll.api.dtos.DadosListagemMedico;
+import med.voll.api.enums.Especialidade;
+import med.voll.api.repositories.ConsultaRepository;
+import med.voll.api.repositories.MedicoRepository;
+import med.voll.api.repositories.RepositoriosEmMemoria;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Disponibilidade de uma especialidade inteira numa janela de duas semanas, com metade dos horários ocupados.
+ * O índice de ocupação está carregado e a lista de médicos vem de um stub, então o resultado é o custo do
+ * cálculo em memória que {@code GET /medicos/disponibilidade} soma à consulta dos médicos (meta: bem abaixo de 50 ms).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AgendaDisponibilidadeBenchmark {
+
+    private static final int DIAS = 14;
+
+    @Param({"10", "200", "1000"})
+    public int quantidadeMedicos;
+
+    private AgendaDisponibilidade agenda;
+    private LocalDate de;
+
+    @Setup
+    public void preparar() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        de = LocalDate.now().plusDays(1);
+        var medicos = LongStream.rangeClosed(1, quantidadeMedicos)
+                .mapToObj(id -> new DadosListagemMedico(id, "Médico " + id, "medico" + id + "@voll.med",
+                        String.format("%06d", id), Especialidade.CARDIOLOGIA))
+                .toList();
+
+        var random = ThreadLocalRandom.current();
+        var ocupacoes = new ArrayList<OcupacaoConsulta>();
+        for (long id = 1; id <= quantidadeMedicos; id++) {
+            for (int dia = 0; dia < DIAS; dia++) {
+                for (int indice = 0; indice < GradeHorariosClinica.HORARIOS_POR_DIA; indice++) {
+                    if (random.nextBoolean()) {
+                        ocupacoes.add(new OcupacaoConsulta(id, id, GradeHorariosClinica.horario(de.plusDays(dia), indice), null));
+                    }
+                }
+            }
+        }
+
+        var medicoRepository = RepositoriosEmMemoria.criar(MedicoRepository.class, Map.of(
+                "findListagemAtivosByEspecialidade", argumentos -> medicos));
+        var consultaRepository = RepositoriosEmMemoria.criar(ConsultaRepository.class, Map.of(
+                "findOcupacoesAPartirDe", argumentos -> ocupacoes));
+        var indice = new IndiceOcupacaoAgenda(consultaRepository);
+        ReflectionTestUtils.setField(indice, "habilitado", true);
+        indice.carregar();
+
+        agenda = new AgendaDisponibilidade(medicoRepository, consultaRepository, indice);
+    }
+
+    @Benchmark
+    public List<DadosDisponibilidadeMedico> duasSemanas() {
+        return agenda.livresPorMedico(Especialidade.CARDIOLOGIA, de, de.plusDays(DIAS - 1));
+    }
+}
@@ -0,0 +1,91 @@
+package med.voll.api.consulta.disponibilidade;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda;
+import med.voll.api.consulta.ocupacao.OcupacaoConsulta;
+import med.voll.api.dtos.DadosHorarioDisponivel;
+import med.voll.api.dtos.DadosListagemMedico;
+import med.voll.api.enums.Especialidade;
+import med.voll.api.repositories.ConsultaRepository;
+import med.voll.api.repositories.MedicoRepository;
+import med.voll.api.repositories.RepositoriosEmMemoria;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Próximos horários de uma especialidade cuja agenda está toda ocupada pelas próximas {@code semanasOcupadas}
+ * semanas, com o índice de ocupação carregado: mede o custo de intercalar os cursores dos médicos até o primeiro
+ * horário livre, que o {@code GET /consultas/proximo-horario} soma à consulta dos médicos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BuscaProximoHorarioBenchmark {
+
+    @Param({"200", "1000"})
+    public int quantidadeMedicos;
+
+    @Param({"0", "4"})
+    public int semanasOcupadas;
+
+    private BuscaProximoHorario busca;
+    private LocalDate inicio;
+
+    @Setup
+    public void preparar() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        inicio = LocalDate.now().plusDays(1);
+        var medicos = LongStream.rangeClosed(1, quantidadeMedicos)
+                .mapToObj(id -> new DadosListagemMedico(id, "Médico " + id, "medico" + id + "@voll.med",
+                        String.format("%06d", id), Especialidade.CARDIOLOGIA))
+                .toList();
+
+        var ocupacoes = new ArrayList<OcupacaoConsulta>();
+        for (long id = 1; id <= quantidadeMedicos; id++) {
+            for (int dia = 0; dia < semanasOcupadas * 7; dia++) {
+                for (int indice = 0; indice < GradeHorariosClinica.HORARIOS_POR_DIA; indice++) {
+                    ocupacoes.add(new OcupacaoConsulta(id, id, GradeHorariosClinica.horario(inicio.plusDays(dia), indice), null));
+                }
+            }
+        }
+
+        var medicoRepository = RepositoriosEmMemoria.criar(MedicoRepository.class, Map.of(
+                "findListagemAtivosByEspecialidade", argumentos -> medicos));
+        var consultaRepository = RepositoriosEmMemoria.criar(ConsultaRepository.class, Map.of(
+                "findOcupacoesAPartirDe", argumentos -> ocupacoes));
+        var indice = new IndiceOcupacaoAgenda(consultaRepository);
+        ReflectionTestUtils.setField(indice, "habilitado", true);
+        indice.carregar();
+
+        busca = new BuscaProximoHorario(medicoRepository, consultaRepository, indice,
+                new AgendaDisponibilidade(medicoRepository, consultaRepository, indice));
+    }
+
+    @Benchmark
+    public List<DadosHorarioDisponivel> cincoProximos() {
+        return busca.buscar(Especialidade.CARDIOLOGIA, inicio.atStartOfDay(), null, 5);
+    }
+}
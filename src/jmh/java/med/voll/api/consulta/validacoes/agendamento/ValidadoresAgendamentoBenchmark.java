@@ -0,0 +1,96 @@
+package med.voll.api.consulta.validacoes.agendamento;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda;
+import med.voll.api.dtos.DadosAgendamentoConsulta;
+import med.voll.api.repositories.ConsultaRepository;
+import med.voll.api.repositories.MedicoRepository;
+import med.voll.api.repositories.PacienteRepository;
+import med.voll.api.repositories.RepositoriosEmMemoria;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de CPU e alocação da cadeia de {@link ValidadorAgendamentoDeConsulta} sem banco: os repositórios são
+ * stubs em memória, então o resultado isola o trabalho dos próprios validadores. O log fica em WARN
+ * para que a escrita no console não domine a medição.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidadoresAgendamentoBenchmark {
+
+    private List<ValidadorAgendamentoDeConsulta> validadores;
+    private DadosAgendamentoConsulta dados;
+    private ContextoAgendamento contexto;
+
+    @Setup
+    public void preparar() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        var medicoRepository = RepositoriosEmMemoria.criar(MedicoRepository.class, Map.of(
+                "findAtivoById", argumentos -> Boolean.TRUE));
+        var pacienteRepository = RepositoriosEmMemoria.criar(PacienteRepository.class, Map.of(
+                "findAtivoById", argumentos -> Boolean.TRUE));
+        var consultaRepository = RepositoriosEmMemoria.criar(ConsultaRepository.class, Map.of(
+                "existsByMedicoIdAndDataAndMotivoCancelamentoIsNull", argumentos -> Boolean.FALSE,
+                "existsByPacienteIdAndDataBetween", argumentos -> Boolean.FALSE));
+        // índice não carregado: os validadores recorrem aos repositórios, como no caminho sem contexto
+        var indice = new IndiceOcupacaoAgenda(consultaRepository);
+
+        var medicoAtivo = new ValidadorMedicoAtivo();
+        ReflectionTestUtils.setField(medicoAtivo, "medicoRepository", medicoRepository);
+        var pacienteAtivo = new ValidadorPacienteAtivo();
+        ReflectionTestUtils.setField(pacienteAtivo, "pacienteRepository", pacienteRepository);
+        var medicoOcupado = new ValidadorMedicoComOutraConsultaNoMesmoHorario();
+        ReflectionTestUtils.setField(medicoOcupado, "consultaRepository", consultaRepository);
+        ReflectionTestUtils.setField(medicoOcupado, "indiceOcupacaoAgenda", indice);
+        var pacienteOcupado = new ValidadorPacienteSemOutraConsultaNoDia();
+        ReflectionTestUtils.setField(pacienteOcupado, "consultaRepository", consultaRepository);
+        ReflectionTestUtils.setField(pacienteOcupado, "indiceOcupacaoAgenda", indice);
+
+        validadores = List.of(new ValidadorHorarioAntecedencia(), new ValidadorHorarioFuncionamentoClinica(),
+                medicoAtivo, pacienteAtivo, medicoOcupado, pacienteOcupado);
+
+        var data = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.next(DayOfWeek.MONDAY)).atTime(10, 0);
+        dados = new DadosAgendamentoConsulta(1L, 2L, data, null);
+        contexto = new ContextoAgendamento(dados, true, true, false, false);
+    }
+
+    @Benchmark
+    public DadosAgendamentoConsulta validarComRepositorios() {
+        for (var validador : validadores) {
+            validador.validar(dados);
+        }
+        return dados;
+    }
+
+    @Benchmark
+    public ContextoAgendamento validarComContexto() {
+        for (var validador : validadores) {
+            validador.validar(contexto);
+        }
+        return contexto;
+    }
+}
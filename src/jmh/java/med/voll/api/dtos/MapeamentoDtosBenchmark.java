@@ -0,0 +1,86 @@
+package med.voll.api.dtos;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import med.voll.api.entities.Consulta;
+import med.voll.api.entities.Medico;
+import med.voll.api.entities.Paciente;
+import med.voll.api.enums.Especialidade;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Mapeamento entidade → record das listagens e detalhamentos, e a serialização Jackson de uma
+ * {@code Page<DadosListagemMedico>} como a devolvida por {@code GET /medicos}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapeamentoDtosBenchmark {
+
+    @Param({"10", "100"})
+    public int tamanhoPagina;
+
+    private ObjectMapper objectMapper;
+    private List<Medico> medicos;
+    private Consulta consulta;
+    private Page<DadosListagemMedico> pagina;
+
+    @Setup
+    public void preparar() {
+        // mesmas configurações padrão que o Spring Boot aplica ao ObjectMapper da aplicação
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        var endereco = new DadosEndereco("Rua Benchmark", "Centro", "01001000", "São Paulo", "SP", null, "1");
+        medicos = LongStream.rangeClosed(1, tamanhoPagina)
+                .mapToObj(id -> {
+                    var medico = new Medico(new DadosCadastroMedico("Médico " + id, "medico" + id + "@voll.med",
+                            "11999990000", String.format("%06d", id), Especialidade.CARDIOLOGIA, endereco));
+                    medico.setId(id);
+                    return medico;
+                })
+                .toList();
+
+        var paciente = new Paciente();
+        paciente.setId(1L);
+        consulta = new Consulta(1L, medicos.get(0), paciente, LocalDateTime.now().plusDays(1), null);
+
+        pagina = new PageImpl<>(medicos.stream().map(DadosListagemMedico::new).toList(),
+                PageRequest.of(0, tamanhoPagina), 1_000);
+    }
+
+    @Benchmark
+    public List<DadosListagemMedico> mapearListagemMedicos() {
+        return medicos.stream().map(DadosListagemMedico::new).toList();
+    }
+
+    @Benchmark
+    public DadosDetalhamentoConsulta mapearDetalhamentoConsulta() {
+        return new DadosDetalhamentoConsulta(consulta);
+    }
+
+    @Benchmark
+    public byte[] serializarPaginaMedicos() throws Exception {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+}
@@ -0,0 +1,61 @@
+package med.voll.api.infra.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import med.voll.api.entities.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private TokenService tokenService;
+    private CacheTokensVerificados cacheTokensVerificados;
+    private Usuario usuario;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        tokenService = new TokenService("segredo-do-benchmark");
+        cacheTokensVerificados = new CacheTokensVerificados(10_000, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        usuario = new Usuario(1L, "ana@voll.med", "senha");
+        token = tokenService.gerarToken(usuario);
+        cacheTokensVerificados.guardar(token, usuario.getLogin(), usuario, usuario.getAuthorities(), Instant.now().plusSeconds(3600));
+    }
+
+    @Benchmark
+    public String gerarToken() {
+        return tokenService.gerarToken(usuario);
+    }
+
+    @Benchmark
+    public String getSubject() {
+        return tokenService.getSubject(token);
+    }
+
+    @Benchmark
+    public UsuarioAutenticado usuarioDasClaims() {
+        return tokenService.usuarioAutenticado(tokenService.verificar(token));
+    }
+
+    @Benchmark
+    public CacheTokensVerificados.TokenVerificado buscarNoCache() {
+        return cacheTokensVerificados.buscar(token);
+    }
+}
@@ -0,0 +1,31 @@
+package med.voll.api.repositories;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Implementações em memória dos repositórios para os benchmarks: cada método respondido é uma função
+ * sobre os argumentos; qualquer outro método lança {@link UnsupportedOperationException}.
+ */
+public final class RepositoriosEmMemoria {
+
+    private RepositoriosEmMemoria() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T criar(Class<T> repositorio, Map<String, Function<Object[], Object>> respostas) {
+        return (T) Proxy.newProxyInstance(repositorio.getClassLoader(), new Class<?>[]{repositorio}, (proxy, metodo, argumentos) -> {
+            var resposta = respostas.get(metodo.getName());
+            if (resposta != null) {
+                return resposta.apply(argumentos);
+            }
+            return switch (metodo.getName()) {
+                case "toString" -> repositorio.getSimpleName() + "EmMemoria";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == argumentos[0];
+                default -> throw new UnsupportedOperationException(metodo.getName());
+            };
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package med.voll.api.cadastro.exportacao;
+
+import med.voll.api.dtos.DadosDetalhamentoMedico;
+import med.voll.api.dtos.DadosDetalhamentoPaciente;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Coluna do CSV exportado. Os nomes são os mesmos aceitos pela importação, então um arquivo exportado pode ser
+ * importado de volta; a coluna {@code id} é ignorada na importação.
+ */
+public record ColunaCsv<T>(String nome, Function<T, String> valor) {
+
+    public static final List<ColunaCsv<DadosDetalhamentoMedico>> MEDICOS = List.of(
+            new ColunaCsv<>("id", medico -> String.valueOf(medico.id())),
+            new ColunaCsv<>("nome", DadosDetalhamentoMedico::nome),
+            new ColunaCsv<>("email", DadosDetalhamentoMedico::email),
+            new ColunaCsv<>("telefone", DadosDetalhamentoMedico::telefone),
+            new ColunaCsv<>("crm", DadosDetalhamentoMedico::crm),
+            new ColunaCsv<>("especialidade", medico -> medico.especialidade().name()),
+            new ColunaCsv<>("logradouro", medico -> medico.endereco().getLogradouro()),
+            new ColunaCsv<>("bairro", medico -> medico.endereco().getBairro()),
+            new ColunaCsv<>("cep", medico -> medico.endereco().getCep()),
+            new ColunaCsv<>("cidade", medico -> medico.endereco().getCidade()),
+            new ColunaCsv<>("uf", medico -> medico.endereco().getUf()),
+            new ColunaCsv<>("complemento", medico -> medico.endereco().getComplemento()),
+            new ColunaCsv<>("numero", medico -> medico.endereco().getNumero()));
+
+    public static final List<ColunaCsv<DadosDetalhamentoPaciente>> PACIENTES = List.of(
+            new ColunaCsv<>("id", paciente -> String.valueOf(paciente.id())),
+            new ColunaCsv<>("nome", DadosDetalhamentoPaciente::nome),
+            new ColunaCsv<>("email", DadosDetalhamentoPaciente::email),
+            new ColunaCsv<>("telefone", DadosDetalhamentoPaciente::telefone),
+            new ColunaCsv<>("cpf", DadosDetalhamentoPaciente::cpf),
+            new ColunaCsv<>("logradouro", paciente -> paciente.endereco().getLogradouro()),
+            new ColunaCsv<>("bairro", paciente -> paciente.endereco().getBairro()),
+            new ColunaCsv<>("cep", paciente -> paciente.endereco().getCep()),
+            new ColunaCsv<>("cidade", paciente -> paciente.endereco().getCidade()),
+            new ColunaCsv<>("uf", paciente -> paciente.endereco().getUf()),
+            new ColunaCsv<>("complemento", paciente -> paciente.endereco().getComplemento()),
+            new ColunaCsv<>("numero", paciente -> paciente.endereco().getNumero()));
+}
@@ -0,0 +1,55 @@
+package med.voll.api.cadastro.exportacao;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escreve registros CSV (RFC 4180) direto no {@link Writer}: linhas terminadas em CRLF e campos entre aspas só quando
+ * contêm vírgula, aspas ou quebra de linha. Valores nulos saem como campo vazio.
+ */
+class EscritorCsv {
+
+    private static final String FIM_DE_LINHA = "\r\n";
+
+    private final Writer saida;
+
+    EscritorCsv(Writer saida) {
+        this.saida = saida;
+    }
+
+    void campo(String valor, boolean primeiro) throws IOException {
+        if (!primeiro) {
+            saida.write(',');
+        }
+        if (valor == null || valor.isEmpty()) {
+            return;
+        }
+        if (!precisaDeAspas(valor)) {
+            saida.write(valor);
+            return;
+        }
+        saida.write('"');
+        for (int i = 0; i < valor.length(); i++) {
+            var c = valor.charAt(i);
+            if (c == '"') {
+                saida.write('"');
+            }
+            saida.write(c);
+        }
+        saida.write('"');
+    }
+
+    void fimDeLinha() throws IOException {
+        saida.write(FIM_DE_LINHA);
+    }
+
+    private static boolean precisaDeAspas(String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            var c = valor.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,107 @@
+package med.voll.api.cadastro.exportacao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Escreve um cursor de cadastros em CSV ou NDJSON direto na resposta, registro a registro: a memória usada não
+ * depende da quantidade exportada, só dos buffers de saída. Com {@code gzip} a saída é comprimida no próprio fluxo,
+ * no nível mais rápido do deflate, para que a compressão não limite a vazão do cursor.
+ */
+@Component
+public class ExportacaoCadastros {
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+
+    public ExportacaoCadastros(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Se o cliente aceita {@code gzip} pelo {@code Accept-Encoding}, desconsiderando {@code q=0}.
+     */
+    public static boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (var codificacao : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            var partes = codificacao.split(";");
+            if (partes[0].trim().equals("gzip")) {
+                return partes.length == 1 || !partes[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Devolve a quantidade de registros escritos. Não fecha {@code saida}, que é do contêiner.
+     */
+    public <T> long exportar(Stream<T> registros, Class<T> classe, List<ColunaCsv<T>> colunas, FormatoExportacao formato,
+                             boolean gzip, OutputStream saida) throws IOException {
+        GZIPOutputStream compressao = gzip ? new GZIPOutputStream(saida, TAMANHO_BUFFER) {
+            {
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        } : null;
+        var destino = new BufferedOutputStream(compressao != null ? compressao : saida, TAMANHO_BUFFER);
+
+        var quantidade = formato == FormatoExportacao.CSV
+                ? escreverCsv(registros, colunas, destino)
+                : escreverNdjson(registros, classe, destino);
+
+        destino.flush();
+        if (compressao != null) {
+            compressao.finish();
+        }
+        saida.flush();
+        return quantidade;
+    }
+
+    private static <T> long escreverCsv(Stream<T> registros, List<ColunaCsv<T>> colunas, OutputStream destino) throws IOException {
+        var escritor = new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+        var csv = new EscritorCsv(escritor);
+        for (int c = 0; c < colunas.size(); c++) {
+            csv.campo(colunas.get(c).nome(), c == 0);
+        }
+        csv.fimDeLinha();
+
+        var quantidade = 0L;
+        var iterador = registros.iterator();
+        while (iterador.hasNext()) {
+            var registro = iterador.next();
+            for (int c = 0; c < colunas.size(); c++) {
+                csv.campo(colunas.get(c).valor().apply(registro), c == 0);
+            }
+            csv.fimDeLinha();
+            quantidade++;
+        }
+        escritor.flush();
+        return quantidade;
+    }
+
+    private <T> long escreverNdjson(Stream<T> registros, Class<T> classe, OutputStream destino) throws IOException {
+        var escritor = objectMapper.writerFor(classe);
+        var quantidade = 0L;
+        var iterador = registros.iterator();
+        while (iterador.hasNext()) {
+            destino.write(escritor.writeValueAsBytes(iterador.next()));
+            destino.write('\n');
+            quantidade++;
+        }
+        return quantidade;
+    }
+}
@@ -0,0 +1,42 @@
+package med.voll.api.cadastro.exportacao;
+
+import med.voll.api.infra.exceptions.ValidacaoException;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Formatos da exportação, escolhidos pelo parâmetro {@code formato}.
+ */
+public enum FormatoExportacao {
+
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv"),
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson");
+
+    private static final String FORMATO_INVALIDO = "Formato de exportação inválido! Use 'csv' ou 'ndjson'.";
+
+    private final MediaType tipo;
+    private final String extensao;
+
+    FormatoExportacao(MediaType tipo, String extensao) {
+        this.tipo = tipo;
+        this.extensao = extensao;
+    }
+
+    public static FormatoExportacao de(String valor) {
+        try {
+            return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidacaoException(FORMATO_INVALIDO);
+        }
+    }
+
+    public MediaType getTipo() {
+        return tipo;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+}
@@ -0,0 +1,102 @@
+package med.voll.api.cadastro.importacao;
+
+import med.voll.api.consulta.selecao.SelecaoMedicoLivre;
+import med.voll.api.dtos.DadosCadastroMedico;
+import med.voll.api.enums.Especialidade;
+import med.voll.api.repositories.MedicoRepository;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Importação de médicos. O id é {@code IDENTITY}, o que impede o Hibernate de agrupar os inserts, então o lote
+ * é gravado com um único comando JDBC em lote; os ids gerados voltam para a {@link SelecaoMedicoLivre}.
+ */
+@Component
+public class CadastroMedicos implements TipoCadastro<DadosCadastroMedico> {
+
+    private static final String ESPECIALIDADE_INVALIDA = "especialidade: valor '%s' não é uma especialidade válida";
+    private static final String INSERIR = """
+            insert into medicos(nome, email, telefone, crm, especialidade, logradouro, bairro, cep, complemento, numero, uf, cidade, ativo)
+            values (:nome, :email, :telefone, :crm, :especialidade, :logradouro, :bairro, :cep, :complemento, :numero, :uf, :cidade, true)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SelecaoMedicoLivre selecaoMedicoLivre;
+    private final List<ChaveUnica<DadosCadastroMedico>> chavesUnicas;
+
+    public CadastroMedicos(NamedParameterJdbcTemplate jdbcTemplate,
+                           MedicoRepository medicoRepository,
+                           SelecaoMedicoLivre selecaoMedicoLivre) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.selecaoMedicoLivre = selecaoMedicoLivre;
+        this.chavesUnicas = List.of(
+                new ChaveUnica<>("email", DadosCadastroMedico::email, medicoRepository::findEmailsCadastrados),
+                new ChaveUnica<>("crm", DadosCadastroMedico::crm, medicoRepository::findCrmsCadastrados));
+    }
+
+    @Override
+    public Class<DadosCadastroMedico> classe() {
+        return DadosCadastroMedico.class;
+    }
+
+    @Override
+    public DadosCadastroMedico deCsv(Function<String, String> coluna) {
+        return new DadosCadastroMedico(coluna.apply("nome"), coluna.apply("email"), coluna.apply("telefone"),
+                coluna.apply("crm"), especialidade(coluna.apply("especialidade")), TipoCadastro.enderecoCsv(coluna));
+    }
+
+    @Override
+    public List<ChaveUnica<DadosCadastroMedico>> chavesUnicas() {
+        return chavesUnicas;
+    }
+
+    @Override
+    public List<Long> inserir(List<DadosCadastroMedico> lote) {
+        var parametros = lote.stream().map(CadastroMedicos::parametros).toArray(SqlParameterSource[]::new);
+        var chaves = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(INSERIR, parametros, chaves, new String[]{"id"});
+        return TipoCadastro.idsGerados(chaves);
+    }
+
+    @Override
+    public void aposCommit(List<DadosCadastroMedico> lote, List<Long> ids) {
+        for (int i = 0; i < lote.size(); i++) {
+            selecaoMedicoLivre.incluirMedico(ids.get(i), lote.get(i).especialidade());
+        }
+    }
+
+    private static Especialidade especialidade(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return Especialidade.valueOf(valor.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format(ESPECIALIDADE_INVALIDA, valor));
+        }
+    }
+
+    private static SqlParameterSource parametros(DadosCadastroMedico dados) {
+        var endereco = dados.endereco();
+        return new MapSqlParameterSource()
+                .addValue("nome", dados.nome())
+                .addValue("email", dados.email())
+                .addValue("telefone", dados.telefone())
+                .addValue("crm", dados.crm())
+                .addValue("especialidade", dados.especialidade().name())
+                .addValue("logradouro", endereco.logradouro())
+                .addValue("bairro", endereco.bairro())
+                .addValue("cep", endereco.cep())
+                .addValue("complemento", endereco.complemento())
+                .addValue("numero", endereco.numero())
+                .addValue("uf", endereco.uf())
+                .addValue("cidade", endereco.cidade());
+    }
+}
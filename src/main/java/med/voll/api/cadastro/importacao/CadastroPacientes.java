@@ -0,0 +1,74 @@
+package med.voll.api.cadastro.importacao;
+
+import med.voll.api.dtos.DadosCadastroPaciente;
+import med.voll.api.repositories.PacienteRepository;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Importação de pacientes, gravada com um único comando JDBC em lote pelo mesmo motivo de {@link CadastroMedicos}.
+ */
+@Component
+public class CadastroPacientes implements TipoCadastro<DadosCadastroPaciente> {
+
+    private static final String INSERIR = """
+            insert into pacientes(nome, email, telefone, cpf, logradouro, bairro, cep, complemento, numero, uf, cidade, ativo)
+            values (:nome, :email, :telefone, :cpf, :logradouro, :bairro, :cep, :complemento, :numero, :uf, :cidade, true)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final List<ChaveUnica<DadosCadastroPaciente>> chavesUnicas;
+
+    public CadastroPacientes(NamedParameterJdbcTemplate jdbcTemplate, PacienteRepository pacienteRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chavesUnicas = List.of(
+                new ChaveUnica<>("email", DadosCadastroPaciente::email, pacienteRepository::findEmailsCadastrados),
+                new ChaveUnica<>("cpf", DadosCadastroPaciente::cpf, pacienteRepository::findCpfsCadastrados));
+    }
+
+    @Override
+    public Class<DadosCadastroPaciente> classe() {
+        return DadosCadastroPaciente.class;
+    }
+
+    @Override
+    public DadosCadastroPaciente deCsv(Function<String, String> coluna) {
+        return new DadosCadastroPaciente(coluna.apply("nome"), coluna.apply("email"), coluna.apply("telefone"),
+                coluna.apply("cpf"), TipoCadastro.enderecoCsv(coluna));
+    }
+
+    @Override
+    public List<ChaveUnica<DadosCadastroPaciente>> chavesUnicas() {
+        return chavesUnicas;
+    }
+
+    @Override
+    public List<Long> inserir(List<DadosCadastroPaciente> lote) {
+        var parametros = lote.stream().map(CadastroPacientes::parametros).toArray(SqlParameterSource[]::new);
+        var chaves = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(INSERIR, parametros, chaves, new String[]{"id"});
+        return TipoCadastro.idsGerados(chaves);
+    }
+
+    private static SqlParameterSource parametros(DadosCadastroPaciente dados) {
+        var endereco = dados.endereco();
+        return new MapSqlParameterSource()
+                .addValue("nome", dados.nome())
+                .addValue("email", dados.email())
+                .addValue("telefone", dados.telefone())
+                .addValue("cpf", dados.cpf())
+                .addValue("logradouro", endereco.logradouro())
+                .addValue("bairro", endereco.bairro())
+                .addValue("cep", endereco.cep())
+                .addValue("complemento", endereco.complemento())
+                .addValue("numero", endereco.numero())
+                .addValue("uf", endereco.uf())
+                .addValue("cidade", endereco.cidade());
+    }
+}
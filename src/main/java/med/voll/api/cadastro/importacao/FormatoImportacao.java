@@ -0,0 +1,30 @@
+package med.voll.api.cadastro.importacao;
+
+import med.voll.api.infra.exceptions.ValidacaoException;
+import org.springframework.http.MediaType;
+
+/**
+ * Formatos aceitos na importação, escolhidos pelo {@code Content-Type} da requisição.
+ */
+public enum FormatoImportacao {
+
+    CSV(new MediaType("text", "csv")),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private static final String FORMATO_NAO_SUPORTADO = "Formato de importação não suportado: %s. Use text/csv ou application/x-ndjson.";
+
+    private final MediaType tipo;
+
+    FormatoImportacao(MediaType tipo) {
+        this.tipo = tipo;
+    }
+
+    public static FormatoImportacao de(MediaType contentType) {
+        for (var formato : values()) {
+            if (formato.tipo.isCompatibleWith(contentType)) {
+                return formato;
+            }
+        }
+        throw new ValidacaoException(String.format(FORMATO_NAO_SUPORTADO, contentType));
+    }
+}
@@ -0,0 +1,397 @@
+package med.voll.api.cadastro.importacao;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.validation.Validator;
+import med.voll.api.cadastro.importacao.TipoCadastro.ChaveUnica;
+import med.voll.api.dtos.DadosErroImportacao;
+import med.voll.api.dtos.DadosResumoImportacao;
+import med.voll.api.infra.transacao.Transacoes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Importação de cadastros em streaming: o corpo é lido registro a registro (CSV com cabeçalho ou NDJSON) e gravado
+ * em lotes de {@code api.importacao.tamanho-lote} registros, cada lote na sua própria transação. Só o lote corrente
+ * fica em memória, e uma falha no meio do arquivo não desfaz os lotes já confirmados.
+ * <p>
+ * Cada registro passa pelas mesmas anotações de validação do cadastro individual. As colunas únicas são conferidas
+ * em conjunto: dentro do lote em memória e contra o banco com uma consulta por coluna, antes do comando em lote; os
+ * lotes anteriores já estão no banco, então a conferência também cobre repetições entre lotes. O relatório sai em
+ * NDJSON, uma linha por registro rejeitado e o resumo no final, e é enviado ao fim de cada lote.
+ */
+@Component
+public class ImportacaoCadastros {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacaoCadastros.class);
+
+    private static final String JSON_INVALIDO = "JSON inválido: %s";
+    private static final String LINHA_LONGA = "Linha com mais de %d caracteres; o registro foi descartado";
+    private static final String REPETIDO_NO_ARQUIVO = "%s repetido no arquivo (linha %d)";
+    private static final String JA_CADASTRADO = "%s já cadastrado";
+    private static final String RECUSADO_PELO_BANCO = "Registro recusado pelo banco: viola um índice único ou o tamanho de uma coluna";
+
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+    private final int tamanhoMaximoRegistro;
+
+    public ImportacaoCadastros(Validator validator,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${api.importacao.tamanho-lote:500}") int tamanhoLote,
+                               @Value("${api.importacao.tamanho-maximo-registro:65536}") int tamanhoMaximoRegistro) {
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+        this.tamanhoMaximoRegistro = tamanhoMaximoRegistro;
+    }
+
+    public <T> DadosResumoImportacao importar(TipoCadastro<T> tipo, FormatoImportacao formato, Reader entrada, OutputStream saida) throws IOException {
+        var leitura = new BufferedReader(entrada);
+        LeitorRegistros<T> leitor = formato == FormatoImportacao.CSV
+                ? LeitorRegistrosCsv.abrir(tipo, leitura, tamanhoMaximoRegistro)
+                : new LeitorRegistrosNdjson<>(objectMapper.readerFor(tipo.classe()), leitura, tamanhoMaximoRegistro);
+        var relatorio = new Relatorio(saida);
+
+        var lote = new ArrayList<RegistroLido<T>>(tamanhoLote);
+        for (var registro = leitor.proximo(); registro != null; registro = leitor.proximo()) {
+            lote.add(registro);
+            if (lote.size() == tamanhoLote) {
+                importarLote(tipo, lote, relatorio);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            importarLote(tipo, lote, relatorio);
+        }
+        return relatorio.concluir();
+    }
+
+    private <T> void importarLote(TipoCadastro<T> tipo, List<RegistroLido<T>> lote, Relatorio relatorio) throws IOException {
+        var chaves = tipo.chavesUnicas();
+        var vistos = chaves.stream().map(chave -> new HashMap<String, Long>()).toList();
+        var erros = new ArrayList<DadosErroImportacao>();
+        var validos = new ArrayList<RegistroLido<T>>(lote.size());
+
+        for (var registro : lote) {
+            var errosRegistro = registro.erros() != null ? registro.erros() : validar(registro.dados());
+            if (errosRegistro.isEmpty()) {
+                errosRegistro = repetidos(chaves, vistos, registro);
+            }
+            if (errosRegistro.isEmpty()) {
+                validos.add(registro);
+            } else {
+                erros.add(new DadosErroImportacao(registro.linha(), errosRegistro));
+            }
+        }
+
+        var importados = validos.isEmpty() ? 0 : gravar(tipo, validos, erros);
+        relatorio.registrarLote(lote.size(), importados, erros);
+    }
+
+    private List<String> validar(Object dados) {
+        return validator.validate(dados).stream()
+                .map(violacao -> violacao.getPropertyPath() + ": " + violacao.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Só registros aceitos marcam as chaves como vistas: um registro rejeitado não impede que a linha seguinte
+     * com a mesma chave seja importada.
+     */
+    private static <T> List<String> repetidos(List<ChaveUnica<T>> chaves, List<HashMap<String, Long>> vistos, RegistroLido<T> registro) {
+        var erros = new ArrayList<String>();
+        for (int c = 0; c < chaves.size(); c++) {
+            var anterior = vistos.get(c).get(normalizar(chaves.get(c).valor().apply(registro.dados())));
+            if (anterior != null) {
+                erros.add(String.format(REPETIDO_NO_ARQUIVO, chaves.get(c).nome(), anterior));
+            }
+        }
+        if (erros.isEmpty()) {
+            for (int c = 0; c < chaves.size(); c++) {
+                vistos.get(c).put(normalizar(chaves.get(c).valor().apply(registro.dados())), registro.linha());
+            }
+        }
+        return erros;
+    }
+
+    private <T> int gravar(TipoCadastro<T> tipo, List<RegistroLido<T>> validos, List<DadosErroImportacao> erros) {
+        try {
+            var gravacao = transactionTemplate.execute(status -> gravarNaTransacao(tipo, validos));
+            erros.addAll(gravacao.erros());
+            return gravacao.importados();
+        } catch (DataIntegrityViolationException e) {
+            // em geral outra requisição gravou a mesma chave entre a conferência e o insert; o lote é refeito
+            // registro a registro para apontar só as linhas recusadas
+            log.warn("Lote de importação recusado pelo banco; gravando os {} registros um a um.", validos.size());
+            var importados = 0;
+            for (var registro : validos) {
+                try {
+                    var gravacao = transactionTemplate.execute(status -> gravarNaTransacao(tipo, List.of(registro)));
+                    erros.addAll(gravacao.erros());
+                    importados += gravacao.importados();
+                } catch (DataIntegrityViolationException violacao) {
+                    erros.add(new DadosErroImportacao(registro.linha(), List.of(RECUSADO_PELO_BANCO)));
+                }
+            }
+            return importados;
+        }
+    }
+
+    private <T> Gravacao gravarNaTransacao(TipoCadastro<T> tipo, List<RegistroLido<T>> registros) {
+        var chaves = tipo.chavesUnicas();
+        var cadastrados = chaves.stream()
+                .map(chave -> normalizados(chave.cadastrados().apply(registros.stream()
+                        .map(registro -> chave.valor().apply(registro.dados()))
+                        .toList())))
+                .toList();
+
+        var erros = new ArrayList<DadosErroImportacao>();
+        var novos = new ArrayList<T>(registros.size());
+        for (var registro : registros) {
+            var errosRegistro = new ArrayList<String>();
+            for (int c = 0; c < chaves.size(); c++) {
+                if (cadastrados.get(c).contains(normalizar(chaves.get(c).valor().apply(registro.dados())))) {
+                    errosRegistro.add(String.format(JA_CADASTRADO, chaves.get(c).nome()));
+                }
+            }
+            if (errosRegistro.isEmpty()) {
+                novos.add(registro.dados());
+            } else {
+                erros.add(new DadosErroImportacao(registro.linha(), errosRegistro));
+            }
+        }
+
+        if (!novos.isEmpty()) {
+            var ids = tipo.inserir(novos);
+            Transacoes.aposCommit(() -> tipo.aposCommit(novos, ids));
+        }
+        return new Gravacao(novos.size(), erros);
+    }
+
+    /**
+     * Os índices únicos comparam sem diferenciar maiúsculas (collation padrão do MySQL), então as chaves também.
+     */
+    private static String normalizar(String valor) {
+        return valor.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> normalizados(Collection<String> valores) {
+        var normalizados = new HashSet<String>(valores.size() * 2);
+        valores.forEach(valor -> normalizados.add(normalizar(valor)));
+        return normalizados;
+    }
+
+    private record Gravacao(int importados, List<DadosErroImportacao> erros) {
+    }
+
+    /**
+     * Registro lido do corpo: o DTO, ou os erros quando a linha nem chegou a virar um DTO.
+     */
+    private record RegistroLido<T>(long linha, T dados, List<String> erros) {
+
+        static <T> RegistroLido<T> invalido(long linha, String erro) {
+            return new RegistroLido<>(linha, null, List.of(erro));
+        }
+    }
+
+    private interface LeitorRegistros<T> {
+
+        /**
+         * Próximo registro, ou {@code null} no fim do corpo.
+         */
+        RegistroLido<T> proximo() throws IOException;
+    }
+
+    private static final class LeitorRegistrosCsv<T> implements LeitorRegistros<T> {
+
+        private final TipoCadastro<T> tipo;
+        private final LeitorCsv csv;
+        private final Map<String, Integer> colunas;
+
+        private LeitorRegistrosCsv(TipoCadastro<T> tipo, LeitorCsv csv, Map<String, Integer> colunas) {
+            this.tipo = tipo;
+            this.csv = csv;
+            this.colunas = colunas;
+        }
+
+        /**
+         * Lê o cabeçalho: as colunas são localizadas pelo nome, em qualquer ordem, e as desconhecidas são ignoradas.
+         */
+        static <T> LeitorRegistros<T> abrir(TipoCadastro<T> tipo, Reader entrada, int tamanhoMaximoRegistro) throws IOException {
+            var csv = new LeitorCsv(entrada, tamanhoMaximoRegistro);
+            var cabecalho = csv.proximo();
+            if (cabecalho == null) {
+                return () -> null;
+            }
+            var colunas = new HashMap<String, Integer>();
+            for (int i = 0; i < cabecalho.size(); i++) {
+                // o BOM de arquivos salvos por planilhas fica grudado no nome da primeira coluna
+                colunas.putIfAbsent(cabecalho.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT), i);
+            }
+            return new LeitorRegistrosCsv<>(tipo, csv, colunas);
+        }
+
+        @Override
+        public RegistroLido<T> proximo() throws IOException {
+            List<String> campos;
+            try {
+                campos = csv.proximo();
+            } catch (IllegalArgumentException e) {
+                return RegistroLido.invalido(csv.linhaRegistro(), e.getMessage());
+            }
+            if (campos == null) {
+                return null;
+            }
+
+            Function<String, String> coluna = nome -> {
+                var indice = colunas.get(nome);
+                if (indice == null || indice >= campos.size()) {
+                    return null;
+                }
+                var valor = campos.get(indice).trim();
+                return valor.isEmpty() ? null : valor;
+            };
+            try {
+                return new RegistroLido<>(csv.linhaRegistro(), tipo.deCsv(coluna), null);
+            } catch (IllegalArgumentException e) {
+                return RegistroLido.invalido(csv.linhaRegistro(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Uma linha por registro, lida no máximo até {@code tamanhoMaximoRegistro} caracteres: o restante de uma linha
+     * maior é descartado sem ficar em memória e o registro é recusado, como no {@link LeitorCsv}.
+     */
+    private static final class LeitorRegistrosNdjson<T> implements LeitorRegistros<T> {
+
+        private final ObjectReader leitor;
+        private final BufferedReader entrada;
+        private final int tamanhoMaximoRegistro;
+        private final StringBuilder texto = new StringBuilder();
+        private boolean descartada;
+        private long linha;
+
+        private LeitorRegistrosNdjson(ObjectReader leitor, BufferedReader entrada, int tamanhoMaximoRegistro) {
+            this.leitor = leitor;
+            this.entrada = entrada;
+            this.tamanhoMaximoRegistro = tamanhoMaximoRegistro;
+        }
+
+        @Override
+        public RegistroLido<T> proximo() throws IOException {
+            boolean lida;
+            do {
+                lida = lerLinha();
+                linha++;
+            } while (lida && !descartada && texto.toString().isBlank());
+            if (!lida) {
+                return null;
+            }
+            if (descartada) {
+                return RegistroLido.invalido(linha, String.format(LINHA_LONGA, tamanhoMaximoRegistro));
+            }
+            try {
+                return new RegistroLido<>(linha, leitor.readValue(texto.toString()), null);
+            } catch (JsonProcessingException e) {
+                return RegistroLido.invalido(linha, String.format(JSON_INVALIDO, e.getOriginalMessage()));
+            }
+        }
+
+        /**
+         * Lê a próxima linha em {@code texto}, sem a quebra, ou devolve {@code false} no fim do corpo. Uma linha
+         * acima do tamanho máximo é lida até a quebra sem guardar nada e marcada como {@code descartada}.
+         */
+        private boolean lerLinha() throws IOException {
+            texto.setLength(0);
+            descartada = false;
+            var c = entrada.read();
+            if (c == -1) {
+                return false;
+            }
+            for (; c != -1 && c != '\n'; c = entrada.read()) {
+                if (descartada) {
+                    continue;
+                }
+                texto.append((char) c);
+                // um caractere de folga para o \r de uma quebra \r\n
+                if (texto.length() > tamanhoMaximoRegistro + 1) {
+                    descartada = true;
+                    texto.setLength(0);
+                }
+            }
+            if (!texto.isEmpty() && texto.charAt(texto.length() - 1) == '\r') {
+                texto.setLength(texto.length() - 1);
+            }
+            if (texto.length() > tamanhoMaximoRegistro) {
+                descartada = true;
+                texto.setLength(0);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Escreve os erros de cada lote em ordem de linha, com um flush por lote, e o resumo no final.
+     */
+    private final class Relatorio {
+
+        private final OutputStream saida;
+        private final ObjectWriter escritorErro = objectMapper.writerFor(DadosErroImportacao.class);
+        private final ObjectWriter escritorResumo = objectMapper.writerFor(DadosResumoImportacao.class);
+        private long registros;
+        private long importados;
+        private long rejeitados;
+
+        Relatorio(OutputStream saida) {
+            this.saida = saida;
+        }
+
+        void registrarLote(int registrosLote, int importadosLote, List<DadosErroImportacao> erros) throws IOException {
+            erros.sort(Comparator.comparingLong(DadosErroImportacao::linha));
+            for (var erro : erros) {
+                saida.write(escritorErro.writeValueAsBytes(erro));
+                saida.write('\n');
+            }
+            saida.flush();
+            registros += registrosLote;
+            importados += importadosLote;
+            rejeitados += registrosLote - importadosLote;
+        }
+
+        DadosResumoImportacao concluir() throws IOException {
+            var resumo = new DadosResumoImportacao(registros, importados, rejeitados);
+            saida.write(escritorResumo.writeValueAsBytes(resumo));
+            saida.write('\n');
+            saida.flush();
+            return resumo;
+        }
+    }
+}
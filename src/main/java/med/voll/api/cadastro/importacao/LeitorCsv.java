@@ -0,0 +1,136 @@
+package med.voll.api.cadastro.importacao;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV (RFC 4180) registro a registro: campos separados por vírgula, entre aspas quando contêm vírgula,
+ * aspas ou quebra de linha, e aspas escapadas como {@code ""}. Só o registro corrente fica em memória, limitado a
+ * {@code tamanhoMaximoRegistro} caracteres: um registro maior é recusado e o restante da linha física é descartado,
+ * então nem uma aspa sem fechamento no começo de um arquivo grande faz o registro crescer sem limite.
+ */
+class LeitorCsv {
+
+    private static final int FIM = -1;
+
+    private final Reader entrada;
+    private final int tamanhoMaximoRegistro;
+    private final StringBuilder campo = new StringBuilder();
+    private long linha = 1;
+    private long linhaRegistro;
+    private int pendente = FIM - 1;
+
+    LeitorCsv(Reader entrada, int tamanhoMaximoRegistro) {
+        this.entrada = entrada;
+        this.tamanhoMaximoRegistro = tamanhoMaximoRegistro;
+    }
+
+    /**
+     * Linha do arquivo, a partir de 1, em que começa o último registro lido.
+     */
+    long linhaRegistro() {
+        return linhaRegistro;
+    }
+
+    /**
+     * Próximo registro, ou {@code null} no fim do arquivo. Linhas em branco são ignoradas; aspas abertas até o fim
+     * do arquivo e registros com mais de {@code tamanhoMaximoRegistro} caracteres lançam
+     * {@link IllegalArgumentException}. No segundo caso a leitura continua na linha física seguinte, mesmo que o
+     * registro recusado estivesse dentro de aspas.
+     */
+    List<String> proximo() throws IOException {
+        int c;
+        do {
+            c = ler();
+            if (c == '\n') {
+                linha++;
+            }
+        } while (c == '\n' || c == '\r');
+        if (c == FIM) {
+            return null;
+        }
+
+        linhaRegistro = linha;
+        var campos = new ArrayList<String>();
+        campo.setLength(0);
+        var entreAspas = false;
+        var aspasNoCampo = false;
+        var tamanho = 0;
+        while (true) {
+            if (c != FIM && ++tamanho > tamanhoMaximoRegistro) {
+                campo.setLength(0);
+                descartarRestoDaLinha(c);
+                throw new IllegalArgumentException("Registro iniciado na linha " + linhaRegistro
+                        + " passa de " + tamanhoMaximoRegistro + " caracteres; o restante da linha foi descartado");
+            }
+            if (entreAspas) {
+                if (c == FIM) {
+                    throw new IllegalArgumentException("Aspas sem fechamento no registro iniciado na linha " + linhaRegistro);
+                }
+                if (c == '"') {
+                    var seguinte = ler();
+                    if (seguinte == '"') {
+                        campo.append('"');
+                    } else {
+                        entreAspas = false;
+                        c = seguinte;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        linha++;
+                    }
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.isEmpty() && !aspasNoCampo) {
+                entreAspas = true;
+                aspasNoCampo = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+                aspasNoCampo = false;
+            } else if (c == '\r' || c == '\n' || c == FIM) {
+                campos.add(campo.toString());
+                if (c == '\r') {
+                    var seguinte = ler();
+                    if (seguinte != '\n') {
+                        pendente = seguinte;
+                    }
+                }
+                if (c != FIM) {
+                    linha++;
+                }
+                return campos;
+            } else {
+                campo.append((char) c);
+            }
+            c = ler();
+        }
+    }
+
+    private void descartarRestoDaLinha(int c) throws IOException {
+        while (c != '\r' && c != '\n' && c != FIM) {
+            c = ler();
+        }
+        if (c == '\r') {
+            var seguinte = ler();
+            if (seguinte != '\n') {
+                pendente = seguinte;
+            }
+        }
+        if (c != FIM) {
+            linha++;
+        }
+    }
+
+    private int ler() throws IOException {
+        if (pendente >= FIM) {
+            var c = pendente;
+            pendente = FIM - 1;
+            return c;
+        }
+        return entrada.read();
+    }
+}
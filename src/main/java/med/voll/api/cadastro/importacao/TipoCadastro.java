@@ -0,0 +1,57 @@
+package med.voll.api.cadastro.importacao;
+
+import med.voll.api.dtos.DadosEndereco;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * O que a {@link ImportacaoCadastros} precisa saber de cada cadastro importável: como montar o DTO a partir de uma
+ * linha de CSV, quais colunas são únicas no banco e como gravar um lote.
+ */
+public interface TipoCadastro<T> {
+
+    Class<T> classe();
+
+    /**
+     * Monta o DTO pelas colunas do cabeçalho; valores inválidos para o tipo do campo lançam
+     * {@link IllegalArgumentException} com a mensagem do erro da linha.
+     */
+    T deCsv(Function<String, String> coluna);
+
+    List<ChaveUnica<T>> chavesUnicas();
+
+    /**
+     * Grava o lote com um único comando em lote e devolve os ids gerados, na ordem do lote.
+     */
+    List<Long> inserir(List<T> lote);
+
+    /**
+     * Chamado depois do commit de cada lote, com os ids devolvidos por {@link #inserir}.
+     */
+    default void aposCommit(List<T> lote, List<Long> ids) {
+    }
+
+    static DadosEndereco enderecoCsv(Function<String, String> coluna) {
+        return new DadosEndereco(coluna.apply("logradouro"), coluna.apply("bairro"), coluna.apply("cep"),
+                coluna.apply("cidade"), coluna.apply("uf"), coluna.apply("complemento"), coluna.apply("numero"));
+    }
+
+    /**
+     * O nome da chave gerada muda com o driver ({@code GENERATED_KEY} no MySQL, {@code ID} no H2), então vale o
+     * único valor de cada linha.
+     */
+    static List<Long> idsGerados(KeyHolder chaves) {
+        return chaves.getKeyList().stream()
+                .map(chave -> ((Number) chave.values().iterator().next()).longValue())
+                .toList();
+    }
+
+    /**
+     * Coluna com índice único e a consulta que devolve, entre os valores informados, os que já estão cadastrados.
+     */
+    record ChaveUnica<T>(String nome, Function<T, String> valor, Function<Collection<String>, Collection<String>> cadastrados) {
+    }
+}
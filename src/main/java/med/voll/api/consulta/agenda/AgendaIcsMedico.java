@@ -0,0 +1,55 @@
+package med.voll.api.consulta.agenda;
+
+import med.voll.api.repositories.ConsultaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Agenda de um médico como iCalendar, lida por um cursor sobre {@code idx_consultas_medico_data} e escrita consulta
+ * a consulta. A janela vai de {@code api.agenda-ics.passado} antes de hoje até {@code api.agenda-ics.futuro} depois.
+ */
+@Component
+public class AgendaIcsMedico {
+
+    private static final Duration DURACAO_CONSULTA = Duration.ofHours(1);
+
+    private final ConsultaRepository consultaRepository;
+    private final Duration passado;
+    private final Duration futuro;
+    private final ZoneId fuso;
+
+    public AgendaIcsMedico(ConsultaRepository consultaRepository,
+                           @Value("${api.agenda-ics.passado:P30D}") Duration passado,
+                           @Value("${api.agenda-ics.futuro:P365D}") Duration futuro,
+                           @Value("${api.agenda-ics.fuso:America/Sao_Paulo}") ZoneId fuso) {
+        this.consultaRepository = consultaRepository;
+        this.passado = passado;
+        this.futuro = futuro;
+        this.fuso = fuso;
+    }
+
+    /**
+     * Devolve quantas consultas foram escritas.
+     */
+    public long escrever(Long idMedico, String nomeMedico, OutputStream saida) throws IOException {
+        var hoje = LocalDate.now().atStartOfDay();
+        var calendario = new CalendarioIcs(saida, fuso, DURACAO_CONSULTA);
+        calendario.abrir("Agenda - " + nomeMedico);
+        var quantidade = 0L;
+        try (var consultas = consultaRepository.streamAgendaDoMedico(idMedico, hoje.minus(passado), hoje.plus(futuro))) {
+            var iterador = consultas.iterator();
+            while (iterador.hasNext()) {
+                calendario.evento(iterador.next());
+                quantidade++;
+            }
+        }
+        calendario.fechar();
+        return quantidade;
+    }
+}
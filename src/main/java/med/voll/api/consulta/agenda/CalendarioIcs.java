@@ -0,0 +1,103 @@
+package med.voll.api.consulta.agenda;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Escreve um {@code VCALENDAR} (RFC 5545) evento a evento, sem montar o documento em memória. As datas saem em UTC,
+ * convertidas do fuso da clínica, para que o calendário não precise de um {@code VTIMEZONE}.
+ */
+public class CalendarioIcs {
+
+    private static final DateTimeFormatter FORMATO_UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final int OCTETOS_POR_LINHA = 75;
+    private static final String FIM_DE_LINHA = "\r\n";
+
+    private final Writer saida;
+    private final ZoneId fuso;
+    private final Duration duracaoConsulta;
+    private final String carimbo;
+
+    public CalendarioIcs(OutputStream saida, ZoneId fuso, Duration duracaoConsulta) {
+        this.saida = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        this.fuso = fuso;
+        this.duracaoConsulta = duracaoConsulta;
+        this.carimbo = FORMATO_UTC.format(Instant.now());
+    }
+
+    public void abrir(String nome) throws IOException {
+        linha("BEGIN:VCALENDAR");
+        linha("VERSION:2.0");
+        linha("PRODID:-//Voll Med//Agenda dos medicos//PT");
+        linha("CALSCALE:GREGORIAN");
+        linha("METHOD:PUBLISH");
+        linha("X-WR-CALNAME:" + texto(nome));
+    }
+
+    /**
+     * Consultas canceladas saem com {@code STATUS:CANCELLED} e {@code SEQUENCE:1}, para que o cliente atualize o evento
+     * que já tinha em vez de mantê-lo.
+     */
+    public void evento(ConsultaAgendaMedico consulta) throws IOException {
+        var cancelada = consulta.motivoCancelamento() != null;
+        linha("BEGIN:VEVENT");
+        linha("UID:consulta-" + consulta.idConsulta() + "@voll.med");
+        linha("DTSTAMP:" + carimbo);
+        linha("DTSTART:" + utc(consulta.data()));
+        linha("DTEND:" + utc(consulta.data().plus(duracaoConsulta)));
+        linha("SUMMARY:" + texto((cancelada ? "Consulta cancelada - " : "Consulta - ") + consulta.nomePaciente()));
+        if (cancelada) {
+            linha("DESCRIPTION:" + texto("Motivo do cancelamento: " + consulta.motivoCancelamento().getDescricao()));
+        }
+        linha("STATUS:" + (cancelada ? "CANCELLED" : "CONFIRMED"));
+        linha("SEQUENCE:" + (cancelada ? 1 : 0));
+        linha("END:VEVENT");
+    }
+
+    public void fechar() throws IOException {
+        linha("END:VCALENDAR");
+        saida.flush();
+    }
+
+    private String utc(LocalDateTime data) {
+        return FORMATO_UTC.format(data.atZone(fuso));
+    }
+
+    /**
+     * Dobra a linha a cada 75 octetos em UTF-8, sem partir um caractere, com as continuações iniciadas por espaço.
+     */
+    private void linha(String conteudo) throws IOException {
+        var octetos = 0;
+        for (int i = 0; i < conteudo.length(); ) {
+            var codigo = conteudo.codePointAt(i);
+            var tamanho = codigo < 0x80 ? 1 : codigo < 0x800 ? 2 : codigo < 0x10000 ? 3 : 4;
+            if (octetos + tamanho > OCTETOS_POR_LINHA) {
+                saida.write(FIM_DE_LINHA);
+                saida.write(' ');
+                octetos = 1;
+            }
+            saida.write(Character.toChars(codigo));
+            octetos += tamanho;
+            i += Character.charCount(codigo);
+        }
+        saida.write(FIM_DE_LINHA);
+    }
+
+    private static String texto(String valor) {
+        return valor.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,18 @@
+package med.voll.api.consulta.agenda;
+
+import med.voll.api.enums.MotivoCancelamento;
+
+import java.time.LocalDateTime;
+
+public record ConsultaAgendaMedico(
+
+        Long idConsulta,
+
+        Long idPaciente,
+
+        String nomePaciente,
+
+        LocalDateTime data,
+
+        MotivoCancelamento motivoCancelamento) {
+}
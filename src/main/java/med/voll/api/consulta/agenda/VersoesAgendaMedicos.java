@@ -0,0 +1,40 @@
+package med.voll.api.consulta.agenda;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versão da agenda de cada médico para o {@code ETag} do {@code GET /medicos/{id}/agenda.ics}: responder se a agenda
+ * mudou não lê nenhuma linha do banco.
+ * <p>
+ * Quem grava chama {@link #medicoAlterado} ou {@link #pacienteAlterado} depois do commit, na própria requisição
+ * (agendamento, cancelamento e alteração ou exclusão do cadastro), então o cliente que revalida logo depois da
+ * mudança já recebe a etiqueta nova. O nome do paciente aparece na agenda de qualquer médico com quem ele tenha
+ * consulta, por isso uma alteração de paciente muda a etiqueta de todas as agendas.
+ * <p>
+ * A etiqueta inclui o instante em que o processo subiu, então um reinício invalida as etiquetas anteriores, e o dia
+ * corrente, porque a janela exportada anda com a data. Como o {@code IndiceOcupacaoAgenda}, só é consistente quando
+ * uma única instância da API grava em {@code consultas}.
+ */
+@Component
+public class VersoesAgendaMedicos {
+
+    private final ConcurrentHashMap<Long, Long> versoes = new ConcurrentHashMap<>();
+    private final AtomicLong versaoPacientes = new AtomicLong();
+    private final String instancia = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    public void medicoAlterado(Long idMedico) {
+        versoes.merge(idMedico, 1L, Long::sum);
+    }
+
+    public void pacienteAlterado() {
+        versaoPacientes.incrementAndGet();
+    }
+
+    public String etag(Long idMedico, LocalDate hoje) {
+        return instancia + "-" + versaoPacientes.get() + "-" + versoes.getOrDefault(idMedico, 0L) + "-" + hoje.toEpochDay();
+    }
+}
@@ -0,0 +1,96 @@
+package med.voll.api.consulta.disponibilidade;
+
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda;
+import med.voll.api.dtos.DadosDisponibilidadeMedico;
+import med.voll.api.enums.Especialidade;
+import med.voll.api.repositories.ConsultaRepository;
+import med.voll.api.repositories.MedicoRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static med.voll.api.consulta.disponibilidade.GradeHorariosClinica.HORARIOS_POR_DIA;
+
+/**
+ * Horários livres dos médicos ativos de uma especialidade num período. A ocupação vem do {@link IndiceOcupacaoAgenda}
+ * quando ele está carregado, ou de uma única consulta por intervalo em {@code consultas}; em nenhum caso há uma
+ * ida ao banco por horário ou por médico.
+ */
+@Component
+public class AgendaDisponibilidade {
+
+    private static final int BITS_DIA = 20;
+
+    private final MedicoRepository medicoRepository;
+    private final ConsultaRepository consultaRepository;
+    private final IndiceOcupacaoAgenda indiceOcupacaoAgenda;
+
+    public AgendaDisponibilidade(MedicoRepository medicoRepository,
+                                 ConsultaRepository consultaRepository,
+                                 IndiceOcupacaoAgenda indiceOcupacaoAgenda) {
+        this.medicoRepository = medicoRepository;
+        this.consultaRepository = consultaRepository;
+        this.indiceOcupacaoAgenda = indiceOcupacaoAgenda;
+    }
+
+    /**
+     * Um item por médico com ao menos um horário livre entre {@code de} e {@code ate} (inclusive), em ordem de nome.
+     */
+    public List<DadosDisponibilidadeMedico> livresPorMedico(Especialidade especialidade, LocalDate de, LocalDate ate) {
+        var medicos = medicoRepository.findListagemAtivosByEspecialidade(especialidade);
+        if (medicos.isEmpty()) {
+            return List.of();
+        }
+
+        var agora = LocalDateTime.now();
+        var dias = de.datesUntil(ate.plusDays(1)).toList();
+        var primeiros = dias.stream().mapToInt(dia -> GradeHorariosClinica.primeiroHorarioPermitido(dia, agora)).toArray();
+        var ocupados = horariosOcupados(especialidade, de.atStartOfDay(), ate.plusDays(1).atStartOfDay());
+
+        var disponibilidade = new ArrayList<DadosDisponibilidadeMedico>(medicos.size());
+        for (var medico : medicos) {
+            var horarios = new ArrayList<LocalDateTime>();
+            for (int d = 0; d < dias.size(); d++) {
+                var dia = dias.get(d);
+                var ocupadosNoDia = primeiros[d] < HORARIOS_POR_DIA ? ocupados.doMedico(medico.id(), dia) : 0;
+                for (int indice = primeiros[d]; indice < HORARIOS_POR_DIA; indice++) {
+                    if ((ocupadosNoDia & (1 << indice)) == 0) {
+                        horarios.add(GradeHorariosClinica.horario(dia, indice));
+                    }
+                }
+            }
+            if (!horarios.isEmpty()) {
+                disponibilidade.add(new DadosDisponibilidadeMedico(medico.id(), medico.nome(), medico.crm(), horarios));
+            }
+        }
+        return disponibilidade;
+    }
+
+    /**
+     * Ocupação dos médicos da especialidade em {@code [inicio, fim)}: o próprio índice quando disponível,
+     * senão um mapa montado a partir de uma consulta por intervalo de datas.
+     */
+    public HorariosOcupados horariosOcupados(Especialidade especialidade, LocalDateTime inicio, LocalDateTime fim) {
+        if (indiceOcupacaoAgenda.disponivel()) {
+            return indiceOcupacaoAgenda::horariosOcupadosMedico;
+        }
+
+        var mapa = new HashMap<Long, Integer>();
+        for (var ocupacao : consultaRepository.findOcupacoesAtivasDaEspecialidadeNoPeriodo(especialidade, inicio, fim)) {
+            // a regra do médico compara o horário exato, então consultas fora da grade não ocupam nenhum horário oferecido
+            var indice = GradeHorariosClinica.indice(ocupacao.data());
+            if (indice >= 0) {
+                mapa.merge(chave(ocupacao.idMedico(), ocupacao.data().toLocalDate()), 1 << indice, (atual, novo) -> atual | novo);
+            }
+        }
+        return (idMedico, dia) -> mapa.getOrDefault(chave(idMedico, dia), 0);
+    }
+
+    private static long chave(long idMedico, LocalDate dia) {
+        return (idMedico << BITS_DIA) | dia.toEpochDay();
+    }
+}
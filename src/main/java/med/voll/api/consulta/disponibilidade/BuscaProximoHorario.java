@@ -0,0 +1,199 @@
+package med.voll.api.consulta.disponibilidade;
+
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda;
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda.SituacaoHorario;
+import med.voll.api.dtos.DadosHorarioDisponivel;
+import med.voll.api.dtos.DadosListagemMedico;
+import med.voll.api.enums.Especialidade;
+import med.voll.api.repositories.ConsultaRepository;
+import med.voll.api.repositories.MedicoRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static med.voll.api.consulta.disponibilidade.GradeHorariosClinica.HORARIOS_POR_DIA;
+
+/**
+ * Primeiros horários livres de uma especialidade, com o médico de cada um, a partir de uma data.
+ * <p>
+ * Cada médico é um cursor sobre os próprios horários livres, em ordem; os cursores são intercalados por uma fila
+ * de prioridade (data, depois a ordem de nome da listagem), então só os médicos que de fato aparecem no resultado
+ * avançam além do primeiro horário livre. A busca percorre janelas de {@value #DIAS_POR_JANELA} dias até
+ * {@value #HORIZONTE_DIAS} dias à frente, e a ocupação de cada janela vem de {@link AgendaDisponibilidade#horariosOcupados}.
+ */
+@Component
+public class BuscaProximoHorario {
+
+    static final int DIAS_POR_JANELA = 14;
+    static final int HORIZONTE_DIAS = 91;
+
+    private static final int TODOS_OS_HORARIOS = (1 << HORARIOS_POR_DIA) - 1;
+    private static final LocalTime ABERTURA = LocalTime.of(GradeHorariosClinica.HORA_ABERTURA, 0);
+    private static final LocalTime ENCERRAMENTO = LocalTime.of(GradeHorariosClinica.HORA_ENCERRAMENTO, 0);
+
+    private final MedicoRepository medicoRepository;
+    private final ConsultaRepository consultaRepository;
+    private final IndiceOcupacaoAgenda indiceOcupacaoAgenda;
+    private final AgendaDisponibilidade agendaDisponibilidade;
+
+    public BuscaProximoHorario(MedicoRepository medicoRepository,
+                               ConsultaRepository consultaRepository,
+                               IndiceOcupacaoAgenda indiceOcupacaoAgenda,
+                               AgendaDisponibilidade agendaDisponibilidade) {
+        this.medicoRepository = medicoRepository;
+        this.consultaRepository = consultaRepository;
+        this.indiceOcupacaoAgenda = indiceOcupacaoAgenda;
+        this.agendaDisponibilidade = agendaDisponibilidade;
+    }
+
+    /**
+     * Até {@code quantidade} pares (médico, horário) em ordem de horário. Com {@code idPaciente} informado, os dias em
+     * que o paciente já tem consulta ficam de fora, como no {@code ValidadorPacienteSemOutraConsultaNoDia}.
+     */
+    public List<DadosHorarioDisponivel> buscar(Especialidade especialidade, LocalDateTime aPartirDe, Long idPaciente, int quantidade) {
+        var medicos = medicoRepository.findListagemAtivosByEspecialidade(especialidade);
+        if (medicos.isEmpty()) {
+            return List.of();
+        }
+
+        var permitido = GradeHorariosClinica.inicioPermitido(LocalDateTime.now());
+        var limite = aPartirDe != null && aPartirDe.isAfter(permitido) ? aPartirDe : permitido;
+        var fimHorizonte = limite.toLocalDate().plusDays(HORIZONTE_DIAS);
+
+        var horarios = new ArrayList<DadosHorarioDisponivel>(quantidade);
+        for (var de = limite.toLocalDate(); horarios.size() < quantidade && de.isBefore(fimHorizonte); de = de.plusDays(DIAS_POR_JANELA)) {
+            var ate = de.plusDays(DIAS_POR_JANELA).isBefore(fimHorizonte) ? de.plusDays(DIAS_POR_JANELA) : fimHorizonte;
+            var dias = de.datesUntil(ate).toList();
+            var permitidos = horariosPermitidos(dias, limite, idPaciente);
+            var ocupados = agendaDisponibilidade.horariosOcupados(especialidade, de.atStartOfDay(), ate.atStartOfDay());
+            intercalar(medicos, dias, permitidos, ocupados, quantidade, horarios);
+        }
+        return horarios;
+    }
+
+    private static void intercalar(List<DadosListagemMedico> medicos, List<LocalDate> dias, int[] permitidos,
+                                   HorariosOcupados ocupados, int quantidade, List<DadosHorarioDisponivel> horarios) {
+        var fila = new PriorityQueue<CursorMedico>(medicos.size(),
+                Comparator.comparingInt((CursorMedico cursor) -> cursor.posicao).thenComparingInt(cursor -> cursor.ordem));
+        for (int ordem = 0; ordem < medicos.size(); ordem++) {
+            var cursor = new CursorMedico(ordem, medicos.get(ordem), dias, permitidos, ocupados);
+            if (cursor.avancarDia(0)) {
+                fila.add(cursor);
+            }
+        }
+
+        while (horarios.size() < quantidade && !fila.isEmpty()) {
+            var cursor = fila.poll();
+            var medico = cursor.medico;
+            horarios.add(new DadosHorarioDisponivel(medico.id(), medico.nome(), medico.crm(), cursor.horario()));
+            if (cursor.avancar()) {
+                fila.add(cursor);
+            }
+        }
+    }
+
+    /**
+     * Horários que podem ser oferecidos em cada dia, já sem os anteriores ao limite, os domingos e os dias ocupados
+     * pelo paciente.
+     */
+    private int[] horariosPermitidos(List<LocalDate> dias, LocalDateTime limite, Long idPaciente) {
+        var diasDoPaciente = idPaciente == null ? new boolean[dias.size()] : diasOcupadosPaciente(idPaciente, dias);
+        var permitidos = new int[dias.size()];
+        for (int d = 0; d < dias.size(); d++) {
+            if (!diasDoPaciente[d]) {
+                var primeiro = GradeHorariosClinica.primeiroHorarioAPartirDe(dias.get(d), limite);
+                permitidos[d] = TODOS_OS_HORARIOS & ~((1 << primeiro) - 1);
+            }
+        }
+        return permitidos;
+    }
+
+    /**
+     * Pelo índice quando ele sabe responder por todos os dias; senão uma única consulta pelas consultas do paciente
+     * na janela, com a mesma regra do validador: qualquer consulta entre 7:00 e 18:00, inclusive as canceladas.
+     */
+    private boolean[] diasOcupadosPaciente(Long idPaciente, List<LocalDate> dias) {
+        var ocupados = new boolean[dias.size()];
+        if (indiceOcupacaoAgenda.disponivel()) {
+            var determinado = true;
+            for (int d = 0; d < dias.size() && determinado; d++) {
+                var situacao = indiceOcupacaoAgenda.situacaoPaciente(idPaciente, GradeHorariosClinica.horario(dias.get(d), 0));
+                ocupados[d] = situacao == SituacaoHorario.OCUPADO;
+                determinado = situacao != SituacaoHorario.INDETERMINADO;
+            }
+            if (determinado) {
+                return ocupados;
+            }
+        }
+
+        var primeiroDia = dias.get(0);
+        ocupados = new boolean[dias.size()];
+        for (var ocupacao : consultaRepository.findOcupacoesDosPacientesNoPeriodo(List.of(idPaciente),
+                primeiroDia.atStartOfDay(), primeiroDia.plusDays(dias.size()).atStartOfDay())) {
+            var hora = ocupacao.data().toLocalTime();
+            if (!hora.isBefore(ABERTURA) && !hora.isAfter(ENCERRAMENTO)) {
+                ocupados[(int) ChronoUnit.DAYS.between(primeiroDia, ocupacao.data().toLocalDate())] = true;
+            }
+        }
+        return ocupados;
+    }
+
+    /**
+     * Próximo horário livre de um médico dentro da janela: {@code livres} guarda os horários ainda não oferecidos
+     * do dia corrente, e cada avanço só consulta a ocupação ao mudar de dia.
+     */
+    private static final class CursorMedico {
+
+        private final int ordem;
+        private final DadosListagemMedico medico;
+        private final List<LocalDate> dias;
+        private final int[] permitidos;
+        private final HorariosOcupados ocupados;
+
+        private int dia;
+        private int livres;
+        private int posicao;
+
+        CursorMedico(int ordem, DadosListagemMedico medico, List<LocalDate> dias, int[] permitidos, HorariosOcupados ocupados) {
+            this.ordem = ordem;
+            this.medico = medico;
+            this.dias = dias;
+            this.permitidos = permitidos;
+            this.ocupados = ocupados;
+        }
+
+        LocalDateTime horario() {
+            return GradeHorariosClinica.horario(dias.get(dia), posicao % HORARIOS_POR_DIA);
+        }
+
+        boolean avancar() {
+            livres &= livres - 1;
+            if (livres != 0) {
+                posicao = dia * HORARIOS_POR_DIA + Integer.numberOfTrailingZeros(livres);
+                return true;
+            }
+            return avancarDia(dia + 1);
+        }
+
+        boolean avancarDia(int inicio) {
+            for (dia = inicio; dia < dias.size(); dia++) {
+                if (permitidos[dia] == 0) {
+                    continue;
+                }
+                livres = permitidos[dia] & ~ocupados.doMedico(medico.id(), dias.get(dia));
+                if (livres != 0) {
+                    posicao = dia * HORARIOS_POR_DIA + Integer.numberOfTrailingZeros(livres);
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package med.voll.api.consulta.disponibilidade;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Horários oferecidos nas buscas de disponibilidade: horas cheias das 7:00 às 18:00, de segunda a sábado
+ * ({@code ValidadorHorarioFuncionamentoClinica}), a pelo menos 30 minutos de agora ({@code ValidadorHorarioAntecedencia}).
+ * O índice {@code i} de um horário no dia corresponde ao bit {@code i} dos mapas do {@code IndiceOcupacaoAgenda}.
+ */
+public final class GradeHorariosClinica {
+
+    public static final int HORA_ABERTURA = 7;
+    public static final int HORA_ENCERRAMENTO = 18;
+    public static final int HORARIOS_POR_DIA = HORA_ENCERRAMENTO - HORA_ABERTURA + 1;
+
+    private static final int ANTECEDENCIA_MINIMA_MINUTOS = 30;
+
+    private GradeHorariosClinica() {
+    }
+
+    public static boolean clinicaAberta(LocalDate dia) {
+        return dia.getDayOfWeek() != DayOfWeek.SUNDAY;
+    }
+
+    public static LocalDateTime horario(LocalDate dia, int indice) {
+        return dia.atTime(HORA_ABERTURA + indice, 0);
+    }
+
+    /**
+     * Índice do primeiro horário do dia que ainda respeita a antecedência mínima, ou {@link #HORARIOS_POR_DIA}
+     * quando nenhum respeita (e também para domingos).
+     */
+    public static int primeiroHorarioPermitido(LocalDate dia, LocalDateTime agora) {
+        return primeiroHorarioAPartirDe(dia, inicioPermitido(agora));
+    }
+
+    /**
+     * Índice do primeiro horário do dia não anterior a {@code limite}, ou {@link #HORARIOS_POR_DIA} quando não há
+     * nenhum (e também para domingos). O limite já deve incluir a antecedência mínima.
+     */
+    public static int primeiroHorarioAPartirDe(LocalDate dia, LocalDateTime limite) {
+        if (!clinicaAberta(dia)) {
+            return HORARIOS_POR_DIA;
+        }
+        for (int indice = 0; indice < HORARIOS_POR_DIA; indice++) {
+            if (!horario(dia, indice).isBefore(limite)) {
+                return indice;
+            }
+        }
+        return HORARIOS_POR_DIA;
+    }
+
+    /**
+     * Limite a partir do qual um horário respeita a antecedência mínima.
+     */
+    public static LocalDateTime inicioPermitido(LocalDateTime agora) {
+        return agora.plusMinutes(ANTECEDENCIA_MINIMA_MINUTOS);
+    }
+
+    /**
+     * Índice do horário na grade, ou -1 se não for uma hora cheia do funcionamento da clínica.
+     */
+    public static int indice(LocalDateTime data) {
+        if (data.getMinute() != 0 || data.getSecond() != 0 || data.getNano() != 0
+                || data.getHour() < HORA_ABERTURA || data.getHour() > HORA_ENCERRAMENTO) {
+            return -1;
+        }
+        return data.getHour() - HORA_ABERTURA;
+    }
+}
@@ -0,0 +1,13 @@
+package med.voll.api.consulta.disponibilidade;
+
+import java.time.LocalDate;
+
+/**
+ * Ocupação de um médico num dia como mapa de bits da {@link GradeHorariosClinica}: bit {@code i} ligado
+ * quando há consulta ativa no horário {@code i}. Respondida pelo índice em memória ou por uma única consulta ao banco.
+ */
+@FunctionalInterface
+public interface HorariosOcupados {
+
+    int doMedico(long idMedico, LocalDate dia);
+}
@@ -0,0 +1,34 @@
+package med.voll.api.consulta.eventos;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Trilha de auditoria dos agendamentos e cancelamentos no logger {@code auditoria.consultas},
+ * que pode ser direcionado para um arquivo ou coletor próprio na configuração de log.
+ */
+@Component
+public class AuditoriaEventosConsulta implements ConsumidorEventosConsulta {
+
+    private static final Logger auditoria = LoggerFactory.getLogger("auditoria.consultas");
+
+    @Override
+    public void consumir(List<EventoConsulta> lote) {
+        if (!auditoria.isInfoEnabled()) {
+            return;
+        }
+        for (var evento : lote) {
+            if (evento instanceof ConsultaCancelada cancelada) {
+                auditoria.info("evento={} tipo=CANCELADA consulta={} medico={} paciente={} data={} motivo={} ocorrido={}",
+                        cancelada.id(), cancelada.idConsulta(), cancelada.idMedico(), cancelada.idPaciente(), cancelada.data(),
+                        cancelada.motivo(), cancelada.ocorridoEm());
+            } else {
+                auditoria.info("evento={} tipo=AGENDADA consulta={} medico={} paciente={} data={} ocorrido={}",
+                        evento.id(), evento.idConsulta(), evento.idMedico(), evento.idPaciente(), evento.data(), evento.ocorridoEm());
+            }
+        }
+    }
+}
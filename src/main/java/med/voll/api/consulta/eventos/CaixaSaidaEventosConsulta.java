@@ -0,0 +1,62 @@
+package med.voll.api.consulta.eventos;
+
+import med.voll.api.entities.RegistroEventoConsulta;
+import med.voll.api.repositories.RegistroEventoConsultaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Caixa de saída (outbox) dos eventos de consulta na tabela {@code eventos_consultas}. O evento é gravado
+ * na transação do agendamento ou cancelamento, então sobrevive a um reinício mesmo que ainda não tenha
+ * passado pela {@link FilaEventosConsulta}; os já publicados são mantidos por {@code api.eventos.retencao}.
+ */
+@Component
+public class CaixaSaidaEventosConsulta {
+
+    private static final Logger log = LoggerFactory.getLogger(CaixaSaidaEventosConsulta.class);
+
+    private final RegistroEventoConsultaRepository registroEventoConsultaRepository;
+    private final Duration retencao;
+
+    public CaixaSaidaEventosConsulta(RegistroEventoConsultaRepository registroEventoConsultaRepository,
+                                     @Value("${api.eventos.retencao:P7D}") Duration retencao) {
+        this.registroEventoConsultaRepository = registroEventoConsultaRepository;
+        this.retencao = retencao;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<EventoConsulta> gravar(List<RegistroEventoConsulta> registros) {
+        registroEventoConsultaRepository.saveAll(registros);
+        return registros.stream().map(RegistroEventoConsulta::paraEvento).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<EventoConsulta> pendentes(LocalDateTime ocorridosAte, int limite) {
+        return registroEventoConsultaRepository.findPendentes(ocorridosAte, Limit.of(limite)).stream()
+                .map(RegistroEventoConsulta::paraEvento)
+                .toList();
+    }
+
+    @Transactional
+    public void marcarComoPublicados(Collection<Long> ids) {
+        registroEventoConsultaRepository.marcarComoPublicados(ids, LocalDateTime.now());
+    }
+
+    @Scheduled(cron = "0 25 3 * * *")
+    @Transactional
+    public void removerPublicados() {
+        var removidos = registroEventoConsultaRepository.deletePublicadosAntesDe(LocalDateTime.now().minus(retencao));
+        log.info("{} eventos de consulta já publicados removidos da caixa de saída.", removidos);
+    }
+}
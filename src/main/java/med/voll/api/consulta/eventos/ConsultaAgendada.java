@@ -0,0 +1,18 @@
+package med.voll.api.consulta.eventos;
+
+import java.time.LocalDateTime;
+
+public record ConsultaAgendada(
+
+        Long id,
+
+        Long idConsulta,
+
+        Long idMedico,
+
+        Long idPaciente,
+
+        LocalDateTime data,
+
+        LocalDateTime ocorridoEm) implements EventoConsulta {
+}
@@ -0,0 +1,22 @@
+package med.voll.api.consulta.eventos;
+
+import med.voll.api.enums.MotivoCancelamento;
+
+import java.time.LocalDateTime;
+
+public record ConsultaCancelada(
+
+        Long id,
+
+        Long idConsulta,
+
+        Long idMedico,
+
+        Long idPaciente,
+
+        LocalDateTime data,
+
+        MotivoCancelamento motivo,
+
+        LocalDateTime ocorridoEm) implements EventoConsulta {
+}
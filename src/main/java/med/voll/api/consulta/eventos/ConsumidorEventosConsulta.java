@@ -0,0 +1,15 @@
+package med.voll.api.consulta.eventos;
+
+import java.util.List;
+
+/**
+ * Reação assíncrona a agendamentos e cancelamentos. Todo bean que implementa esta interface recebe os eventos
+ * em lotes, na thread da {@link FilaEventosConsulta}, fora da transação e da requisição que os originou.
+ * <p>
+ * Uma exceção faz o lote inteiro ser reentregue mais tarde a todos os consumidores, então a implementação
+ * deve ser idempotente pelo {@link EventoConsulta#id()}.
+ */
+public interface ConsumidorEventosConsulta {
+
+    void consumir(List<EventoConsulta> lote);
+}
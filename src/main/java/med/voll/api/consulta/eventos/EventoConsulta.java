@@ -0,0 +1,22 @@
+package med.voll.api.consulta.eventos;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fato do ciclo de vida de uma consulta, entregue aos {@link ConsumidorEventosConsulta} depois do commit.
+ * A entrega é "pelo menos uma vez": {@link #id()} identifica o evento e permite ao consumidor descartar repetições.
+ */
+public sealed interface EventoConsulta permits ConsultaAgendada, ConsultaCancelada {
+
+    Long id();
+
+    Long idConsulta();
+
+    Long idMedico();
+
+    Long idPaciente();
+
+    LocalDateTime data();
+
+    LocalDateTime ocorridoEm();
+}
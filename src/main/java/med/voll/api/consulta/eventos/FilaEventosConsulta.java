@@ -0,0 +1,233 @@
+package med.voll.api.consulta.eventos;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fila circular limitada ({@code api.eventos.fila.capacidade}) entre o commit e os {@link ConsumidorEventosConsulta},
+ * esvaziada por uma thread própria em lotes de até {@code api.eventos.fila.tamanho-lote} eventos.
+ * <p>
+ * Quem publica nunca espera: com a fila cheia o evento é recusado ({@code api.eventos.rejeitados}) e continua
+ * pendente na caixa de saída, de onde {@link #reenviarPendentes()} o traz de volta quando houver espaço. O mesmo vale
+ * para lotes em que algum consumidor falhou e para os eventos que estavam na fila num reinício.
+ * <p>
+ * Medidores: ocupação e capacidade da fila, eventos enfileirados por origem, rejeitados e publicados, tamanho
+ * dos lotes e, por consumidor, o tempo de cada lote e as falhas.
+ */
+@Component
+public class FilaEventosConsulta {
+
+    private static final Logger log = LoggerFactory.getLogger(FilaEventosConsulta.class);
+
+    private final ArrayBlockingQueue<EventoConsulta> fila;
+    private final Set<Long> emAndamento = ConcurrentHashMap.newKeySet();
+    private final CaixaSaidaEventosConsulta caixaSaidaEventosConsulta;
+    private final List<ConsumidorMedido> consumidores;
+    private final int tamanhoLote;
+    private final Duration atrasoReenvio;
+
+    private final Counter enfileiradosAposCommit;
+    private final Counter enfileiradosPorReenvio;
+    private final Counter rejeitados;
+    private final Counter publicados;
+    private final DistributionSummary lotes;
+
+    private final Thread despachante;
+    private volatile boolean ativa = true;
+
+    public FilaEventosConsulta(List<ConsumidorEventosConsulta> consumidores,
+                               CaixaSaidaEventosConsulta caixaSaidaEventosConsulta,
+                               MeterRegistry meterRegistry,
+                               @Value("${api.eventos.fila.capacidade:8192}") int capacidade,
+                               @Value("${api.eventos.fila.tamanho-lote:256}") int tamanhoLote,
+                               @Value("${api.eventos.reenvio.atraso:PT10S}") Duration atrasoReenvio) {
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        this.caixaSaidaEventosConsulta = caixaSaidaEventosConsulta;
+        this.tamanhoLote = tamanhoLote;
+        this.atrasoReenvio = atrasoReenvio;
+        this.consumidores = consumidores.stream()
+                .map(consumidor -> new ConsumidorMedido(consumidor,
+                        Timer.builder("api.eventos.consumo")
+                                .description("Tempo de processamento de um lote por consumidor")
+                                .tag("consumidor", consumidor.getClass().getSimpleName())
+                                .register(meterRegistry),
+                        Counter.builder("api.eventos.consumo.falhas")
+                                .description("Lotes em que o consumidor lançou exceção")
+                                .tag("consumidor", consumidor.getClass().getSimpleName())
+                                .register(meterRegistry)))
+                .toList();
+
+        Gauge.builder("api.eventos.fila.ocupacao", fila, ArrayBlockingQueue::size)
+                .description("Eventos aguardando os consumidores")
+                .register(meterRegistry);
+        Gauge.builder("api.eventos.fila.capacidade", () -> capacidade)
+                .description("Capacidade da fila de eventos")
+                .register(meterRegistry);
+        this.enfileiradosAposCommit = enfileirados(meterRegistry, "commit");
+        this.enfileiradosPorReenvio = enfileirados(meterRegistry, "reenvio");
+        this.rejeitados = Counter.builder("api.eventos.rejeitados")
+                .description("Eventos recusados com a fila cheia, deixados para o reenvio pela caixa de saída")
+                .register(meterRegistry);
+        this.publicados = Counter.builder("api.eventos.publicados")
+                .description("Eventos processados por todos os consumidores")
+                .register(meterRegistry);
+        this.lotes = DistributionSummary.builder("api.eventos.lote")
+                .description("Eventos por lote entregue aos consumidores")
+                .register(meterRegistry);
+
+        this.despachante = new Thread(this::despachar, "eventos-consulta");
+        this.despachante.setDaemon(true);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        despachante.start();
+    }
+
+    /**
+     * Os eventos ainda na fila ficam pendentes na caixa de saída e são reenviados depois do reinício.
+     */
+    @PreDestroy
+    void parar() throws InterruptedException {
+        ativa = false;
+        despachante.interrupt();
+        despachante.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Não bloqueia: devolve quantos eventos couberam na fila.
+     */
+    public int enfileirar(List<EventoConsulta> eventos) {
+        return enfileirar(eventos, enfileiradosAposCommit);
+    }
+
+    @Scheduled(fixedDelayString = "${api.eventos.reenvio.intervalo:PT30S}",
+            initialDelayString = "${api.eventos.reenvio.intervalo:PT30S}")
+    public void reenviarPendentes() {
+        // com a fila quase cheia o reenvio só competiria com os eventos novos
+        var espaco = fila.remainingCapacity();
+        if (espaco < tamanhoLote) {
+            return;
+        }
+        // o atraso cobre o intervalo entre o commit e o enfileiramento feito pelo próprio publicador
+        var pendentes = caixaSaidaEventosConsulta.pendentes(LocalDateTime.now().minus(atrasoReenvio), espaco).stream()
+                .filter(evento -> !emAndamento.contains(evento.id()))
+                .toList();
+        if (!pendentes.isEmpty()) {
+            var aceitos = enfileirar(pendentes, enfileiradosPorReenvio);
+            log.info("{} eventos de consulta pendentes reenviados para a fila.", aceitos);
+        }
+    }
+
+    private int enfileirar(List<EventoConsulta> eventos, Counter enfileirados) {
+        var aceitos = 0;
+        for (var evento : eventos) {
+            // marcado antes do offer para que o reenvio não o traga de novo enquanto está na fila
+            if (!emAndamento.add(evento.id())) {
+                continue;
+            }
+            if (fila.offer(evento)) {
+                aceitos++;
+            } else {
+                emAndamento.remove(evento.id());
+                rejeitados.increment();
+            }
+        }
+        enfileirados.increment(aceitos);
+        if (aceitos < eventos.size()) {
+            log.debug("Fila de eventos de consulta cheia: {} de {} eventos ficaram para o reenvio.", eventos.size() - aceitos, eventos.size());
+        }
+        return aceitos;
+    }
+
+    private void despachar() {
+        while (ativa) {
+            try {
+                despacharLote(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Erro ao despachar lote de eventos de consulta; os eventos serão reenviados.", e);
+            }
+        }
+    }
+
+    /**
+     * Espera pelo primeiro evento e leva junto o que mais já estiver na fila, até o tamanho do lote.
+     */
+    boolean despacharLote(long espera, TimeUnit unidade) throws InterruptedException {
+        var primeiro = fila.poll(espera, unidade);
+        if (primeiro == null) {
+            return false;
+        }
+        var lote = new ArrayList<EventoConsulta>(Math.min(tamanhoLote, fila.size() + 1));
+        lote.add(primeiro);
+        fila.drainTo(lote, tamanhoLote - 1);
+        var ids = lote.stream().map(EventoConsulta::id).toList();
+        try {
+            entregar(Collections.unmodifiableList(lote), ids);
+        } finally {
+            ids.forEach(emAndamento::remove);
+        }
+        return true;
+    }
+
+    private void entregar(List<EventoConsulta> lote, List<Long> ids) {
+        lotes.record(lote.size());
+        var todosConsumiram = true;
+        for (var consumidor : consumidores) {
+            todosConsumiram &= consumidor.consumir(lote);
+        }
+        // com alguma falha o lote continua pendente e volta a todos os consumidores no reenvio
+        if (todosConsumiram) {
+            caixaSaidaEventosConsulta.marcarComoPublicados(ids);
+            publicados.increment(lote.size());
+        }
+    }
+
+    private static Counter enfileirados(MeterRegistry meterRegistry, String origem) {
+        return Counter.builder("api.eventos.enfileirados")
+                .description("Eventos colocados na fila")
+                .tag("origem", origem)
+                .register(meterRegistry);
+    }
+
+    private record ConsumidorMedido(ConsumidorEventosConsulta consumidor, Timer tempo, Counter falhas) {
+
+        boolean consumir(List<EventoConsulta> lote) {
+            var inicio = System.nanoTime();
+            try {
+                consumidor.consumir(lote);
+                return true;
+            } catch (RuntimeException e) {
+                falhas.increment();
+                log.error("Consumidor {} falhou ao processar lote de {} eventos de consulta.",
+                        consumidor.getClass().getSimpleName(), lote.size(), e);
+                return false;
+            } finally {
+                tempo.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
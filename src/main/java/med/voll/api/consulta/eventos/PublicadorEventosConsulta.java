@@ -0,0 +1,32 @@
+package med.voll.api.consulta.eventos;
+
+import med.voll.api.entities.RegistroEventoConsulta;
+import med.voll.api.infra.transacao.Transacoes;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Ponto de publicação usado pelos serviços: grava os eventos na caixa de saída, dentro da transação corrente,
+ * e só depois do commit os coloca na {@link FilaEventosConsulta}. O custo para a requisição é um insert em lote
+ * e uma inserção na fila em memória, independente de quantos consumidores existam.
+ */
+@Component
+public class PublicadorEventosConsulta {
+
+    private final CaixaSaidaEventosConsulta caixaSaidaEventosConsulta;
+    private final FilaEventosConsulta filaEventosConsulta;
+
+    public PublicadorEventosConsulta(CaixaSaidaEventosConsulta caixaSaidaEventosConsulta, FilaEventosConsulta filaEventosConsulta) {
+        this.caixaSaidaEventosConsulta = caixaSaidaEventosConsulta;
+        this.filaEventosConsulta = filaEventosConsulta;
+    }
+
+    public void publicar(List<RegistroEventoConsulta> registros) {
+        if (registros.isEmpty()) {
+            return;
+        }
+        var eventos = caixaSaidaEventosConsulta.gravar(registros);
+        Transacoes.aposCommit(() -> filaEventosConsulta.enfileirar(eventos));
+    }
+}
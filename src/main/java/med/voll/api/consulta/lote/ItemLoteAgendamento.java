@@ -0,0 +1,26 @@
+package med.voll.api.consulta.lote;
+
+import med.voll.api.dtos.DadosAgendamentoConsulta;
+
+public record ItemLoteAgendamento(
+
+        int posicao,
+
+        DadosAgendamentoConsulta dados,
+
+        Long idMedico,
+
+        String erro) {
+
+    public static ItemLoteAgendamento aprovado(int posicao, DadosAgendamentoConsulta dados, Long idMedico) {
+        return new ItemLoteAgendamento(posicao, dados, idMedico, null);
+    }
+
+    public static ItemLoteAgendamento rejeitado(int posicao, DadosAgendamentoConsulta dados, String erro) {
+        return new ItemLoteAgendamento(posicao, dados, null, erro);
+    }
+
+    public boolean valido() {
+        return erro == null;
+    }
+}
@@ -0,0 +1,206 @@
+package med.voll.api.consulta.lote;
+
+import jakarta.validation.Validator;
+import med.voll.api.consulta.ocupacao.OcupacaoConsulta;
+import med.voll.api.consulta.selecao.MedicoAtivoEspecialidade;
+import med.voll.api.consulta.validacoes.CadeiasValidacao;
+import med.voll.api.consulta.validacoes.agendamento.ContextoAgendamento;
+import med.voll.api.dtos.DadosAgendamentoConsulta;
+import med.voll.api.enums.Especialidade;
+import med.voll.api.infra.exceptions.ValidacaoException;
+import med.voll.api.repositories.ConsultaRepository;
+import med.voll.api.repositories.MedicoRepository;
+import med.voll.api.repositories.PacienteRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Valida um lote de agendamentos com um número fixo de consultas ao banco, independente do tamanho do lote,
+ * aplicando a mesma cadeia de validadores do agendamento individual (sobre um {@link ContextoAgendamento}
+ * montado em memória) e detectando conflitos entre os próprios itens do lote.
+ */
+@Component
+public class PlanejadorAgendamentoEmLote {
+
+    private static final String PACIENTE_NAO_EXISTE = "Id do paciente informado não existe!";
+    private static final String MEDICO_NAO_EXISTE = "Id do médico informado não existe!";
+    private static final String MEDICO_NAO_DISPONIVEL = "Não existe médico disponível nessa data!";
+    private static final String ESPECIALIDADE_OBRIGATORIA = "Especialidade é obrigatória quando médico não for escolhido!";
+
+    private final ConsultaRepository consultaRepository;
+    private final MedicoRepository medicoRepository;
+    private final PacienteRepository pacienteRepository;
+    private final CadeiasValidacao cadeiasValidacao;
+    private final Validator validator;
+
+    public PlanejadorAgendamentoEmLote(ConsultaRepository consultaRepository,
+                                       MedicoRepository medicoRepository,
+                                       PacienteRepository pacienteRepository,
+                                       CadeiasValidacao cadeiasValidacao,
+                                       Validator validator) {
+        this.consultaRepository = consultaRepository;
+        this.medicoRepository = medicoRepository;
+        this.pacienteRepository = pacienteRepository;
+        this.cadeiasValidacao = cadeiasValidacao;
+        this.validator = validator;
+    }
+
+    public List<ItemLoteAgendamento> planejar(List<DadosAgendamentoConsulta> lote) {
+        return planejar(lote, false);
+    }
+
+    /**
+     * Como {@link #planejar}, mas as ocorrências sem médico escolhido ficam com o médico sorteado para a primeira
+     * delas sempre que ele estiver livre, para que a série seja acompanhada pelo mesmo profissional.
+     */
+    public List<ItemLoteAgendamento> planejarSerie(List<DadosAgendamentoConsulta> ocorrencias) {
+        return planejar(ocorrencias, true);
+    }
+
+    private List<ItemLoteAgendamento> planejar(List<DadosAgendamentoConsulta> lote, boolean mesmoMedico) {
+        var situacao = carregarSituacao(lote);
+
+        var itens = new ArrayList<ItemLoteAgendamento>(lote.size());
+        Long preferido = null;
+        for (int posicao = 0; posicao < lote.size(); posicao++) {
+            var dados = lote.get(posicao);
+            try {
+                var idMedico = validarEReservar(dados, situacao, preferido);
+                itens.add(ItemLoteAgendamento.aprovado(posicao, dados, idMedico));
+                if (mesmoMedico && preferido == null) {
+                    preferido = idMedico;
+                }
+            } catch (ValidacaoException e) {
+                itens.add(ItemLoteAgendamento.rejeitado(posicao, dados, e.getMessage()));
+            }
+        }
+        return itens;
+    }
+
+    private Long validarEReservar(DadosAgendamentoConsulta dados, SituacaoLote situacao, Long preferido) {
+        if (dados == null) {
+            throw new ValidacaoException("Item do lote não informado!");
+        }
+        var violacoes = validator.validate(dados);
+        if (!violacoes.isEmpty()) {
+            throw new ValidacaoException(violacoes.stream()
+                    .map(violacao -> violacao.getPropertyPath() + ": " + violacao.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+
+        var ativoPaciente = situacao.pacientes().get(dados.idPaciente());
+        if (ativoPaciente == null) {
+            throw new ValidacaoException(PACIENTE_NAO_EXISTE);
+        }
+        if (dados.idMedico() != null && !situacao.medicos().containsKey(dados.idMedico())) {
+            throw new ValidacaoException(MEDICO_NAO_EXISTE);
+        }
+
+        var contexto = new ContextoAgendamento(
+                dados,
+                ativoPaciente,
+                dados.idMedico() == null ? null : situacao.medicos().get(dados.idMedico()),
+                dados.idMedico() != null && situacao.horariosOcupados().contains(new HorarioMedico(dados.idMedico(), dados.data())),
+                pacientePossuiConsultaNoDia(situacao, dados));
+        cadeiasValidacao.validarAgendamento(contexto);
+
+        var idMedico = dados.idMedico() != null ? dados.idMedico() : sortearMedicoLivre(dados, situacao, preferido);
+        situacao.horariosOcupados().add(new HorarioMedico(idMedico, dados.data()));
+        situacao.consultasPorPaciente().computeIfAbsent(dados.idPaciente(), id -> new ArrayList<>()).add(dados.data());
+        return idMedico;
+    }
+
+    private Long sortearMedicoLivre(DadosAgendamentoConsulta dados, SituacaoLote situacao, Long preferido) {
+        if (dados.especialidade() == null) {
+            throw new ValidacaoException(ESPECIALIDADE_OBRIGATORIA);
+        }
+
+        var livres = situacao.candidatos().getOrDefault(dados.especialidade(), List.of()).stream()
+                .filter(idMedico -> !situacao.horariosOcupados().contains(new HorarioMedico(idMedico, dados.data())))
+                .toList();
+        if (livres.isEmpty()) {
+            throw new ValidacaoException(MEDICO_NAO_DISPONIVEL);
+        }
+        if (preferido != null && livres.contains(preferido)) {
+            return preferido;
+        }
+        return livres.get(ThreadLocalRandom.current().nextInt(livres.size()));
+    }
+
+    private static boolean pacientePossuiConsultaNoDia(SituacaoLote situacao, DadosAgendamentoConsulta dados) {
+        var primeiroHorario = dados.data().withHour(7);
+        var ultimoHorario = dados.data().withHour(18);
+        return situacao.consultasPorPaciente().getOrDefault(dados.idPaciente(), List.of()).stream()
+                .anyMatch(data -> !data.isBefore(primeiroHorario) && !data.isAfter(ultimoHorario));
+    }
+
+    private SituacaoLote carregarSituacao(List<DadosAgendamentoConsulta> lote) {
+        var validos = lote.stream().filter(Objects::nonNull).toList();
+        var idsPacientes = validos.stream().map(DadosAgendamentoConsulta::idPaciente).filter(Objects::nonNull).collect(Collectors.toSet());
+        var idsMedicos = validos.stream().map(DadosAgendamentoConsulta::idMedico).filter(Objects::nonNull).collect(Collectors.toSet());
+        var datas = validos.stream().map(DadosAgendamentoConsulta::data).filter(Objects::nonNull).collect(Collectors.toSet());
+        var especialidades = validos.stream()
+                .filter(dados -> dados.idMedico() == null)
+                .map(DadosAgendamentoConsulta::especialidade)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        var pacientes = new HashMap<Long, Boolean>();
+        if (!idsPacientes.isEmpty()) {
+            pacienteRepository.findSituacaoByIdIn(idsPacientes).forEach(p -> pacientes.put(p.id(), Boolean.TRUE.equals(p.ativo())));
+        }
+
+        var medicos = new HashMap<Long, Boolean>();
+        if (!idsMedicos.isEmpty()) {
+            medicoRepository.findSituacaoByIdIn(idsMedicos).forEach(m -> medicos.put(m.id(), Boolean.TRUE.equals(m.ativo())));
+        }
+
+        var candidatos = new HashMap<Especialidade, List<Long>>();
+        if (!especialidades.isEmpty()) {
+            for (MedicoAtivoEspecialidade medico : medicoRepository.findMedicosAtivosByEspecialidadeIn(especialidades)) {
+                candidatos.computeIfAbsent(medico.especialidade(), e -> new ArrayList<>()).add(medico.id());
+            }
+        }
+
+        var horariosOcupados = new HashSet<HorarioMedico>();
+        if (!datas.isEmpty()) {
+            consultaRepository.findOcupacoesAtivasByDataIn(datas)
+                    .forEach(o -> horariosOcupados.add(new HorarioMedico(o.idMedico(), o.data())));
+        }
+
+        var consultasPorPaciente = new HashMap<Long, List<LocalDateTime>>();
+        if (!idsPacientes.isEmpty() && !datas.isEmpty()) {
+            var primeiroDia = datas.stream().min(Comparator.naturalOrder()).map(LocalDateTime::toLocalDate).orElseThrow();
+            var ultimoDia = datas.stream().max(Comparator.naturalOrder()).map(LocalDateTime::toLocalDate).orElseThrow();
+            for (OcupacaoConsulta ocupacao : consultaRepository.findOcupacoesDosPacientesNoPeriodo(
+                    idsPacientes, primeiroDia.atStartOfDay(), ultimoDia.plusDays(1).atStartOfDay())) {
+                consultasPorPaciente.computeIfAbsent(ocupacao.idPaciente(), id -> new ArrayList<>()).add(ocupacao.data());
+            }
+        }
+
+        return new SituacaoLote(pacientes, medicos, candidatos, horariosOcupados, consultasPorPaciente);
+    }
+
+    private record HorarioMedico(Long idMedico, LocalDateTime data) {
+    }
+
+    private record SituacaoLote(
+            Map<Long, Boolean> pacientes,
+            Map<Long, Boolean> medicos,
+            Map<Especialidade, List<Long>> candidatos,
+            Set<HorarioMedico> horariosOcupados,
+            Map<Long, List<LocalDateTime>> consultasPorPaciente) {
+    }
+}
@@ -0,0 +1,8 @@
+package med.voll.api.consulta.lote;
+
+public record SituacaoCadastro(
+
+        Long id,
+
+        Boolean ativo) {
+}
@@ -0,0 +1,12 @@
+package med.voll.api.consulta.ocupacao;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public interface AgendaMedicos {
+
+    boolean medicoLivre(long idMedico, LocalDateTime data);
+
+    int consultasDoMedicoNoDia(long idMedico, LocalDate dia);
+
+}
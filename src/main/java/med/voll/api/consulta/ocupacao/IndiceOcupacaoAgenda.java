@@ -0,0 +1,188 @@
+package med.voll.api.consulta.ocupacao;
+
+import med.voll.api.repositories.ConsultaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice em memória da ocupação da agenda, com um bitmap dos horários da clínica
+ * (um bit por hora cheia, das 7:00 às 18:00) para cada médico e cada paciente por dia.
+ * <p>
+ * Responde "o horário está livre?" sem consultar o banco. Quando não consegue responder
+ * com certeza (índice desabilitado, ainda não carregado ou horário fora da grade de horas
+ * cheias) devolve {@link SituacaoHorario#INDETERMINADO} e quem chamou deve recorrer ao repositório.
+ * <p>
+ * O índice é local ao processo: só é consistente quando uma única instância da API grava em {@code consultas}.
+ */
+@Component
+public class IndiceOcupacaoAgenda implements AgendaMedicos {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceOcupacaoAgenda.class);
+
+    private static final int HORA_ABERTURA_CLINICA = 7;
+    private static final int HORA_ENCERRAMENTO_CLINICA = 18;
+
+    private static final int HORARIOS_DA_GRADE = (1 << (HORA_ENCERRAMENTO_CLINICA - HORA_ABERTURA_CLINICA + 1)) - 1;
+    private static final int FORA_DA_GRADE = 1 << 31;
+
+    private static final int BITS_DIA = 20;
+    private static final long MASCARA_DIA = (1L << BITS_DIA) - 1;
+
+    public enum SituacaoHorario {
+        LIVRE,
+        OCUPADO,
+        INDETERMINADO
+    }
+
+    private final ConcurrentHashMap<Long, Integer> horariosPorMedico = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Integer> horariosPorPaciente = new ConcurrentHashMap<>();
+
+    private final ConsultaRepository consultaRepository;
+
+    @Value("${api.consulta.indice-ocupacao.habilitado:true}")
+    private boolean habilitado;
+
+    private volatile boolean carregado;
+
+    public IndiceOcupacaoAgenda(ConsultaRepository consultaRepository) {
+        this.consultaRepository = consultaRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregar() {
+        if (!habilitado) {
+            log.info("Índice de ocupação da agenda desabilitado.");
+            return;
+        }
+
+        var inicio = System.nanoTime();
+        var ocupacoes = consultaRepository.findOcupacoesAPartirDe(LocalDate.now().atStartOfDay());
+        for (var ocupacao : ocupacoes) {
+            registrarPaciente(ocupacao.idPaciente(), ocupacao.data());
+            if (ocupacao.motivoCancelamento() == null) {
+                registrarMedico(ocupacao.idMedico(), ocupacao.data());
+            }
+        }
+        carregado = true;
+
+        log.info("Índice de ocupação da agenda carregado com {} consultas em {} ms.",
+                ocupacoes.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    public boolean respondePor(LocalDateTime data) {
+        return disponivel() && naGrade(data);
+    }
+
+    /**
+     * Indica se o índice está habilitado e carregado, ou seja, se {@link #horariosOcupadosMedico} reflete o banco.
+     */
+    public boolean disponivel() {
+        return habilitado && carregado;
+    }
+
+    @Override
+    public boolean medicoLivre(long idMedico, LocalDateTime data) {
+        return situacaoMedico(idMedico, data) == SituacaoHorario.LIVRE;
+    }
+
+    @Override
+    public int consultasDoMedicoNoDia(long idMedico, LocalDate dia) {
+        return Integer.bitCount(horariosPorMedico.getOrDefault(chave(idMedico, dia), 0));
+    }
+
+    /**
+     * Horários ocupados do médico no dia, um bit por hora cheia a partir das 7:00 (bit 0) até as 18:00 (bit 11).
+     */
+    public int horariosOcupadosMedico(long idMedico, LocalDate dia) {
+        return horariosPorMedico.getOrDefault(chave(idMedico, dia), 0);
+    }
+
+    public SituacaoHorario situacaoMedico(long idMedico, LocalDateTime data) {
+        if (!respondePor(data)) {
+            return SituacaoHorario.INDETERMINADO;
+        }
+
+        var horarios = horariosPorMedico.getOrDefault(chave(idMedico, data.toLocalDate()), 0);
+        return (horarios & bit(data)) != 0 ? SituacaoHorario.OCUPADO : SituacaoHorario.LIVRE;
+    }
+
+    /**
+     * Mesma regra de {@code existsByPacienteIdAndDataBetween} entre 7:00 e 18:00: considera
+     * qualquer consulta do paciente no dia, inclusive as canceladas.
+     */
+    public SituacaoHorario situacaoPaciente(Long idPaciente, LocalDateTime data) {
+        if (!respondePor(data)) {
+            return SituacaoHorario.INDETERMINADO;
+        }
+
+        var horarios = horariosPorPaciente.getOrDefault(chave(idPaciente, data.toLocalDate()), 0);
+        if ((horarios & HORARIOS_DA_GRADE) != 0) {
+            return SituacaoHorario.OCUPADO;
+        }
+        return (horarios & FORA_DA_GRADE) != 0 ? SituacaoHorario.INDETERMINADO : SituacaoHorario.LIVRE;
+    }
+
+    public void registrarAgendamento(Long idMedico, Long idPaciente, LocalDateTime data) {
+        if (!habilitado) {
+            return;
+        }
+        registrarMedico(idMedico, data);
+        registrarPaciente(idPaciente, data);
+    }
+
+    public void registrarCancelamento(Long idMedico, LocalDateTime data) {
+        if (!habilitado || !naGrade(data)) {
+            return;
+        }
+        var bit = bit(data);
+        horariosPorMedico.computeIfPresent(chave(idMedico, data.toLocalDate()),
+                (chave, horarios) -> (horarios & ~bit) == 0 ? null : horarios & ~bit);
+    }
+
+    @Scheduled(cron = "0 5 0 * * *")
+    public void descartarDiasAnteriores() {
+        var hoje = LocalDate.now().toEpochDay();
+        horariosPorMedico.keySet().removeIf(chave -> (chave & MASCARA_DIA) < hoje);
+        horariosPorPaciente.keySet().removeIf(chave -> (chave & MASCARA_DIA) < hoje);
+        log.debug("Dias anteriores a {} descartados do índice de ocupação.", LocalDate.now());
+    }
+
+    private void registrarMedico(Long idMedico, LocalDateTime data) {
+        // a regra do médico compara o horário exato, então consultas fora da grade nunca conflitam com ela
+        if (naGrade(data)) {
+            horariosPorMedico.merge(chave(idMedico, data.toLocalDate()), bit(data), (atual, novo) -> atual | novo);
+        }
+    }
+
+    private void registrarPaciente(Long idPaciente, LocalDateTime data) {
+        var bit = naGrade(data) ? bit(data) : FORA_DA_GRADE;
+        horariosPorPaciente.merge(chave(idPaciente, data.toLocalDate()), bit, (atual, novo) -> atual | novo);
+    }
+
+    private static boolean naGrade(LocalDateTime data) {
+        return data.getMinute() == 0
+                && data.getSecond() == 0
+                && data.getNano() == 0
+                && data.getHour() >= HORA_ABERTURA_CLINICA
+                && data.getHour() <= HORA_ENCERRAMENTO_CLINICA;
+    }
+
+    private static int bit(LocalDateTime data) {
+        return 1 << (data.getHour() - HORA_ABERTURA_CLINICA);
+    }
+
+    private static long chave(long id, LocalDate dia) {
+        return (id << BITS_DIA) | dia.toEpochDay();
+    }
+}
@@ -0,0 +1,16 @@
+package med.voll.api.consulta.ocupacao;
+
+import med.voll.api.enums.MotivoCancelamento;
+
+import java.time.LocalDateTime;
+
+public record OcupacaoConsulta(
+
+        Long idMedico,
+
+        Long idPaciente,
+
+        LocalDateTime data,
+
+        MotivoCancelamento motivoCancelamento) {
+}
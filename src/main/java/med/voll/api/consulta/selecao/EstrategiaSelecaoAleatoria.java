@@ -0,0 +1,44 @@
+package med.voll.api.consulta.selecao;
+
+import med.voll.api.consulta.ocupacao.AgendaMedicos;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sorteio uniforme entre os médicos livres, equivalente ao antigo {@code order by rand() limit 1}.
+ * Sorteia posições do pool até achar um médico livre (tempo esperado constante enquanto houver
+ * folga na agenda) e só percorre o pool inteiro quando o horário está praticamente lotado.
+ */
+@Component("aleatoria")
+public class EstrategiaSelecaoAleatoria implements EstrategiaSelecaoMedico {
+
+    private static final int TENTATIVAS_SORTEIO = 32;
+
+    private final AgendaMedicos agendaMedicos;
+
+    public EstrategiaSelecaoAleatoria(AgendaMedicos agendaMedicos) {
+        this.agendaMedicos = agendaMedicos;
+    }
+
+    @Override
+    public Long escolher(PoolMedicosEspecialidade pool, LocalDateTime data) {
+        var ids = pool.ids();
+        if (ids.length == 0) {
+            return null;
+        }
+
+        var random = ThreadLocalRandom.current();
+        for (int tentativa = 0; tentativa < TENTATIVAS_SORTEIO; tentativa++) {
+            var idMedico = ids[random.nextInt(ids.length)];
+            if (agendaMedicos.medicoLivre(idMedico, data)) {
+                return idMedico;
+            }
+        }
+
+        var livres = Arrays.stream(ids).filter(idMedico -> agendaMedicos.medicoLivre(idMedico, data)).toArray();
+        return livres.length == 0 ? null : livres[random.nextInt(livres.length)];
+    }
+}
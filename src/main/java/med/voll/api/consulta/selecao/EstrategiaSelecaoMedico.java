@@ -0,0 +1,24 @@
+package med.voll.api.consulta.selecao;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estratégia usada para escolher um médico livre quando o agendamento informa apenas a especialidade.
+ * As implementações são beans nomeados, selecionados pela propriedade {@code api.consulta.selecao-medico.estrategia}.
+ */
+public interface EstrategiaSelecaoMedico {
+
+    /**
+     * @return o id de um médico do pool livre na data, ou {@code null} se nenhum estiver disponível
+     */
+    Long escolher(PoolMedicosEspecialidade pool, LocalDateTime data);
+
+    default void registrarAgendamento(PoolMedicosEspecialidade pool, long idMedico, LocalDateTime data) {
+    }
+
+    default void registrarCancelamento(PoolMedicosEspecialidade pool, long idMedico, LocalDateTime data) {
+    }
+
+    default void medicoIncluido(PoolMedicosEspecialidade pool, long idMedico) {
+    }
+}
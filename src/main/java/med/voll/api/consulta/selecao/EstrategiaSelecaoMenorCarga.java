@@ -0,0 +1,113 @@
+package med.voll.api.consulta.selecao;
+
+import med.voll.api.consulta.ocupacao.AgendaMedicos;
+import med.voll.api.enums.Especialidade;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Escolhe, entre os médicos livres no horário, o que tem menos consultas no dia.
+ * Para cada especialidade e dia mantém os médicos ordenados por carga, então a seleção
+ * percorre apenas o início da ordenação (pulando os ocupados naquele horário) e cada
+ * agendamento ou cancelamento reposiciona um único médico em tempo logarítmico.
+ */
+@Component("menor-carga")
+public class EstrategiaSelecaoMenorCarga implements EstrategiaSelecaoMedico {
+
+    private final AgendaMedicos agendaMedicos;
+    private final ConcurrentHashMap<ChaveDia, CargaDoDia> cargas = new ConcurrentHashMap<>();
+
+    public EstrategiaSelecaoMenorCarga(AgendaMedicos agendaMedicos) {
+        this.agendaMedicos = agendaMedicos;
+    }
+
+    @Override
+    public Long escolher(PoolMedicosEspecialidade pool, LocalDateTime data) {
+        var chave = new ChaveDia(pool.getEspecialidade(), data.toLocalDate());
+        return cargas.computeIfAbsent(chave, c -> new CargaDoDia(pool, c.dia()))
+                .menosOcupadoLivre(pool, data);
+    }
+
+    @Override
+    public void registrarAgendamento(PoolMedicosEspecialidade pool, long idMedico, LocalDateTime data) {
+        var carga = cargas.get(new ChaveDia(pool.getEspecialidade(), data.toLocalDate()));
+        if (carga != null) {
+            carga.ajustar(idMedico, 1);
+        }
+    }
+
+    @Override
+    public void registrarCancelamento(PoolMedicosEspecialidade pool, long idMedico, LocalDateTime data) {
+        var carga = cargas.get(new ChaveDia(pool.getEspecialidade(), data.toLocalDate()));
+        if (carga != null) {
+            carga.ajustar(idMedico, -1);
+        }
+    }
+
+    @Override
+    public void medicoIncluido(PoolMedicosEspecialidade pool, long idMedico) {
+        cargas.forEach((chave, carga) -> {
+            if (chave.especialidade() == pool.getEspecialidade()) {
+                carga.incluir(idMedico, agendaMedicos.consultasDoMedicoNoDia(idMedico, chave.dia()));
+            }
+        });
+    }
+
+    @Scheduled(cron = "0 5 0 * * *")
+    public void descartarDiasAnteriores() {
+        var hoje = LocalDate.now();
+        cargas.keySet().removeIf(chave -> chave.dia().isBefore(hoje));
+    }
+
+    private record ChaveDia(Especialidade especialidade, LocalDate dia) {
+    }
+
+    private class CargaDoDia {
+
+        private final Map<Long, Integer> consultasPorMedico = new HashMap<>();
+        private final TreeSet<Long> ordenadosPorCarga = new TreeSet<>(
+                Comparator.<Long>comparingInt(consultasPorMedico::get).thenComparing(Comparator.naturalOrder()));
+
+        CargaDoDia(PoolMedicosEspecialidade pool, LocalDate dia) {
+            for (var idMedico : pool.ids()) {
+                incluir(idMedico, agendaMedicos.consultasDoMedicoNoDia(idMedico, dia));
+            }
+        }
+
+        synchronized Long menosOcupadoLivre(PoolMedicosEspecialidade pool, LocalDateTime data) {
+            for (var idMedico : ordenadosPorCarga) {
+                // médicos excluídos saem do pool mas continuam aqui até o dia ser descartado
+                if (pool.contem(idMedico) && agendaMedicos.medicoLivre(idMedico, data)) {
+                    return idMedico;
+                }
+            }
+            return null;
+        }
+
+        synchronized void incluir(long idMedico, int consultas) {
+            if (consultasPorMedico.containsKey(idMedico)) {
+                return;
+            }
+            consultasPorMedico.put(idMedico, consultas);
+            ordenadosPorCarga.add(idMedico);
+        }
+
+        synchronized void ajustar(long idMedico, int variacao) {
+            var atual = consultasPorMedico.get(idMedico);
+            if (atual == null) {
+                return;
+            }
+            ordenadosPorCarga.remove(idMedico);
+            consultasPorMedico.put(idMedico, Math.max(0, atual + variacao));
+            ordenadosPorCarga.add(idMedico);
+        }
+    }
+}
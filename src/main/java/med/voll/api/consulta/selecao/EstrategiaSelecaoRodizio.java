@@ -0,0 +1,45 @@
+package med.voll.api.consulta.selecao;
+
+import med.voll.api.consulta.ocupacao.AgendaMedicos;
+import med.voll.api.enums.Especialidade;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rodízio entre os médicos da especialidade: cada seleção começa na posição seguinte à anterior
+ * e avança até o primeiro médico livre.
+ */
+@Component("rodizio")
+public class EstrategiaSelecaoRodizio implements EstrategiaSelecaoMedico {
+
+    private final AgendaMedicos agendaMedicos;
+    private final Map<Especialidade, AtomicInteger> cursores = new EnumMap<>(Especialidade.class);
+
+    public EstrategiaSelecaoRodizio(AgendaMedicos agendaMedicos) {
+        this.agendaMedicos = agendaMedicos;
+        for (var especialidade : Especialidade.values()) {
+            cursores.put(especialidade, new AtomicInteger());
+        }
+    }
+
+    @Override
+    public Long escolher(PoolMedicosEspecialidade pool, LocalDateTime data) {
+        var ids = pool.ids();
+        if (ids.length == 0) {
+            return null;
+        }
+
+        var inicio = Math.floorMod(cursores.get(pool.getEspecialidade()).getAndIncrement(), ids.length);
+        for (int passo = 0; passo < ids.length; passo++) {
+            var idMedico = ids[(inicio + passo) % ids.length];
+            if (agendaMedicos.medicoLivre(idMedico, data)) {
+                return idMedico;
+            }
+        }
+        return null;
+    }
+}
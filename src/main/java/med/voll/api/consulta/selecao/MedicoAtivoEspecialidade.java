@@ -0,0 +1,10 @@
+package med.voll.api.consulta.selecao;
+
+import med.voll.api.enums.Especialidade;
+
+public record MedicoAtivoEspecialidade(
+
+        Long id,
+
+        Especialidade especialidade) {
+}
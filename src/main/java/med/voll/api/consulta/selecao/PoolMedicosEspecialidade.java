@@ -0,0 +1,63 @@
+package med.voll.api.consulta.selecao;
+
+import med.voll.api.enums.Especialidade;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Médicos ativos de uma especialidade. As leituras usam um snapshot imutável dos ids,
+ * recriado a cada inclusão ou exclusão (operações raras se comparadas às seleções).
+ */
+public class PoolMedicosEspecialidade {
+
+    private final Especialidade especialidade;
+    private final Set<Long> membros = ConcurrentHashMap.newKeySet();
+    private volatile long[] ids = new long[0];
+
+    public PoolMedicosEspecialidade(Especialidade especialidade) {
+        this.especialidade = especialidade;
+    }
+
+    public Especialidade getEspecialidade() {
+        return especialidade;
+    }
+
+    public long[] ids() {
+        return ids;
+    }
+
+    public int tamanho() {
+        return ids.length;
+    }
+
+    public boolean contem(long idMedico) {
+        return membros.contains(idMedico);
+    }
+
+    public synchronized void substituirTodos(Collection<Long> idsMedicos) {
+        membros.clear();
+        membros.addAll(idsMedicos);
+        ids = idsMedicos.stream().mapToLong(Long::longValue).distinct().toArray();
+    }
+
+    public synchronized boolean incluir(long idMedico) {
+        if (!membros.add(idMedico)) {
+            return false;
+        }
+        var novos = Arrays.copyOf(ids, ids.length + 1);
+        novos[ids.length] = idMedico;
+        ids = novos;
+        return true;
+    }
+
+    public synchronized boolean remover(long idMedico) {
+        if (!membros.remove(idMedico)) {
+            return false;
+        }
+        ids = Arrays.stream(ids).filter(id -> id != idMedico).toArray();
+        return true;
+    }
+}
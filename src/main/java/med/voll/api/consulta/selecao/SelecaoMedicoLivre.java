@@ -0,0 +1,109 @@
+package med.voll.api.consulta.selecao;
+
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda;
+import med.voll.api.enums.Especialidade;
+import med.voll.api.repositories.MedicoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Seleciona um médico livre de uma especialidade a partir de pools em memória dos médicos ativos,
+ * consultando o {@link IndiceOcupacaoAgenda} em vez de executar {@code escolherMedicoAleatorioLivreNaData}.
+ */
+@Component
+public class SelecaoMedicoLivre {
+
+    private static final Logger log = LoggerFactory.getLogger(SelecaoMedicoLivre.class);
+
+    private final Map<Especialidade, PoolMedicosEspecialidade> pools = new EnumMap<>(Especialidade.class);
+    private final ConcurrentHashMap<Long, Especialidade> especialidadePorMedico = new ConcurrentHashMap<>();
+
+    private final MedicoRepository medicoRepository;
+    private final IndiceOcupacaoAgenda indiceOcupacaoAgenda;
+    private final EstrategiaSelecaoMedico estrategia;
+
+    private volatile boolean carregado;
+
+    public SelecaoMedicoLivre(MedicoRepository medicoRepository,
+                              IndiceOcupacaoAgenda indiceOcupacaoAgenda,
+                              Map<String, EstrategiaSelecaoMedico> estrategias,
+                              @Value("${api.consulta.selecao-medico.estrategia:aleatoria}") String nomeEstrategia) {
+        this.medicoRepository = medicoRepository;
+        this.indiceOcupacaoAgenda = indiceOcupacaoAgenda;
+        this.estrategia = estrategias.get(nomeEstrategia);
+        if (estrategia == null) {
+            throw new IllegalStateException("Estratégia de seleção de médico desconhecida: " + nomeEstrategia
+                    + ". Opções: " + estrategias.keySet());
+        }
+        for (var especialidade : Especialidade.values()) {
+            pools.put(especialidade, new PoolMedicosEspecialidade(especialidade));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregar() {
+        var idsPorEspecialidade = new EnumMap<Especialidade, List<Long>>(Especialidade.class);
+        for (var medico : medicoRepository.findMedicosAtivosComEspecialidade()) {
+            idsPorEspecialidade.computeIfAbsent(medico.especialidade(), e -> new ArrayList<>()).add(medico.id());
+            especialidadePorMedico.put(medico.id(), medico.especialidade());
+        }
+        pools.forEach((especialidade, pool) -> pool.substituirTodos(idsPorEspecialidade.getOrDefault(especialidade, List.of())));
+        carregado = true;
+
+        log.info("Pools de médicos carregados: {} médicos ativos, estratégia de seleção '{}'.",
+                especialidadePorMedico.size(), estrategia.getClass().getSimpleName());
+    }
+
+    /**
+     * Indica se a seleção pode ser feita em memória; caso contrário use a consulta do repositório.
+     */
+    public boolean respondePor(LocalDateTime data) {
+        return carregado && indiceOcupacaoAgenda.respondePor(data);
+    }
+
+    public Long escolher(Especialidade especialidade, LocalDateTime data) {
+        return estrategia.escolher(pools.get(especialidade), data);
+    }
+
+    public void incluirMedico(Long idMedico, Especialidade especialidade) {
+        especialidadePorMedico.put(idMedico, especialidade);
+        var pool = pools.get(especialidade);
+        if (pool.incluir(idMedico)) {
+            estrategia.medicoIncluido(pool, idMedico);
+        }
+    }
+
+    public void removerMedico(Long idMedico) {
+        var especialidade = especialidadePorMedico.remove(idMedico);
+        if (especialidade != null) {
+            pools.get(especialidade).remover(idMedico);
+        }
+    }
+
+    public void registrarAgendamento(Long idMedico, LocalDateTime data) {
+        var especialidade = especialidadePorMedico.get(idMedico);
+        if (especialidade != null) {
+            estrategia.registrarAgendamento(pools.get(especialidade), idMedico, data);
+        }
+    }
+
+    public void registrarCancelamento(Long idMedico, LocalDateTime data) {
+        var especialidade = especialidadePorMedico.get(idMedico);
+        if (especialidade != null) {
+            estrategia.registrarCancelamento(pools.get(especialidade), idMedico, data);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package med.voll.api.consulta.validacoes;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import med.voll.api.consulta.validacoes.agendamento.ContextoAgendamento;
+import med.voll.api.consulta.validacoes.agendamento.ValidadorAgendamentoDeConsulta;
+import med.voll.api.consulta.validacoes.cancelamento.ValidadorCancelamentoDeConsulta;
+import med.voll.api.dtos.DadosCancelamentoConsulta;
+import med.voll.api.infra.exceptions.ValidacaoException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Executa as cadeias de validadores de agendamento e cancelamento medindo cada validador:
+ * timer {@code api.consulta.validacao} e contador {@code api.consulta.validacao.rejeicoes},
+ * ambos com as tags {@code cadeia} e {@code validador}. Os medidores são registrados uma única vez,
+ * então o custo por chamada é só a leitura do relógio e a gravação no timer.
+ */
+@Component
+public class CadeiasValidacao {
+
+    private final List<ValidadorMedido<ValidadorAgendamentoDeConsulta>> agendamento;
+    private final List<ValidadorMedido<ValidadorCancelamentoDeConsulta>> cancelamento;
+
+    public CadeiasValidacao(List<ValidadorAgendamentoDeConsulta> validadorAgendamentoDeConsultas,
+                            List<ValidadorCancelamentoDeConsulta> validadorCancelamentoDeConsultas,
+                            MeterRegistry meterRegistry) {
+        this.agendamento = medir("agendamento", validadorAgendamentoDeConsultas, meterRegistry);
+        this.cancelamento = medir("cancelamento", validadorCancelamentoDeConsultas, meterRegistry);
+    }
+
+    public void validarAgendamento(ContextoAgendamento contexto) {
+        for (var medido : agendamento) {
+            medido.validar(validador -> validador.validar(contexto));
+        }
+    }
+
+    public void validarCancelamento(DadosCancelamentoConsulta dadosCancelamentoConsulta) {
+        for (var medido : cancelamento) {
+            medido.validar(validador -> validador.validar(dadosCancelamentoConsulta));
+        }
+    }
+
+    private static <V> List<ValidadorMedido<V>> medir(String cadeia, List<V> validadores, MeterRegistry meterRegistry) {
+        return validadores.stream()
+                .map(validador -> {
+                    var nome = validador.getClass().getSimpleName();
+                    return new ValidadorMedido<>(validador,
+                            Timer.builder("api.consulta.validacao")
+                                    .description("Tempo de execução de cada validador")
+                                    .tag("cadeia", cadeia)
+                                    .tag("validador", nome)
+                                    .register(meterRegistry),
+                            Counter.builder("api.consulta.validacao.rejeicoes")
+                                    .description("Requisições recusadas por cada validador")
+                                    .tag("cadeia", cadeia)
+                                    .tag("validador", nome)
+                                    .register(meterRegistry));
+                })
+                .toList();
+    }
+
+    private record ValidadorMedido<V>(V validador, Timer tempo, Counter rejeicoes) {
+
+        void validar(Consumer<V> validacao) {
+            var inicio = System.nanoTime();
+            try {
+                validacao.accept(validador);
+            } catch (ValidacaoException e) {
+                rejeicoes.increment();
+                throw e;
+            } finally {
+                tempo.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
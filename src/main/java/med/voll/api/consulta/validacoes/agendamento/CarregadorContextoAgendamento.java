@@ -0,0 +1,49 @@
+package med.voll.api.consulta.validacoes.agendamento;
+
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda;
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda.SituacaoHorario;
+import med.voll.api.dtos.DadosAgendamentoConsulta;
+import med.voll.api.repositories.ConsultaRepository;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CarregadorContextoAgendamento {
+
+    private final ConsultaRepository consultaRepository;
+    private final IndiceOcupacaoAgenda indiceOcupacaoAgenda;
+
+    public CarregadorContextoAgendamento(ConsultaRepository consultaRepository, IndiceOcupacaoAgenda indiceOcupacaoAgenda) {
+        this.consultaRepository = consultaRepository;
+        this.indiceOcupacaoAgenda = indiceOcupacaoAgenda;
+    }
+
+    /**
+     * Carrega o contexto com uma única consulta ao banco. A ocupação dos horários vem apenas do índice em
+     * memória: quando ele não sabe responder o horário é tratado como livre e o conflito, se houver, é
+     * detectado pelos índices únicos de {@code consultas} no momento do insert.
+     */
+    public ContextoAgendamento carregar(DadosAgendamentoConsulta dados) {
+        var situacao = consultaRepository.findSituacaoAgendamento(dados.idPaciente(), dados.idMedico());
+
+        return new ContextoAgendamento(
+                dados,
+                comoBoolean(situacao.getPacienteAtivo()),
+                comoBoolean(situacao.getMedicoAtivo()),
+                dados.idMedico() != null
+                        && indiceOcupacaoAgenda.situacaoMedico(dados.idMedico(), dados.data()) == SituacaoHorario.OCUPADO,
+                indiceOcupacaoAgenda.situacaoPaciente(dados.idPaciente(), dados.data()) == SituacaoHorario.OCUPADO);
+    }
+
+    private static Boolean comoBoolean(Object valor) {
+        if (valor == null) {
+            return null;
+        }
+        if (valor instanceof Boolean booleano) {
+            return booleano;
+        }
+        if (valor instanceof Number numero) {
+            return numero.intValue() != 0;
+        }
+        return Boolean.valueOf(valor.toString());
+    }
+}
@@ -0,0 +1,33 @@
+package med.voll.api.consulta.validacoes.agendamento;
+
+import med.voll.api.dtos.DadosAgendamentoConsulta;
+
+/**
+ * Fotografia do banco necessária para validar um agendamento, carregada de uma só vez
+ * pelo {@link CarregadorContextoAgendamento} (ou montada em memória no agendamento em lote).
+ *
+ * @param pacienteAtivo {@code null} quando o paciente não existe
+ * @param medicoAtivo   {@code null} quando o médico não foi informado ou não existe
+ * @param medicoOcupadoNoHorario      conflito já conhecido; a garantia final é o índice único no insert
+ * @param pacientePossuiConsultaNoDia conflito já conhecido; a garantia final é o índice único no insert
+ */
+public record ContextoAgendamento(
+
+        DadosAgendamentoConsulta dados,
+
+        Boolean pacienteAtivo,
+
+        Boolean medicoAtivo,
+
+        boolean medicoOcupadoNoHorario,
+
+        boolean pacientePossuiConsultaNoDia) {
+
+    public boolean pacienteExiste() {
+        return pacienteAtivo != null;
+    }
+
+    public boolean medicoExiste() {
+        return medicoAtivo != null;
+    }
+}
@@ -0,0 +1,12 @@
+package med.voll.api.consulta.validacoes.agendamento;
+
+/**
+ * Projeção da consulta nativa que carrega o {@link ContextoAgendamento}. O tipo depende do driver
+ * ({@code tinyint} chega como número no MySQL), por isso os valores são lidos como {@link Object}.
+ */
+public interface SituacaoAgendamento {
+
+    Object getPacienteAtivo();
+
+    Object getMedicoAtivo();
+}
@@ -6,4 +6,11 @@ public interface ValidadorAgendamentoDeConsulta {
 
     void validar(DadosAgendamentoConsulta dadosAgendamentoConsulta);
 
+    /**
+     * Valida usando os dados já carregados no contexto, sem novas consultas ao banco.
+     * Validadores que dependem apenas dos dados da requisição não precisam sobrescrever.
+     */
+    default void validar(ContextoAgendamento contexto) {
+        validar(contexto.dados());
+    }
 }
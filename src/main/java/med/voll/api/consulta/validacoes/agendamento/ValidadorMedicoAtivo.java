@@ -9,6 +9,8 @@ import org.springframework.stereotype.Component;
 @Component
 public class ValidadorMedicoAtivo implements ValidadorAgendamentoDeConsulta {
 
+    private static final String MEDICO_INATIVO = "Consulta não pode ser agendada com médico excluído";
+
     @Autowired
     private MedicoRepository medicoRepository;
 
@@ -20,7 +22,17 @@ public class ValidadorMedicoAtivo implements ValidadorAgendamentoDeConsulta {
 
         var medicoEstaAtivo = medicoRepository.findAtivoById(dadosAgendamentoConsulta.idMedico());
         if (!medicoEstaAtivo) {
-            throw new ValidacaoException("Consulta não pode ser agendada com médico excluído");
+            throw new ValidacaoException(MEDICO_INATIVO);
+        }
+    }
+
+    @Override
+    public void validar(ContextoAgendamento contexto) {
+        if (contexto.dados().idMedico() == null) {
+            return;
+        }
+        if (!Boolean.TRUE.equals(contexto.medicoAtivo())) {
+            throw new ValidacaoException(MEDICO_INATIVO);
         }
     }
 
@@ -1,5 +1,7 @@
 package med.voll.api.consulta.validacoes.agendamento;
 
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda;
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda.SituacaoHorario;
 import med.voll.api.infra.exceptions.ValidacaoException;
 import med.voll.api.repositories.ConsultaRepository;
 import med.voll.api.dtos.DadosAgendamentoConsulta;
@@ -9,13 +11,33 @@ import org.springframework.stereotype.Component;
 @Component
 public class ValidadorMedicoComOutraConsultaNoMesmoHorario implements ValidadorAgendamentoDeConsulta {
 
+    private static final String MEDICO_OCUPADO = "Médico já possui outra consulta agendada nesse mesmo horário";
+
     @Autowired
     private ConsultaRepository consultaRepository;
 
+    @Autowired
+    private IndiceOcupacaoAgenda indiceOcupacaoAgenda;
+
     public void validar(DadosAgendamentoConsulta dadosAgendamentoConsulta) {
-        var medicoPossuiOutraConsultaNoMesmoHorario = consultaRepository.existsByMedicoIdAndDataAndMotivoCancelamentoIsNull(dadosAgendamentoConsulta.idMedico(), dadosAgendamentoConsulta.data());
+        //escolha do medico opcional
+        if (dadosAgendamentoConsulta.idMedico() == null) {
+            return;
+        }
+
+        var situacao = indiceOcupacaoAgenda.situacaoMedico(dadosAgendamentoConsulta.idMedico(), dadosAgendamentoConsulta.data());
+        var medicoPossuiOutraConsultaNoMesmoHorario = situacao == SituacaoHorario.INDETERMINADO
+                ? consultaRepository.existsByMedicoIdAndDataAndMotivoCancelamentoIsNull(dadosAgendamentoConsulta.idMedico(), dadosAgendamentoConsulta.data())
+                : situacao == SituacaoHorario.OCUPADO;
         if (medicoPossuiOutraConsultaNoMesmoHorario) {
-            throw new ValidacaoException("Médico já possui outra consulta agendada nesse mesmo horário");
+            throw new ValidacaoException(MEDICO_OCUPADO);
+        }
+    }
+
+    @Override
+    public void validar(ContextoAgendamento contexto) {
+        if (contexto.dados().idMedico() != null && contexto.medicoOcupadoNoHorario()) {
+            throw new ValidacaoException(MEDICO_OCUPADO);
         }
     }
 
@@ -9,13 +9,22 @@ import org.springframework.stereotype.Component;
 @Component
 public class ValidadorPacienteAtivo implements ValidadorAgendamentoDeConsulta {
 
+    private static final String PACIENTE_INATIVO = "Consulta não pode ser agendada com paciente excluído";
+
     @Autowired
     private PacienteRepository pacienteRepository;
 
     public void validar(DadosAgendamentoConsulta dadosAgendamentoConsulta) {
         var pacienteEstaAtivo = pacienteRepository.findAtivoById(dadosAgendamentoConsulta.idPaciente());
         if (!pacienteEstaAtivo) {
-            throw new ValidacaoException("Consulta não pode ser agendada com paciente excluído");
+            throw new ValidacaoException(PACIENTE_INATIVO);
+        }
+    }
+
+    @Override
+    public void validar(ContextoAgendamento contexto) {
+        if (!Boolean.TRUE.equals(contexto.pacienteAtivo())) {
+            throw new ValidacaoException(PACIENTE_INATIVO);
         }
     }
 }
@@ -1,5 +1,7 @@
 package med.voll.api.consulta.validacoes.agendamento;
 
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda;
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda.SituacaoHorario;
 import med.voll.api.infra.exceptions.ValidacaoException;
 import med.voll.api.repositories.ConsultaRepository;
 import med.voll.api.dtos.DadosAgendamentoConsulta;
@@ -9,16 +11,35 @@ import org.springframework.stereotype.Component;
 @Component
 public class ValidadorPacienteSemOutraConsultaNoDia implements ValidadorAgendamentoDeConsulta {
 
+    private static final String PACIENTE_OCUPADO = "Paciente já possui uma consulta agendada nesse dia";
+
     @Autowired
     private ConsultaRepository consultaRepository;
 
+    @Autowired
+    private IndiceOcupacaoAgenda indiceOcupacaoAgenda;
+
     public void validar(DadosAgendamentoConsulta dadosAgendamentoConsulta) {
-        var primeiroHorario = dadosAgendamentoConsulta.data().withHour(7);
-        var ultimoHorario = dadosAgendamentoConsulta.data().withHour(18);
-        var pacientePossuiOutraConsultaNoDia = consultaRepository.existsByPacienteIdAndDataBetween(dadosAgendamentoConsulta.idPaciente(), primeiroHorario, ultimoHorario);
+        var situacao = indiceOcupacaoAgenda.situacaoPaciente(dadosAgendamentoConsulta.idPaciente(), dadosAgendamentoConsulta.data());
+        var pacientePossuiOutraConsultaNoDia = situacao == SituacaoHorario.INDETERMINADO
+                ? pacientePossuiConsultaNoDia(dadosAgendamentoConsulta)
+                : situacao == SituacaoHorario.OCUPADO;
         if (pacientePossuiOutraConsultaNoDia) {
-            throw new ValidacaoException("Paciente já possui uma consulta agendada nesse dia");
+            throw new ValidacaoException(PACIENTE_OCUPADO);
+        }
+    }
+
+    @Override
+    public void validar(ContextoAgendamento contexto) {
+        if (contexto.pacientePossuiConsultaNoDia()) {
+            throw new ValidacaoException(PACIENTE_OCUPADO);
         }
     }
 
+    private boolean pacientePossuiConsultaNoDia(DadosAgendamentoConsulta dadosAgendamentoConsulta) {
+        var primeiroHorario = dadosAgendamentoConsulta.data().withHour(7);
+        var ultimoHorario = dadosAgendamentoConsulta.data().withHour(18);
+        return consultaRepository.existsByPacienteIdAndDataBetween(dadosAgendamentoConsulta.idPaciente(), primeiroHorario, ultimoHorario);
+    }
+
 }
@@ -2,8 +2,10 @@ package med.voll.api.controller;
 
 import jakarta.validation.Valid;
 import med.voll.api.dtos.DadosAutenticacao;
+import med.voll.api.dtos.DadosRefreshToken;
 import med.voll.api.entities.Usuario;
 import med.voll.api.infra.security.DadosTokenJWT;
+import med.voll.api.infra.security.RefreshTokenService;
 import med.voll.api.infra.security.TokenService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,10 +25,12 @@ public class AutenticacaoController {
 
     private final AuthenticationManager authenticationManager;
     private final TokenService tokenService;
+    private final RefreshTokenService refreshTokenService;
 
-    public AutenticacaoController(AuthenticationManager authenticationManager, TokenService tokenService) {
+    public AutenticacaoController(AuthenticationManager authenticationManager, TokenService tokenService, RefreshTokenService refreshTokenService) {
         this.authenticationManager = authenticationManager;
         this.tokenService = tokenService;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @PostMapping
@@ -42,12 +46,24 @@ public class AutenticacaoController {
             var authentication = authenticationManager.authenticate(authenticationToken);
             var usuario = (Usuario) authentication.getPrincipal();
             var tokenJWT = tokenService.gerarToken(usuario);
+            var refreshToken = refreshTokenService.emitir(usuario);
 
             logger.info("Autenticação bem-sucedida para o usuário: {}", dadosAutenticacao.login());
-            return ResponseEntity.ok(new DadosTokenJWT(tokenJWT));
+            return ResponseEntity.ok(new DadosTokenJWT(tokenJWT, refreshToken));
         } catch (Exception e) {
             logger.error("Erro na autenticação do usuário: {}", dadosAutenticacao.login(), e);
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/refresh")
+    public ResponseEntity<DadosTokenJWT> renovarToken(@RequestBody @Valid DadosRefreshToken dadosRefreshToken) {
+        return ResponseEntity.ok(refreshTokenService.renovar(dadosRefreshToken.refreshToken()));
+    }
+
+    @PostMapping("/revogacao")
+    public ResponseEntity<Void> revogarToken(@RequestBody @Valid DadosRefreshToken dadosRefreshToken) {
+        refreshTokenService.revogar(dadosRefreshToken.refreshToken());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -5,11 +5,22 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import med.voll.api.services.ConsultasService;
 import med.voll.api.dtos.DadosAgendamentoConsulta;
+import med.voll.api.dtos.DadosAgendamentoSerie;
 import med.voll.api.dtos.DadosCancelamentoConsulta;
 import med.voll.api.dtos.DadosDetalhamentoConsulta;
+import med.voll.api.dtos.DadosHorarioDisponivel;
+import med.voll.api.dtos.DadosPaginaConsultas;
+import med.voll.api.dtos.DadosResultadoAgendamentoLote;
+import med.voll.api.dtos.DadosResultadoAgendamentoSerie;
+import med.voll.api.dtos.FiltroConsultas;
+import med.voll.api.enums.Especialidade;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -30,6 +41,20 @@ public class ConsultaController {
         return ResponseEntity.ok(dto);
     }
 
+    @PostMapping("/lote")
+    @Operation(summary = "Agenda um lote de consultas e retorna o resultado de cada item")
+    public ResponseEntity<List<DadosResultadoAgendamentoLote>> agendarEmLote(@RequestBody List<DadosAgendamentoConsulta> lote) {
+        var resultados = consultasService.agendarEmLote(lote);
+        return ResponseEntity.ok(resultados);
+    }
+
+    @PostMapping("/serie")
+    @Operation(summary = "Agenda uma série semanal ou quinzenal de consultas, tudo ou nada ou pelo melhor esforço")
+    public ResponseEntity<DadosResultadoAgendamentoSerie> agendarSerie(@RequestBody @Valid DadosAgendamentoSerie dadosAgendamentoSerie) {
+        var resultado = consultasService.agendarSerie(dadosAgendamentoSerie);
+        return ResponseEntity.ok(resultado);
+    }
+
     @DeleteMapping
     @Operation(summary = "Cancela uma consulta existente")
     public ResponseEntity<Void> cancelar(@RequestBody @Valid DadosCancelamentoConsulta dadosCancelamentoConsulta) {
@@ -39,9 +64,30 @@ public class ConsultaController {
 
 
     @GetMapping
-    @Operation(summary = "Lista todas as consultas agendadas")
-    public ResponseEntity<List<DadosDetalhamentoConsulta>> listar() {
-        var consultas = consultasService.listarTodas();
-        return ResponseEntity.ok(consultas);
+    @Operation(summary = "Lista as consultas agendadas, paginadas por cursor na ordem (data, id)")
+    public ResponseEntity<DadosPaginaConsultas> listar(FiltroConsultas filtro,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "50") int tamanho) {
+        var pagina = consultasService.listar(filtro, cursor, tamanho);
+        return ResponseEntity.ok(pagina);
+    }
+
+    @GetMapping("/proximo-horario")
+    @Operation(summary = "Lista os primeiros horários livres da especialidade, com o médico de cada um")
+    public ResponseEntity<List<DadosHorarioDisponivel>> proximoHorario(@RequestParam(required = false) Especialidade especialidade,
+                                                                       @RequestParam(name = "a-partir-de", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime aPartirDe,
+                                                                       @RequestParam(required = false) Long idPaciente,
+                                                                       @RequestParam(defaultValue = "5") int quantidade) {
+        var horarios = consultasService.proximosHorarios(especialidade, aPartirDe, idPaciente, quantidade);
+        return ResponseEntity.ok(horarios);
+    }
+
+    @GetMapping(value = "/exportacao", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exporta as consultas do filtro como NDJSON em streaming")
+    public ResponseEntity<StreamingResponseBody> exportar(FiltroConsultas filtro) {
+        StreamingResponseBody corpo = saida -> consultasService.exportar(filtro, saida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(corpo);
     }
 }
@@ -2,10 +2,16 @@ package med.voll.api.controller;
 
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
+import med.voll.api.cadastro.exportacao.ExportacaoCadastros;
+import med.voll.api.cadastro.exportacao.FormatoExportacao;
+import med.voll.api.cadastro.importacao.FormatoImportacao;
 import med.voll.api.dtos.DadosAtualizacaoMedico;
 import med.voll.api.dtos.DadosCadastroMedico;
 import med.voll.api.dtos.DadosDetalhamentoMedico;
+import med.voll.api.dtos.DadosDisponibilidadeMedico;
 import med.voll.api.dtos.DadosListagemMedico;
+import med.voll.api.enums.Especialidade;
+import med.voll.api.infra.exceptions.ValidacaoException;
 import med.voll.api.services.MedicoService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,12 +19,24 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -28,6 +46,10 @@ public class MedicoController {
 
     private static final Logger log = LoggerFactory.getLogger(MedicoController.class);
 
+    private static final String MODO_PAGINA = "pagina";
+    private static final String MODO_FATIA = "fatia";
+    private static final String MODO_INVALIDO = "Modo de listagem inválido! Use 'pagina' ou 'fatia'.";
+
 
     @Autowired
     private MedicoService medicoService;
@@ -42,9 +64,50 @@ public class MedicoController {
     }
 
 
+    @PostMapping(value = "/importacao", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importarMedicos(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream entrada) {
+        log.info("Recebida solicitação de importação de médicos em {}", contentType);
+        var formato = FormatoImportacao.de(contentType);
+        var charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        // o corpo é lido durante a resposta: cada lote gravado já devolve as linhas recusadas
+        StreamingResponseBody corpo = saida -> medicoService.importar(formato, new InputStreamReader(entrada, charset), saida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(corpo);
+    }
+
+
+    @GetMapping("/exportacao")
+    public ResponseEntity<StreamingResponseBody> exportarMedicos(@RequestParam(defaultValue = "ndjson") String formato,
+                                                                   @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        var formatoExportacao = FormatoExportacao.de(formato);
+        var gzip = ExportacaoCadastros.aceitaGzip(acceptEncoding);
+        log.info("Recebida solicitação de exportação de médicos em {}, gzip: {}", formatoExportacao, gzip);
+        StreamingResponseBody corpo = saida -> medicoService.exportar(formatoExportacao, gzip, saida);
+        var resposta = ResponseEntity.ok()
+                .contentType(formatoExportacao.getTipo())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("medicos." + formatoExportacao.getExtensao()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return resposta.body(corpo);
+    }
+
+
     @GetMapping
-    public ResponseEntity<?> listarMedicos(@PageableDefault(page = 0, size = 10, sort = {"nome"}) Pageable paginacao) {
-        log.info("Recebida solicitação para listar médicos com paginação: {}", paginacao);
+    public ResponseEntity<?> listarMedicos(@PageableDefault(page = 0, size = 10, sort = {"nome"}) Pageable paginacao,
+                                           @RequestParam(defaultValue = MODO_PAGINA) String modo,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "false") boolean total) {
+        log.info("Recebida solicitação para listar médicos com paginação: {} no modo {}", paginacao, modo);
+        if (MODO_FATIA.equals(modo)) {
+            return ResponseEntity.ok(medicoService.listarEmFatias(paginacao, cursor, total));
+        }
+        if (!MODO_PAGINA.equals(modo)) {
+            throw new ValidacaoException(MODO_INVALIDO);
+        }
         Page<DadosListagemMedico> dadosListagemMedicos = medicoService.listar(paginacao);
 
         if (dadosListagemMedicos.isEmpty()) {
@@ -56,6 +119,37 @@ public class MedicoController {
     }
 
 
+    @GetMapping("/disponibilidade")
+    public ResponseEntity<List<DadosDisponibilidadeMedico>> consultarDisponibilidade(@RequestParam(required = false) Especialidade especialidade,
+                                                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+                                                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        log.info("Recebida solicitação de disponibilidade de {} entre {} e {}", especialidade, de, ate);
+        return ResponseEntity.ok(medicoService.consultarDisponibilidade(especialidade, de, ate));
+    }
+
+
+    @GetMapping(value = "/{id}/agenda.ics", produces = "text/calendar")
+    public ResponseEntity<StreamingResponseBody> agendaIcs(@PathVariable Long id, WebRequest request) {
+        // médico inexistente ou inativo responde 404 antes da revalidação; o detalhamento em geral vem do cache
+        var medico = medicoService.detalhar(id);
+
+        // a versão da agenda fica em memória: um calendário sem mudanças responde 304 sem ler as consultas
+        var etag = medicoService.etagAgenda(id);
+        if (request.checkNotModified(etag)) {
+            log.debug("Agenda iCalendar do médico com ID {} não modificada.", id);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        log.info("Recebida solicitação da agenda iCalendar do médico com ID: {}", id);
+        StreamingResponseBody corpo = saida -> medicoService.exportarAgendaIcs(medico, saida);
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "calendar", StandardCharsets.UTF_8))
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(corpo);
+    }
+
+
     @PutMapping
     public ResponseEntity<DadosDetalhamentoMedico> atualizarMedico(@RequestBody @Valid DadosAtualizacaoMedico dadosAtualizacaoMedico) {
         log.info("Recebida solicitação para atualizar médico com ID: {}", dadosAtualizacaoMedico.id());
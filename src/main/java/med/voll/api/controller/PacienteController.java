@@ -2,7 +2,11 @@ package med.voll.api.controller;
 
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
+import med.voll.api.cadastro.exportacao.ExportacaoCadastros;
+import med.voll.api.cadastro.exportacao.FormatoExportacao;
+import med.voll.api.cadastro.importacao.FormatoImportacao;
 import med.voll.api.dtos.*;
+import med.voll.api.infra.exceptions.ValidacaoException;
 import med.voll.api.repositories.PacienteRepository;
 import med.voll.api.services.PacienteService;
 import org.slf4j.Logger;
@@ -11,11 +15,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -26,6 +37,10 @@ public class PacienteController {
 
     private static final Logger log = LoggerFactory.getLogger(PacienteController.class);
 
+    private static final String MODO_PAGINA = "pagina";
+    private static final String MODO_FATIA = "fatia";
+    private static final String MODO_INVALIDO = "Modo de listagem inválido! Use 'pagina' ou 'fatia'.";
+
     @Autowired
     private PacienteService pacienteService;
 
@@ -39,9 +54,50 @@ public class PacienteController {
         return ResponseEntity.created(uri).body(dadosDetalhamentoPaciente);
     }
 
+
+    @PostMapping(value = "/importacao", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importarPacientes(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream entrada) {
+        log.info("Recebida solicitação de importação de pacientes em {}", contentType);
+        var formato = FormatoImportacao.de(contentType);
+        var charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        // o corpo é lido durante a resposta: cada lote gravado já devolve as linhas recusadas
+        StreamingResponseBody corpo = saida -> pacienteService.importar(formato, new InputStreamReader(entrada, charset), saida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(corpo);
+    }
+
+
+    @GetMapping("/exportacao")
+    public ResponseEntity<StreamingResponseBody> exportarPacientes(@RequestParam(defaultValue = "ndjson") String formato,
+                                                                   @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        var formatoExportacao = FormatoExportacao.de(formato);
+        var gzip = ExportacaoCadastros.aceitaGzip(acceptEncoding);
+        log.info("Recebida solicitação de exportação de pacientes em {}, gzip: {}", formatoExportacao, gzip);
+        StreamingResponseBody corpo = saida -> pacienteService.exportar(formatoExportacao, gzip, saida);
+        var resposta = ResponseEntity.ok()
+                .contentType(formatoExportacao.getTipo())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("pacientes." + formatoExportacao.getExtensao()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return resposta.body(corpo);
+    }
+
     @GetMapping
-    public ResponseEntity<?> listarPaciente(@PageableDefault(page = 0, size = 10, sort = {"nome"}) Pageable paginacao) {
-        log.info("Recebida solicitação para listar pacientes com paginação: {}", paginacao);
+    public ResponseEntity<?> listarPaciente(@PageableDefault(page = 0, size = 10, sort = {"nome"}) Pageable paginacao,
+                                            @RequestParam(defaultValue = MODO_PAGINA) String modo,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "false") boolean total) {
+        log.info("Recebida solicitação para listar pacientes com paginação: {} no modo {}", paginacao, modo);
+        if (MODO_FATIA.equals(modo)) {
+            return ResponseEntity.ok(pacienteService.listarEmFatias(paginacao, cursor, total));
+        }
+        if (!MODO_PAGINA.equals(modo)) {
+            throw new ValidacaoException(MODO_INVALIDO);
+        }
         Page<DadosListagemPaciente> dadosListagemPacientes = pacienteService.listar(paginacao);
 
         if (dadosListagemPacientes.isEmpty()) {
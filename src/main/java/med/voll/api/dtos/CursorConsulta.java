@@ -0,0 +1,35 @@
+package med.voll.api.dtos;
+
+import med.voll.api.infra.exceptions.ValidacaoException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição da última consulta de uma página na ordenação {@code (data, id)}, trafegada como texto opaco.
+ */
+public record CursorConsulta(
+
+        LocalDateTime data,
+
+        Long id) {
+
+    private static final String SEPARADOR = "|";
+
+    public String codificar() {
+        var texto = data + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorConsulta decodificar(String cursor) {
+        try {
+            var texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separador = texto.indexOf(SEPARADOR);
+            return new CursorConsulta(LocalDateTime.parse(texto.substring(0, separador)), Long.valueOf(texto.substring(separador + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidacaoException("Cursor de paginação inválido!");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package med.voll.api.dtos;
+
+import med.voll.api.infra.exceptions.ValidacaoException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição do último registro de uma fatia na ordenação {@code (nome, id)}, trafegada como texto opaco.
+ * O id vem primeiro porque o nome pode conter o separador.
+ */
+public record CursorListagem(
+
+        String nome,
+
+        Long id) {
+
+    private static final String SEPARADOR = "|";
+
+    public String codificar() {
+        var texto = id + SEPARADOR + nome;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorListagem decodificar(String cursor) {
+        try {
+            var texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separador = texto.indexOf(SEPARADOR);
+            return new CursorListagem(texto.substring(separador + 1), Long.valueOf(texto.substring(0, separador)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ValidacaoException("Cursor de paginação inválido!");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package med.voll.api.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import med.voll.api.enums.FrequenciaRecorrencia;
+import med.voll.api.enums.ModoAgendamentoSerie;
+
+import java.time.LocalDate;
+
+/**
+ * Série de consultas a partir de {@code primeiraConsulta}, repetida na {@code frequencia} até completar
+ * {@code ocorrencias} ou até a data {@code ate} (inclusive); sem {@code modo}, a série é tudo ou nada.
+ */
+public record DadosAgendamentoSerie(
+
+        @NotNull
+        @Valid
+        DadosAgendamentoConsulta primeiraConsulta,
+
+        @NotNull
+        FrequenciaRecorrencia frequencia,
+
+        @Positive
+        Integer ocorrencias,
+
+        LocalDate ate,
+
+        ModoAgendamentoSerie modo) {
+}
@@ -24,4 +24,13 @@ public record DadosDetalhamentoMedico(
             medico.getEndereco());
 
     }
+
+    /**
+     * Para a projeção da exportação, que lê as colunas do endereço sem carregar a entidade.
+     */
+    public DadosDetalhamentoMedico(Long id, String nome, String email, String crm, String telefone, Especialidade especialidade,
+                                   String logradouro, String bairro, String cep, String numero, String complemento,
+                                   String cidade, String uf) {
+        this(id, nome, email, crm, telefone, especialidade, new Endereco(logradouro, bairro, cep, numero, complemento, cidade, uf));
+    }
 }
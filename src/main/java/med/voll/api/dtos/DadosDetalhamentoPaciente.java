@@ -15,4 +15,13 @@ public record DadosDetalhamentoPaciente(
     public DadosDetalhamentoPaciente(Paciente paciente) {
         this(paciente.getId(), paciente.getNome(), paciente.getEmail(), paciente.getTelefone(), paciente.getCpf(), paciente.getEndereco());
     }
+
+    /**
+     * Para a projeção da exportação, que lê as colunas do endereço sem carregar a entidade.
+     */
+    public DadosDetalhamentoPaciente(Long id, String nome, String email, String telefone, String cpf,
+                                     String logradouro, String bairro, String cep, String numero, String complemento,
+                                     String cidade, String uf) {
+        this(id, nome, email, telefone, cpf, new Endereco(logradouro, bairro, cep, numero, complemento, cidade, uf));
+    }
 }
@@ -0,0 +1,15 @@
+package med.voll.api.dtos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record DadosDisponibilidadeMedico(
+
+        Long idMedico,
+
+        String nome,
+
+        String crm,
+
+        List<LocalDateTime> horarios) {
+}
@@ -0,0 +1,18 @@
+package med.voll.api.dtos;
+
+import java.util.List;
+
+/**
+ * Fatia de uma listagem sem o {@code count(*)} da página: {@code proximoCursor} é nulo na última fatia e
+ * {@code totalAproximado} só é preenchido quando pedido, a partir de uma contagem mantida em cache.
+ */
+public record DadosFatia<T>(
+
+        List<T> conteudo,
+
+        boolean temProxima,
+
+        String proximoCursor,
+
+        Long totalAproximado) {
+}
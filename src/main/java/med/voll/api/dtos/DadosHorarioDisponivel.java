@@ -0,0 +1,14 @@
+package med.voll.api.dtos;
+
+import java.time.LocalDateTime;
+
+public record DadosHorarioDisponivel(
+
+        Long idMedico,
+
+        String nome,
+
+        String crm,
+
+        LocalDateTime data) {
+}
@@ -0,0 +1,10 @@
+package med.voll.api.dtos;
+
+import java.util.List;
+
+public record DadosPaginaConsultas(
+
+        List<DadosDetalhamentoConsulta> consultas,
+
+        String proximoCursor) {
+}
@@ -0,0 +1,9 @@
+package med.voll.api.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record DadosRefreshToken(
+
+        @NotBlank
+        String refreshToken) {
+}
@@ -0,0 +1,20 @@
+package med.voll.api.dtos;
+
+public record DadosResultadoAgendamentoLote(
+
+        int posicao,
+
+        boolean agendada,
+
+        DadosDetalhamentoConsulta consulta,
+
+        String erro) {
+
+    public static DadosResultadoAgendamentoLote agendada(int posicao, DadosDetalhamentoConsulta consulta) {
+        return new DadosResultadoAgendamentoLote(posicao, true, consulta, null);
+    }
+
+    public static DadosResultadoAgendamentoLote rejeitada(int posicao, String erro) {
+        return new DadosResultadoAgendamentoLote(posicao, false, null, erro);
+    }
+}
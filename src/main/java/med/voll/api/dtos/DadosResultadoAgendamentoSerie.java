@@ -0,0 +1,12 @@
+package med.voll.api.dtos;
+
+import java.util.List;
+
+public record DadosResultadoAgendamentoSerie(
+
+        int agendadas,
+
+        int rejeitadas,
+
+        List<DadosResultadoAgendamentoLote> ocorrencias) {
+}
@@ -0,0 +1,10 @@
+package med.voll.api.dtos;
+
+public record DadosResumoImportacao(
+
+        long registros,
+
+        long importados,
+
+        long rejeitados) {
+}
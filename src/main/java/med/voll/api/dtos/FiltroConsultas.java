@@ -0,0 +1,18 @@
+package med.voll.api.dtos;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+public record FiltroConsultas(
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        LocalDateTime de,
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        LocalDateTime ate,
+
+        Long idMedico,
+
+        Long idPaciente) {
+}
@@ -5,12 +5,16 @@ import lombok.*;
 import med.voll.api.enums.Especialidade;
 import med.voll.api.dtos.DadosAtualizacaoMedico;
 import med.voll.api.dtos.DadosCadastroMedico;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.function.Consumer;
 
 
 @Table(name = "medicos")
 @Entity(name = "Medico")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "medicos")
 @Getter
 @Setter
 @NoArgsConstructor
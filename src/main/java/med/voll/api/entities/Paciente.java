@@ -4,12 +4,16 @@ import jakarta.persistence.*;
 import lombok.*;
 import med.voll.api.dtos.DadosAtualizacaoPaciente;
 import med.voll.api.dtos.DadosCadastroPaciente;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.function.Consumer;
 
 
 @Entity(name = "Paciente")
 @Table(name = "pacientes")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pacientes")
 @Getter
 @Setter
 @EqualsAndHashCode(of = "id")
@@ -0,0 +1,52 @@
+package med.voll.api.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Refresh token emitido no login. Só o SHA-256 do valor entregue ao cliente é gravado.
+ * Todos os tokens gerados a partir de um mesmo login compartilham a {@code familia}: quando um token
+ * já usado é apresentado de novo, a família inteira é revogada.
+ */
+@Table(name = "refresh_tokens")
+@Entity(name = "RefreshToken")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id")
+    private Usuario usuario;
+
+    private String familia;
+
+    private String hash;
+
+    @Column(name = "expira_em")
+    private LocalDateTime expiraEm;
+
+    @Column(name = "usado_em")
+    private LocalDateTime usadoEm;
+
+    @Column(name = "revogado_em")
+    private LocalDateTime revogadoEm;
+
+    public RefreshToken(Usuario usuario, String familia, String hash, LocalDateTime expiraEm) {
+        this(null, usuario, familia, hash, expiraEm, null, null);
+    }
+
+    public boolean isValido(LocalDateTime agora) {
+        return revogadoEm == null && expiraEm.isAfter(agora);
+    }
+}
@@ -0,0 +1,74 @@
+package med.voll.api.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import med.voll.api.consulta.eventos.ConsultaAgendada;
+import med.voll.api.consulta.eventos.ConsultaCancelada;
+import med.voll.api.consulta.eventos.EventoConsulta;
+import med.voll.api.enums.MotivoCancelamento;
+import med.voll.api.enums.TipoEventoConsulta;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha da caixa de saída (outbox) de eventos de consulta, gravada na mesma transação que o agendamento
+ * ou o cancelamento. Fica com {@code publicadoEm} nulo até todos os consumidores processarem o evento.
+ */
+@Table(name = "eventos_consultas")
+@Entity(name = "RegistroEventoConsulta")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class RegistroEventoConsulta {
+
+    // sequência, como em Consulta, para que os eventos de um agendamento em lote saiam num único lote JDBC
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "eventos_consultas_seq")
+    @SequenceGenerator(name = "eventos_consultas_seq", sequenceName = "eventos_consultas_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private TipoEventoConsulta tipo;
+
+    @Column(name = "consulta_id")
+    private Long idConsulta;
+
+    @Column(name = "medico_id")
+    private Long idMedico;
+
+    @Column(name = "paciente_id")
+    private Long idPaciente;
+
+    private LocalDateTime data;
+
+    @Column(name = "motivo_cancelamento")
+    @Enumerated(EnumType.STRING)
+    private MotivoCancelamento motivoCancelamento;
+
+    @Column(name = "ocorrido_em")
+    private LocalDateTime ocorridoEm;
+
+    @Column(name = "publicado_em")
+    private LocalDateTime publicadoEm;
+
+    public static RegistroEventoConsulta agendamento(Consulta consulta) {
+        return new RegistroEventoConsulta(null, TipoEventoConsulta.AGENDADA, consulta.getId(), consulta.getMedico().getId(),
+                consulta.getPaciente().getId(), consulta.getData(), null, LocalDateTime.now(), null);
+    }
+
+    public static RegistroEventoConsulta cancelamento(Consulta consulta) {
+        return new RegistroEventoConsulta(null, TipoEventoConsulta.CANCELADA, consulta.getId(), consulta.getMedico().getId(),
+                consulta.getPaciente().getId(), consulta.getData(), consulta.getMotivoCancelamento(), LocalDateTime.now(), null);
+    }
+
+    public EventoConsulta paraEvento() {
+        return switch (tipo) {
+            case AGENDADA -> new ConsultaAgendada(id, idConsulta, idMedico, idPaciente, data, ocorridoEm);
+            case CANCELADA -> new ConsultaCancelada(id, idConsulta, idMedico, idPaciente, data, motivoCancelamento, ocorridoEm);
+        };
+    }
+}
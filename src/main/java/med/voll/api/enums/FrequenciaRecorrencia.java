@@ -0,0 +1,19 @@
+package med.voll.api.enums;
+
+import java.time.LocalDateTime;
+
+public enum FrequenciaRecorrencia {
+
+    SEMANAL(1),
+    QUINZENAL(2);
+
+    private final int semanas;
+
+    FrequenciaRecorrencia(int semanas) {
+        this.semanas = semanas;
+    }
+
+    public LocalDateTime ocorrencia(LocalDateTime primeira, int indice) {
+        return primeira.plusWeeks((long) semanas * indice);
+    }
+}
@@ -0,0 +1,14 @@
+package med.voll.api.enums;
+
+public enum ModoAgendamentoSerie {
+
+    /**
+     * Agenda a série somente se todas as ocorrências forem válidas.
+     */
+    TUDO_OU_NADA,
+
+    /**
+     * Agenda as ocorrências válidas e informa as rejeitadas.
+     */
+    MELHOR_ESFORCO
+}
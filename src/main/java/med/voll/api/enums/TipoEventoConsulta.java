@@ -0,0 +1,7 @@
+package med.voll.api.enums;
+
+public enum TipoEventoConsulta {
+
+    AGENDADA,
+    CANCELADA
+}
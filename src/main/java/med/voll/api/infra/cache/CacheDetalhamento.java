@@ -0,0 +1,129 @@
+package med.voll.api.infra.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cache de leitura dos detalhamentos por id, limitado em tamanho (LRU) e em tempo ({@code ttl}).
+ * <p>
+ * Fica acima do cache de segundo nível do Hibernate: um acerto no segundo nível ainda remonta a entidade e o
+ * {@code Endereco} a partir do estado desmontado, registra tudo no contexto de persistência e só então monta o
+ * record. Aqui o acerto devolve o record imutável já pronto, sem passar pelo Hibernate. Uma falha costuma ser
+ * atendida pelo segundo nível, então a carga é barata e o {@code ttl} pode ser curto.
+ * <p>
+ * Quem altera o registro chama {@link #invalidar(Long)} depois do commit. A carga só é guardada se a geração do
+ * segmento não mudou enquanto ela lia o banco (ver {@link LruSegmentado}), então uma leitura concorrente com a
+ * alteração nunca repõe no cache o valor antigo.
+ * <p>
+ * Métricas, todas com a tag {@code cache}: {@code api.cache.detalhamento{resultado=acerto|falha}},
+ * {@code api.cache.detalhamento.remocoes{causa=tamanho|expiracao|invalidacao}},
+ * o timer {@code api.cache.detalhamento.carga} e os gauges {@code .tamanho} e {@code .taxa-acerto}.
+ */
+public class CacheDetalhamento<V> {
+
+    private record Entrada<V>(V valor, long expiraEmNanos) {
+    }
+
+    private final LruSegmentado<Long, Entrada<V>> entradas;
+    private final boolean habilitado;
+    private final long ttlNanos;
+
+    private final Counter acertos;
+    private final Counter falhas;
+    private final Counter removidasPorTamanho;
+    private final Counter removidasPorExpiracao;
+    private final Counter removidasPorInvalidacao;
+    private final Timer carga;
+
+    public CacheDetalhamento(String nome, int capacidade, Duration ttl, MeterRegistry meterRegistry) {
+        this.habilitado = capacidade > 0 && !ttl.isZero() && !ttl.isNegative();
+        this.ttlNanos = ttl.toNanos();
+
+        this.acertos = contador("api.cache.detalhamento", "Consultas ao cache de detalhamento", nome, "resultado", "acerto", meterRegistry);
+        this.falhas = contador("api.cache.detalhamento", "Consultas ao cache de detalhamento", nome, "resultado", "falha", meterRegistry);
+        this.removidasPorTamanho = contador("api.cache.detalhamento.remocoes", "Entradas removidas do cache de detalhamento", nome, "causa", "tamanho", meterRegistry);
+        this.removidasPorExpiracao = contador("api.cache.detalhamento.remocoes", "Entradas removidas do cache de detalhamento", nome, "causa", "expiracao", meterRegistry);
+        this.removidasPorInvalidacao = contador("api.cache.detalhamento.remocoes", "Entradas removidas do cache de detalhamento", nome, "causa", "invalidacao", meterRegistry);
+        this.carga = Timer.builder("api.cache.detalhamento.carga")
+                .description("Tempo de carga do banco nas falhas do cache de detalhamento")
+                .tag("cache", nome)
+                .register(meterRegistry);
+        Gauge.builder("api.cache.detalhamento.tamanho", this, CacheDetalhamento::tamanho)
+                .description("Entradas no cache de detalhamento")
+                .tag("cache", nome)
+                .register(meterRegistry);
+        Gauge.builder("api.cache.detalhamento.taxa-acerto", this, CacheDetalhamento::taxaAcerto)
+                .description("Fração das consultas ao cache de detalhamento atendidas sem ir ao banco")
+                .tag("cache", nome)
+                .register(meterRegistry);
+
+        this.entradas = new LruSegmentado<>(capacidade, removidasPorTamanho::increment);
+    }
+
+    /**
+     * Devolve o valor em cache ou executa {@code carregar}, guardando o resultado. Exceções da carga
+     * (registro inexistente ou inativo) são propagadas e nada é guardado.
+     */
+    public V buscar(Long id, Function<Long, V> carregar) {
+        if (!habilitado) {
+            return carregar.apply(id);
+        }
+
+        var agora = System.nanoTime();
+        var geracao = entradas.geracao(id);
+        var entrada = entradas.buscar(id);
+        if (entrada != null) {
+            if (entrada.expiraEmNanos() - agora > 0) {
+                acertos.increment();
+                return entrada.valor();
+            }
+            if (entradas.remover(id, entrada)) {
+                removidasPorExpiracao.increment();
+            }
+        }
+
+        falhas.increment();
+        var inicio = System.nanoTime();
+        var valor = carregar.apply(id);
+        var fim = System.nanoTime();
+        carga.record(fim - inicio, TimeUnit.NANOSECONDS);
+        if (valor != null) {
+            entradas.guardarSeGeracao(id, new Entrada<>(valor, fim + ttlNanos), geracao);
+        }
+        return valor;
+    }
+
+    public void invalidar(Long id) {
+        if (habilitado && entradas.invalidar(id)) {
+            removidasPorInvalidacao.increment();
+        }
+    }
+
+    public void limpar() {
+        entradas.limpar();
+    }
+
+    public int tamanho() {
+        return entradas.tamanho();
+    }
+
+    private double taxaAcerto() {
+        var consultas = acertos.count() + falhas.count();
+        return consultas == 0 ? 0 : acertos.count() / consultas;
+    }
+
+    private static Counter contador(String nomeMedidor, String descricao, String cache, String tag, String valor,
+                                    MeterRegistry meterRegistry) {
+        return Counter.builder(nomeMedidor)
+                .description(descricao)
+                .tag("cache", cache)
+                .tag(tag, valor)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,30 @@
+package med.voll.api.infra.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import med.voll.api.dtos.DadosDetalhamentoMedico;
+import med.voll.api.dtos.DadosDetalhamentoPaciente;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheDetalhamentoConfigurations {
+
+    @Value("${api.cache.detalhamento.capacidade:1000}")
+    private int capacidade;
+
+    @Value("${api.cache.detalhamento.ttl:PT1M}")
+    private Duration ttl;
+
+    @Bean
+    public CacheDetalhamento<DadosDetalhamentoMedico> cacheDetalhamentoMedico(MeterRegistry meterRegistry) {
+        return new CacheDetalhamento<>("medicos", capacidade, ttl, meterRegistry);
+    }
+
+    @Bean
+    public CacheDetalhamento<DadosDetalhamentoPaciente> cacheDetalhamentoPaciente(MeterRegistry meterRegistry) {
+        return new CacheDetalhamento<>("pacientes", capacidade, ttl, meterRegistry);
+    }
+}
@@ -0,0 +1,133 @@
+package med.voll.api.infra.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mapa limitado em tamanho que descarta a entrada usada há mais tempo (LRU), dividido em segmentos
+ * independentes, cada um um {@link LinkedHashMap} em ordem de acesso com o próprio lock, para reduzir a disputa
+ * entre threads. A capacidade vale por segmento ({@code capacidade / 16}), então o total nunca passa dela.
+ * <p>
+ * Cada segmento guarda uma geração, incrementada em {@link #invalidar} e {@link #limpar}: quem lê o banco numa
+ * falha anota a geração antes e grava com {@link #guardarSeGeracao}, e uma carga concorrente com uma invalidação
+ * não repõe o valor antigo.
+ */
+public class LruSegmentado<K, V> {
+
+    private static final int SEGMENTOS = 16;
+
+    private final Segmento<K, V>[] segmentos;
+
+    /**
+     * {@code aoDescartar} roda a cada entrada descartada por falta de espaço, dentro do lock do segmento.
+     */
+    @SuppressWarnings("unchecked")
+    public LruSegmentado(int capacidade, Runnable aoDescartar) {
+        var capacidadePorSegmento = Math.max(1, capacidade / SEGMENTOS);
+        this.segmentos = new Segmento[SEGMENTOS];
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento<>(capacidadePorSegmento, aoDescartar);
+        }
+    }
+
+    public V buscar(K chave) {
+        return segmento(chave).buscar(chave);
+    }
+
+    public void guardar(K chave, V valor) {
+        segmento(chave).guardar(chave, valor);
+    }
+
+    public long geracao(K chave) {
+        return segmento(chave).geracao();
+    }
+
+    public void guardarSeGeracao(K chave, V valor, long geracaoDaCarga) {
+        segmento(chave).guardarSeGeracao(chave, valor, geracaoDaCarga);
+    }
+
+    /**
+     * Remove a entrada só se ela ainda for {@code valor}, para não descartar uma carga mais nova.
+     */
+    public boolean remover(K chave, V valor) {
+        return segmento(chave).remover(chave, valor);
+    }
+
+    public boolean invalidar(K chave) {
+        return segmento(chave).invalidar(chave);
+    }
+
+    public void limpar() {
+        for (var segmento : segmentos) {
+            segmento.limpar();
+        }
+    }
+
+    public int tamanho() {
+        var tamanho = 0;
+        for (var segmento : segmentos) {
+            tamanho += segmento.tamanho();
+        }
+        return tamanho;
+    }
+
+    private Segmento<K, V> segmento(K chave) {
+        var hash = chave.hashCode();
+        return segmentos[(hash ^ (hash >>> 16)) & (SEGMENTOS - 1)];
+    }
+
+    private static class Segmento<K, V> {
+
+        private final LinkedHashMap<K, V> entradas;
+        private long geracao;
+
+        Segmento(int capacidade, Runnable aoDescartar) {
+            this.entradas = new LinkedHashMap<>(capacidade * 4 / 3 + 1, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> maisAntiga) {
+                    if (size() > capacidade) {
+                        aoDescartar.run();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized V buscar(K chave) {
+            return entradas.get(chave);
+        }
+
+        synchronized void guardar(K chave, V valor) {
+            entradas.put(chave, valor);
+        }
+
+        synchronized long geracao() {
+            return geracao;
+        }
+
+        synchronized void guardarSeGeracao(K chave, V valor, long geracaoDaCarga) {
+            if (geracao == geracaoDaCarga) {
+                entradas.put(chave, valor);
+            }
+        }
+
+        synchronized boolean remover(K chave, V valor) {
+            return entradas.remove(chave, valor);
+        }
+
+        synchronized boolean invalidar(K chave) {
+            geracao++;
+            return entradas.remove(chave) != null;
+        }
+
+        synchronized void limpar() {
+            geracao++;
+            entradas.clear();
+        }
+
+        synchronized int tamanho() {
+            return entradas.size();
+        }
+    }
+}
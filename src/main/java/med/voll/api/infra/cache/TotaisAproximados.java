@@ -0,0 +1,59 @@
+package med.voll.api.infra.cache;
+
+import med.voll.api.repositories.MedicoRepository;
+import med.voll.api.repositories.PacienteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Total de médicos e pacientes ativos para as listagens em fatias, recontado periodicamente
+ * ({@code api.listagem.total-aproximado.intervalo}) em vez de a cada requisição. Entre duas
+ * recontagens o valor pode divergir do banco pelos cadastros e exclusões do intervalo.
+ */
+@Component
+public class TotaisAproximados {
+
+    private static final Logger log = LoggerFactory.getLogger(TotaisAproximados.class);
+
+    private final MedicoRepository medicoRepository;
+    private final PacienteRepository pacienteRepository;
+
+    private volatile Long medicosAtivos;
+    private volatile Long pacientesAtivos;
+
+    public TotaisAproximados(MedicoRepository medicoRepository, PacienteRepository pacienteRepository) {
+        this.medicoRepository = medicoRepository;
+        this.pacienteRepository = pacienteRepository;
+    }
+
+    public long medicosAtivos() {
+        var total = medicosAtivos;
+        if (total == null) {
+            total = medicosAtivos = medicoRepository.countByAtivoTrue();
+        }
+        return total;
+    }
+
+    public long pacientesAtivos() {
+        var total = pacientesAtivos;
+        if (total == null) {
+            total = pacientesAtivos = pacienteRepository.countByAtivoTrue();
+        }
+        return total;
+    }
+
+    @Scheduled(fixedDelayString = "${api.listagem.total-aproximado.intervalo:PT1M}",
+            initialDelayString = "${api.listagem.total-aproximado.intervalo:PT1M}")
+    public void recontar() {
+        // só reconta o que já foi pedido alguma vez
+        if (medicosAtivos != null) {
+            medicosAtivos = medicoRepository.countByAtivoTrue();
+        }
+        if (pacientesAtivos != null) {
+            pacientesAtivos = pacienteRepository.countByAtivoTrue();
+        }
+        log.debug("Totais aproximados recontados: {} médicos e {} pacientes ativos.", medicosAtivos, pacientesAtivos);
+    }
+}
@@ -0,0 +1,106 @@
+package med.voll.api.infra.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import med.voll.api.infra.cache.LruSegmentado;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Cache dos tokens JWT já verificados, para que o mesmo token reaproveitado em várias requisições não repita a
+ * verificação da assinatura. Guarda o subject e, só quando o principal vem das claims do próprio token, o principal
+ * e as authorities; sem principal, quem consulta o cache ainda busca o usuário.
+ * <p>
+ * A chave é o SHA-256 do token (o token em si não fica em memória). Cada entrada expira no {@code exp}
+ * do token ou após {@code api.security.token.cache.ttl-maximo}, o que vier primeiro. A capacidade é dividida em
+ * segmentos LRU independentes ({@link LruSegmentado}) para reduzir a disputa entre threads.
+ */
+@Component
+public class CacheTokensVerificados {
+
+    public record TokenVerificado(String subject, Object principal, Collection<? extends GrantedAuthority> authorities,
+                                  long expiraEmMillis) {
+    }
+
+    private record ChaveToken(long parte1, long parte2, long parte3, long parte4) {
+    }
+
+    private final LruSegmentado<ChaveToken, TokenVerificado> tokens;
+    private final boolean habilitado;
+    private final long ttlMaximoMillis;
+    private final Counter acertos;
+    private final Counter falhas;
+
+    public CacheTokensVerificados(@Value("${api.security.token.cache.capacidade:10000}") int capacidade,
+                                  @Value("${api.security.token.cache.ttl-maximo:PT5M}") Duration ttlMaximo,
+                                  MeterRegistry meterRegistry) {
+        this.habilitado = capacidade > 0;
+        this.ttlMaximoMillis = ttlMaximo.toMillis();
+        this.tokens = new LruSegmentado<>(capacidade, () -> { });
+
+        this.acertos = Counter.builder("api.seguranca.token.cache")
+                .description("Consultas ao cache de tokens JWT verificados")
+                .tag("resultado", "acerto")
+                .register(meterRegistry);
+        this.falhas = Counter.builder("api.seguranca.token.cache")
+                .description("Consultas ao cache de tokens JWT verificados")
+                .tag("resultado", "falha")
+                .register(meterRegistry);
+        Gauge.builder("api.seguranca.token.cache.tamanho", this, CacheTokensVerificados::tamanho)
+                .description("Tokens JWT verificados em cache")
+                .register(meterRegistry);
+    }
+
+    public TokenVerificado buscar(String tokenJWT) {
+        if (!habilitado) {
+            return null;
+        }
+
+        var chave = chave(tokenJWT);
+        var verificado = tokens.buscar(chave);
+        if (verificado != null && verificado.expiraEmMillis() <= System.currentTimeMillis()) {
+            tokens.remover(chave, verificado);
+            verificado = null;
+        }
+        (verificado != null ? acertos : falhas).increment();
+        return verificado;
+    }
+
+    public TokenVerificado guardar(String tokenJWT, String subject, Object principal,
+                                   Collection<? extends GrantedAuthority> authorities, Instant expiraEm) {
+        var limite = System.currentTimeMillis() + ttlMaximoMillis;
+        var verificado = new TokenVerificado(subject, principal, authorities,
+                expiraEm == null ? limite : Math.min(expiraEm.toEpochMilli(), limite));
+        if (habilitado) {
+            tokens.guardar(chave(tokenJWT), verificado);
+        }
+        return verificado;
+    }
+
+    public void limpar() {
+        tokens.limpar();
+    }
+
+    public int tamanho() {
+        return tokens.tamanho();
+    }
+
+    private static ChaveToken chave(String tokenJWT) {
+        try {
+            var digest = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(tokenJWT.getBytes(StandardCharsets.UTF_8)));
+            return new ChaveToken(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -2,5 +2,7 @@ package med.voll.api.infra.security;
 
 public record DadosTokenJWT(
 
-        String token) {
+        String token,
+
+        String refreshToken) {
 }
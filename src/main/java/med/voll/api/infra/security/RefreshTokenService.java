@@ -0,0 +1,115 @@
+package med.voll.api.infra.security;
+
+import med.voll.api.entities.RefreshToken;
+import med.voll.api.entities.Usuario;
+import med.voll.api.infra.exceptions.ValidacaoException;
+import med.voll.api.repositories.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Emite e rotaciona refresh tokens, para que o cliente renove o token de acesso sem repetir
+ * a verificação BCrypt da senha. Cada uso gera um novo refresh token da mesma família e invalida o anterior;
+ * a reapresentação de um token já usado indica vazamento e revoga a família inteira.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final String REFRESH_TOKEN_INVALIDO = "Refresh token inválido ou expirado!";
+    private static final int BYTES_TOKEN = 32;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenService tokenService;
+    private final Duration validade;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               TokenService tokenService,
+                               @Value("${api.security.refresh-token.validade:P30D}") Duration validade) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.tokenService = tokenService;
+        this.validade = validade;
+    }
+
+    /**
+     * Emite o primeiro refresh token de uma nova família, no login com senha.
+     */
+    @Transactional
+    public String emitir(Usuario usuario) {
+        return gravar(usuario, UUID.randomUUID().toString());
+    }
+
+    // a revogação da família por reuso precisa ser gravada mesmo com a requisição recusada
+    @Transactional(noRollbackFor = ValidacaoException.class)
+    public DadosTokenJWT renovar(String refreshToken) {
+        var agora = LocalDateTime.now();
+        var atual = refreshTokenRepository.findByHash(hash(refreshToken))
+                .orElseThrow(() -> new ValidacaoException(REFRESH_TOKEN_INVALIDO));
+
+        if (!atual.isValido(agora)) {
+            throw new ValidacaoException(REFRESH_TOKEN_INVALIDO);
+        }
+
+        if (atual.getUsadoEm() != null || refreshTokenRepository.marcarComoUsado(atual.getId(), agora) == 0) {
+            log.warn("Reuso de refresh token detectado para o usuário {}; família {} revogada.",
+                    atual.getUsuario().getLogin(), atual.getFamilia());
+            revogarFamilia(atual.getFamilia(), agora);
+            throw new ValidacaoException(REFRESH_TOKEN_INVALIDO);
+        }
+
+        var usuario = atual.getUsuario();
+        var novoRefreshToken = gravar(usuario, atual.getFamilia());
+        return new DadosTokenJWT(tokenService.gerarToken(usuario), novoRefreshToken);
+    }
+
+    @Transactional
+    public void revogar(String refreshToken) {
+        refreshTokenRepository.findByHash(hash(refreshToken))
+                .ifPresent(token -> revogarFamilia(token.getFamilia(), LocalDateTime.now()));
+    }
+
+    @Scheduled(cron = "0 15 3 * * *")
+    @Transactional
+    public void removerExpirados() {
+        var removidos = refreshTokenRepository.deleteExpiradosAntesDe(LocalDateTime.now());
+        log.info("{} refresh tokens expirados removidos.", removidos);
+    }
+
+    private void revogarFamilia(String familia, LocalDateTime agora) {
+        refreshTokenRepository.revogarFamilia(familia, agora);
+    }
+
+    private String gravar(Usuario usuario, String familia) {
+        var bytes = new byte[BYTES_TOKEN];
+        random.nextBytes(bytes);
+        var refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(usuario, familia, hash(refreshToken), LocalDateTime.now().plus(validade)));
+        return refreshToken;
+    }
+
+    private static String hash(String refreshToken) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
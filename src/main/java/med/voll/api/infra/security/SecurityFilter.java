@@ -1,18 +1,26 @@
 package med.voll.api.infra.security;
 
 
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import med.voll.api.infra.security.CacheTokensVerificados.TokenVerificado;
 import med.voll.api.repositories.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
@@ -23,21 +31,86 @@ public class SecurityFilter extends OncePerRequestFilter {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private CacheTokensVerificados cacheTokensVerificados;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
+    // true: principal montado só com as claims do token, sem acesso ao banco;
+    // false: usuário buscado no banco, para quem precisa que a revogação de contas valha na hora
+    @Value("${api.security.token.somente-claims:false}")
+    private boolean somenteClaims;
+
+    private Timer tempoCache;
+    private Timer tempoClaims;
+    private Timer tempoBanco;
+
+    @PostConstruct
+    void registrarMetricas() {
+        tempoCache = tempoDaAutenticacao("cache");
+        tempoClaims = tempoDaAutenticacao("claims");
+        tempoBanco = tempoDaAutenticacao("banco");
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         var tokenJWT = recuperarToken(request);
 
         if (tokenJWT != null) {
-            var subject = tokenService.getSubject(tokenJWT);
-            var usuario = usuarioRepository.findByLogin(subject);
-            var authentication = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+            var verificado = resolverToken(tokenJWT);
+            if (verificado != null) {
+                var authentication = new UsernamePasswordAuthenticationToken(verificado.principal(), null, verificado.authorities());
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * No modo somente-claims o principal montado das claims fica no cache junto com a verificação. No modo padrão o
+     * cache guarda só a verificação da assinatura e da validade, e o usuário é buscado no banco a cada requisição,
+     * para que uma conta removida ou alterada perca o acesso na hora. Devolve {@code null} quando o usuário do token
+     * não existe mais: a requisição segue sem autenticação.
+     */
+    private TokenVerificado resolverToken(String tokenJWT) {
+        var inicio = System.nanoTime();
+        var verificado = cacheTokensVerificados.buscar(tokenJWT);
+        if (verificado != null && verificado.principal() != null) {
+            tempoCache.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return verificado;
+        }
+
+        if (verificado == null) {
+            var jwt = tokenService.verificar(tokenJWT);
+            var usuario = somenteClaims ? tokenService.usuarioAutenticado(jwt) : null;
+            if (usuario != null) {
+                verificado = cacheTokensVerificados.guardar(tokenJWT, jwt.getSubject(), usuario, usuario.authorities(), expiraEm(jwt));
+                tempoClaims.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                return verificado;
+            }
+            verificado = cacheTokensVerificados.guardar(tokenJWT, jwt.getSubject(), null, null, expiraEm(jwt));
+        }
+
+        var usuario = usuarioRepository.findByLogin(verificado.subject());
+        tempoBanco.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        if (usuario == null) {
+            return null;
+        }
+        return new TokenVerificado(verificado.subject(), usuario, usuario.getAuthorities(), verificado.expiraEmMillis());
+    }
+
+    private Timer tempoDaAutenticacao(String origem) {
+        return Timer.builder("api.seguranca.autenticacao")
+                .description("Tempo para resolver o principal de um token JWT")
+                .tag("origem", origem)
+                .register(meterRegistry);
+    }
+
+    private static Instant expiraEm(DecodedJWT jwt) {
+        return jwt.getExpiresAt() == null ? null : jwt.getExpiresAt().toInstant();
+    }
+
     private String recuperarToken(HttpServletRequest request) {
         var authorizationHeader = request.getHeader("Authorization");
         if (authorizationHeader != null) {
@@ -2,32 +2,47 @@ package med.voll.api.infra.security;
 
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import med.voll.api.entities.Usuario;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.List;
 
 @Service
 public class TokenService {
 
     private static final String ISSUER = "API Voll.med";
+    private static final String CLAIM_ID = "id";
+    private static final String CLAIM_AUTHORITIES = "authorities";
 
-    @Value("${api.security.token.secret}")
-    private String secret;
+    // algoritmo e verificador são imutáveis e thread-safe: montados uma única vez
+    private final Algorithm algoritmo;
+    private final JWTVerifier verificador;
 
+    public TokenService(@Value("${api.security.token.secret}") String secret) {
+        this.algoritmo = Algorithm.HMAC256(secret);
+        this.verificador = JWT.require(algoritmo)
+                .withIssuer(ISSUER)
+                .build();
+    }
 
     public String gerarToken(Usuario usuario) {
         try {
-            var algoritmo = Algorithm.HMAC256(secret);
             return JWT.create()
                     .withIssuer(ISSUER)
                     .withSubject(usuario.getLogin())
+                    .withClaim(CLAIM_ID, usuario.getId())
+                    .withClaim(CLAIM_AUTHORITIES, usuario.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())
                     .withExpiresAt(dataExpiracao())
                     .sign(algoritmo);
         } catch (JWTCreationException exception){
@@ -36,19 +51,33 @@ public class TokenService {
     }
 
     public String getSubject(String tokenJWT) {
+        return verificar(tokenJWT).getSubject();
+    }
+
+    public DecodedJWT verificar(String tokenJWT) {
         try {
-            var algoritmo = Algorithm.HMAC256(secret);
-            return JWT.require(algoritmo)
-                    .withIssuer(ISSUER)
-                    .build()
-                    .verify(tokenJWT)
-                    .getSubject();
+            return verificador.verify(tokenJWT);
         } catch (JWTVerificationException exception) {
             throw new RuntimeException("Token JWT inválido ou expirado: " +tokenJWT);
 
         }
     }
 
+    /**
+     * Monta o principal a partir das claims de um token já verificado. Devolve {@code null} para tokens
+     * emitidos antes das claims de id e authorities existirem, que precisam da busca do usuário no banco.
+     */
+    public UsuarioAutenticado usuarioAutenticado(DecodedJWT jwt) {
+        var id = jwt.getClaim(CLAIM_ID);
+        var authorities = jwt.getClaim(CLAIM_AUTHORITIES);
+        if (id.isMissing() || id.isNull() || authorities.isMissing() || authorities.isNull()) {
+            return null;
+        }
+        return new UsuarioAutenticado(id.asLong(), jwt.getSubject(), authorities.asList(String.class).stream()
+                .map(authority -> (GrantedAuthority) new SimpleGrantedAuthority(authority))
+                .toList());
+    }
+
     private Instant dataExpiracao() {
         return LocalDateTime.now().plusHours(1).toInstant(ZoneOffset.of("-03:00"));
     }
@@ -0,0 +1,18 @@
+package med.voll.api.infra.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Principal montado apenas com as claims de um token verificado, usado no modo
+ * {@code api.security.token.somente-claims} sem acesso ao banco.
+ */
+public record UsuarioAutenticado(Long id, String login, List<GrantedAuthority> authorities) implements Principal {
+
+    @Override
+    public String getName() {
+        return login;
+    }
+}
@@ -1,13 +1,131 @@
 package med.voll.api.repositories;
 
+import jakarta.persistence.QueryHint;
+import med.voll.api.consulta.agenda.ConsultaAgendaMedico;
+import med.voll.api.consulta.ocupacao.OcupacaoConsulta;
+import med.voll.api.consulta.validacoes.agendamento.SituacaoAgendamento;
+import med.voll.api.dtos.DadosDetalhamentoConsulta;
 import med.voll.api.entities.Consulta;
+import med.voll.api.enums.Especialidade;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface ConsultaRepository extends JpaRepository<Consulta, Long> {
 
     boolean existsByPacienteIdAndDataBetween(Long idPaciente, LocalDateTime primeiroHorario, LocalDateTime ultimoHorario);
 
     boolean existsByMedicoIdAndDataAndMotivoCancelamentoIsNull(Long idMedico, LocalDateTime data);
+
+    /**
+     * Carrega numa única ida ao banco a situação do paciente e do médico para a cadeia de validação do agendamento.
+     * A ocupação dos horários não é consultada aqui: quem garante é o índice único no insert.
+     */
+    @Query(nativeQuery = true, value = """
+            select
+            (select p.ativo from pacientes p where p.id = :idPaciente) as pacienteAtivo,
+            (select m.ativo from medicos m where m.id = :idMedico) as medicoAtivo
+            """)
+    SituacaoAgendamento findSituacaoAgendamento(Long idPaciente, Long idMedico);
+
+    @Query("""
+            select new med.voll.api.consulta.ocupacao.OcupacaoConsulta(c.medico.id, c.paciente.id, c.data, c.motivoCancelamento)
+            from Consulta c
+            where
+            c.data >= :inicio
+            """)
+    List<OcupacaoConsulta> findOcupacoesAPartirDe(LocalDateTime inicio);
+
+    @Query("""
+            select new med.voll.api.consulta.ocupacao.OcupacaoConsulta(c.medico.id, c.paciente.id, c.data, c.motivoCancelamento)
+            from Consulta c
+            where
+            c.data in :datas
+            and
+            c.motivoCancelamento is null
+            """)
+    List<OcupacaoConsulta> findOcupacoesAtivasByDataIn(Collection<LocalDateTime> datas);
+
+    @Query("""
+            select new med.voll.api.consulta.ocupacao.OcupacaoConsulta(c.medico.id, c.paciente.id, c.data, c.motivoCancelamento)
+            from Consulta c
+            where
+            c.paciente.id in :idsPacientes
+            and
+            c.data >= :inicio
+            and
+            c.data < :fim
+            """)
+    List<OcupacaoConsulta> findOcupacoesDosPacientesNoPeriodo(Collection<Long> idsPacientes, LocalDateTime inicio, LocalDateTime fim);
+
+    @Query("""
+            select new med.voll.api.consulta.ocupacao.OcupacaoConsulta(c.medico.id, c.paciente.id, c.data, c.motivoCancelamento)
+            from Consulta c
+            where
+            c.data >= :inicio
+            and
+            c.data < :fim
+            and
+            c.motivoCancelamento is null
+            and
+            c.medico.especialidade = :especialidade
+            """)
+    List<OcupacaoConsulta> findOcupacoesAtivasDaEspecialidadeNoPeriodo(Especialidade especialidade, LocalDateTime inicio, LocalDateTime fim);
+
+    @Query("""
+            select new med.voll.api.dtos.DadosDetalhamentoConsulta(c.id, c.medico.id, c.paciente.id, c.data)
+            from Consulta c
+            where
+            (:de is null or c.data >= :de)
+            and
+            (:ate is null or c.data < :ate)
+            and
+            (:idMedico is null or c.medico.id = :idMedico)
+            and
+            (:idPaciente is null or c.paciente.id = :idPaciente)
+            and
+            (:cursorData is null or c.data > :cursorData or (c.data = :cursorData and c.id > :cursorId))
+            order by c.data, c.id
+            """)
+    List<DadosDetalhamentoConsulta> findPagina(LocalDateTime de, LocalDateTime ate, Long idMedico, Long idPaciente,
+                                               LocalDateTime cursorData, Long cursorId, Limit limite);
+
+    // fetch size Integer.MIN_VALUE faz o driver do MySQL ler o resultado linha a linha em vez de carregá-lo inteiro
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("""
+            select new med.voll.api.dtos.DadosDetalhamentoConsulta(c.id, c.medico.id, c.paciente.id, c.data)
+            from Consulta c
+            where
+            (:de is null or c.data >= :de)
+            and
+            (:ate is null or c.data < :ate)
+            and
+            (:idMedico is null or c.medico.id = :idMedico)
+            and
+            (:idPaciente is null or c.paciente.id = :idPaciente)
+            order by c.data, c.id
+            """)
+    Stream<DadosDetalhamentoConsulta> streamAll(LocalDateTime de, LocalDateTime ate, Long idMedico, Long idPaciente);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("""
+            select new med.voll.api.consulta.agenda.ConsultaAgendaMedico(c.id, p.id, p.nome, c.data, c.motivoCancelamento)
+            from Consulta c
+            join c.paciente p
+            where
+            c.medico.id = :idMedico
+            and
+            c.data >= :inicio
+            and
+            c.data < :fim
+            order by c.data, c.id
+            """)
+    Stream<ConsultaAgendaMedico> streamAgendaDoMedico(Long idMedico, LocalDateTime inicio, LocalDateTime fim);
 }
@@ -1,18 +1,72 @@
 package med.voll.api.repositories;
 
-import med.voll.api.enums.Especialidade;
+import jakarta.persistence.QueryHint;
+import med.voll.api.consulta.lote.SituacaoCadastro;
+import med.voll.api.consulta.selecao.MedicoAtivoEspecialidade;
+import med.voll.api.dtos.DadosDetalhamentoMedico;
+import med.voll.api.dtos.DadosListagemMedico;
 import med.voll.api.entities.Medico;
+import med.voll.api.enums.Especialidade;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface MedicoRepository extends JpaRepository<Medico, Long> {
 
-    Page<Medico> findAllByAtivoTrue(Pageable paginacao);
+    @Query(value = """
+            select new med.voll.api.dtos.DadosListagemMedico(m.id, m.nome, m.email, m.crm, m.especialidade)
+            from Medico m
+            where
+            m.ativo = true
+            """,
+            countQuery = """
+            select count(m) from Medico m
+            where
+            m.ativo = true
+            """)
+    Page<DadosListagemMedico> findListagemAtivos(Pageable paginacao);
+
+    @Query("""
+            select new med.voll.api.dtos.DadosListagemMedico(m.id, m.nome, m.email, m.crm, m.especialidade)
+            from Medico m
+            where
+            m.ativo = true
+            """)
+    Slice<DadosListagemMedico> findFatiaListagemAtivos(Pageable paginacao);
+
+    @Query("""
+            select new med.voll.api.dtos.DadosListagemMedico(m.id, m.nome, m.email, m.crm, m.especialidade)
+            from Medico m
+            where
+            m.ativo = true
+            and
+            (m.nome > :cursorNome or (m.nome = :cursorNome and m.id > :cursorId))
+            order by m.nome, m.id
+            """)
+    List<DadosListagemMedico> findFatiaListagemAposCursor(String cursorNome, Long cursorId, Limit limite);
+
+    long countByAtivoTrue();
+
+    @Query("""
+            select new med.voll.api.dtos.DadosListagemMedico(m.id, m.nome, m.email, m.crm, m.especialidade)
+            from Medico m
+            where
+            m.ativo = true
+            and
+            m.especialidade = :especialidade
+            order by m.nome, m.id
+            """)
+    List<DadosListagemMedico> findListagemAtivosByEspecialidade(Especialidade especialidade);
 
 
     @Query("""
@@ -34,6 +88,32 @@ public interface MedicoRepository extends JpaRepository<Medico, Long> {
                 """)
     Medico escolherMedicoAleatorioLivreNaData(Especialidade especialidade, LocalDateTime data);
 
+    @Query("""
+            select new med.voll.api.consulta.selecao.MedicoAtivoEspecialidade(m.id, m.especialidade)
+            from Medico m
+            where
+            m.ativo = true
+            """)
+    List<MedicoAtivoEspecialidade> findMedicosAtivosComEspecialidade();
+
+    @Query("""
+            select new med.voll.api.consulta.selecao.MedicoAtivoEspecialidade(m.id, m.especialidade)
+            from Medico m
+            where
+            m.ativo = true
+            and
+            m.especialidade in :especialidades
+            """)
+    List<MedicoAtivoEspecialidade> findMedicosAtivosByEspecialidadeIn(Collection<Especialidade> especialidades);
+
+    @Query("""
+            select new med.voll.api.consulta.lote.SituacaoCadastro(m.id, m.ativo)
+            from Medico m
+            where
+            m.id in :ids
+            """)
+    List<SituacaoCadastro> findSituacaoByIdIn(Collection<Long> ids);
+
     @Query("""
             select m.ativo
             from Medico m
@@ -42,6 +122,36 @@ public interface MedicoRepository extends JpaRepository<Medico, Long> {
             """)
     Boolean findAtivoById(Long id);
 
+    @Query("""
+            select m.email
+            from Medico m
+            where
+            m.email in :emails
+            """)
+    List<String> findEmailsCadastrados(Collection<String> emails);
+
+    @Query("""
+            select m.crm
+            from Medico m
+            where
+            m.crm in :crms
+            """)
+    List<String> findCrmsCadastrados(Collection<String> crms);
+
+    // em ordem de id a exportação percorre a chave primária sem ordenação no servidor, e o driver entrega a primeira
+    // linha sem esperar pelas demais
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("""
+            select new med.voll.api.dtos.DadosDetalhamentoMedico(m.id, m.nome, m.email, m.crm, m.telefone, m.especialidade,
+                m.endereco.logradouro, m.endereco.bairro, m.endereco.cep, m.endereco.numero, m.endereco.complemento,
+                m.endereco.cidade, m.endereco.uf)
+            from Medico m
+            where
+            m.ativo = true
+            order by m.id
+            """)
+    Stream<DadosDetalhamentoMedico> streamAtivos();
+
     @Query("SELECT DISTINCT m.nome FROM Medico m WHERE m.ativo = true")
     List<String> findDistinctByNome();
 }
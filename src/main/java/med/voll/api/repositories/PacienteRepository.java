@@ -1,16 +1,60 @@
 package med.voll.api.repositories;
 
+import jakarta.persistence.QueryHint;
+import med.voll.api.consulta.lote.SituacaoCadastro;
+import med.voll.api.dtos.DadosDetalhamentoPaciente;
+import med.voll.api.dtos.DadosListagemPaciente;
 import med.voll.api.entities.Paciente;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface PacienteRepository extends JpaRepository<Paciente, Long> {
 
     boolean existsByEmail(String email);
 
-    Page<Paciente> findAllByAtivoTrue(Pageable paginacao);
+    @Query(value = """
+            select new med.voll.api.dtos.DadosListagemPaciente(p.id, p.nome, p.email, p.cpf)
+            from Paciente p
+            where
+            p.ativo = true
+            """,
+            countQuery = """
+            select count(p) from Paciente p
+            where
+            p.ativo = true
+            """)
+    Page<DadosListagemPaciente> findListagemAtivos(Pageable paginacao);
+
+    @Query("""
+            select new med.voll.api.dtos.DadosListagemPaciente(p.id, p.nome, p.email, p.cpf)
+            from Paciente p
+            where
+            p.ativo = true
+            """)
+    Slice<DadosListagemPaciente> findFatiaListagemAtivos(Pageable paginacao);
+
+    @Query("""
+            select new med.voll.api.dtos.DadosListagemPaciente(p.id, p.nome, p.email, p.cpf)
+            from Paciente p
+            where
+            p.ativo = true
+            and
+            (p.nome > :cursorNome or (p.nome = :cursorNome and p.id > :cursorId))
+            order by p.nome, p.id
+            """)
+    List<DadosListagemPaciente> findFatiaListagemAposCursor(String cursorNome, Long cursorId, Limit limite);
+
+    long countByAtivoTrue();
 
     @Query("""
             select p.ativo
@@ -19,4 +63,42 @@ public interface PacienteRepository extends JpaRepository<Paciente, Long> {
             p.id = :id
             """)
     Boolean findAtivoById(Long id);
+
+    @Query("""
+            select new med.voll.api.consulta.lote.SituacaoCadastro(p.id, p.ativo)
+            from Paciente p
+            where
+            p.id in :ids
+            """)
+    List<SituacaoCadastro> findSituacaoByIdIn(Collection<Long> ids);
+
+    @Query("""
+            select p.email
+            from Paciente p
+            where
+            p.email in :emails
+            """)
+    List<String> findEmailsCadastrados(Collection<String> emails);
+
+    @Query("""
+            select p.cpf
+            from Paciente p
+            where
+            p.cpf in :cpfs
+            """)
+    List<String> findCpfsCadastrados(Collection<String> cpfs);
+
+    // em ordem de id a exportação percorre a chave primária sem ordenação no servidor, e o driver entrega a primeira
+    // linha sem esperar pelas demais
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("""
+            select new med.voll.api.dtos.DadosDetalhamentoPaciente(p.id, p.nome, p.email, p.telefone, p.cpf,
+                p.endereco.logradouro, p.endereco.bairro, p.endereco.cep, p.endereco.numero, p.endereco.complemento,
+                p.endereco.cidade, p.endereco.uf)
+            from Paciente p
+            where
+            p.ativo = true
+            order by p.id
+            """)
+    Stream<DadosDetalhamentoPaciente> streamAtivos();
 }
@@ -0,0 +1,55 @@
+package med.voll.api.repositories;
+
+import med.voll.api.entities.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    @Query("""
+            select r from RefreshToken r
+            join fetch r.usuario
+            where
+            r.hash = :hash
+            """)
+    Optional<RefreshToken> findByHash(String hash);
+
+    /**
+     * Marca o token como usado somente se ninguém o usou antes; devolve 0 quando outra requisição chegou primeiro.
+     */
+    @Modifying
+    @Query("""
+            update RefreshToken r
+            set r.usadoEm = :agora
+            where
+            r.id = :id
+            and
+            r.usadoEm is null
+            """)
+    int marcarComoUsado(Long id, LocalDateTime agora);
+
+    @Modifying
+    @Query("""
+            update RefreshToken r
+            set r.revogadoEm = :agora
+            where
+            r.familia = :familia
+            and
+            r.revogadoEm is null
+            """)
+    int revogarFamilia(String familia, LocalDateTime agora);
+
+    @Modifying
+    @Query("""
+            delete from RefreshToken r
+            where
+            r.expiraEm < :limite
+            """)
+    int deleteExpiradosAntesDe(LocalDateTime limite);
+}
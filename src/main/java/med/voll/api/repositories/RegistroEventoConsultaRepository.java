@@ -0,0 +1,43 @@
+package med.voll.api.repositories;
+
+import med.voll.api.entities.RegistroEventoConsulta;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface RegistroEventoConsultaRepository extends JpaRepository<RegistroEventoConsulta, Long> {
+
+    @Query("""
+            select e from RegistroEventoConsulta e
+            where
+            e.publicadoEm is null
+            and
+            e.ocorridoEm <= :ocorridosAte
+            order by e.id
+            """)
+    List<RegistroEventoConsulta> findPendentes(LocalDateTime ocorridosAte, Limit limite);
+
+    @Modifying
+    @Query("""
+            update RegistroEventoConsulta e
+            set e.publicadoEm = :agora
+            where
+            e.id in :ids
+            and
+            e.publicadoEm is null
+            """)
+    int marcarComoPublicados(Collection<Long> ids, LocalDateTime agora);
+
+    @Modifying
+    @Query("""
+            delete from RegistroEventoConsulta e
+            where
+            e.publicadoEm < :limite
+            """)
+    int deletePublicadosAntesDe(LocalDateTime limite);
+}
@@ -1,7 +1,10 @@
 package med.voll.api.repositories;
 
+import jakarta.persistence.QueryHint;
 import med.voll.api.entities.Usuario;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Repository;
 
@@ -9,5 +12,7 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
+    // resultado no cache de consultas (região default-query-results-region), invalidado a cada escrita em usuarios
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     UserDetails findByLogin(String login);
 }
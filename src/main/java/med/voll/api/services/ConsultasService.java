@@ -1,20 +1,55 @@
 package med.voll.api.services;
 
-import med.voll.api.consulta.validacoes.agendamento.ValidadorAgendamentoDeConsulta;
-import med.voll.api.consulta.validacoes.cancelamento.ValidadorCancelamentoDeConsulta;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import med.voll.api.consulta.agenda.VersoesAgendaMedicos;
+import med.voll.api.consulta.disponibilidade.BuscaProximoHorario;
+import med.voll.api.consulta.eventos.PublicadorEventosConsulta;
+import med.voll.api.consulta.lote.ItemLoteAgendamento;
+import med.voll.api.consulta.lote.PlanejadorAgendamentoEmLote;
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda;
+import med.voll.api.consulta.selecao.SelecaoMedicoLivre;
+import med.voll.api.consulta.validacoes.CadeiasValidacao;
+import med.voll.api.consulta.validacoes.agendamento.CarregadorContextoAgendamento;
+import med.voll.api.dtos.CursorConsulta;
 import med.voll.api.dtos.DadosAgendamentoConsulta;
+import med.voll.api.dtos.DadosAgendamentoSerie;
 import med.voll.api.dtos.DadosCancelamentoConsulta;
 import med.voll.api.dtos.DadosDetalhamentoConsulta;
+import med.voll.api.dtos.DadosHorarioDisponivel;
+import med.voll.api.dtos.DadosPaginaConsultas;
+import med.voll.api.dtos.DadosResultadoAgendamentoLote;
+import med.voll.api.dtos.DadosResultadoAgendamentoSerie;
+import med.voll.api.dtos.FiltroConsultas;
 import med.voll.api.entities.Consulta;
 import med.voll.api.entities.Medico;
+import med.voll.api.entities.RegistroEventoConsulta;
+import med.voll.api.enums.Especialidade;
+import med.voll.api.enums.ModoAgendamentoSerie;
+import med.voll.api.enums.MotivoCancelamento;
 import med.voll.api.infra.exceptions.ValidacaoException;
+import med.voll.api.infra.transacao.Transacoes;
 import med.voll.api.repositories.RepositoryFacade;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.service.spi.ServiceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ConsultasService {
@@ -26,36 +61,76 @@ public class ConsultasService {
     private static final String MEDICO_NAO_DISPONIVEL = "Não existe médico disponível nessa data!";
     private static final String CONSULTA_NAO_EXISTE = "Id da consulta informado não existe!";
     private static final String ESPECIALIDADE_OBRIGATORIA = "Especialidade é obrigatória quando médico não for escolhido!";
+    private static final String MEDICO_OCUPADO = "Médico já possui outra consulta agendada nesse mesmo horário";
+    private static final String PACIENTE_OCUPADO = "Paciente já possui uma consulta agendada nesse dia";
+    private static final String LOTE_INVALIDO = "O lote deve conter entre 1 e %d consultas.";
+    private static final String SERIE_INVALIDA = "A série deve ter entre 1 e %d ocorrências.";
+    private static final String FIM_SERIE_INVALIDO = "Informe a quantidade de ocorrências ou a data final da série, e não ambas.";
+    private static final String SERIE_NAO_AGENDADA = "Ocorrência válida, mas não agendada: a série é tudo ou nada e outra ocorrência foi rejeitada.";
+    private static final String ESPECIALIDADE_NAO_INFORMADA = "Especialidade é obrigatória!";
+    private static final String QUANTIDADE_HORARIOS_INVALIDA = "A quantidade de horários deve estar entre 1 e %d.";
+    private static final String ERRO_PROXIMO_HORARIO = "Erro ao buscar os próximos horários livres.";
+
+    private static final int MAX_TAMANHO_LOTE = 5_000;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_PROXIMOS_HORARIOS = 50;
+    private static final int MAX_OCORRENCIAS_SERIE = 52;
+
+    private static final String UK_MEDICO_HORARIO = "uk_consultas_medico_data";
+    private static final String UK_PACIENTE_DIA = "uk_consultas_paciente_dia";
 
     private final RepositoryFacade repositoryFacade;
-    private final List<ValidadorAgendamentoDeConsulta> validadorAgendamentoDeConsultas;
-    private final List<ValidadorCancelamentoDeConsulta> validadorCancelamentoDeConsultas;
+    private final CadeiasValidacao cadeiasValidacao;
+    private final IndiceOcupacaoAgenda indiceOcupacaoAgenda;
+    private final SelecaoMedicoLivre selecaoMedicoLivre;
+    private final PlanejadorAgendamentoEmLote planejadorAgendamentoEmLote;
+    private final ObjectMapper objectMapper;
+    private final CarregadorContextoAgendamento carregadorContextoAgendamento;
+    private final PublicadorEventosConsulta publicadorEventosConsulta;
+    private final BuscaProximoHorario buscaProximoHorario;
+    private final VersoesAgendaMedicos versoesAgendaMedicos;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<MotivoCancelamento, Counter> cancelamentosPorMotivo = new EnumMap<>(MotivoCancelamento.class);
 
 
 
-
-
-    public ConsultasService(RepositoryFacade repositoryFacade, List<ValidadorAgendamentoDeConsulta> validadorAgendamentoDeConsultas, List<ValidadorCancelamentoDeConsulta> validadorCancelamentoDeConsultas) {
+    public ConsultasService(RepositoryFacade repositoryFacade, CadeiasValidacao cadeiasValidacao, IndiceOcupacaoAgenda indiceOcupacaoAgenda, SelecaoMedicoLivre selecaoMedicoLivre, PlanejadorAgendamentoEmLote planejadorAgendamentoEmLote, ObjectMapper objectMapper, CarregadorContextoAgendamento carregadorContextoAgendamento, PublicadorEventosConsulta publicadorEventosConsulta, BuscaProximoHorario buscaProximoHorario, VersoesAgendaMedicos versoesAgendaMedicos, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
         this.repositoryFacade = repositoryFacade;
-        this.validadorAgendamentoDeConsultas = validadorAgendamentoDeConsultas;
-        this.validadorCancelamentoDeConsultas = validadorCancelamentoDeConsultas;
+        this.cadeiasValidacao = cadeiasValidacao;
+        this.indiceOcupacaoAgenda = indiceOcupacaoAgenda;
+        this.selecaoMedicoLivre = selecaoMedicoLivre;
+        this.planejadorAgendamentoEmLote = planejadorAgendamentoEmLote;
+        this.objectMapper = objectMapper;
+        this.carregadorContextoAgendamento = carregadorContextoAgendamento;
+        this.publicadorEventosConsulta = publicadorEventosConsulta;
+        this.buscaProximoHorario = buscaProximoHorario;
+        this.versoesAgendaMedicos = versoesAgendaMedicos;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (var motivo : MotivoCancelamento.values()) {
+            cancelamentosPorMotivo.put(motivo, Counter.builder("api.consulta.cancelamentos")
+                    .description("Consultas canceladas por motivo")
+                    .tag("motivo", motivo.name())
+                    .register(meterRegistry));
+        }
     }
 
     @Transactional
     public DadosDetalhamentoConsulta agendar(DadosAgendamentoConsulta dadosAgendamentoConsulta) {
         log.info("Iniciando agendamento de consulta para o paciente com ID: {}", dadosAgendamentoConsulta.idPaciente());
 
-        if (!repositoryFacade.getPacienteRepository().existsById(dadosAgendamentoConsulta.idPaciente())) {
+        var contexto = carregadorContextoAgendamento.carregar(dadosAgendamentoConsulta);
+
+        if (!contexto.pacienteExiste()) {
             log.error(PACIENTE_NAO_EXISTE);
             throw new ValidacaoException(PACIENTE_NAO_EXISTE);
         }
 
-        if (dadosAgendamentoConsulta.idMedico() != null && !repositoryFacade.getMedicoRepository().existsById(dadosAgendamentoConsulta.idMedico())) {
+        if (dadosAgendamentoConsulta.idMedico() != null && !contexto.medicoExiste()) {
             log.error(MEDICO_NAO_EXISTE);
             throw new ValidacaoException(MEDICO_NAO_EXISTE);
         }
 
-        validadorAgendamentoDeConsultas.forEach(validador -> validador.validar(dadosAgendamentoConsulta));
+        cadeiasValidacao.validarAgendamento(contexto);
 
         var paciente = repositoryFacade.getPacienteRepository().getReferenceById(dadosAgendamentoConsulta.idPaciente());
         var medico = escolherMedico(dadosAgendamentoConsulta);
@@ -66,13 +141,154 @@ public class ConsultasService {
         }
 
         var consulta = new Consulta(null, medico, paciente, dadosAgendamentoConsulta.data(), null);
-        repositoryFacade.getConsultaRepository().save(consulta);
+        inserir(() -> repositoryFacade.getConsultaRepository().saveAndFlush(consulta));
+        publicadorEventosConsulta.publicar(List.of(RegistroEventoConsulta.agendamento(consulta)));
+        Transacoes.aposCommit(() -> {
+            indiceOcupacaoAgenda.registrarAgendamento(medico.getId(), paciente.getId(), consulta.getData());
+            selecaoMedicoLivre.registrarAgendamento(medico.getId(), consulta.getData());
+            versoesAgendaMedicos.medicoAlterado(medico.getId());
+        });
 
         log.info("Consulta agendada com sucesso para o paciente com ID: {} e médico com ID: {}", paciente.getId(), medico.getId());
 
         return new DadosDetalhamentoConsulta(consulta);
     }
 
+    /**
+     * Valida o lote inteiro pelo {@link PlanejadorAgendamentoEmLote} e grava os itens aprovados com
+     * {@link #inserirMelhorEsforco}, para que um horário tomado por outra requisição depois do planejamento
+     * rejeite só o item correspondente. Como na série, as transações são abertas aqui.
+     */
+    public List<DadosResultadoAgendamentoLote> agendarEmLote(List<DadosAgendamentoConsulta> lote) {
+        if (lote == null || lote.isEmpty() || lote.size() > MAX_TAMANHO_LOTE) {
+            throw new ValidacaoException(String.format(LOTE_INVALIDO, MAX_TAMANHO_LOTE));
+        }
+        log.info("Iniciando agendamento em lote de {} consultas", lote.size());
+
+        var itens = transactionTemplate.execute(status -> planejadorAgendamentoEmLote.planejar(lote));
+        var resultados = inserirMelhorEsforco(itens);
+
+        var agendadas = resultados.stream().filter(DadosResultadoAgendamentoLote::agendada).count();
+        log.info("Agendamento em lote concluído: {} agendadas, {} rejeitadas", agendadas, itens.size() - agendadas);
+        return resultados;
+    }
+
+    /**
+     * Expande a regra de recorrência e valida todas as ocorrências de uma vez pelo {@link PlanejadorAgendamentoEmLote};
+     * no modo tudo ou nada, uma ocorrência rejeitada impede a série inteira, sem nenhum insert. As transações são
+     * abertas aqui, e não na assinatura do método, para que o melhor esforço possa desfazer um lote recusado pelo
+     * banco e gravar as ocorrências uma a uma sem segurar uma segunda conexão.
+     */
+    public DadosResultadoAgendamentoSerie agendarSerie(DadosAgendamentoSerie serie) {
+        var ocorrencias = ocorrencias(serie);
+        var modo = serie.modo() == null ? ModoAgendamentoSerie.TUDO_OU_NADA : serie.modo();
+        log.info("Iniciando agendamento de série {} de {} consultas para o paciente com ID: {}",
+                serie.frequencia(), ocorrencias.size(), serie.primeiraConsulta().idPaciente());
+
+        if (modo == ModoAgendamentoSerie.MELHOR_ESFORCO) {
+            var itens = transactionTemplate.execute(status -> planejadorAgendamentoEmLote.planejarSerie(ocorrencias));
+            return resultadoSerie(inserirMelhorEsforco(itens));
+        }
+
+        return transactionTemplate.execute(status -> {
+            var itens = planejadorAgendamentoEmLote.planejarSerie(ocorrencias);
+            var rejeitadas = itens.stream().filter(item -> !item.valido()).count();
+            if (rejeitadas > 0) {
+                log.warn("Série não agendada: {} de {} ocorrências rejeitadas", rejeitadas, itens.size());
+                return new DadosResultadoAgendamentoSerie(0, itens.size(), itens.stream()
+                        .map(item -> DadosResultadoAgendamentoLote.rejeitada(item.posicao(), item.valido() ? SERIE_NAO_AGENDADA : item.erro()))
+                        .toList());
+            }
+            return resultadoSerie(inserirAprovados(itens));
+        });
+    }
+
+    private static DadosResultadoAgendamentoSerie resultadoSerie(List<DadosResultadoAgendamentoLote> resultados) {
+        var agendadas = (int) resultados.stream().filter(DadosResultadoAgendamentoLote::agendada).count();
+        log.info("Série agendada: {} agendadas, {} rejeitadas", agendadas, resultados.size() - agendadas);
+        return new DadosResultadoAgendamentoSerie(agendadas, resultados.size() - agendadas, resultados);
+    }
+
+    /**
+     * Grava os itens aprovados (do lote ou das ocorrências da série) num único lote JDBC. Se outra requisição
+     * ocupou um dos horários depois do planejamento, o índice único recusa o lote inteiro: ele é desfeito e os
+     * itens são gravados um a um, cada um na sua transação, rejeitando só os que perderam o horário.
+     */
+    private List<DadosResultadoAgendamentoLote> inserirMelhorEsforco(List<ItemLoteAgendamento> itens) {
+        try {
+            return transactionTemplate.execute(status -> inserirAprovados(itens));
+        } catch (ValidacaoException e) {
+            log.warn("Lote recusado pelo banco ({}); gravando os {} itens um a um.", e.getMessage(), itens.size());
+        }
+
+        var resultados = new ArrayList<DadosResultadoAgendamentoLote>(itens.size());
+        for (ItemLoteAgendamento item : itens) {
+            if (!item.valido()) {
+                resultados.add(DadosResultadoAgendamentoLote.rejeitada(item.posicao(), item.erro()));
+                continue;
+            }
+            try {
+                resultados.add(transactionTemplate.execute(status -> inserirAprovados(List.of(item))).get(0));
+            } catch (ValidacaoException conflito) {
+                resultados.add(DadosResultadoAgendamentoLote.rejeitada(item.posicao(), conflito.getMessage()));
+            }
+        }
+        return resultados;
+    }
+
+    private static List<DadosAgendamentoConsulta> ocorrencias(DadosAgendamentoSerie serie) {
+        if ((serie.ocorrencias() == null) == (serie.ate() == null)) {
+            throw new ValidacaoException(FIM_SERIE_INVALIDO);
+        }
+        var primeira = serie.primeiraConsulta();
+        var quantidade = serie.ocorrencias() != null ? serie.ocorrencias() : Integer.MAX_VALUE;
+        var ocorrencias = new ArrayList<DadosAgendamentoConsulta>();
+        for (int indice = 0; indice < quantidade; indice++) {
+            var data = serie.frequencia().ocorrencia(primeira.data(), indice);
+            if (serie.ate() != null && data.toLocalDate().isAfter(serie.ate())) {
+                break;
+            }
+            if (ocorrencias.size() == MAX_OCORRENCIAS_SERIE) {
+                throw new ValidacaoException(String.format(SERIE_INVALIDA, MAX_OCORRENCIAS_SERIE));
+            }
+            ocorrencias.add(new DadosAgendamentoConsulta(primeira.idMedico(), primeira.idPaciente(), data, primeira.especialidade()));
+        }
+        if (ocorrencias.isEmpty()) {
+            throw new ValidacaoException(String.format(SERIE_INVALIDA, MAX_OCORRENCIAS_SERIE));
+        }
+        return ocorrencias;
+    }
+
+    /**
+     * Insere os itens aprovados num único lote JDBC e devolve o resultado de cada item, na ordem recebida.
+     */
+    private List<DadosResultadoAgendamentoLote> inserirAprovados(List<ItemLoteAgendamento> itens) {
+        var consultas = new ArrayList<Consulta>();
+        for (ItemLoteAgendamento item : itens) {
+            if (item.valido()) {
+                var medico = repositoryFacade.getMedicoRepository().getReferenceById(item.idMedico());
+                var paciente = repositoryFacade.getPacienteRepository().getReferenceById(item.dados().idPaciente());
+                consultas.add(new Consulta(null, medico, paciente, item.dados().data(), null));
+            }
+        }
+        inserir(() -> repositoryFacade.getConsultaRepository().saveAllAndFlush(consultas));
+        publicadorEventosConsulta.publicar(consultas.stream().map(RegistroEventoConsulta::agendamento).toList());
+        Transacoes.aposCommit(() -> consultas.forEach(consulta -> {
+            indiceOcupacaoAgenda.registrarAgendamento(consulta.getMedico().getId(), consulta.getPaciente().getId(), consulta.getData());
+            selecaoMedicoLivre.registrarAgendamento(consulta.getMedico().getId(), consulta.getData());
+            versoesAgendaMedicos.medicoAlterado(consulta.getMedico().getId());
+        }));
+
+        var resultados = new ArrayList<DadosResultadoAgendamentoLote>(itens.size());
+        var agendadas = consultas.iterator();
+        for (ItemLoteAgendamento item : itens) {
+            resultados.add(item.valido()
+                    ? DadosResultadoAgendamentoLote.agendada(item.posicao(), new DadosDetalhamentoConsulta(agendadas.next()))
+                    : DadosResultadoAgendamentoLote.rejeitada(item.posicao(), item.erro()));
+        }
+        return resultados;
+    }
+
     @Transactional
     public void cancelar(DadosCancelamentoConsulta dadosCancelamentoConsulta) {
         log.info("Iniciando cancelamento de consulta com ID: {}", dadosCancelamentoConsulta.idConsulta());
@@ -82,14 +298,57 @@ public class ConsultasService {
             throw new ValidacaoException(CONSULTA_NAO_EXISTE);
         }
 
-        validadorCancelamentoDeConsultas.forEach(validador -> validador.validar(dadosCancelamentoConsulta));
+        cadeiasValidacao.validarCancelamento(dadosCancelamentoConsulta);
 
         var consulta = repositoryFacade.getConsultaRepository().getReferenceById(dadosCancelamentoConsulta.idConsulta());
         consulta.cancelar(dadosCancelamentoConsulta.motivo());
+        publicadorEventosConsulta.publicar(List.of(RegistroEventoConsulta.cancelamento(consulta)));
+        var idMedico = consulta.getMedico().getId();
+        var data = consulta.getData();
+        var motivo = dadosCancelamentoConsulta.motivo();
+        Transacoes.aposCommit(() -> {
+            indiceOcupacaoAgenda.registrarCancelamento(idMedico, data);
+            selecaoMedicoLivre.registrarCancelamento(idMedico, data);
+            versoesAgendaMedicos.medicoAlterado(idMedico);
+            if (motivo != null) {
+                cancelamentosPorMotivo.get(motivo).increment();
+            }
+        });
 
         log.info("Consulta com ID: {} foi cancelada. Motivo: {}", dadosCancelamentoConsulta.idConsulta(), dadosCancelamentoConsulta.motivo());
     }
 
+    /**
+     * Os conflitos de horário são garantidos pelos índices únicos de {@code consultas} (migration V10):
+     * o insert é feito direto e a violação é traduzida para a mesma mensagem dos validadores.
+     */
+    private void inserir(Runnable insert) {
+        try {
+            insert.run();
+        } catch (DataIntegrityViolationException e) {
+            var restricao = restricaoViolada(e);
+            if (restricao.contains(UK_MEDICO_HORARIO)) {
+                log.warn("Conflito de horário do médico detectado no insert: {}", restricao);
+                throw new ValidacaoException(MEDICO_OCUPADO);
+            }
+            if (restricao.contains(UK_PACIENTE_DIA)) {
+                log.warn("Conflito de dia do paciente detectado no insert: {}", restricao);
+                throw new ValidacaoException(PACIENTE_OCUPADO);
+            }
+            throw e;
+        }
+    }
+
+    private static String restricaoViolada(DataIntegrityViolationException e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacao && violacao.getConstraintName() != null) {
+                return violacao.getConstraintName();
+            }
+        }
+        var mensagem = e.getMostSpecificCause().getMessage();
+        return mensagem == null ? "" : mensagem;
+    }
+
     @Transactional
     private Medico escolherMedico(DadosAgendamentoConsulta dadosAgendamentoConsulta) {
         log.debug("Selecionando médico para a consulta...");
@@ -103,7 +362,9 @@ public class ConsultasService {
             throw new ValidacaoException(ESPECIALIDADE_OBRIGATORIA);
         }
 
-        var medico = repositoryFacade.getMedicoRepository().escolherMedicoAleatorioLivreNaData(dadosAgendamentoConsulta.especialidade(), dadosAgendamentoConsulta.data());
+        var medico = selecaoMedicoLivre.respondePor(dadosAgendamentoConsulta.data())
+                ? escolherMedicoLivreEmMemoria(dadosAgendamentoConsulta)
+                : repositoryFacade.getMedicoRepository().escolherMedicoAleatorioLivreNaData(dadosAgendamentoConsulta.especialidade(), dadosAgendamentoConsulta.data());
 
         if (medico != null) {
             log.debug("Médico selecionado com ID: {}", medico.getId());
@@ -114,11 +375,69 @@ public class ConsultasService {
         return medico;
     }
 
-    public List<DadosDetalhamentoConsulta> listarTodas() {
-        return repositoryFacade.getConsultaRepository()
-                .findAll()
-                .stream()
-                .map(DadosDetalhamentoConsulta::new)
-                .toList();
+    private Medico escolherMedicoLivreEmMemoria(DadosAgendamentoConsulta dadosAgendamentoConsulta) {
+        var idMedico = selecaoMedicoLivre.escolher(dadosAgendamentoConsulta.especialidade(), dadosAgendamentoConsulta.data());
+        return idMedico == null ? null : repositoryFacade.getMedicoRepository().getReferenceById(idMedico);
+    }
+
+    /**
+     * Primeiros horários livres da especialidade a partir de {@code aPartirDe}, respeitando o funcionamento da clínica,
+     * a antecedência mínima e, com {@code idPaciente}, a regra de uma consulta por dia (ver {@link BuscaProximoHorario}).
+     */
+    @Transactional(readOnly = true)
+    public List<DadosHorarioDisponivel> proximosHorarios(Especialidade especialidade, LocalDateTime aPartirDe, Long idPaciente, int quantidade) {
+        if (especialidade == null) {
+            throw new ValidacaoException(ESPECIALIDADE_NAO_INFORMADA);
+        }
+        if (quantidade < 1 || quantidade > MAX_PROXIMOS_HORARIOS) {
+            throw new ValidacaoException(String.format(QUANTIDADE_HORARIOS_INVALIDA, MAX_PROXIMOS_HORARIOS));
+        }
+        log.debug("Buscando {} próximos horários de {} a partir de {} para o paciente {}", quantidade, especialidade, aPartirDe, idPaciente);
+        try {
+            return buscaProximoHorario.buscar(especialidade, aPartirDe, idPaciente, quantidade);
+        } catch (DataAccessException e) {
+            log.error(ERRO_PROXIMO_HORARIO, e);
+            throw new ServiceException(ERRO_PROXIMO_HORARIO, e);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public DadosPaginaConsultas listar(FiltroConsultas filtro, String cursor, int tamanho) {
+        if (tamanho < 1 || tamanho > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE + " registros.");
+        }
+        var posicao = cursor == null || cursor.isBlank() ? null : CursorConsulta.decodificar(cursor);
+        log.debug("Listando consultas com filtro {} a partir de {}", filtro, posicao);
+
+        var consultas = repositoryFacade.getConsultaRepository().findPagina(
+                filtro.de(), filtro.ate(), filtro.idMedico(), filtro.idPaciente(),
+                posicao == null ? null : posicao.data(), posicao == null ? null : posicao.id(),
+                Limit.of(tamanho + 1));
+
+        if (consultas.size() <= tamanho) {
+            return new DadosPaginaConsultas(consultas, null);
+        }
+        var pagina = consultas.subList(0, tamanho);
+        var ultima = pagina.get(tamanho - 1);
+        return new DadosPaginaConsultas(pagina, new CursorConsulta(ultima.data(), ultima.id()).codificar());
+    }
+
+    /**
+     * Escreve as consultas do filtro como NDJSON, lendo-as por um cursor do banco sem mantê-las em memória.
+     */
+    @Transactional(readOnly = true)
+    public void exportar(FiltroConsultas filtro, OutputStream saida) throws IOException {
+        var escritor = objectMapper.writerFor(DadosDetalhamentoConsulta.class);
+        var quantidade = 0L;
+        try (var consultas = repositoryFacade.getConsultaRepository().streamAll(filtro.de(), filtro.ate(), filtro.idMedico(), filtro.idPaciente())) {
+            var iterador = consultas.iterator();
+            while (iterador.hasNext()) {
+                saida.write(escritor.writeValueAsBytes(iterador.next()));
+                saida.write('\n');
+                quantidade++;
+            }
+        }
+        saida.flush();
+        log.info("Exportação de consultas concluída: {} registros", quantidade);
     }
-}
\ No newline at end of file
+}
@@ -1,29 +1,59 @@
 package med.voll.api.services;
 
+import med.voll.api.cadastro.exportacao.ColunaCsv;
+import med.voll.api.cadastro.exportacao.ExportacaoCadastros;
+import med.voll.api.cadastro.exportacao.FormatoExportacao;
+import med.voll.api.cadastro.importacao.CadastroMedicos;
+import med.voll.api.cadastro.importacao.FormatoImportacao;
+import med.voll.api.cadastro.importacao.ImportacaoCadastros;
+import med.voll.api.consulta.agenda.AgendaIcsMedico;
+import med.voll.api.consulta.agenda.VersoesAgendaMedicos;
+import med.voll.api.consulta.disponibilidade.AgendaDisponibilidade;
+import med.voll.api.consulta.selecao.SelecaoMedicoLivre;
+import med.voll.api.dtos.CursorListagem;
 import med.voll.api.dtos.DadosAtualizacaoMedico;
 import med.voll.api.dtos.DadosCadastroMedico;
 import med.voll.api.dtos.DadosDetalhamentoMedico;
+import med.voll.api.dtos.DadosDisponibilidadeMedico;
+import med.voll.api.dtos.DadosFatia;
 import med.voll.api.dtos.DadosListagemMedico;
+import med.voll.api.dtos.DadosResumoImportacao;
 import med.voll.api.entities.Medico;
+import med.voll.api.enums.Especialidade;
+import med.voll.api.infra.cache.CacheDetalhamento;
+import med.voll.api.infra.cache.TotaisAproximados;
 import med.voll.api.infra.exceptions.DatabaseException;
 import med.voll.api.infra.exceptions.ResourceNotFoundException;
+import med.voll.api.infra.exceptions.ValidacaoException;
+import med.voll.api.infra.transacao.Transacoes;
 import med.voll.api.repositories.MedicoRepository;
 import org.hibernate.service.spi.ServiceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
 @Service
 public class MedicoService {
 
     private static final Logger log = LoggerFactory.getLogger(MedicoService.class);
 
     private static final int MAX_PAGE_SIZE = 100;
+    private static final Sort ORDEM_FATIA = Sort.by("nome", "id");
 
     private static final String ERRO_SALVAR_MEDICO = "Erro ao salvar o médico no banco de dados!";
     private static final String ERRO_LISTAR_MEDICOS = "Erro ao listar médicos ativos.";
@@ -31,10 +61,43 @@ public class MedicoService {
     private static final String ERRO_EXCLUIR_MEDICO = "Erro ao excluir o médico no banco de dados!";
     private static final String MEDICO_NAO_ENCONTRADO = "Médico com ID %d não encontrado!";
     private static final String MEDICO_INATIVO = "Médico com ID %d já está inativo!";
+    private static final String ERRO_DISPONIBILIDADE = "Erro ao consultar a disponibilidade dos médicos.";
+    private static final String ESPECIALIDADE_OBRIGATORIA = "Especialidade é obrigatória!";
+    private static final String ERRO_IMPORTAR_MEDICOS = "Erro ao importar médicos; os lotes anteriores ao erro foram gravados.";
+    private static final String PERIODO_INVALIDO = "Informe as datas 'de' e 'ate', com 'ate' igual ou posterior a 'de', num período de até %d dias.";
+
+    private static final int MAX_DIAS_DISPONIBILIDADE = 31;
 
     @Autowired
     private MedicoRepository medicoRepository;
 
+    @Autowired
+    private SelecaoMedicoLivre selecaoMedicoLivre;
+
+    @Autowired
+    private CacheDetalhamento<DadosDetalhamentoMedico> cacheDetalhamento;
+
+    @Autowired
+    private TotaisAproximados totaisAproximados;
+
+    @Autowired
+    private AgendaDisponibilidade agendaDisponibilidade;
+
+    @Autowired
+    private AgendaIcsMedico agendaIcsMedico;
+
+    @Autowired
+    private VersoesAgendaMedicos versoesAgendaMedicos;
+
+    @Autowired
+    private ImportacaoCadastros importacaoCadastros;
+
+    @Autowired
+    private ExportacaoCadastros exportacaoCadastros;
+
+    @Autowired
+    private CadastroMedicos cadastroMedicos;
+
     @Transactional
     public DadosDetalhamentoMedico cadastrar(DadosCadastroMedico dadosCadastroMedico) {
         log.info("Iniciando o método cadastrar para o médico: {}", dadosCadastroMedico.nome());
@@ -42,6 +105,7 @@ public class MedicoService {
         try {
             medicoRepository.save(medico);
             log.info("Médico salvo com sucesso: {}", medico.getId());
+            Transacoes.aposCommit(() -> selecaoMedicoLivre.incluirMedico(medico.getId(), medico.getEspecialidade()));
         } catch (DataAccessException e) {
             log.error(ERRO_SALVAR_MEDICO, e);
             throw new DatabaseException(ERRO_SALVAR_MEDICO, e);
@@ -49,6 +113,35 @@ public class MedicoService {
         return new DadosDetalhamentoMedico(medico);
     }
 
+    /**
+     * Sem transação própria: cada lote da {@link ImportacaoCadastros} é confirmado na sua, e o relatório por linha
+     * é escrito em {@code saida} à medida que os lotes terminam.
+     */
+    public DadosResumoImportacao importar(FormatoImportacao formato, Reader entrada, OutputStream saida) throws IOException {
+        log.info("Iniciando importação de médicos em {}", formato);
+        try {
+            var resumo = importacaoCadastros.importar(cadastroMedicos, formato, entrada, saida);
+            log.info("Importação de médicos concluída: {}", resumo);
+            return resumo;
+        } catch (DataAccessException e) {
+            log.error(ERRO_IMPORTAR_MEDICOS, e);
+            throw new ServiceException(ERRO_IMPORTAR_MEDICOS, e);
+        }
+    }
+
+    /**
+     * Escreve os médicos ativos em ordem de id, lendo-os por um cursor do banco sem mantê-los em memória; substitui
+     * percorrer a listagem página a página, que refaz o {@code count(*)} e fica mais lenta a cada {@code OFFSET}.
+     */
+    @Transactional(readOnly = true)
+    public void exportar(FormatoExportacao formato, boolean gzip, OutputStream saida) throws IOException {
+        long quantidade;
+        try (var medicos = medicoRepository.streamAtivos()) {
+            quantidade = exportacaoCadastros.exportar(medicos, DadosDetalhamentoMedico.class, ColunaCsv.MEDICOS, formato, gzip, saida);
+        }
+        log.info("Exportação de médicos concluída: {} registros em {}", quantidade, formato);
+    }
+
     @Transactional(readOnly = true)
     public Page<DadosListagemMedico> listar(Pageable paginacao) {
         if (paginacao.getPageSize() > MAX_PAGE_SIZE) {
@@ -56,12 +149,50 @@ public class MedicoService {
         }
         log.debug("Listando médicos ativos com paginação: {}", paginacao);
         try {
-            Page<Medico> medicos = medicoRepository.findAllByAtivoTrue(paginacao);
+            Page<DadosListagemMedico> medicos = medicoRepository.findListagemAtivos(paginacao);
             if (medicos.isEmpty()) {
                 log.debug("Nenhum médico ativo encontrado.");
                 return Page.empty();
             }
-            return medicos.map(DadosListagemMedico::new);
+            return medicos;
+        } catch (DataAccessException e) {
+            log.error(ERRO_LISTAR_MEDICOS, e);
+            throw new ServiceException(ERRO_LISTAR_MEDICOS, e);
+        }
+    }
+
+    /**
+     * Listagem sem {@code count(*)}: a primeira fatia usa {@code page} e {@code size} da paginação, as seguintes
+     * continuam pelo cursor em {@code (nome, id)} sem {@code OFFSET}. O total, quando pedido, vem de {@link TotaisAproximados}.
+     */
+    @Transactional(readOnly = true)
+    public DadosFatia<DadosListagemMedico> listarEmFatias(Pageable paginacao, String cursor, boolean comTotal) {
+        if (paginacao.getPageSize() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("O tamanho da página não pode exceder " + MAX_PAGE_SIZE + " registros.");
+        }
+        var posicao = cursor == null || cursor.isBlank() ? null : CursorListagem.decodificar(cursor);
+        log.debug("Listando medicos ativos em fatias com paginação {} a partir de {}", paginacao, posicao);
+        try {
+            List<DadosListagemMedico> medicos;
+            boolean temProxima;
+            if (posicao == null) {
+                var fatia = medicoRepository.findFatiaListagemAtivos(
+                        PageRequest.of(paginacao.getPageNumber(), paginacao.getPageSize(), ORDEM_FATIA));
+                medicos = fatia.getContent();
+                temProxima = fatia.hasNext();
+            } else {
+                var encontrados = medicoRepository.findFatiaListagemAposCursor(posicao.nome(), posicao.id(), Limit.of(paginacao.getPageSize() + 1));
+                temProxima = encontrados.size() > paginacao.getPageSize();
+                medicos = temProxima ? encontrados.subList(0, paginacao.getPageSize()) : encontrados;
+            }
+
+            String proximoCursor = null;
+            if (temProxima) {
+                var ultimo = medicos.get(medicos.size() - 1);
+                proximoCursor = new CursorListagem(ultimo.nome(), ultimo.id()).codificar();
+            }
+            return new DadosFatia<>(medicos, temProxima, proximoCursor,
+                    comTotal ? totaisAproximados.medicosAtivos() : null);
         } catch (DataAccessException e) {
             log.error(ERRO_LISTAR_MEDICOS, e);
             throw new ServiceException(ERRO_LISTAR_MEDICOS, e);
@@ -80,6 +211,10 @@ public class MedicoService {
         try {
             medicoRepository.save(medico);
             log.info("Médico atualizado com sucesso: {}", medico.getId());
+            Transacoes.aposCommit(() -> {
+                cacheDetalhamento.invalidar(medico.getId());
+                versoesAgendaMedicos.medicoAlterado(medico.getId());
+            });
         } catch (DataAccessException e) {
             log.error(ERRO_ATUALIZAR_MEDICO, e);
             throw new DatabaseException(ERRO_ATUALIZAR_MEDICO, e);
@@ -104,15 +239,63 @@ public class MedicoService {
             medico.excluir();
             medicoRepository.save(medico);
             log.info("Médico com ID {} foi excluído logicamente.", id);
+            Transacoes.aposCommit(() -> {
+                cacheDetalhamento.invalidar(id);
+                selecaoMedicoLivre.removerMedico(id);
+                versoesAgendaMedicos.medicoAlterado(id);
+            });
         } catch (DataAccessException e) {
             log.error(String.format(ERRO_EXCLUIR_MEDICO, id), e);
             throw new DatabaseException(String.format(ERRO_EXCLUIR_MEDICO, id), e);
         }
     }
 
+    /**
+     * Horários livres de cada médico ativo da especialidade, calculados sem uma ida ao banco por horário
+     * (ver {@link AgendaDisponibilidade}).
+     */
     @Transactional(readOnly = true)
+    public List<DadosDisponibilidadeMedico> consultarDisponibilidade(Especialidade especialidade, LocalDate de, LocalDate ate) {
+        if (especialidade == null) {
+            throw new ValidacaoException(ESPECIALIDADE_OBRIGATORIA);
+        }
+        if (de == null || ate == null || ate.isBefore(de) || ChronoUnit.DAYS.between(de, ate) >= MAX_DIAS_DISPONIBILIDADE) {
+            throw new ValidacaoException(String.format(PERIODO_INVALIDO, MAX_DIAS_DISPONIBILIDADE));
+        }
+        log.debug("Consultando disponibilidade de {} entre {} e {}", especialidade, de, ate);
+        try {
+            return agendaDisponibilidade.livresPorMedico(especialidade, de, ate);
+        } catch (DataAccessException e) {
+            log.error(ERRO_DISPONIBILIDADE, e);
+            throw new ServiceException(ERRO_DISPONIBILIDADE, e);
+        }
+    }
+
+    /**
+     * Etiqueta da versão atual da agenda do médico, sem ida ao banco (ver {@link VersoesAgendaMedicos}).
+     */
+    public String etagAgenda(Long id) {
+        return versoesAgendaMedicos.etag(id, LocalDate.now());
+    }
+
+    /**
+     * Escreve a agenda do médico em iCalendar, lendo as consultas por um cursor do banco sem mantê-las em memória.
+     */
+    @Transactional(readOnly = true)
+    public void exportarAgendaIcs(DadosDetalhamentoMedico medico, OutputStream saida) throws IOException {
+        var quantidade = agendaIcsMedico.escrever(medico.id(), medico.nome(), saida);
+        log.info("Agenda iCalendar do médico com ID {} exportada: {} consultas", medico.id(), quantidade);
+    }
+
+    /**
+     * Atende pelo {@link CacheDetalhamento}; sem transação própria para que um acerto não ocupe conexão.
+     */
     public DadosDetalhamentoMedico detalhar(Long id) {
         log.info("Iniciando detalhamento para o médico com ID: {}", id);
+        return cacheDetalhamento.buscar(id, this::carregarDetalhamento);
+    }
+
+    private DadosDetalhamentoMedico carregarDetalhamento(Long id) {
         var medico = medicoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         String.format(MEDICO_NAO_ENCONTRADO, id)
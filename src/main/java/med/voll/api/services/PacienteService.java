@@ -1,29 +1,51 @@
 package med.voll.api.services;
 
+import med.voll.api.cadastro.exportacao.ColunaCsv;
+import med.voll.api.cadastro.exportacao.ExportacaoCadastros;
+import med.voll.api.cadastro.exportacao.FormatoExportacao;
+import med.voll.api.cadastro.importacao.CadastroPacientes;
+import med.voll.api.cadastro.importacao.FormatoImportacao;
+import med.voll.api.cadastro.importacao.ImportacaoCadastros;
+import med.voll.api.consulta.agenda.VersoesAgendaMedicos;
+import med.voll.api.dtos.CursorListagem;
 import med.voll.api.dtos.DadosAtualizacaoPaciente;
 import med.voll.api.dtos.DadosCadastroPaciente;
 import med.voll.api.dtos.DadosDetalhamentoPaciente;
+import med.voll.api.dtos.DadosFatia;
 import med.voll.api.dtos.DadosListagemPaciente;
+import med.voll.api.dtos.DadosResumoImportacao;
 import med.voll.api.entities.Paciente;
+import med.voll.api.infra.cache.CacheDetalhamento;
+import med.voll.api.infra.cache.TotaisAproximados;
 import med.voll.api.infra.exceptions.DatabaseException;
 import med.voll.api.infra.exceptions.ResourceNotFoundException;
+import med.voll.api.infra.transacao.Transacoes;
 import med.voll.api.repositories.PacienteRepository;
 import org.hibernate.service.spi.ServiceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.List;
+
 @Service
 public class PacienteService {
 
     private static final Logger log = LoggerFactory.getLogger(PacienteService.class);
 
     private static final int MAX_PAGE_SIZE = 100;
+    private static final Sort ORDEM_FATIA = Sort.by("nome", "id");
 
     private static final String ERRO_SALVAR_PACIENTE = "Erro ao salvar o paciente no banco de dados!";
     private static final String PACIENTE_NAO_ENCONTRADO = "Paciente com ID %d não encontrado!";
@@ -31,10 +53,29 @@ public class PacienteService {
     private static final String ERRO_EXCLUIR_PACIENTE = "Erro ao excluir o paciente com ID %d no banco de dados!";
     private static final String ERRO_ATUALIZAR_PACIENTE = "Erro ao atualizar o paciente no banco de dados!";
     private static final String ERRO_LISTAR_PACIENTES = "Erro ao listar pacientes ativos.";
+    private static final String ERRO_IMPORTAR_PACIENTES = "Erro ao importar pacientes; os lotes anteriores ao erro foram gravados.";
 
     @Autowired
     private PacienteRepository pacienteRepository;
 
+    @Autowired
+    private CacheDetalhamento<DadosDetalhamentoPaciente> cacheDetalhamento;
+
+    @Autowired
+    private TotaisAproximados totaisAproximados;
+
+    @Autowired
+    private VersoesAgendaMedicos versoesAgendaMedicos;
+
+    @Autowired
+    private ImportacaoCadastros importacaoCadastros;
+
+    @Autowired
+    private ExportacaoCadastros exportacaoCadastros;
+
+    @Autowired
+    private CadastroPacientes cadastroPacientes;
+
     @Transactional
     public DadosDetalhamentoPaciente cadastrar(DadosCadastroPaciente dados) {
         log.info("Iniciando o método cadastrar para o paciente: {}", dados.nome());
@@ -49,6 +90,35 @@ public class PacienteService {
         return new DadosDetalhamentoPaciente(paciente);
     }
 
+    /**
+     * Sem transação própria: cada lote da {@link ImportacaoCadastros} é confirmado na sua, e o relatório por linha
+     * é escrito em {@code saida} à medida que os lotes terminam.
+     */
+    public DadosResumoImportacao importar(FormatoImportacao formato, Reader entrada, OutputStream saida) throws IOException {
+        log.info("Iniciando importação de pacientes em {}", formato);
+        try {
+            var resumo = importacaoCadastros.importar(cadastroPacientes, formato, entrada, saida);
+            log.info("Importação de pacientes concluída: {}", resumo);
+            return resumo;
+        } catch (DataAccessException e) {
+            log.error(ERRO_IMPORTAR_PACIENTES, e);
+            throw new ServiceException(ERRO_IMPORTAR_PACIENTES, e);
+        }
+    }
+
+    /**
+     * Escreve os pacientes ativos em ordem de id, lendo-os por um cursor do banco sem mantê-los em memória; substitui
+     * percorrer a listagem página a página, que refaz o {@code count(*)} e fica mais lenta a cada {@code OFFSET}.
+     */
+    @Transactional(readOnly = true)
+    public void exportar(FormatoExportacao formato, boolean gzip, OutputStream saida) throws IOException {
+        long quantidade;
+        try (var pacientes = pacienteRepository.streamAtivos()) {
+            quantidade = exportacaoCadastros.exportar(pacientes, DadosDetalhamentoPaciente.class, ColunaCsv.PACIENTES, formato, gzip, saida);
+        }
+        log.info("Exportação de pacientes concluída: {} registros em {}", quantidade, formato);
+    }
+
     @Transactional(readOnly = true)
     public Page<DadosListagemPaciente> listar(Pageable paginacao) {
         if (paginacao.getPageSize() > MAX_PAGE_SIZE) {
@@ -56,8 +126,7 @@ public class PacienteService {
         }
         log.debug("Listando pacientes ativos com paginação: {}", paginacao);
         try {
-            return pacienteRepository.findAllByAtivoTrue(paginacao)
-                    .map(DadosListagemPaciente::new);
+            return pacienteRepository.findListagemAtivos(paginacao);
         } catch (DataAccessException e) {
             log.error("Erro de acesso ao banco de dados.", e);
             throw new ServiceException(ERRO_LISTAR_PACIENTES, e);
@@ -67,6 +136,44 @@ public class PacienteService {
         }
     }
 
+    /**
+     * Listagem sem {@code count(*)}: a primeira fatia usa {@code page} e {@code size} da paginação, as seguintes
+     * continuam pelo cursor em {@code (nome, id)} sem {@code OFFSET}. O total, quando pedido, vem de {@link TotaisAproximados}.
+     */
+    @Transactional(readOnly = true)
+    public DadosFatia<DadosListagemPaciente> listarEmFatias(Pageable paginacao, String cursor, boolean comTotal) {
+        if (paginacao.getPageSize() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("O tamanho da página não pode exceder " + MAX_PAGE_SIZE + " registros.");
+        }
+        var posicao = cursor == null || cursor.isBlank() ? null : CursorListagem.decodificar(cursor);
+        log.debug("Listando pacientes ativos em fatias com paginação {} a partir de {}", paginacao, posicao);
+        try {
+            List<DadosListagemPaciente> pacientes;
+            boolean temProxima;
+            if (posicao == null) {
+                var fatia = pacienteRepository.findFatiaListagemAtivos(
+                        PageRequest.of(paginacao.getPageNumber(), paginacao.getPageSize(), ORDEM_FATIA));
+                pacientes = fatia.getContent();
+                temProxima = fatia.hasNext();
+            } else {
+                var encontrados = pacienteRepository.findFatiaListagemAposCursor(posicao.nome(), posicao.id(), Limit.of(paginacao.getPageSize() + 1));
+                temProxima = encontrados.size() > paginacao.getPageSize();
+                pacientes = temProxima ? encontrados.subList(0, paginacao.getPageSize()) : encontrados;
+            }
+
+            String proximoCursor = null;
+            if (temProxima) {
+                var ultimo = pacientes.get(pacientes.size() - 1);
+                proximoCursor = new CursorListagem(ultimo.nome(), ultimo.id()).codificar();
+            }
+            return new DadosFatia<>(pacientes, temProxima, proximoCursor,
+                    comTotal ? totaisAproximados.pacientesAtivos() : null);
+        } catch (DataAccessException e) {
+            log.error(ERRO_LISTAR_PACIENTES, e);
+            throw new ServiceException(ERRO_LISTAR_PACIENTES, e);
+        }
+    }
+
     @Transactional
     public DadosDetalhamentoPaciente atualizar(DadosAtualizacaoPaciente dadosAtualizacaoPaciente) {
         log.info("Iniciando atualização para o paciente com ID: {}", dadosAtualizacaoPaciente.id());
@@ -81,6 +188,10 @@ public class PacienteService {
         try {
             pacienteRepository.save(paciente);
             log.info("Paciente atualizado com sucesso: {}", paciente.getId());
+            Transacoes.aposCommit(() -> {
+                cacheDetalhamento.invalidar(paciente.getId());
+                versoesAgendaMedicos.pacienteAlterado();
+            });
         } catch (DataAccessException e) {
             log.error(ERRO_ATUALIZAR_PACIENTE, e);
             throw new DatabaseException(ERRO_ATUALIZAR_PACIENTE, e);
@@ -106,16 +217,25 @@ public class PacienteService {
             paciente.excluir();
             pacienteRepository.save(paciente);
             log.info("Paciente com ID {} foi excluído logicamente.", id);
+            Transacoes.aposCommit(() -> {
+                cacheDetalhamento.invalidar(id);
+                versoesAgendaMedicos.pacienteAlterado();
+            });
         } catch (DataAccessException e) {
             log.error(String.format(ERRO_EXCLUIR_PACIENTE, id), e);
             throw new DatabaseException(String.format(ERRO_EXCLUIR_PACIENTE, id), e);
         }
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Atende pelo {@link CacheDetalhamento}; sem transação própria para que um acerto não ocupe conexão.
+     */
     public DadosDetalhamentoPaciente detalhar(Long id) {
         log.info("Iniciando detalhamento para o paciente com ID: {}", id);
+        return cacheDetalhamento.buscar(id, this::carregarDetalhamento);
+    }
 
+    private DadosDetalhamentoPaciente carregarDetalhamento(Long id) {
         var paciente = pacienteRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         String.format(PACIENTE_NAO_ENCONTRADO, id)
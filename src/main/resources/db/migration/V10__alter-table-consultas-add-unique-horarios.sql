@@ -0,0 +1,48 @@
+-- a corrida do "verifica e depois insere" pode já ter gravado o mesmo horário do médico duas vezes:
+-- a consulta mais antiga de cada horário continua ativa e as demais são canceladas, liberando o índice do médico
+update consultas c
+    join (select medico_id, data, min(id) as id_mantido
+          from consultas
+          where motivo_cancelamento is null
+          group by medico_id, data
+          having count(*) > 1) duplicadas on duplicadas.medico_id = c.medico_id and duplicadas.data = c.data
+set c.motivo_cancelamento = 'OUTROS'
+where c.motivo_cancelamento is null
+  and c.id > duplicadas.id_mantido;
+
+-- no paciente o cancelamento não libera o dia (a regra conta as canceladas), então não há correção automática:
+-- a migration para antes de alterar a tabela, listando os ids em conflito de cada paciente e dia
+drop procedure if exists v10_verificar_pacientes_duplicados;
+
+DELIMITER //
+create procedure v10_verificar_pacientes_duplicados()
+begin
+    declare conflitos text;
+    declare mensagem varchar(128);
+    select group_concat(ids separator '; ') into conflitos
+    from (select group_concat(id order by id) as ids
+          from consultas
+          where hour(data) between 7 and 18
+          group by paciente_id, date(data)
+          having count(*) > 1) duplicadas;
+    if conflitos is not null then
+        set mensagem = left(concat('Paciente com mais de uma consulta no dia, ids: ', conflitos), 128);
+        signal sqlstate '45000' set message_text = mensagem;
+    end if;
+end//
+DELIMITER ;
+
+call v10_verificar_pacientes_duplicados();
+drop procedure v10_verificar_pacientes_duplicados;
+
+-- colunas geradas que só ficam preenchidas quando a consulta ocupa o horário, para que os índices únicos
+-- ignorem as linhas com null (consultas canceladas do médico e consultas do paciente fora do expediente)
+alter table consultas
+    add column medico_ativo_id bigint generated always as (if(motivo_cancelamento is null, medico_id, null)) stored,
+    add column paciente_dia date generated always as (if(hour(data) between 7 and 18, date(data), null)) stored;
+
+-- médico: uma consulta ativa por horário
+create unique index uk_consultas_medico_data on consultas(medico_ativo_id, data);
+
+-- paciente: uma consulta por dia no horário da clínica, inclusive canceladas (mesma regra de ValidadorPacienteSemOutraConsultaNoDia)
+create unique index uk_consultas_paciente_dia on consultas(paciente_id, paciente_dia);
@@ -0,0 +1,42 @@
+-- consultas por data: ocupação a partir de hoje, ocupação ativa nas datas de um lote, médico livre no horário
+-- e a listagem/exportação ordenada por (data, id); cobre as colunas lidas por OcupacaoConsulta
+create index idx_consultas_data on consultas(data, motivo_cancelamento, medico_id, paciente_id);
+
+-- médico ocupado no horário (existsByMedicoIdAndDataAndMotivoCancelamentoIsNull) e agenda do médico;
+-- também atende a chave estrangeira de medico_id, cujo índice automático o MySQL descarta
+create index idx_consultas_medico_data on consultas(medico_id, data, motivo_cancelamento);
+
+-- consultas do paciente no dia/período (validador do paciente e lote); também atende a chave estrangeira de paciente_id
+create index idx_consultas_paciente_data on consultas(paciente_id, data, medico_id, motivo_cancelamento);
+
+-- médicos ativos por especialidade (seleção do médico livre) e listagens ordenadas por nome, com id como desempate
+create index idx_medicos_ativo_especialidade on medicos(ativo, especialidade);
+create index idx_medicos_ativo_nome on medicos(ativo, nome);
+create index idx_pacientes_ativo_nome on pacientes(ativo, nome);
+
+-- login é a chave de autenticação: busca por índice e sem duplicidade. Nada impedia logins repetidos até aqui,
+-- e não há como escolher qual das contas manter (senhas e refresh tokens distintos); como findByLogin já falha
+-- para esses logins, a migration para antes do índice listando os ids repetidos de cada login
+drop procedure if exists v12_verificar_logins_duplicados;
+
+DELIMITER //
+create procedure v12_verificar_logins_duplicados()
+begin
+    declare conflitos text;
+    declare mensagem varchar(128);
+    select group_concat(ids separator '; ') into conflitos
+    from (select group_concat(id order by id) as ids
+          from usuarios
+          group by login
+          having count(*) > 1) duplicados;
+    if conflitos is not null then
+        set mensagem = left(concat('Login repetido em usuarios, ids: ', conflitos), 128);
+        signal sqlstate '45000' set message_text = mensagem;
+    end if;
+end//
+DELIMITER ;
+
+call v12_verificar_logins_duplicados();
+drop procedure v12_verificar_logins_duplicados;
+
+create unique index uk_usuarios_login on usuarios(login);
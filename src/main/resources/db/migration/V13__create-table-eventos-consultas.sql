@@ -0,0 +1,26 @@
+create table eventos_consultas(
+
+    id bigint not null,
+    tipo varchar(20) not null,
+    consulta_id bigint not null,
+    medico_id bigint not null,
+    paciente_id bigint not null,
+    data datetime not null,
+    motivo_cancelamento varchar(100),
+    ocorrido_em datetime(6) not null,
+    publicado_em datetime(6),
+
+    primary key(id)
+
+);
+
+-- reenvio dos pendentes (publicado_em is null) em ordem de id e limpeza dos ja publicados
+create index idx_eventos_consultas_publicado_em on eventos_consultas(publicado_em, id);
+
+create table eventos_consultas_seq(
+
+    next_val bigint not null
+
+);
+
+insert into eventos_consultas_seq(next_val) values (1);
@@ -0,0 +1,8 @@
+create table consultas_seq(
+
+    next_val bigint not null
+
+);
+
+-- o otimizador pooled do Hibernate usa o valor lido como limite superior de um bloco de 50 ids
+insert into consultas_seq(next_val) select coalesce(max(id), 0) + 50 from consultas;
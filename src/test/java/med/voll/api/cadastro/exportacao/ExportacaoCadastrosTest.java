@@ -0,0 +1,74 @@
+package med.voll.api.cadastro.exportacao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import med.voll.api.dtos.DadosDetalhamentoMedico;
+import med.voll.api.enums.Especialidade;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * O CSV sai com as colunas da importação e campos escapados pela RFC 4180; com gzip o fluxo é um arquivo gzip
+ * completo, e o {@code Accept-Encoding} só liga a compressão quando o gzip não foi recusado com {@code q=0}.
+ */
+class ExportacaoCadastrosTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExportacaoCadastros exportacao = new ExportacaoCadastros(objectMapper);
+
+    @Test
+    void csvDeveEscaparCamposComVirgulaAspasEQuebraDeLinha() throws Exception {
+        // arrange
+        var saida = new ByteArrayOutputStream();
+
+        // act
+        var quantidade = exportacao.exportar(Stream.of(medico(1L, "Silva, Ana \"Aninha\""), medico(2L, "Bruno\nSegundo")),
+                DadosDetalhamentoMedico.class, ColunaCsv.MEDICOS, FormatoExportacao.CSV, false, saida);
+
+        // assert
+        var linhas = saida.toString(StandardCharsets.UTF_8).split("\r\n", -1);
+        assertEquals(2, quantidade);
+        assertEquals("id,nome,email,telefone,crm,especialidade,logradouro,bairro,cep,cidade,uf,complemento,numero", linhas[0]);
+        assertEquals("1,\"Silva, Ana \"\"Aninha\"\"\",medico@voll.med,11999990000,123456,CARDIOLOGIA,Rua A,Centro,01001000,São Paulo,SP,,10",
+                linhas[1]);
+        assertTrue(linhas[2].startsWith("2,\"Bruno\nSegundo\","));
+        assertEquals("", linhas[3]);
+    }
+
+    @Test
+    void ndjsonComGzipDeveSerUmArquivoGzipCompleto() throws Exception {
+        // arrange
+        var saida = new ByteArrayOutputStream();
+
+        // act
+        exportacao.exportar(Stream.of(medico(1L, "Ana"), medico(2L, "Bruno")),
+                DadosDetalhamentoMedico.class, ColunaCsv.MEDICOS, FormatoExportacao.NDJSON, true, saida);
+
+        // assert
+        var ndjson = new String(new GZIPInputStream(new ByteArrayInputStream(saida.toByteArray())).readAllBytes(), StandardCharsets.UTF_8);
+        var linhas = ndjson.split("\n");
+        assertEquals(2, linhas.length);
+        assertEquals("Bruno", objectMapper.readTree(linhas[1]).get("nome").asText());
+        assertEquals("01001000", objectMapper.readTree(linhas[1]).get("endereco").get("cep").asText());
+    }
+
+    @Test
+    void deveAceitarGzipSomenteQuandoNaoRecusado() {
+        assertTrue(ExportacaoCadastros.aceitaGzip("gzip, deflate, br"));
+        assertTrue(ExportacaoCadastros.aceitaGzip("br;q=1.0, GZIP;q=0.5"));
+        assertFalse(ExportacaoCadastros.aceitaGzip("gzip;q=0"));
+        assertFalse(ExportacaoCadastros.aceitaGzip("deflate"));
+        assertFalse(ExportacaoCadastros.aceitaGzip(null));
+    }
+
+    private static DadosDetalhamentoMedico medico(Long id, String nome) {
+        return new DadosDetalhamentoMedico(id, nome, "medico@voll.med", "123456", "11999990000", Especialidade.CARDIOLOGIA,
+                "Rua A", "Centro", "01001000", "10", null, "São Paulo", "SP");
+    }
+}
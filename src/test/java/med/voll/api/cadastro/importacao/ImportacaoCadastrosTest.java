@@ -0,0 +1,176 @@
+package med.voll.api.cadastro.importacao;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import med.voll.api.dtos.DadosCadastroPaciente;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * A importação grava um comando em lote por lote, recusa por linha os registros inválidos, repetidos no arquivo
+ * ou já cadastrados e termina o relatório com o resumo. As transações são de um gerenciador simulado.
+ */
+class ImportacaoCadastrosTest {
+
+    private static final String CABECALHO = "nome,email,telefone,cpf,logradouro,bairro,cep,cidade,uf\n";
+    private static final String ENDERECO = ",Rua A,Centro,01001000,São Paulo,SP\n";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<List<String>> lotesGravados = new ArrayList<>();
+
+    @Test
+    void deveGravarPorLoteERelatarAsLinhasRecusadas() throws Exception {
+        // arrange
+        var importacao = new ImportacaoCadastros(Validation.buildDefaultValidatorFactory().getValidator(), objectMapper,
+                mock(PlatformTransactionManager.class), 3, 65536);
+        var csv = CABECALHO
+                + "Ana,ana@voll.med,11999990000,111.111.111-11" + ENDERECO
+                + "Bia,email-invalido,11999990000,222.222.222-22" + ENDERECO
+                + "Caio,ANA@voll.med,11999990000,333.333.333-33" + ENDERECO
+                + "\"Silva, Davi\",davi@voll.med,11999990000,444.444.444-44" + ENDERECO
+                + "Eva,eva@voll.med,11999990000,555.555.555-55" + ENDERECO;
+        var saida = new ByteArrayOutputStream();
+
+        // act
+        var resumo = importacao.importar(pacientes(List.of("eva@voll.med")), FormatoImportacao.CSV, new StringReader(csv), saida);
+
+        // assert
+        assertEquals(List.of(List.of("Ana"), List.of("Silva, Davi")), lotesGravados);
+        var relatorio = relatorio(saida);
+        assertEquals(4, relatorio.size());
+        assertEquals(3, relatorio.get(0).get("linha").asLong());
+        assertTrue(relatorio.get(0).get("erros").get(0).asText().startsWith("email: "));
+        assertEquals("email repetido no arquivo (linha 2)", relatorio.get(1).get("erros").get(0).asText());
+        assertEquals(6, relatorio.get(2).get("linha").asLong());
+        assertEquals("email já cadastrado", relatorio.get(2).get("erros").get(0).asText());
+        assertEquals(5, relatorio.get(3).get("registros").asLong());
+        assertEquals(2, resumo.importados());
+        assertEquals(3, resumo.rejeitados());
+    }
+
+    @Test
+    void linhaNdjsonMalFormadaNaoDeveInterromperAImportacao() throws Exception {
+        // arrange
+        var importacao = new ImportacaoCadastros(Validation.buildDefaultValidatorFactory().getValidator(), objectMapper,
+                mock(PlatformTransactionManager.class), 500, 65536);
+        var ndjson = """
+                {"nome":"Ana","email":"ana@voll.med","telefone":"11999990000","cpf":"11111111111",\
+                "endereco":{"logradouro":"Rua A","bairro":"Centro","cep":"01001000","cidade":"São Paulo","uf":"SP"}}
+                {"nome":"Bia",
+
+                {"nome":"Caio","email":"caio@voll.med","telefone":"11999990000","cpf":"22222222222",\
+                "endereco":{"logradouro":"Rua A","bairro":"Centro","cep":"01001000","cidade":"São Paulo","uf":"SP"}}
+                """;
+        var saida = new ByteArrayOutputStream();
+
+        // act
+        var resumo = importacao.importar(pacientes(List.of()), FormatoImportacao.NDJSON, new StringReader(ndjson), saida);
+
+        // assert
+        assertEquals(List.of(List.of("Ana", "Caio")), lotesGravados);
+        var relatorio = relatorio(saida);
+        assertEquals(2, relatorio.get(0).get("linha").asLong());
+        assertTrue(relatorio.get(0).get("erros").get(0).asText().startsWith("JSON inválido"));
+        assertEquals(1, resumo.rejeitados());
+    }
+
+    @Test
+    void linhaCsvAcimaDoTamanhoMaximoDeveSerRecusadaSemInterromperAImportacao() throws Exception {
+        // arrange
+        var importacao = new ImportacaoCadastros(Validation.buildDefaultValidatorFactory().getValidator(), objectMapper,
+                mock(PlatformTransactionManager.class), 500, 200);
+        var csv = CABECALHO
+                + "Ana,ana@voll.med,11999990000,111.111.111-11" + ENDERECO
+                + "\"" + "x".repeat(1000) + ",bia@voll.med,11999990000,222.222.222-22" + ENDERECO
+                + "Caio,caio@voll.med,11999990000,333.333.333-33" + ENDERECO;
+        var saida = new ByteArrayOutputStream();
+
+        // act
+        var resumo = importacao.importar(pacientes(List.of()), FormatoImportacao.CSV, new StringReader(csv), saida);
+
+        // assert
+        assertEquals(List.of(List.of("Ana", "Caio")), lotesGravados);
+        var relatorio = relatorio(saida);
+        assertEquals(3, relatorio.get(0).get("linha").asLong());
+        assertTrue(relatorio.get(0).get("erros").get(0).asText().contains("passa de 200 caracteres"));
+        assertEquals(1, resumo.rejeitados());
+    }
+
+    @Test
+    void linhaNdjsonAcimaDoTamanhoMaximoDeveSerRecusadaSemInterromperAImportacao() throws Exception {
+        // arrange
+        var importacao = new ImportacaoCadastros(Validation.buildDefaultValidatorFactory().getValidator(), objectMapper,
+                mock(PlatformTransactionManager.class), 500, 200);
+        var endereco = "\"endereco\":{\"logradouro\":\"Rua A\",\"bairro\":\"Centro\",\"cep\":\"01001000\",\"cidade\":\"São Paulo\",\"uf\":\"SP\"}}";
+        var ndjson = "{\"nome\":\"Ana\",\"email\":\"ana@voll.med\",\"telefone\":\"11999990000\",\"cpf\":\"11111111111\"," + endereco + "\r\n"
+                + "{\"nome\":\"" + "x".repeat(1000) + "\"}\r\n"
+                + "{\"nome\":\"Caio\",\"email\":\"caio@voll.med\",\"telefone\":\"11999990000\",\"cpf\":\"22222222222\"," + endereco + "\n";
+        var saida = new ByteArrayOutputStream();
+
+        // act
+        var resumo = importacao.importar(pacientes(List.of()), FormatoImportacao.NDJSON, new StringReader(ndjson), saida);
+
+        // assert
+        assertEquals(List.of(List.of("Ana", "Caio")), lotesGravados);
+        var relatorio = relatorio(saida);
+        assertEquals(2, relatorio.get(0).get("linha").asLong());
+        assertEquals("Linha com mais de 200 caracteres; o registro foi descartado", relatorio.get(0).get("erros").get(0).asText());
+        assertEquals(1, resumo.rejeitados());
+    }
+
+    private List<JsonNode> relatorio(ByteArrayOutputStream saida) {
+        return Arrays.stream(saida.toString(StandardCharsets.UTF_8).split("\n"))
+                .map(linha -> {
+                    try {
+                        return objectMapper.readTree(linha);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+
+    private TipoCadastro<DadosCadastroPaciente> pacientes(List<String> emailsCadastrados) {
+        return new TipoCadastro<>() {
+
+            @Override
+            public Class<DadosCadastroPaciente> classe() {
+                return DadosCadastroPaciente.class;
+            }
+
+            @Override
+            public DadosCadastroPaciente deCsv(Function<String, String> coluna) {
+                return new DadosCadastroPaciente(coluna.apply("nome"), coluna.apply("email"), coluna.apply("telefone"),
+                        coluna.apply("cpf"), TipoCadastro.enderecoCsv(coluna));
+            }
+
+            @Override
+            public List<ChaveUnica<DadosCadastroPaciente>> chavesUnicas() {
+                return List.of(
+                        new ChaveUnica<>("email", DadosCadastroPaciente::email,
+                                (Collection<String> emails) -> emails.stream().filter(emailsCadastrados::contains).toList()),
+                        new ChaveUnica<>("cpf", DadosCadastroPaciente::cpf, (Collection<String> cpfs) -> List.of()));
+            }
+
+            @Override
+            public List<Long> inserir(List<DadosCadastroPaciente> lote) {
+                lotesGravados.add(lote.stream().map(DadosCadastroPaciente::nome).toList());
+                return LongStream.rangeClosed(1, lote.size()).boxed().toList();
+            }
+        };
+    }
+}
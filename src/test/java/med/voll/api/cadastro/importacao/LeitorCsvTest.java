@@ -0,0 +1,71 @@
+package med.voll.api.cadastro.importacao;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * O leitor segue a RFC 4180 e informa a linha em que cada registro começa, mesmo com quebras de linha
+ * dentro de campos entre aspas, e recusa registros acima do tamanho máximo.
+ */
+class LeitorCsvTest {
+
+    @Test
+    void deveLerCamposEntreAspasComVirgulaAspasEQuebraDeLinha() throws Exception {
+        // arrange
+        var leitor = new LeitorCsv(new StringReader("nome,obs\r\n\"Silva, Ana\",\"diz \"\"oi\"\"\nna segunda linha\"\r\n\r\nBia,\n"), 1000);
+
+        // act
+        var cabecalho = leitor.proximo();
+        var primeiro = leitor.proximo();
+        var linhaPrimeiro = leitor.linhaRegistro();
+        var segundo = leitor.proximo();
+        var linhaSegundo = leitor.linhaRegistro();
+
+        // assert
+        assertEquals(List.of("nome", "obs"), cabecalho);
+        assertEquals(List.of("Silva, Ana", "diz \"oi\"\nna segunda linha"), primeiro);
+        assertEquals(2, linhaPrimeiro);
+        assertEquals(List.of("Bia", ""), segundo);
+        assertEquals(5, linhaSegundo);
+        assertNull(leitor.proximo());
+    }
+
+    @Test
+    void ultimoRegistroSemQuebraDeLinhaEAspasSemFechamento() throws Exception {
+        // arrange
+        var completo = new LeitorCsv(new StringReader("a,b\n1,2"), 1000);
+        var aberto = new LeitorCsv(new StringReader("a,b\n1,\"2"), 1000);
+
+        // act
+        completo.proximo();
+        aberto.proximo();
+
+        // assert
+        assertEquals(List.of("1", "2"), completo.proximo());
+        assertNull(completo.proximo());
+        assertThrows(IllegalArgumentException.class, aberto::proximo);
+    }
+
+    @Test
+    void registroAcimaDoTamanhoMaximoDeveSerRecusadoEALeituraSeguirNaLinhaSeguinte() throws Exception {
+        // arrange
+        var leitor = new LeitorCsv(new StringReader("a,b\n1,\"2345678901\r\n3,4\n5,6"), 8);
+        leitor.proximo();
+
+        // act
+        var erro = assertThrows(IllegalArgumentException.class, leitor::proximo);
+        var seguinte = leitor.proximo();
+        var linhaSeguinte = leitor.linhaRegistro();
+
+        // assert
+        assertTrue(erro.getMessage().contains("linha 2"));
+        assertEquals(List.of("3", "4"), seguinte);
+        assertEquals(3, linhaSeguinte);
+        assertEquals(List.of("5", "6"), leitor.proximo());
+        assertNull(leitor.proximo());
+    }
+}
@@ -0,0 +1,68 @@
+package med.voll.api.consulta.agenda;
+
+import med.voll.api.enums.MotivoCancelamento;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * O calendário segue a RFC 5545: linhas terminadas em CRLF e dobradas em 75 octetos, texto escapado,
+ * datas em UTC e consultas canceladas como eventos cancelados.
+ */
+class CalendarioIcsTest {
+
+    private static final LocalDateTime DATA = LocalDateTime.of(2030, 3, 11, 10, 0);
+
+    @Test
+    void deveEscreverConsultaAtivaECanceladaComDatasEmUtc() throws Exception {
+        // arrange
+        var saida = new ByteArrayOutputStream();
+        var calendario = new CalendarioIcs(saida, ZoneId.of("America/Sao_Paulo"), Duration.ofHours(1));
+
+        // act
+        calendario.abrir("Agenda - Ana");
+        calendario.evento(new ConsultaAgendaMedico(1L, 10L, "João", DATA, null));
+        calendario.evento(new ConsultaAgendaMedico(2L, 11L, "Maria", DATA.plusHours(1), MotivoCancelamento.PACIENTE_DESISTIU));
+        calendario.fechar();
+
+        // assert
+        var ics = saida.toString(StandardCharsets.UTF_8);
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\n"));
+        assertTrue(ics.endsWith("END:VCALENDAR\r\n"));
+        assertTrue(ics.contains("UID:consulta-1@voll.med\r\nDTSTAMP:"));
+        assertTrue(ics.contains("DTSTART:20300311T130000Z\r\nDTEND:20300311T140000Z\r\n"));
+        assertTrue(ics.contains("SUMMARY:Consulta - João\r\n"));
+        assertTrue(ics.contains("SUMMARY:Consulta cancelada - Maria\r\n"));
+        assertTrue(ics.contains("STATUS:CANCELLED\r\nSEQUENCE:1\r\n"));
+        assertEquals(2, ics.split("BEGIN:VEVENT", -1).length - 1);
+    }
+
+    @Test
+    void deveEscaparTextoEDobrarLinhasLongasSemPartirCaracteres() throws Exception {
+        // arrange
+        var saida = new ByteArrayOutputStream();
+        var calendario = new CalendarioIcs(saida, ZoneId.of("UTC"), Duration.ofHours(1));
+
+        // act
+        calendario.abrir("Agenda; Dra. Ana, cardiologia");
+        calendario.evento(new ConsultaAgendaMedico(1L, 10L, "Conceição ".repeat(12).trim(), DATA, null));
+        calendario.fechar();
+
+        // assert
+        var ics = saida.toString(StandardCharsets.UTF_8);
+        assertTrue(ics.contains("X-WR-CALNAME:Agenda\\; Dra. Ana\\, cardiologia\r\n"));
+        for (var linha : ics.split("\r\n")) {
+            assertTrue(linha.getBytes(StandardCharsets.UTF_8).length <= 75, "Linha com mais de 75 octetos: " + linha);
+        }
+        var desdobrado = ics.replace("\r\n ", "");
+        assertTrue(desdobrado.contains("SUMMARY:Consulta - " + "Conceição ".repeat(12).trim() + "\r\n"));
+        assertTrue(Arrays.stream(ics.split("\r\n")).noneMatch(String::isEmpty));
+    }
+}
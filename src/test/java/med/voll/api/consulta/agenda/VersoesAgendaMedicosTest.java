@@ -0,0 +1,52 @@
+package med.voll.api.consulta.agenda;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A etiqueta da agenda muda com alterações do próprio médico, com qualquer alteração de paciente ou com a virada
+ * do dia.
+ */
+class VersoesAgendaMedicosTest {
+
+    private static final LocalDate HOJE = LocalDate.now();
+
+    private final VersoesAgendaMedicos versoes = new VersoesAgendaMedicos();
+
+    @Test
+    void alteracaoDoMedicoDeveMudarSomenteAEtiquetaDele() {
+        // arrange
+        var antesMedico1 = versoes.etag(1L, HOJE);
+        var antesMedico2 = versoes.etag(2L, HOJE);
+
+        // act
+        versoes.medicoAlterado(1L);
+
+        // assert
+        assertNotEquals(antesMedico1, versoes.etag(1L, HOJE));
+        assertEquals(antesMedico2, versoes.etag(2L, HOJE));
+    }
+
+    @Test
+    void alteracaoDePacienteDeveMudarAEtiquetaDeTodosOsMedicos() {
+        // arrange
+        var antesMedico1 = versoes.etag(1L, HOJE);
+        var antesMedico2 = versoes.etag(2L, HOJE);
+
+        // act
+        versoes.pacienteAlterado();
+
+        // assert
+        assertNotEquals(antesMedico1, versoes.etag(1L, HOJE));
+        assertNotEquals(antesMedico2, versoes.etag(2L, HOJE));
+    }
+
+    @Test
+    void viradaDoDiaDeveMudarAEtiqueta() {
+        assertEquals(versoes.etag(1L, HOJE), versoes.etag(1L, HOJE));
+        assertNotEquals(versoes.etag(1L, HOJE), versoes.etag(1L, HOJE.plusDays(1)));
+    }
+}
@@ -0,0 +1,125 @@
+package med.voll.api.consulta.disponibilidade;
+
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda;
+import med.voll.api.consulta.ocupacao.OcupacaoConsulta;
+import med.voll.api.consulta.validacoes.agendamento.ValidadorHorarioAntecedencia;
+import med.voll.api.consulta.validacoes.agendamento.ValidadorHorarioFuncionamentoClinica;
+import med.voll.api.dtos.DadosAgendamentoConsulta;
+import med.voll.api.dtos.DadosListagemMedico;
+import med.voll.api.enums.Especialidade;
+import med.voll.api.repositories.ConsultaRepository;
+import med.voll.api.repositories.MedicoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Os horários oferecidos são exatamente os que os validadores de funcionamento e antecedência aceitariam,
+ * menos os ocupados, e a ocupação é obtida sem uma consulta por horário.
+ */
+@ExtendWith(MockitoExtension.class)
+class AgendaDisponibilidadeTest {
+
+    private static final LocalDate SABADO = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.next(DayOfWeek.SATURDAY));
+
+    @Mock
+    MedicoRepository medicoRepository;
+
+    @Mock
+    ConsultaRepository consultaRepository;
+
+    @Mock
+    IndiceOcupacaoAgenda indiceOcupacaoAgenda;
+
+    @InjectMocks
+    AgendaDisponibilidade agenda;
+
+    @BeforeEach
+    void setUp() {
+        when(medicoRepository.findListagemAtivosByEspecialidade(Especialidade.CARDIOLOGIA)).thenReturn(List.of(
+                new DadosListagemMedico(1L, "Ana", "ana@voll.med", "123456", Especialidade.CARDIOLOGIA),
+                new DadosListagemMedico(2L, "Bruno", "bruno@voll.med", "654321", Especialidade.CARDIOLOGIA)));
+    }
+
+    @Test
+    void deveOferecerSomenteHorariosAceitosPelosValidadores() {
+        // arrange
+        when(indiceOcupacaoAgenda.disponivel()).thenReturn(true);
+        var hoje = LocalDate.now();
+
+        // act
+        var disponibilidade = agenda.livresPorMedico(Especialidade.CARDIOLOGIA, hoje, hoje.plusDays(13));
+
+        // assert
+        var funcionamento = new ValidadorHorarioFuncionamentoClinica();
+        var antecedencia = new ValidadorHorarioAntecedencia();
+        assertEquals(2, disponibilidade.size());
+        for (var medico : disponibilidade) {
+            assertFalse(medico.horarios().isEmpty());
+            for (var horario : medico.horarios()) {
+                var dados = new DadosAgendamentoConsulta(medico.idMedico(), 1L, horario, null);
+                assertDoesNotThrow(() -> funcionamento.validar(dados));
+                assertDoesNotThrow(() -> antecedencia.validar(dados));
+                assertNotEquals(DayOfWeek.SUNDAY, horario.getDayOfWeek());
+            }
+        }
+        verifyNoInteractions(consultaRepository);
+    }
+
+    @Test
+    void deveDescontarHorariosOcupadosNoIndice() {
+        // arrange
+        when(indiceOcupacaoAgenda.disponivel()).thenReturn(true);
+        when(indiceOcupacaoAgenda.horariosOcupadosMedico(anyLong(), any())).thenReturn(0);
+        // Ana ocupada às 7:00 e às 10:00
+        when(indiceOcupacaoAgenda.horariosOcupadosMedico(1L, SABADO)).thenReturn(0b1001);
+
+        // act
+        var disponibilidade = agenda.livresPorMedico(Especialidade.CARDIOLOGIA, SABADO, SABADO.plusDays(1));
+
+        // assert
+        var ana = disponibilidade.get(0);
+        var bruno = disponibilidade.get(1);
+        assertEquals(GradeHorariosClinica.HORARIOS_POR_DIA - 2, ana.horarios().size());
+        assertFalse(ana.horarios().contains(SABADO.atTime(7, 0)));
+        assertFalse(ana.horarios().contains(SABADO.atTime(10, 0)));
+        assertTrue(ana.horarios().contains(SABADO.atTime(8, 0)));
+        // domingo não entra
+        assertEquals(GradeHorariosClinica.HORARIOS_POR_DIA, bruno.horarios().size());
+    }
+
+    @Test
+    void semIndiceDeveFazerUmaUnicaConsultaPorIntervalo() {
+        // arrange
+        when(indiceOcupacaoAgenda.disponivel()).thenReturn(false);
+        when(consultaRepository.findOcupacoesAtivasDaEspecialidadeNoPeriodo(Especialidade.CARDIOLOGIA,
+                SABADO.atStartOfDay(), SABADO.plusDays(1).atStartOfDay())).thenReturn(List.of(
+                new OcupacaoConsulta(2L, 10L, SABADO.atTime(9, 0), null),
+                // fora da grade: a regra do médico compara o horário exato, então não ocupa 10:00
+                new OcupacaoConsulta(2L, 11L, SABADO.atTime(10, 30), null)));
+
+        // act
+        var disponibilidade = agenda.livresPorMedico(Especialidade.CARDIOLOGIA, SABADO, SABADO);
+
+        // assert
+        var bruno = disponibilidade.get(1);
+        assertFalse(bruno.horarios().contains(SABADO.atTime(9, 0)));
+        assertTrue(bruno.horarios().contains(SABADO.atTime(10, 0)));
+        assertEquals(GradeHorariosClinica.HORARIOS_POR_DIA, disponibilidade.get(0).horarios().size());
+        verify(consultaRepository, times(1)).findOcupacoesAtivasDaEspecialidadeNoPeriodo(any(), any(), any());
+        verifyNoMoreInteractions(consultaRepository);
+    }
+}
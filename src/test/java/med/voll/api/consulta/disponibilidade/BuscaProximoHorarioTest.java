@@ -0,0 +1,143 @@
+package med.voll.api.consulta.disponibilidade;
+
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda;
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda.SituacaoHorario;
+import med.voll.api.consulta.ocupacao.OcupacaoConsulta;
+import med.voll.api.dtos.DadosHorarioDisponivel;
+import med.voll.api.dtos.DadosListagemMedico;
+import med.voll.api.enums.Especialidade;
+import med.voll.api.enums.MotivoCancelamento;
+import med.voll.api.repositories.ConsultaRepository;
+import med.voll.api.repositories.MedicoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * A busca intercala os horários livres dos médicos em ordem de data, respeita o dia já ocupado do paciente
+ * e encontra horários semanas à frente com uma consulta de ocupação por janela, nunca por dia ou por médico.
+ */
+@ExtendWith(MockitoExtension.class)
+class BuscaProximoHorarioTest {
+
+    private static final LocalDate SEGUNDA = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    @Mock
+    MedicoRepository medicoRepository;
+
+    @Mock
+    ConsultaRepository consultaRepository;
+
+    @Mock
+    IndiceOcupacaoAgenda indiceOcupacaoAgenda;
+
+    BuscaProximoHorario busca;
+
+    @BeforeEach
+    void setUp() {
+        when(medicoRepository.findListagemAtivosByEspecialidade(Especialidade.CARDIOLOGIA)).thenReturn(List.of(
+                new DadosListagemMedico(1L, "Ana", "ana@voll.med", "123456", Especialidade.CARDIOLOGIA),
+                new DadosListagemMedico(2L, "Bruno", "bruno@voll.med", "654321", Especialidade.CARDIOLOGIA)));
+        busca = new BuscaProximoHorario(medicoRepository, consultaRepository, indiceOcupacaoAgenda,
+                new AgendaDisponibilidade(medicoRepository, consultaRepository, indiceOcupacaoAgenda));
+    }
+
+    @Test
+    void deveIntercalarOsMedicosEmOrdemDeHorario() {
+        // arrange
+        when(indiceOcupacaoAgenda.disponivel()).thenReturn(true);
+        when(indiceOcupacaoAgenda.horariosOcupadosMedico(anyLong(), any())).thenReturn(0);
+        // Ana ocupada às 7:00 e às 8:00 da segunda
+        when(indiceOcupacaoAgenda.horariosOcupadosMedico(1L, SEGUNDA)).thenReturn(0b11);
+
+        // act
+        var horarios = busca.buscar(Especialidade.CARDIOLOGIA, SEGUNDA.atStartOfDay(), null, 4);
+
+        // assert
+        assertEquals(List.of(
+                new DadosHorarioDisponivel(2L, "Bruno", "654321", SEGUNDA.atTime(7, 0)),
+                new DadosHorarioDisponivel(2L, "Bruno", "654321", SEGUNDA.atTime(8, 0)),
+                new DadosHorarioDisponivel(1L, "Ana", "123456", SEGUNDA.atTime(9, 0)),
+                new DadosHorarioDisponivel(2L, "Bruno", "654321", SEGUNDA.atTime(9, 0))), horarios);
+        verifyNoInteractions(consultaRepository);
+    }
+
+    @Test
+    void naoDeveOferecerDiaEmQueOPacienteJaTemConsulta() {
+        // arrange
+        when(indiceOcupacaoAgenda.disponivel()).thenReturn(true);
+        when(indiceOcupacaoAgenda.horariosOcupadosMedico(anyLong(), any())).thenReturn(0);
+        when(indiceOcupacaoAgenda.situacaoPaciente(eq(10L), any())).thenReturn(SituacaoHorario.LIVRE);
+        when(indiceOcupacaoAgenda.situacaoPaciente(10L, SEGUNDA.atTime(7, 0))).thenReturn(SituacaoHorario.OCUPADO);
+
+        // act
+        var horarios = busca.buscar(Especialidade.CARDIOLOGIA, SEGUNDA.atTime(16, 10), 10L, 3);
+
+        // assert
+        assertEquals(List.of(SEGUNDA.plusDays(1).atTime(7, 0), SEGUNDA.plusDays(1).atTime(7, 0), SEGUNDA.plusDays(1).atTime(8, 0)),
+                horarios.stream().map(DadosHorarioDisponivel::data).toList());
+    }
+
+    @Test
+    void pacienteSemRespostaDoIndiceDeveUsarUmaConsultaPorJanela() {
+        // arrange
+        when(indiceOcupacaoAgenda.disponivel()).thenReturn(true);
+        when(indiceOcupacaoAgenda.horariosOcupadosMedico(anyLong(), any())).thenReturn(0);
+        when(indiceOcupacaoAgenda.situacaoPaciente(eq(10L), any())).thenReturn(SituacaoHorario.INDETERMINADO);
+        // consulta cancelada às 10:30 da segunda: pela regra do validador o dia continua ocupado
+        when(consultaRepository.findOcupacoesDosPacientesNoPeriodo(eq(List.of(10L)), any(), any())).thenReturn(List.of(
+                new OcupacaoConsulta(1L, 10L, SEGUNDA.atTime(10, 30), MotivoCancelamento.PACIENTE_DESISTIU)));
+
+        // act
+        var horarios = busca.buscar(Especialidade.CARDIOLOGIA, SEGUNDA.atStartOfDay(), 10L, 1);
+
+        // assert
+        assertEquals(SEGUNDA.plusDays(1).atTime(7, 0), horarios.get(0).data());
+        verify(consultaRepository, times(1)).findOcupacoesDosPacientesNoPeriodo(any(), any(), any());
+    }
+
+    @Test
+    void deveEncontrarHorarioSemanasAFrenteComUmaConsultaPorJanela() {
+        // arrange
+        when(indiceOcupacaoAgenda.disponivel()).thenReturn(false);
+        var primeiroLivre = SEGUNDA.plusWeeks(3).plusDays(2).atTime(15, 0);
+        when(consultaRepository.findOcupacoesAtivasDaEspecialidadeNoPeriodo(eq(Especialidade.CARDIOLOGIA), any(), any()))
+                .thenAnswer(invocacao -> {
+                    LocalDateTime inicio = invocacao.getArgument(1);
+                    LocalDateTime fim = invocacao.getArgument(2);
+                    return inicio.toLocalDate().datesUntil(fim.toLocalDate())
+                            .flatMap(dia -> IntStream.range(0, GradeHorariosClinica.HORARIOS_POR_DIA)
+                                    .mapToObj(indice -> GradeHorariosClinica.horario(dia, indice)))
+                            .filter(horario -> horario.isBefore(primeiroLivre))
+                            .flatMap(horario -> Stream.of(
+                                    new OcupacaoConsulta(1L, 100L, horario, null),
+                                    new OcupacaoConsulta(2L, 200L, horario, null)))
+                            .toList();
+                });
+
+        // act
+        var horarios = busca.buscar(Especialidade.CARDIOLOGIA, SEGUNDA.atStartOfDay(), null, 2);
+
+        // assert
+        assertEquals(List.of(primeiroLivre, primeiroLivre), horarios.stream().map(DadosHorarioDisponivel::data).toList());
+        assertEquals(List.of(1L, 2L), horarios.stream().map(DadosHorarioDisponivel::idMedico).toList());
+        // 23 dias à frente: duas janelas de 14 dias
+        verify(consultaRepository, times(2)).findOcupacoesAtivasDaEspecialidadeNoPeriodo(any(), any(), any());
+    }
+}
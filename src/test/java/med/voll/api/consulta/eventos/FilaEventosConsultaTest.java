@@ -0,0 +1,110 @@
+package med.voll.api.consulta.eventos;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * A fila nunca bloqueia quem publica, entrega em lotes e só marca como publicados os lotes que todos os
+ * consumidores processaram. A thread despachante não é iniciada: os lotes são despachados pelo próprio teste.
+ */
+class FilaEventosConsultaTest {
+
+    private static final LocalDateTime DATA = LocalDateTime.now().plusDays(7).withHour(10);
+
+    private final CaixaSaidaEventosConsulta caixaSaida = mock(CaixaSaidaEventosConsulta.class);
+    private final List<List<EventoConsulta>> recebidos = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void filaCheiaDeveRecusarSemBloquearEContarRejeitados() {
+        // arrange
+        var fila = fila(2, 10, recebidos::add);
+
+        // act
+        var aceitos = fila.enfileirar(List.of(evento(1), evento(2), evento(3)));
+
+        // assert
+        assertEquals(2, aceitos);
+        assertEquals(1.0, meterRegistry.get("api.eventos.rejeitados").counter().count());
+        assertEquals(2.0, meterRegistry.get("api.eventos.fila.ocupacao").gauge().value());
+    }
+
+    @Test
+    void deveEntregarEmLotesEMarcarComoPublicados() throws Exception {
+        // arrange
+        var fila = fila(10, 2, recebidos::add);
+        fila.enfileirar(List.of(evento(1), evento(2), evento(3)));
+
+        // act
+        fila.despacharLote(0, TimeUnit.MILLISECONDS);
+        fila.despacharLote(0, TimeUnit.MILLISECONDS);
+
+        // assert
+        assertEquals(List.of(2, 1), recebidos.stream().map(List::size).toList());
+        verify(caixaSaida).marcarComoPublicados(List.of(1L, 2L));
+        verify(caixaSaida).marcarComoPublicados(List.of(3L));
+        assertEquals(3.0, meterRegistry.get("api.eventos.publicados").counter().count());
+        assertFalse(fila.despacharLote(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void falhaDeUmConsumidorDeveManterOLotePendenteSemImpedirOsOutros() throws Exception {
+        // arrange
+        ConsumidorEventosConsulta comFalha = lote -> {
+            throw new IllegalStateException("indisponível");
+        };
+        var fila = new FilaEventosConsulta(List.of(comFalha, recebidos::add), caixaSaida, meterRegistry, 10, 10, Duration.ZERO);
+        fila.enfileirar(List.of(evento(1)));
+
+        // act
+        fila.despacharLote(0, TimeUnit.MILLISECONDS);
+
+        // assert
+        assertEquals(1, recebidos.size());
+        verify(caixaSaida, never()).marcarComoPublicados(any());
+        assertEquals(1.0, meterRegistry.get("api.eventos.consumo.falhas")
+                .tag("consumidor", comFalha.getClass().getSimpleName()).counter().count());
+    }
+
+    @Test
+    void reenvioNaoDeveDuplicarEventoQueAindaEstaNaFila() throws Exception {
+        // arrange
+        var fila = fila(10, 1, recebidos::add);
+        fila.enfileirar(List.of(evento(1)));
+        when(caixaSaida.pendentes(any(), anyInt())).thenReturn(List.of(evento(1), evento(2)));
+
+        // act
+        fila.reenviarPendentes();
+        while (fila.despacharLote(0, TimeUnit.MILLISECONDS)) {
+        }
+
+        // assert
+        assertEquals(List.of(1L, 2L), recebidos.stream().flatMap(List::stream).map(EventoConsulta::id).toList());
+        assertEquals(1.0, meterRegistry.get("api.eventos.enfileirados").tag("origem", "reenvio").counter().count());
+    }
+
+    private FilaEventosConsulta fila(int capacidade, int tamanhoLote, ConsumidorEventosConsulta consumidor) {
+        return new FilaEventosConsulta(List.of(consumidor), caixaSaida, meterRegistry, capacidade, tamanhoLote, Duration.ZERO);
+    }
+
+    private static EventoConsulta evento(long id) {
+        return new ConsultaAgendada(id, id, 1L, id, DATA, LocalDateTime.now());
+    }
+}
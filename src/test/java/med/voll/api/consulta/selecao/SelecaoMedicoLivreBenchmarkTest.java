@@ -0,0 +1,110 @@
+package med.voll.api.consulta.selecao;
+
+import med.voll.api.consulta.ocupacao.AgendaMedicos;
+import med.voll.api.enums.Especialidade;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara a latência de seleção de um médico livre com 10, 1.000 e 50.000 médicos na especialidade.
+ * A linha "varredura" reproduz em memória o trabalho do antigo {@code order by rand() limit 1}:
+ * filtrar todos os candidatos livres e ordená-los por um valor aleatório.
+ */
+@Tag("benchmark")
+class SelecaoMedicoLivreBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SelecaoMedicoLivreBenchmarkTest.class);
+
+    private static final int SELECOES = 20_000;
+    private static final double FRACAO_OCUPADA = 0.5;
+
+    private static final LocalDateTime HORARIO = LocalDate.now().plusWeeks(1).atTime(10, 0);
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1_000, 50_000})
+    void compararLatenciaDeSelecao(int quantidadeMedicos) {
+        var pool = new PoolMedicosEspecialidade(Especialidade.CARDIOLOGIA);
+        pool.substituirTodos(LongStream.rangeClosed(1, quantidadeMedicos).boxed().toList());
+        var agenda = new AgendaFalsa(quantidadeMedicos);
+
+        Map<String, EstrategiaSelecaoMedico> estrategias = Map.of(
+                "aleatoria", new EstrategiaSelecaoAleatoria(agenda),
+                "rodizio", new EstrategiaSelecaoRodizio(agenda),
+                "menor-carga", new EstrategiaSelecaoMenorCarga(agenda));
+
+        var selecoes = quantidadeMedicos >= 50_000 ? SELECOES / 100 : SELECOES;
+        log.info("{} médicos, {}% ocupados no horário:", quantidadeMedicos, Math.round(FRACAO_OCUPADA * 100));
+        log.info("  {} {} µs/seleção", String.format("%-12s", "varredura"), medir(selecoes, () -> selecionarPorVarredura(pool, agenda)));
+        for (var nome : List.of("aleatoria", "rodizio", "menor-carga")) {
+            var estrategia = estrategias.get(nome);
+            estrategia.escolher(pool, HORARIO);
+            log.info("  {} {} µs/seleção", String.format("%-12s", nome), medir(selecoes, () -> estrategia.escolher(pool, HORARIO)));
+        }
+    }
+
+    private static String medir(int selecoes, Supplier<Long> selecao) {
+        for (int i = 0; i < Math.min(selecoes, 1_000); i++) {
+            selecao.get();
+        }
+        var inicio = System.nanoTime();
+        for (int i = 0; i < selecoes; i++) {
+            var idMedico = selecao.get();
+            assertNotNull(idMedico);
+        }
+        return String.format(Locale.ROOT, "%10.2f", (System.nanoTime() - inicio) / 1_000.0 / selecoes);
+    }
+
+    private static Long selecionarPorVarredura(PoolMedicosEspecialidade pool, AgendaMedicos agenda) {
+        var random = ThreadLocalRandom.current();
+        return Arrays.stream(pool.ids())
+                .filter(idMedico -> agenda.medicoLivre(idMedico, HORARIO))
+                .boxed()
+                .map(idMedico -> new long[]{idMedico, random.nextLong()})
+                .sorted(Comparator.comparingLong(par -> par[1]))
+                .map(par -> par[0])
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static class AgendaFalsa implements AgendaMedicos {
+
+        private final Set<Long> ocupados = new HashSet<>();
+
+        AgendaFalsa(int quantidadeMedicos) {
+            var random = ThreadLocalRandom.current();
+            while (ocupados.size() < quantidadeMedicos * FRACAO_OCUPADA) {
+                ocupados.add(random.nextLong(1, quantidadeMedicos + 1));
+            }
+            assertTrue(ocupados.size() < quantidadeMedicos);
+        }
+
+        @Override
+        public boolean medicoLivre(long idMedico, LocalDateTime data) {
+            return !ocupados.contains(idMedico);
+        }
+
+        @Override
+        public int consultasDoMedicoNoDia(long idMedico, LocalDate dia) {
+            return ocupados.contains(idMedico) ? 1 : 0;
+        }
+    }
+}
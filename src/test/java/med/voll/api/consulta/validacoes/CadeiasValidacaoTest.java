@@ -0,0 +1,76 @@
+package med.voll.api.consulta.validacoes;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import med.voll.api.consulta.validacoes.agendamento.ContextoAgendamento;
+import med.voll.api.consulta.validacoes.agendamento.ValidadorHorarioAntecedencia;
+import med.voll.api.consulta.validacoes.agendamento.ValidadorHorarioFuncionamentoClinica;
+import med.voll.api.dtos.DadosAgendamentoConsulta;
+import med.voll.api.infra.exceptions.ValidacaoException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CadeiasValidacaoTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CadeiasValidacao cadeiasValidacao;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cadeiasValidacao = new CadeiasValidacao(
+                List.of(new ValidadorHorarioAntecedencia(), new ValidadorHorarioFuncionamentoClinica()),
+                List.of(),
+                meterRegistry);
+    }
+
+    @Test
+    void deveMedirCadaValidadorDaCadeia() {
+        // arrange
+        var segunda = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        var contexto = contexto(new DadosAgendamentoConsulta(1L, 1L, segunda.atTime(10, 0), null));
+
+        // act
+        cadeiasValidacao.validarAgendamento(contexto);
+
+        // assert
+        assertEquals(1, timer("ValidadorHorarioAntecedencia").count());
+        assertEquals(1, timer("ValidadorHorarioFuncionamentoClinica").count());
+        assertEquals(0, rejeicoes("ValidadorHorarioFuncionamentoClinica"));
+    }
+
+    @Test
+    void deveContarRejeicaoDoValidadorQueRecusou() {
+        // arrange
+        var domingo = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.next(DayOfWeek.SUNDAY));
+        var contexto = contexto(new DadosAgendamentoConsulta(1L, 1L, domingo.atTime(10, 0), null));
+
+        // act
+        assertThrows(ValidacaoException.class, () -> cadeiasValidacao.validarAgendamento(contexto));
+
+        // assert
+        assertEquals(0, rejeicoes("ValidadorHorarioAntecedencia"));
+        assertEquals(1, rejeicoes("ValidadorHorarioFuncionamentoClinica"));
+        assertEquals(1, timer("ValidadorHorarioFuncionamentoClinica").count());
+    }
+
+    private static ContextoAgendamento contexto(DadosAgendamentoConsulta dados) {
+        return new ContextoAgendamento(dados, true, true, false, false);
+    }
+
+    private Timer timer(String validador) {
+        return meterRegistry.get("api.consulta.validacao").tag("cadeia", "agendamento").tag("validador", validador).timer();
+    }
+
+    private double rejeicoes(String validador) {
+        return meterRegistry.get("api.consulta.validacao.rejeicoes").tag("validador", validador).counter().count();
+    }
+}
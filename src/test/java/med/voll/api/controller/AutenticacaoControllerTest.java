@@ -3,6 +3,7 @@ package med.voll.api.controller;
 import med.voll.api.dtos.DadosAutenticacao;
 import med.voll.api.entities.Usuario;
 import med.voll.api.infra.security.DadosTokenJWT;
+import med.voll.api.infra.security.RefreshTokenService;
 import med.voll.api.infra.security.TokenService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -28,6 +29,9 @@ class AutenticacaoControllerTest {
     @Mock
     TokenService tokenService;
 
+    @Mock
+    RefreshTokenService refreshTokenService;
+
     @InjectMocks
     AutenticacaoController controller;
 
@@ -41,6 +45,7 @@ class AutenticacaoControllerTest {
                 .thenReturn(authentication);
         when(authentication.getPrincipal()).thenReturn(usuario);
         when(tokenService.gerarToken(usuario)).thenReturn("meu-token");
+        when(refreshTokenService.emitir(usuario)).thenReturn("meu-refresh-token");
 
         // act
         ResponseEntity<?> response = controller.efetuarLogin(dados);
@@ -51,6 +56,7 @@ class AutenticacaoControllerTest {
         assertTrue(response.getBody() instanceof DadosTokenJWT);
         DadosTokenJWT body = (DadosTokenJWT) response.getBody();
         assertEquals("meu-token", body.token());
+        assertEquals("meu-refresh-token", body.refreshToken());
         verify(authenticationManager).authenticate(ArgumentMatchers.any(UsernamePasswordAuthenticationToken.class));
         verify(tokenService).gerarToken(usuario);
     }
@@ -69,6 +75,6 @@ class AutenticacaoControllerTest {
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("Credenciais inválidas", response.getBody());
         verify(authenticationManager).authenticate(ArgumentMatchers.any(UsernamePasswordAuthenticationToken.class));
-        verifyNoInteractions(tokenService);
+        verifyNoInteractions(tokenService, refreshTokenService);
     }
 }
\ No newline at end of file
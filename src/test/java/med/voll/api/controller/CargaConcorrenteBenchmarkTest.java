@@ -0,0 +1,178 @@
+package med.voll.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import med.voll.api.dtos.DadosCadastroMedico;
+import med.voll.api.dtos.DadosEndereco;
+import med.voll.api.entities.Medico;
+import med.voll.api.entities.Usuario;
+import med.voll.api.enums.Especialidade;
+import med.voll.api.repositories.MedicoRepository;
+import med.voll.api.repositories.UsuarioRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Carga de 1.000 a 10.000 clientes simultâneos contra {@code GET /medicos/{id}} (autenticação JWT + uma consulta ao banco).
+ * Mede o modo com que a aplicação foi iniciada; para comparar, executar as duas variações:
+ * <pre>
+ * mvn test -Pbenchmark                     (threads de plataforma, Java 17)
+ * mvn test -Pbenchmark,virtual-threads     (threads virtuais, Java 21)
+ * </pre>
+ * Os clientes usam o {@link HttpClient} assíncrono, então o próprio teste não precisa de uma thread por cliente.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "server.tomcat.max-connections=20000",
+        "server.tomcat.accept-count=10000"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CargaConcorrenteBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CargaConcorrenteBenchmarkTest.class);
+
+    private static final int REQUISICOES_POR_CLIENTE = 5;
+    private static final String SENHA = "senha-benchmark";
+
+    @LocalServerPort
+    private int porta;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean threadsVirtuais;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+
+    private Usuario usuario;
+    private Medico medico;
+    private String token;
+
+    @BeforeAll
+    void prepararUsuarioEMedico() throws Exception {
+        var sufixo = System.currentTimeMillis() % 10_000;
+        usuario = usuarioRepository.save(new Usuario(null, "carga" + sufixo + "@voll.med", passwordEncoder.encode(SENHA)));
+        medico = medicoRepository.save(new Medico(new DadosCadastroMedico(
+                "Médico Carga", "medico.carga" + sufixo + "@voll.med", "11999990000",
+                String.format("%06d", 900_000 + sufixo), Especialidade.DERMATOLOGIA,
+                new DadosEndereco("Rua Carga", "Centro", "01001000", "São Paulo", "SP", null, "1"))));
+
+        var login = HttpRequest.newBuilder(uri("/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+                        Map.of("login", usuario.getLogin(), "senha", SENHA))))
+                .build();
+        var resposta = httpClient.send(login, HttpResponse.BodyHandlers.ofString());
+        token = objectMapper.readTree(resposta.body()).get("token").asText();
+    }
+
+    @AfterAll
+    void removerUsuarioEMedico() {
+        medicoRepository.delete(medico);
+        usuarioRepository.delete(usuario);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1_000, 2_500, 5_000, 10_000})
+    void medirVazaoComClientesSimultaneos(int clientes) {
+        var requisicao = HttpRequest.newBuilder(uri("/medicos/" + medico.getId()))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofMinutes(2))
+                .GET()
+                .build();
+
+        var total = clientes * REQUISICOES_POR_CLIENTE;
+        var latencias = new AtomicLongArray(total);
+        var proxima = new AtomicInteger();
+        var erros = new AtomicInteger();
+
+        var inicio = System.nanoTime();
+        var execucoes = new CompletableFuture<?>[clientes];
+        for (int cliente = 0; cliente < clientes; cliente++) {
+            CompletableFuture<Void> execucao = CompletableFuture.completedFuture(null);
+            for (int i = 0; i < REQUISICOES_POR_CLIENTE; i++) {
+                execucao = execucao.thenCompose(anterior -> enviar(requisicao, latencias, proxima, erros));
+            }
+            execucoes[cliente] = execucao;
+        }
+        CompletableFuture.allOf(execucoes).join();
+        var segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        var ordenadas = new long[proxima.get()];
+        for (int i = 0; i < ordenadas.length; i++) {
+            ordenadas[i] = latencias.get(i);
+        }
+        Arrays.sort(ordenadas);
+
+        log.info("{}, {} clientes: {} req/s, p50 {} ms, p99 {} ms, {} erros",
+                threadsVirtuais && Runtime.version().feature() >= 21 ? "threads virtuais" : "threads de plataforma",
+                clientes, String.format(Locale.ROOT, "%.0f", total / segundos),
+                percentil(ordenadas, 50), percentil(ordenadas, 99), erros.get());
+
+        assertEquals(total, proxima.get() + erros.get());
+    }
+
+    private CompletableFuture<Void> enviar(HttpRequest requisicao, AtomicLongArray latencias, AtomicInteger proxima, AtomicInteger erros) {
+        var inicio = System.nanoTime();
+        return httpClient.sendAsync(requisicao, HttpResponse.BodyHandlers.discarding())
+                .handle((resposta, falha) -> {
+                    if (falha != null || resposta.statusCode() != 200) {
+                        erros.incrementAndGet();
+                    } else {
+                        latencias.set(proxima.getAndIncrement(), System.nanoTime() - inicio);
+                    }
+                    return null;
+                });
+    }
+
+    private URI uri(String caminho) {
+        return URI.create("http://localhost:" + porta + caminho);
+    }
+
+    private static String percentil(long[] ordenadas, int percentil) {
+        if (ordenadas.length == 0) {
+            return "0.0";
+        }
+        var posicao = Math.min(ordenadas.length - 1, (int) Math.ceil(percentil / 100.0 * ordenadas.length) - 1);
+        return String.format(Locale.ROOT, "%.1f", ordenadas[Math.max(0, posicao)] / 1_000_000.0);
+    }
+}
@@ -0,0 +1,118 @@
+package med.voll.api.infra.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import med.voll.api.infra.exceptions.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheDetalhamentoTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private final AtomicInteger cargas = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void deveCarregarUmaVezEContarAcertosEFalhas() {
+        var cache = new CacheDetalhamento<String>("medicos", 100, Duration.ofMinutes(1), meterRegistry);
+
+        assertEquals("medico-1", cache.buscar(1L, this::carregar));
+        assertEquals("medico-1", cache.buscar(1L, this::carregar));
+
+        assertEquals(1, cargas.get());
+        assertEquals(1.0, contador("api.cache.detalhamento", "resultado", "acerto"));
+        assertEquals(1.0, contador("api.cache.detalhamento", "resultado", "falha"));
+        assertEquals(1, meterRegistry.get("api.cache.detalhamento.carga").tag("cache", "medicos").timer().count());
+        assertEquals(0.5, meterRegistry.get("api.cache.detalhamento.taxa-acerto").tag("cache", "medicos").gauge().value());
+    }
+
+    @Test
+    void deveRecarregarDepoisDaInvalidacao() {
+        var cache = new CacheDetalhamento<String>("medicos", 100, Duration.ofMinutes(1), meterRegistry);
+
+        cache.buscar(1L, this::carregar);
+        cache.invalidar(1L);
+        cache.buscar(1L, this::carregar);
+
+        assertEquals(2, cargas.get());
+        assertEquals(1.0, contador("api.cache.detalhamento.remocoes", "causa", "invalidacao"));
+    }
+
+    @Test
+    void naoDeveGuardarCargaQueConcorreuComInvalidacao() {
+        var cache = new CacheDetalhamento<String>("medicos", 100, Duration.ofMinutes(1), meterRegistry);
+
+        // a alteração é confirmada enquanto a leitura ainda está no banco com o valor antigo
+        cache.buscar(1L, id -> {
+            cache.invalidar(id);
+            return "medico-antigo";
+        });
+
+        assertEquals(0, cache.tamanho());
+        assertEquals("medico-1", cache.buscar(1L, this::carregar));
+    }
+
+    @Test
+    void naoDeveGuardarQuandoACargaFalha() {
+        var cache = new CacheDetalhamento<String>("pacientes", 100, Duration.ofMinutes(1), meterRegistry);
+
+        assertThrows(ResourceNotFoundException.class, () -> cache.buscar(1L, id -> {
+            throw new ResourceNotFoundException("Paciente com ID 1 não encontrado!");
+        }));
+
+        assertEquals(0, cache.tamanho());
+    }
+
+    @Test
+    void deveExpirarPeloTtl() throws InterruptedException {
+        var cache = new CacheDetalhamento<String>("medicos", 100, Duration.ofMillis(5), meterRegistry);
+
+        cache.buscar(1L, this::carregar);
+        Thread.sleep(20);
+        cache.buscar(1L, this::carregar);
+
+        assertEquals(2, cargas.get());
+        assertEquals(1.0, contador("api.cache.detalhamento.remocoes", "causa", "expiracao"));
+    }
+
+    @Test
+    void deveDescartarOsMenosUsadosQuandoCheio() {
+        // 16 segmentos de 1 entrada: nunca passa de 16 registros
+        var cache = new CacheDetalhamento<String>("medicos", 16, Duration.ofMinutes(1), meterRegistry);
+
+        for (long id = 1; id <= 1_000; id++) {
+            cache.buscar(id, this::carregar);
+        }
+
+        assertTrue(cache.tamanho() <= 16);
+        assertTrue(contador("api.cache.detalhamento.remocoes", "causa", "tamanho") >= 1_000 - 16);
+    }
+
+    @Test
+    void deveSempreCarregarQuandoDesabilitado() {
+        var cache = new CacheDetalhamento<String>("medicos", 0, Duration.ofMinutes(1), meterRegistry);
+
+        cache.buscar(1L, this::carregar);
+        cache.buscar(1L, this::carregar);
+
+        assertEquals(2, cargas.get());
+        assertEquals(0, cache.tamanho());
+    }
+
+    private String carregar(Long id) {
+        cargas.incrementAndGet();
+        return "medico-" + id;
+    }
+
+    private double contador(String nome, String tag, String valor) {
+        return meterRegistry.get(nome).tag("cache", "medicos").tag(tag, valor).counter().count();
+    }
+}
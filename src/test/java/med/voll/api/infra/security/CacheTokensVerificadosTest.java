@@ -0,0 +1,92 @@
+package med.voll.api.infra.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import med.voll.api.entities.Usuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheTokensVerificadosTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private final Usuario usuario = new Usuario(1L, "ana@voll.med", "senha");
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void deveDevolverTokenGuardadoEContarAcertosEFalhas() {
+        var cache = new CacheTokensVerificados(100, Duration.ofMinutes(5), meterRegistry);
+
+        assertNull(cache.buscar("token-a"));
+        cache.guardar("token-a", "ana@voll.med", usuario, usuario.getAuthorities(), Instant.now().plusSeconds(60));
+        var verificado = cache.buscar("token-a");
+
+        assertNotNull(verificado);
+        assertEquals("ana@voll.med", verificado.subject());
+        assertSame(usuario, verificado.principal());
+        assertEquals(1.0, contador("acerto"));
+        assertEquals(1.0, contador("falha"));
+    }
+
+    @Test
+    void naoDeveDevolverTokenDepoisDoExp() {
+        var cache = new CacheTokensVerificados(100, Duration.ofMinutes(5), meterRegistry);
+
+        cache.guardar("token-expirado", "ana@voll.med", usuario, usuario.getAuthorities(), Instant.now().minusMillis(1));
+
+        assertNull(cache.buscar("token-expirado"));
+        assertEquals(0, cache.tamanho());
+    }
+
+    @Test
+    void deveLimitarAValidadePeloTtlMaximo() {
+        var cache = new CacheTokensVerificados(100, Duration.ofSeconds(30), meterRegistry);
+
+        var verificado = cache.guardar("token-a", "ana@voll.med", usuario, usuario.getAuthorities(), Instant.now().plusSeconds(3600));
+
+        assertTrue(verificado.expiraEmMillis() <= System.currentTimeMillis() + 30_000);
+    }
+
+    @Test
+    void deveDescartarOsMenosUsadosQuandoCheio() {
+        // 16 segmentos de 1 entrada: nunca passa de 16 tokens
+        var cache = new CacheTokensVerificados(16, Duration.ofMinutes(5), meterRegistry);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.guardar("token-" + i, "ana@voll.med", usuario, usuario.getAuthorities(), Instant.now().plusSeconds(60));
+        }
+
+        assertTrue(cache.tamanho() <= 16);
+        assertNotNull(cache.buscar("token-999"));
+    }
+
+    @Test
+    void naoDeveGuardarQuandoDesabilitado() {
+        var desabilitado = new CacheTokensVerificados(0, Duration.ofMinutes(5), meterRegistry);
+        desabilitado.guardar("token-a", "ana@voll.med", usuario, usuario.getAuthorities(), Instant.now().plusSeconds(60));
+        assertNull(desabilitado.buscar("token-a"));
+    }
+
+    @Test
+    void deveGuardarSoAVerificacaoQuandoNaoHaPrincipal() {
+        var cache = new CacheTokensVerificados(100, Duration.ofMinutes(5), meterRegistry);
+
+        cache.guardar("token-b", "ana@voll.med", null, null, Instant.now().plusSeconds(60));
+        var verificado = cache.buscar("token-b");
+
+        assertEquals("ana@voll.med", verificado.subject());
+        assertNull(verificado.principal());
+    }
+
+    private double contador(String resultado) {
+        return meterRegistry.get("api.seguranca.token.cache").tag("resultado", resultado).counter().count();
+    }
+}
@@ -0,0 +1,110 @@
+package med.voll.api.infra.security;
+
+import med.voll.api.entities.RefreshToken;
+import med.voll.api.entities.Usuario;
+import med.voll.api.infra.exceptions.ValidacaoException;
+import med.voll.api.repositories.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    TokenService tokenService;
+
+    RefreshTokenService service;
+
+    private final Usuario usuario = new Usuario(1L, "ana@voll.med", "senha");
+
+    @BeforeEach
+    void setUp() {
+        service = new RefreshTokenService(refreshTokenRepository, tokenService, Duration.ofDays(30));
+    }
+
+    @Test
+    void deveGravarApenasOHashDoRefreshTokenEmitido() {
+        // act
+        var refreshToken = service.emitir(usuario);
+
+        // assert
+        var gravado = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(gravado.capture());
+        assertNotEquals(refreshToken, gravado.getValue().getHash());
+        assertEquals(64, gravado.getValue().getHash().length());
+        assertTrue(gravado.getValue().getExpiraEm().isAfter(LocalDateTime.now().plusDays(29)));
+    }
+
+    @Test
+    void deveRotacionarORefreshTokenNaMesmaFamilia() {
+        // arrange
+        var atual = new RefreshToken(10L, usuario, "familia-1", "hash", LocalDateTime.now().plusDays(1), null, null);
+        when(refreshTokenRepository.findByHash(anyString())).thenReturn(Optional.of(atual));
+        when(refreshTokenRepository.marcarComoUsado(eq(10L), any())).thenReturn(1);
+        when(tokenService.gerarToken(usuario)).thenReturn("novo-token");
+
+        // act
+        var tokens = service.renovar("refresh-antigo");
+
+        // assert
+        assertEquals("novo-token", tokens.token());
+        assertNotNull(tokens.refreshToken());
+        var gravado = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(gravado.capture());
+        assertEquals("familia-1", gravado.getValue().getFamilia());
+        verify(refreshTokenRepository, never()).revogarFamilia(any(), any());
+    }
+
+    @Test
+    void deveRevogarAFamiliaQuandoUmTokenUsadoForReapresentado() {
+        // arrange
+        var usado = new RefreshToken(10L, usuario, "familia-1", "hash", LocalDateTime.now().plusDays(1), LocalDateTime.now(), null);
+        when(refreshTokenRepository.findByHash(anyString())).thenReturn(Optional.of(usado));
+
+        // act + assert
+        assertThrows(ValidacaoException.class, () -> service.renovar("refresh-antigo"));
+        verify(refreshTokenRepository).revogarFamilia(eq("familia-1"), any());
+        verifyNoInteractions(tokenService);
+    }
+
+    @Test
+    void deveRevogarAFamiliaQuandoOutraRequisicaoUsouOTokenPrimeiro() {
+        // arrange
+        var atual = new RefreshToken(10L, usuario, "familia-1", "hash", LocalDateTime.now().plusDays(1), null, null);
+        when(refreshTokenRepository.findByHash(anyString())).thenReturn(Optional.of(atual));
+        when(refreshTokenRepository.marcarComoUsado(eq(10L), any())).thenReturn(0);
+
+        // act + assert
+        assertThrows(ValidacaoException.class, () -> service.renovar("refresh-antigo"));
+        verify(refreshTokenRepository).revogarFamilia(eq("familia-1"), any());
+    }
+
+    @Test
+    void deveRecusarTokenRevogadoOuDesconhecido() {
+        var revogado = new RefreshToken(10L, usuario, "familia-1", "hash", LocalDateTime.now().plusDays(1), null, LocalDateTime.now());
+        when(refreshTokenRepository.findByHash(anyString()))
+                .thenReturn(Optional.of(revogado))
+                .thenReturn(Optional.empty());
+
+        assertThrows(ValidacaoException.class, () -> service.renovar("revogado"));
+        assertThrows(ValidacaoException.class, () -> service.renovar("desconhecido"));
+        verify(refreshTokenRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,115 @@
+package med.voll.api.infra.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import med.voll.api.entities.Usuario;
+import med.voll.api.repositories.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SecurityFilterTest {
+
+    private final TokenService tokenService = new TokenService("segredo-de-teste");
+    private final UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CacheTokensVerificados cache = new CacheTokensVerificados(100, Duration.ofMinutes(5), meterRegistry);
+
+    private final Usuario usuario = new Usuario(1L, "ana@voll.med", "senha");
+
+    private SecurityFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        filtro = new SecurityFilter();
+        ReflectionTestUtils.setField(filtro, "tokenService", tokenService);
+        ReflectionTestUtils.setField(filtro, "usuarioRepository", usuarioRepository);
+        ReflectionTestUtils.setField(filtro, "cacheTokensVerificados", cache);
+        ReflectionTestUtils.setField(filtro, "meterRegistry", meterRegistry);
+        filtro.registrarMetricas();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void deveAutenticarComOUsuarioDoBanco() throws Exception {
+        // arrange
+        when(usuarioRepository.findByLogin("ana@voll.med")).thenReturn(usuario);
+        var cadeia = new MockFilterChain();
+
+        // act
+        filtro.doFilter(requisicao(tokenService.gerarToken(usuario)), new MockHttpServletResponse(), cadeia);
+
+        // assert
+        assertSame(usuario, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        assertNotNull(cadeia.getRequest());
+    }
+
+    @Test
+    void tokenValidoDeUsuarioRemovidoDeveSeguirSemAutenticacao() throws Exception {
+        // arrange
+        when(usuarioRepository.findByLogin("ana@voll.med")).thenReturn(null);
+        var token = tokenService.gerarToken(usuario);
+        var cadeia = new MockFilterChain();
+
+        // act
+        filtro.doFilter(requisicao(token), new MockHttpServletResponse(), cadeia);
+
+        // assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(cadeia.getRequest());
+        assertNull(cache.buscar(token).principal());
+    }
+
+    @Test
+    void modoPadraoDeveBuscarOUsuarioACadaRequisicaoMesmoComOTokenEmCache() throws Exception {
+        // arrange
+        when(usuarioRepository.findByLogin("ana@voll.med")).thenReturn(usuario, (Usuario) null);
+        var token = tokenService.gerarToken(usuario);
+        filtro.doFilter(requisicao(token), new MockHttpServletResponse(), new MockFilterChain());
+        SecurityContextHolder.clearContext();
+
+        // act
+        filtro.doFilter(requisicao(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNull(cache.buscar(token).principal());
+        verify(usuarioRepository, times(2)).findByLogin("ana@voll.med");
+    }
+
+    @Test
+    void modoSomenteClaimsDeveReaproveitarOPrincipalDoCache() throws Exception {
+        // arrange
+        ReflectionTestUtils.setField(filtro, "somenteClaims", true);
+        var token = tokenService.gerarToken(usuario);
+        filtro.doFilter(requisicao(token), new MockHttpServletResponse(), new MockFilterChain());
+        SecurityContextHolder.clearContext();
+
+        // act
+        filtro.doFilter(requisicao(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // assert
+        var principal = (UsuarioAutenticado) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        assertEquals("ana@voll.med", principal.getName());
+        verifyNoInteractions(usuarioRepository);
+    }
+
+    private static MockHttpServletRequest requisicao(String token) {
+        var request = new MockHttpServletRequest("GET", "/medicos");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
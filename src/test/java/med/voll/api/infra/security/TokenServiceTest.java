@@ -0,0 +1,46 @@
+package med.voll.api.infra.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import med.voll.api.entities.Usuario;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+    private static final String SECRET = "segredo-de-teste";
+
+    private final TokenService tokenService = new TokenService(SECRET);
+
+    @Test
+    void deveMontarPrincipalApenasComAsClaimsDoToken() {
+        var token = tokenService.gerarToken(new Usuario(7L, "ana@voll.med", "senha"));
+
+        var usuario = tokenService.usuarioAutenticado(tokenService.verificar(token));
+
+        assertEquals(7L, usuario.id());
+        assertEquals("ana@voll.med", usuario.getName());
+        assertEquals("ROLE_USER", usuario.authorities().get(0).getAuthority());
+    }
+
+    @Test
+    void deveDevolverNullParaTokenSemClaimsDeUsuario() {
+        var tokenAntigo = JWT.create()
+                .withIssuer("API Voll.med")
+                .withSubject("ana@voll.med")
+                .withExpiresAt(Instant.now().plusSeconds(60))
+                .sign(Algorithm.HMAC256(SECRET));
+
+        assertNull(tokenService.usuarioAutenticado(tokenService.verificar(tokenAntigo)));
+    }
+
+    @Test
+    void deveRejeitarTokenAssinadoComOutroSegredo() {
+        var token = new TokenService("outro-segredo").gerarToken(new Usuario(7L, "ana@voll.med", "senha"));
+
+        assertThrows(RuntimeException.class, () -> tokenService.verificar(token));
+    }
+}
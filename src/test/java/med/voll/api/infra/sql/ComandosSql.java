@@ -0,0 +1,45 @@
+package med.voll.api.infra.sql;
+
+/**
+ * Quantidade de idas ao banco por tipo de comando. Um {@code executeBatch} conta como uma ida,
+ * independente de quantas linhas o lote grava.
+ */
+public record ComandosSql(int selects, int inserts, int updates, int deletes, int outros) {
+
+    public static ComandosSql nenhum() {
+        return new ComandosSql(0, 0, 0, 0, 0);
+    }
+
+    public ComandosSql selects(int quantidade) {
+        return new ComandosSql(quantidade, inserts, updates, deletes, outros);
+    }
+
+    public ComandosSql inserts(int quantidade) {
+        return new ComandosSql(selects, quantidade, updates, deletes, outros);
+    }
+
+    public ComandosSql updates(int quantidade) {
+        return new ComandosSql(selects, inserts, quantidade, deletes, outros);
+    }
+
+    public ComandosSql deletes(int quantidade) {
+        return new ComandosSql(selects, inserts, updates, quantidade, outros);
+    }
+
+    ComandosSql somar(String sql) {
+        var comando = sql.stripLeading().toLowerCase();
+        if (comando.startsWith("select") || comando.startsWith("with")) {
+            return selects(selects + 1);
+        }
+        if (comando.startsWith("insert")) {
+            return inserts(inserts + 1);
+        }
+        if (comando.startsWith("update")) {
+            return updates(updates + 1);
+        }
+        if (comando.startsWith("delete")) {
+            return deletes(deletes + 1);
+        }
+        return new ComandosSql(selects, inserts, updates, deletes, outros + 1);
+    }
+}
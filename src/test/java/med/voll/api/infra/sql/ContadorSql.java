@@ -0,0 +1,59 @@
+package med.voll.api.infra.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Conta os comandos SQL executados pela thread corrente durante uma chamada. Só enxerga o que passa pelo
+ * {@link DataSourceContadorSql}, então os testes precisam da {@link ContadorSqlConfiguration} (ver
+ * {@link TesteComandosSql}). Comandos de outras threads, como tarefas agendadas, não entram na contagem.
+ */
+public final class ContadorSql {
+
+    private static final ThreadLocal<List<String>> executados = new ThreadLocal<>();
+
+    @FunctionalInterface
+    public interface Chamada {
+        void executar() throws Exception;
+    }
+
+    public record Execucao(ComandosSql comandos, List<String> sql) {
+    }
+
+    private ContadorSql() {
+    }
+
+    public static Execucao contar(Chamada chamada) throws Exception {
+        var sql = new ArrayList<String>();
+        executados.set(sql);
+        try {
+            chamada.executar();
+        } finally {
+            executados.remove();
+        }
+        var comandos = ComandosSql.nenhum();
+        for (var comando : sql) {
+            comandos = comandos.somar(comando);
+        }
+        return new Execucao(comandos, List.copyOf(sql));
+    }
+
+    /**
+     * Executa a chamada e exige exatamente a quantidade informada de cada tipo de comando
+     * (tipos não informados valem zero). A mensagem de falha lista o SQL executado.
+     */
+    public static void assertComandos(ComandosSql esperados, Chamada chamada) throws Exception {
+        var execucao = contar(chamada);
+        assertEquals(esperados, execucao.comandos(),
+                () -> "Comandos SQL executados:\n  " + String.join("\n  ", execucao.sql()));
+    }
+
+    static void registrar(String sql) {
+        var sqlDaThread = executados.get();
+        if (sqlDaThread != null) {
+            sqlDaThread.add(sql);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package med.voll.api.infra.sql;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+@TestConfiguration
+public class ContadorSqlConfiguration {
+
+    @Bean
+    static BeanPostProcessor dataSourceContadorSql() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nome) {
+                return bean instanceof DataSource dataSource ? DataSourceContadorSql.envolver(dataSource) : bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package med.voll.api.infra.sql;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Proxy JDBC que registra no {@link ContadorSql} cada execução de comando: {@code execute*} de
+ * {@link PreparedStatement} e {@link Statement} e cada {@code executeBatch}.
+ * <p>
+ * Também descarta {@code setFetchSize} negativo: o {@code Integer.MIN_VALUE} que liga o streaming do driver
+ * do MySQL é recusado pelo H2.
+ */
+final class DataSourceContadorSql {
+
+    private static final Set<String> EXECUCOES = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private DataSourceContadorSql() {
+    }
+
+    static DataSource envolver(DataSource dataSource) {
+        // AutoCloseable para que o close() do pool continue sendo chamado no fim do contexto
+        InvocationHandler handler = (proxy, metodo, argumentos) -> {
+            var resultado = invocar(dataSource, metodo, argumentos);
+            return resultado instanceof Connection conexao ? envolver(conexao) : resultado;
+        };
+        return (DataSource) Proxy.newProxyInstance(DataSourceContadorSql.class.getClassLoader(),
+                new Class<?>[]{DataSource.class, AutoCloseable.class}, handler);
+    }
+
+    private static Connection envolver(Connection conexao) {
+        return proxy(Connection.class, conexao, (alvo, metodo, argumentos) -> {
+            var resultado = invocar(alvo, metodo, argumentos);
+            if (resultado instanceof CallableStatement chamada) {
+                return envolver(CallableStatement.class, chamada, (String) argumentos[0]);
+            }
+            if (resultado instanceof PreparedStatement preparado) {
+                return envolver(PreparedStatement.class, preparado, (String) argumentos[0]);
+            }
+            if (resultado instanceof Statement comando) {
+                return envolver(Statement.class, comando, null);
+            }
+            return resultado;
+        });
+    }
+
+    private static <S extends Statement> S envolver(Class<S> tipo, S comando, String sqlPreparado) {
+        return proxy(tipo, comando, (alvo, metodo, argumentos) -> {
+            if (metodo.getName().equals("setFetchSize") && (int) argumentos[0] < 0) {
+                return null;
+            }
+            if (EXECUCOES.contains(metodo.getName())) {
+                var sql = argumentos != null && argumentos.length > 0 && argumentos[0] instanceof String texto ? texto : sqlPreparado;
+                ContadorSql.registrar(sql == null ? "batch" : sql);
+            }
+            return invocar(alvo, metodo, argumentos);
+        });
+    }
+
+    private interface Interceptador {
+        Object interceptar(Object alvo, Method metodo, Object[] argumentos) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, T alvo, Interceptador interceptador) {
+        InvocationHandler handler = (proxy, metodo, argumentos) -> interceptador.interceptar(alvo, metodo, argumentos);
+        return (T) Proxy.newProxyInstance(DataSourceContadorSql.class.getClassLoader(), new Class<?>[]{tipo}, handler);
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] argumentos) throws Throwable {
+        try {
+            return metodo.invoke(alvo, argumentos);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
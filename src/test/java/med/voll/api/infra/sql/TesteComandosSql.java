@@ -0,0 +1,22 @@
+package med.voll.api.infra.sql;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Contexto completo da aplicação sobre o banco embarcado (perfil {@code embarcado}) com o
+ * {@link DataSourceContadorSql} instalado, para usar {@link ContadorSql#assertComandos}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest
+@ActiveProfiles("embarcado")
+@Import(ContadorSqlConfiguration.class)
+public @interface TesteComandosSql {
+}
@@ -0,0 +1,143 @@
+package med.voll.api.repositories;
+
+import jakarta.persistence.EntityManagerFactory;
+import med.voll.api.dtos.DadosAtualizacaoMedico;
+import med.voll.api.dtos.DadosCadastroMedico;
+import med.voll.api.dtos.DadosCadastroPaciente;
+import med.voll.api.dtos.DadosEndereco;
+import med.voll.api.entities.Medico;
+import med.voll.api.entities.Paciente;
+import med.voll.api.entities.Usuario;
+import med.voll.api.enums.Especialidade;
+import med.voll.api.services.MedicoService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cada chamada de repositório fora de transação abre um contexto de persistência novo, então a segunda
+ * leitura do mesmo registro só evita o banco se vier do cache de segundo nível.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CacheSegundoNivelTest {
+
+    private static final DadosEndereco ENDERECO = new DadosEndereco("Rua Cache", "Centro", "01001000", "São Paulo", "SP", "Sala 2", "10");
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private MedicoService medicoService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+    private final List<Runnable> limpeza = new ArrayList<>();
+    private final long sufixo = System.currentTimeMillis() % 100_000;
+
+    @BeforeEach
+    void setUp() {
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void removerDados() {
+        limpeza.forEach(Runnable::run);
+    }
+
+    @Test
+    void segundaLeituraDoMedicoDeveVirDoCache() {
+        var medico = cadastrarMedico();
+        zerarCacheEEstatisticas();
+
+        var primeira = medicoRepository.findById(medico.getId()).orElseThrow();
+        var consultasAposPrimeira = estatisticas.getPrepareStatementCount();
+        var segunda = medicoRepository.findById(medico.getId()).orElseThrow();
+
+        var regiao = estatisticas.getDomainDataRegionStatistics("medicos");
+        assertEquals(1, regiao.getMissCount());
+        assertEquals(1, regiao.getHitCount());
+        assertEquals(consultasAposPrimeira, estatisticas.getPrepareStatementCount());
+        assertEquals(primeira.getNome(), segunda.getNome());
+        assertEquals("Rua Cache", segunda.getEndereco().getLogradouro());
+    }
+
+    @Test
+    void segundaLeituraDoPacienteDeveVirDoCacheComEndereco() {
+        var paciente = pacienteRepository.save(new Paciente(new DadosCadastroPaciente(
+                "Paciente Cache", "paciente.cache" + sufixo + "@voll.med", "11999990000",
+                String.format("%011d", sufixo), ENDERECO)));
+        limpeza.add(() -> pacienteRepository.deleteById(paciente.getId()));
+        zerarCacheEEstatisticas();
+
+        pacienteRepository.findById(paciente.getId()).orElseThrow();
+        var segunda = pacienteRepository.findById(paciente.getId()).orElseThrow();
+
+        assertEquals(1, estatisticas.getDomainDataRegionStatistics("pacientes").getHitCount());
+        assertEquals("Sala 2", segunda.getEndereco().getComplemento());
+    }
+
+    @Test
+    void atualizacaoEExclusaoDevemSubstituirAEntradaDoCache() {
+        var medico = cadastrarMedico();
+        zerarCacheEEstatisticas();
+        medicoRepository.findById(medico.getId()).orElseThrow();
+
+        medicoService.atualizar(new DadosAtualizacaoMedico(medico.getId(), "Médico Cache Atualizado", null, null));
+        var atualizado = medicoRepository.findById(medico.getId()).orElseThrow();
+
+        medicoService.excluir(medico.getId());
+        var excluido = medicoRepository.findById(medico.getId()).orElseThrow();
+
+        assertEquals("Médico Cache Atualizado", atualizado.getNome());
+        assertFalse(excluido.isAtivo());
+        assertTrue(estatisticas.getDomainDataRegionStatistics("medicos").getHitCount() >= 2);
+    }
+
+    @Test
+    void buscaDeUsuarioPorLoginDeveVirDoCacheDeConsultas() {
+        var login = "cache" + sufixo + "@voll.med";
+        var usuario = usuarioRepository.save(new Usuario(null, login, "senha"));
+        limpeza.add(() -> usuarioRepository.deleteById(usuario.getId()));
+        zerarCacheEEstatisticas();
+
+        usuarioRepository.findByLogin(login);
+        var consultasAposPrimeira = estatisticas.getPrepareStatementCount();
+        var encontrado = usuarioRepository.findByLogin(login);
+
+        assertEquals(1, estatisticas.getQueryCacheHitCount());
+        assertEquals(consultasAposPrimeira, estatisticas.getPrepareStatementCount());
+        assertEquals(login, encontrado.getUsername());
+    }
+
+    private Medico cadastrarMedico() {
+        var medico = medicoRepository.save(new Medico(new DadosCadastroMedico(
+                "Médico Cache", "medico.cache" + sufixo + "@voll.med", "11999990000",
+                String.format("%06d", sufixo % 1_000_000), Especialidade.DERMATOLOGIA, ENDERECO)));
+        limpeza.add(() -> medicoRepository.deleteById(medico.getId()));
+        return medico;
+    }
+
+    private void zerarCacheEEstatisticas() {
+        entityManagerFactory.getCache().evictAll();
+        estatisticas.clear();
+    }
+}
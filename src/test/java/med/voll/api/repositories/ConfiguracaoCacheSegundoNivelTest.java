@@ -0,0 +1,51 @@
+package med.voll.api.repositories;
+
+import jakarta.persistence.EntityManagerFactory;
+import med.voll.api.dtos.DadosCadastroMedico;
+import med.voll.api.dtos.DadosEndereco;
+import med.voll.api.entities.Medico;
+import med.voll.api.enums.Especialidade;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sobe o contexto no banco embarcado com a configuração padrão do cache de segundo nível
+ * ({@code application.properties}, sem sobrescrever nada): um {@code hibernate.javax.cache.uri} que o Hibernate
+ * não consiga abrir impede a criação da {@code SessionFactory} e derruba a aplicação inteira.
+ */
+@SpringBootTest
+@ActiveProfiles("embarcado")
+class ConfiguracaoCacheSegundoNivelTest {
+
+    private static final DadosEndereco ENDERECO = new DadosEndereco("Rua Cache", "Centro", "01001000", "São Paulo", "SP", null, "10");
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void configuracaoPadraoDeveSubirComAsRegioesDoEhcache() {
+        // arrange
+        var sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        var medico = medicoRepository.save(new Medico(new DadosCadastroMedico("Médico Cache", "medico.configuracao@voll.med",
+                "11999990000", "654321", Especialidade.DERMATOLOGIA, ENDERECO)));
+        entityManagerFactory.getCache().evictAll();
+        sessionFactory.getStatistics().clear();
+
+        // act
+        medicoRepository.findById(medico.getId()).orElseThrow();
+        medicoRepository.findById(medico.getId()).orElseThrow();
+
+        // assert
+        assertTrue(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled());
+        assertTrue(sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled());
+        assertEquals(1, sessionFactory.getStatistics().getDomainDataRegionStatistics("medicos").getHitCount());
+    }
+}
@@ -0,0 +1,160 @@
+package med.voll.api.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import med.voll.api.dtos.DadosCadastroMedico;
+import med.voll.api.dtos.DadosCadastroPaciente;
+import med.voll.api.dtos.DadosEndereco;
+import med.voll.api.dtos.DadosListagemMedico;
+import med.voll.api.dtos.DadosListagemPaciente;
+import med.voll.api.entities.Medico;
+import med.voll.api.entities.Paciente;
+import med.voll.api.enums.Especialidade;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara, para uma página de 100 registros, a listagem que carrega entidades gerenciadas e depois mapeia
+ * para o record com a consulta que projeta direto no record ({@code select new ...}). Reporta latência e bytes
+ * alocados pela thread por página, e quantas entidades ficaram no contexto de persistência.
+ * Executar com {@code mvn test -Pbenchmark} apontando para o banco de testes.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListagemProjecaoBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ListagemProjecaoBenchmarkTest.class);
+
+    private static final int QUANTIDADE = 1_000;
+    private static final int TAMANHO_PAGINA = 100;
+    private static final int AQUECIMENTO = 200;
+    private static final int MEDICOES = 1_000;
+
+    private static final PageRequest PAGINA = PageRequest.of(0, TAMANHO_PAGINA, Sort.by("nome", "id"));
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate somenteLeitura;
+    private final List<Medico> medicos = new ArrayList<>();
+    private final List<Paciente> pacientes = new ArrayList<>();
+
+    @BeforeAll
+    void cadastrarMedicosEPacientes() {
+        somenteLeitura = new TransactionTemplate(transactionManager);
+        somenteLeitura.setReadOnly(true);
+
+        var sufixo = System.currentTimeMillis() % 10_000;
+        var endereco = new DadosEndereco("Rua Benchmark", "Centro", "01001000", "São Paulo", "SP", "Sala 1", "1");
+        for (int i = 0; i < QUANTIDADE; i++) {
+            medicos.add(new Medico(new DadosCadastroMedico("Médico Projeção " + i, "medico.proj" + sufixo + "." + i + "@voll.med",
+                    "11999990000", String.format("%06d", (sufixo * 1_000 + i) % 1_000_000), Especialidade.DERMATOLOGIA, endereco)));
+            pacientes.add(new Paciente(new DadosCadastroPaciente("Paciente Projeção " + i, "paciente.proj" + sufixo + "." + i + "@voll.med",
+                    "11999990000", String.format("%04d%07d", sufixo, i), endereco)));
+        }
+        medicoRepository.saveAll(medicos);
+        pacienteRepository.saveAll(pacientes);
+    }
+
+    @AfterAll
+    void removerDadosDoBenchmark() {
+        pacienteRepository.deleteAll(pacientes);
+        medicoRepository.deleteAll(medicos);
+    }
+
+    @Test
+    void compararListagemDeMedicos() {
+        var entidades = medir("médicos, entidades", () -> entityManager
+                .createQuery("select m from Medico m where m.ativo = true order by m.nome, m.id", Medico.class)
+                .setMaxResults(TAMANHO_PAGINA + 1)
+                .getResultList().stream()
+                .limit(TAMANHO_PAGINA)
+                .map(DadosListagemMedico::new)
+                .toList());
+        var projecao = medir("médicos, projeção", () -> medicoRepository.findFatiaListagemAtivos(PAGINA).getContent());
+
+        assertEquals(entidades, projecao);
+    }
+
+    @Test
+    void compararListagemDePacientes() {
+        var entidades = medir("pacientes, entidades", () -> entityManager
+                .createQuery("select p from Paciente p where p.ativo = true order by p.nome, p.id", Paciente.class)
+                .setMaxResults(TAMANHO_PAGINA + 1)
+                .getResultList().stream()
+                .limit(TAMANHO_PAGINA)
+                .map(DadosListagemPaciente::new)
+                .toList());
+        var projecao = medir("pacientes, projeção", () -> pacienteRepository.findFatiaListagemAtivos(PAGINA).getContent());
+
+        assertEquals(entidades, projecao);
+    }
+
+    private <T> List<T> medir(String nome, Supplier<List<T>> listagem) {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var entidadesGerenciadas = new int[1];
+        Supplier<List<T>> pagina = () -> somenteLeitura.execute(status -> {
+            var resultado = listagem.get();
+            entidadesGerenciadas[0] = entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+            return resultado;
+        });
+
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            pagina.get();
+        }
+
+        var latencias = new long[MEDICOES];
+        var alocadoAntes = threads.getCurrentThreadAllocatedBytes();
+        List<T> resultado = null;
+        for (int i = 0; i < MEDICOES; i++) {
+            var inicio = System.nanoTime();
+            resultado = pagina.get();
+            latencias[i] = System.nanoTime() - inicio;
+        }
+        var alocadoPorPagina = (threads.getCurrentThreadAllocatedBytes() - alocadoAntes) / MEDICOES;
+
+        Arrays.sort(latencias);
+        log.info("{} média {} ms, p50 {} ms, p99 {} ms, {} KB alocados/página, {} entidades no contexto",
+                String.format("%-22s", nome), milissegundos(Arrays.stream(latencias).average().orElse(0)),
+                milissegundos(latencias[MEDICOES / 2]), milissegundos(latencias[MEDICOES * 99 / 100]),
+                alocadoPorPagina / 1_024, entidadesGerenciadas[0]);
+        return resultado;
+    }
+
+    private static String milissegundos(double nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+}
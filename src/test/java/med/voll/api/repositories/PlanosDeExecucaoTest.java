@@ -0,0 +1,344 @@
+package med.voll.api.repositories;
+
+import jakarta.persistence.EntityManagerFactory;
+import med.voll.api.enums.Especialidade;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Executa cada consulta dos repositórios, captura o SQL gerado pelo Hibernate com um {@link StatementInspector}
+ * e roda {@code explain} sobre ele com os mesmos parâmetros, exigindo o índice esperado e nenhuma varredura
+ * completa ({@code type = ALL}). Uma mudança de consulta ou de índice que caia para full scan quebra este teste.
+ * <p>
+ * Os parâmetros de cada caso seguem a ordem dos {@code ?} no SQL gerado (parâmetros repetidos na JPQL aparecem
+ * uma vez para cada ocorrência). Um índice esperado com {@code |} aceita qualquer uma das alternativas.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=med.voll.api.repositories.PlanosDeExecucaoTest$InspetorSql")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PlanosDeExecucaoTest {
+
+    private static final int QUANTIDADE = 300;
+    private static final int DIAS_COM_CONSULTAS = 4;
+    private static final long PRIMEIRO_ID_CONSULTA = 900_000_000L;
+    private static final String MARCADOR = "plano.execucao.";
+    private static final String LOGIN = MARCADOR + "usuario@voll.med";
+    private static final String HASH = "f".repeat(64);
+
+    private static final LocalDateTime INICIO = LocalDate.now().plusYears(5).atTime(7, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RegistroEventoConsultaRepository registroEventoConsultaRepository;
+
+    private Long idMedico;
+    private Long idPaciente;
+
+    /**
+     * {@code exportacao}: a consulta lê de propósito todas as linhas ativas, então a varredura completa é aceita, mas
+     * não a ordenação no servidor, que atrasaria a primeira linha do streaming até o fim da leitura.
+     */
+    record Caso(String nome, Consumer<PlanosDeExecucaoTest> execucao, List<Object> parametros, List<String> indicesEsperados,
+                boolean exportacao) {
+
+        Caso(String nome, Consumer<PlanosDeExecucaoTest> execucao, List<Object> parametros, List<String> indicesEsperados) {
+            this(nome, execucao, parametros, indicesEsperados, false);
+        }
+
+        @Override
+        public String toString() {
+            return nome;
+        }
+    }
+
+    public static class InspetorSql implements StatementInspector {
+
+        // por thread, para não misturar o SQL de tarefas agendadas com o do caso em execução
+        static final ThreadLocal<List<String>> executados = ThreadLocal.withInitial(ArrayList::new);
+
+        @Override
+        public String inspect(String sql) {
+            executados.get().add(sql);
+            return sql;
+        }
+    }
+
+    @BeforeAll
+    void cadastrarMassaDeDados() {
+        var medicos = new ArrayList<Object[]>();
+        var pacientes = new ArrayList<Object[]>();
+        var especialidades = Especialidade.values();
+        for (int i = 0; i < QUANTIDADE; i++) {
+            // 10% inativos, para que "ativo = true" não seja trivialmente a tabela inteira
+            var ativo = i % 10 != 0;
+            medicos.add(new Object[]{"Médico Plano " + i, MARCADOR + "medico." + i + "@voll.med", "11999990000",
+                    String.format("9%05d", i), especialidades[i % especialidades.length].name(), ativo});
+            pacientes.add(new Object[]{"Paciente Plano " + i, MARCADOR + "paciente." + i + "@voll.med", "11999990000",
+                    String.format("999%08d", i), ativo});
+        }
+        jdbcTemplate.batchUpdate("""
+                insert into medicos(nome, email, telefone, crm, especialidade, logradouro, bairro, cep, uf, cidade, ativo)
+                values (?, ?, ?, ?, ?, 'Rua Plano', 'Centro', '01001000', 'SP', 'São Paulo', ?)
+                """, medicos);
+        jdbcTemplate.batchUpdate("""
+                insert into pacientes(nome, email, telefone, cpf, logradouro, bairro, cep, uf, cidade, ativo)
+                values (?, ?, ?, ?, 'Rua Plano', 'Centro', '01001000', 'SP', 'São Paulo', ?)
+                """, pacientes);
+
+        var idsMedicos = jdbcTemplate.queryForList("select id from medicos where email like ? order by id", Long.class, MARCADOR + "%");
+        var idsPacientes = jdbcTemplate.queryForList("select id from pacientes where email like ? order by id", Long.class, MARCADOR + "%");
+        idMedico = idsMedicos.get(1);
+        idPaciente = idsPacientes.get(1);
+
+        // cada paciente uma vez por dia e cada médico uma vez por horário, respeitando os índices únicos
+        var consultas = new ArrayList<Object[]>();
+        for (int i = 0; i < QUANTIDADE * DIAS_COM_CONSULTAS; i++) {
+            var data = INICIO.plusDays(i / QUANTIDADE).plusHours(i % 12);
+            consultas.add(new Object[]{PRIMEIRO_ID_CONSULTA + i, idsMedicos.get(i % QUANTIDADE), idsPacientes.get(i % QUANTIDADE),
+                    data, i % 7 == 0 ? "OUTROS" : null});
+        }
+        jdbcTemplate.batchUpdate("insert into consultas(id, medico_id, paciente_id, data, motivo_cancelamento) values (?, ?, ?, ?, ?)", consultas);
+
+        // a caixa de saída fica quase toda publicada; só 10% dos eventos pendentes
+        var eventos = new ArrayList<Object[]>();
+        for (int i = 0; i < QUANTIDADE; i++) {
+            eventos.add(new Object[]{PRIMEIRO_ID_CONSULTA + i, PRIMEIRO_ID_CONSULTA + i, idsMedicos.get(i), idsPacientes.get(i),
+                    INICIO, INICIO, i % 10 == 0 ? null : INICIO});
+        }
+        jdbcTemplate.batchUpdate("""
+                insert into eventos_consultas(id, tipo, consulta_id, medico_id, paciente_id, data, ocorrido_em, publicado_em)
+                values (?, 'AGENDADA', ?, ?, ?, ?, ?, ?)
+                """, eventos);
+
+        // buscas por chave única sem linha correspondente não mostram índice no explain
+        jdbcTemplate.update("insert into usuarios(login, senha) values (?, 'senha')", LOGIN);
+        var idUsuario = jdbcTemplate.queryForObject("select id from usuarios where login = ?", Long.class, LOGIN);
+        jdbcTemplate.update("insert into refresh_tokens(usuario_id, familia, hash, expira_em) values (?, ?, ?, ?)",
+                idUsuario, "00000000-0000-0000-0000-000000000000", HASH, INICIO);
+
+        jdbcTemplate.execute("analyze table medicos, pacientes, consultas, usuarios, refresh_tokens, eventos_consultas");
+    }
+
+    @AfterAll
+    void removerMassaDeDados() {
+        jdbcTemplate.update("delete from refresh_tokens where hash = ?", HASH);
+        jdbcTemplate.update("delete from usuarios where login = ?", LOGIN);
+        jdbcTemplate.update("delete from eventos_consultas where id >= ?", PRIMEIRO_ID_CONSULTA);
+        jdbcTemplate.update("delete from consultas where id >= ?", PRIMEIRO_ID_CONSULTA);
+        jdbcTemplate.update("delete from medicos where email like ?", MARCADOR + "%");
+        jdbcTemplate.update("delete from pacientes where email like ?", MARCADOR + "%");
+    }
+
+    @BeforeEach
+    void limparCaches() {
+        // sem o cache de segundo nível as consultas sempre chegam ao banco
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    Stream<Caso> casos() {
+        var dia = INICIO.toLocalDate();
+        var limite = Limit.of(11);
+        return Stream.of(
+                new Caso("medicos: listagem paginada por nome",
+                        t -> t.medicoRepository.findListagemAtivos(PageRequest.of(0, 10, Sort.by("nome"))),
+                        List.of(10), List.of("idx_medicos_ativo_nome")),
+                new Caso("medicos: primeira fatia",
+                        t -> t.medicoRepository.findFatiaListagemAtivos(PageRequest.of(0, 10, Sort.by("nome", "id"))),
+                        List.of(11), List.of("idx_medicos_ativo_nome")),
+                new Caso("medicos: fatia pelo cursor",
+                        t -> t.medicoRepository.findFatiaListagemAposCursor("Médico Plano 5", 0L, limite),
+                        List.of("Médico Plano 5", "Médico Plano 5", 0L, 11), List.of("idx_medicos_ativo_nome")),
+                new Caso("medicos: total de ativos",
+                        t -> t.medicoRepository.countByAtivoTrue(),
+                        List.of(), List.of("idx_medicos_ativo_especialidade|idx_medicos_ativo_nome")),
+                new Caso("medicos: nomes distintos",
+                        t -> t.medicoRepository.findDistinctByNome(),
+                        List.of(), List.of("idx_medicos_ativo_nome")),
+                new Caso("medicos: ativos com especialidade",
+                        t -> t.medicoRepository.findMedicosAtivosComEspecialidade(),
+                        List.of(), List.of("idx_medicos_ativo_especialidade")),
+                new Caso("medicos: ativos por especialidade",
+                        t -> t.medicoRepository.findMedicosAtivosByEspecialidadeIn(List.of(Especialidade.CARDIOLOGIA)),
+                        List.of("CARDIOLOGIA"), List.of("idx_medicos_ativo_especialidade")),
+                new Caso("medicos: aleatório livre na data",
+                        t -> t.medicoRepository.escolherMedicoAleatorioLivreNaData(Especialidade.CARDIOLOGIA, INICIO),
+                        List.of("CARDIOLOGIA", INICIO, 1),
+                        List.of("idx_medicos_ativo_especialidade", "idx_consultas_data|idx_consultas_medico_data")),
+                new Caso("medicos: ativos da especialidade para a disponibilidade",
+                        t -> t.medicoRepository.findListagemAtivosByEspecialidade(Especialidade.CARDIOLOGIA),
+                        List.of("CARDIOLOGIA"), List.of("idx_medicos_ativo_especialidade")),
+                new Caso("medicos: situação por id",
+                        t -> t.medicoRepository.findSituacaoByIdIn(List.of(t.idMedico)),
+                        List.of(idMedico), List.of("PRIMARY")),
+                new Caso("medicos: emails já cadastrados na importação",
+                        t -> t.medicoRepository.findEmailsCadastrados(List.of(MARCADOR + "medico.1@voll.med")),
+                        List.of(MARCADOR + "medico.1@voll.med"), List.of("email")),
+                new Caso("medicos: crms já cadastrados na importação",
+                        t -> t.medicoRepository.findCrmsCadastrados(List.of("900001")),
+                        List.of("900001"), List.of("crm")),
+                new Caso("medicos: exportação dos ativos",
+                        // consulta em streaming: só roda dentro de uma transação
+                        t -> new TransactionTemplate(t.transactionManager).executeWithoutResult(status -> {
+                            try (var medicos = t.medicoRepository.streamAtivos()) {
+                                medicos.forEach(medico -> {
+                                });
+                            }
+                        }),
+                        List.of(), List.of(), true),
+                new Caso("pacientes: listagem paginada por nome",
+                        t -> t.pacienteRepository.findListagemAtivos(PageRequest.of(0, 10, Sort.by("nome"))),
+                        List.of(10), List.of("idx_pacientes_ativo_nome")),
+                new Caso("pacientes: fatia pelo cursor",
+                        t -> t.pacienteRepository.findFatiaListagemAposCursor("Paciente Plano 5", 0L, limite),
+                        List.of("Paciente Plano 5", "Paciente Plano 5", 0L, 11), List.of("idx_pacientes_ativo_nome")),
+                new Caso("pacientes: total de ativos",
+                        t -> t.pacienteRepository.countByAtivoTrue(),
+                        List.of(), List.of("idx_pacientes_ativo_nome")),
+                new Caso("pacientes: email existente",
+                        t -> t.pacienteRepository.existsByEmail(MARCADOR + "paciente.1@voll.med"),
+                        List.of(MARCADOR + "paciente.1@voll.med", 1), List.of("email")),
+                new Caso("pacientes: emails já cadastrados na importação",
+                        t -> t.pacienteRepository.findEmailsCadastrados(List.of(MARCADOR + "paciente.1@voll.med")),
+                        List.of(MARCADOR + "paciente.1@voll.med"), List.of("email")),
+                new Caso("pacientes: cpfs já cadastrados na importação",
+                        t -> t.pacienteRepository.findCpfsCadastrados(List.of("99900000001")),
+                        List.of("99900000001"), List.of("cpf")),
+                new Caso("pacientes: exportação dos ativos",
+                        t -> new TransactionTemplate(t.transactionManager).executeWithoutResult(status -> {
+                            try (var pacientes = t.pacienteRepository.streamAtivos()) {
+                                pacientes.forEach(paciente -> {
+                                });
+                            }
+                        }),
+                        List.of(), List.of(), true),
+                new Caso("usuarios: busca por login",
+                        t -> t.usuarioRepository.findByLogin(LOGIN),
+                        List.of(LOGIN), List.of("uk_usuarios_login")),
+                new Caso("refresh_tokens: busca por hash",
+                        t -> t.refreshTokenRepository.findByHash(HASH),
+                        List.of(HASH), List.of("uk_refresh_tokens_hash")),
+                new Caso("consultas: situação do agendamento",
+                        t -> t.consultaRepository.findSituacaoAgendamento(t.idPaciente, t.idMedico),
+                        List.of(idPaciente, idMedico), List.of("PRIMARY")),
+                new Caso("consultas: paciente com consulta no dia",
+                        t -> t.consultaRepository.existsByPacienteIdAndDataBetween(t.idPaciente, dia.atTime(7, 0), dia.atTime(18, 0)),
+                        List.of(idPaciente, dia.atTime(7, 0), dia.atTime(18, 0), 1),
+                        List.of("idx_consultas_paciente_data|uk_consultas_paciente_dia")),
+                new Caso("consultas: médico ocupado no horário",
+                        t -> t.consultaRepository.existsByMedicoIdAndDataAndMotivoCancelamentoIsNull(t.idMedico, INICIO),
+                        List.of(idMedico, INICIO, 1), List.of("idx_consultas_medico_data")),
+                new Caso("consultas: ocupação a partir de uma data",
+                        t -> t.consultaRepository.findOcupacoesAPartirDe(INICIO.plusDays(DIAS_COM_CONSULTAS - 1)),
+                        List.of(INICIO.plusDays(DIAS_COM_CONSULTAS - 1)), List.of("idx_consultas_data")),
+                new Caso("consultas: ocupação ativa nas datas",
+                        t -> t.consultaRepository.findOcupacoesAtivasByDataIn(List.of(INICIO)),
+                        List.of(INICIO), List.of("idx_consultas_data")),
+                new Caso("consultas: ocupação dos pacientes no período",
+                        t -> t.consultaRepository.findOcupacoesDosPacientesNoPeriodo(List.of(t.idPaciente), INICIO, INICIO.plusDays(1)),
+                        List.of(idPaciente, INICIO, INICIO.plusDays(1)), List.of("idx_consultas_paciente_data")),
+                new Caso("consultas: ocupação ativa da especialidade no período",
+                        t -> t.consultaRepository.findOcupacoesAtivasDaEspecialidadeNoPeriodo(Especialidade.CARDIOLOGIA, INICIO, INICIO.plusDays(1)),
+                        List.of(INICIO, INICIO.plusDays(1), "CARDIOLOGIA"), List.of("idx_consultas_data", "PRIMARY")),
+                new Caso("consultas: agenda do médico no período",
+                        // consulta em streaming: só roda dentro de uma transação
+                        t -> new TransactionTemplate(t.transactionManager).executeWithoutResult(status -> {
+                            try (var agenda = t.consultaRepository.streamAgendaDoMedico(t.idMedico, INICIO, INICIO.plusDays(DIAS_COM_CONSULTAS))) {
+                                agenda.forEach(consulta -> {
+                                });
+                            }
+                        }),
+                        List.of(idMedico, INICIO, INICIO.plusDays(DIAS_COM_CONSULTAS)), List.of("idx_consultas_medico_data", "PRIMARY")),
+                new Caso("consultas: página por data",
+                        t -> t.consultaRepository.findPagina(INICIO.plusDays(DIAS_COM_CONSULTAS - 1), null, null, null, null, null, Limit.of(51)),
+                        Arrays.asList(INICIO.plusDays(DIAS_COM_CONSULTAS - 1), INICIO.plusDays(DIAS_COM_CONSULTAS - 1),
+                                null, null, null, null, null, null, null, null, null, null, 51),
+                        List.of("idx_consultas_data")),
+                new Caso("eventos_consultas: pendentes para reenvio",
+                        t -> t.registroEventoConsultaRepository.findPendentes(INICIO, limite),
+                        List.of(INICIO, 11), List.of("idx_eventos_consultas_publicado_em"))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("casos")
+    void consultaDeveUsarOIndiceEsperado(Caso caso) {
+        var executados = InspetorSql.executados.get();
+        executados.clear();
+        caso.execucao().accept(this);
+
+        assertFalse(executados.isEmpty(), "Nenhum SQL capturado para " + caso);
+        var sql = executados.get(0);
+        var marcadores = sql.chars().filter(c -> c == '?').count();
+        assertEquals(caso.parametros().size(), marcadores, "Parâmetros do caso não batem com o SQL gerado: " + sql);
+
+        var plano = explicar(sql, caso.parametros());
+        var indices = plano.stream().map(linha -> String.valueOf(linha.get("key"))).toList();
+
+        for (var linha : plano) {
+            if (caso.exportacao()) {
+                assertFalse(String.valueOf(linha.get("Extra")).contains("filesort"), "Ordenação no servidor para: " + sql);
+            } else {
+                assertNotEquals("ALL", linha.get("type"), "Varredura completa em " + linha.get("table") + " para: " + sql);
+            }
+        }
+        for (var esperado : caso.indicesEsperados()) {
+            var alternativas = List.of(esperado.split("\\|"));
+            assertTrue(indices.stream().anyMatch(alternativas::contains),
+                    "Esperado " + esperado + " mas o plano usou " + indices + " para: " + sql);
+        }
+    }
+
+    private List<Map<String, Object>> explicar(String sql, List<Object> parametros) {
+        // o Connector/J interpola os parâmetros no cliente, então o explain recebe o mesmo texto que a consulta real
+        return jdbcTemplate.queryForList("explain " + sql, parametros.toArray());
+    }
+}
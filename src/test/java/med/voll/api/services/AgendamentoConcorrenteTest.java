@@ -0,0 +1,187 @@
+package med.voll.api.services;
+
+import med.voll.api.dtos.DadosAgendamentoConsulta;
+import med.voll.api.dtos.DadosCadastroMedico;
+import med.voll.api.dtos.DadosCadastroPaciente;
+import med.voll.api.dtos.DadosEndereco;
+import med.voll.api.entities.Consulta;
+import med.voll.api.entities.Medico;
+import med.voll.api.entities.Paciente;
+import med.voll.api.enums.Especialidade;
+import med.voll.api.infra.exceptions.ValidacaoException;
+import med.voll.api.repositories.ConsultaRepository;
+import med.voll.api.repositories.MedicoRepository;
+import med.voll.api.repositories.PacienteRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dispara 200 agendamentos simultâneos para o mesmo horário e confirma que os índices únicos de
+ * {@code consultas} deixam passar exatamente um, devolvendo aos demais a mensagem do validador, e que uma
+ * violação no insert é traduzida na mesma mensagem. Roda no banco embarcado, que recebe os índices da V10 por
+ * {@code db/embarcado/restricoes-consultas.sql}.
+ */
+@SpringBootTest
+@ActiveProfiles("embarcado")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AgendamentoConcorrenteTest {
+
+    private static final int THREADS = 200;
+    private static final int QUANTIDADE_MEDICOS = 20;
+
+    @Autowired
+    private ConsultasService consultasService;
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+
+    private final List<Medico> medicos = new ArrayList<>();
+    private final List<Paciente> pacientes = new ArrayList<>();
+    private final List<Long> consultas = new CopyOnWriteArrayList<>();
+
+    @BeforeAll
+    void cadastrarMedicosEPacientes() {
+        var sufixo = System.currentTimeMillis() % 10_000;
+        var endereco = new DadosEndereco("Rua Concorrência", "Centro", "01001000", "São Paulo", "SP", null, "1");
+
+        for (int i = 0; i < QUANTIDADE_MEDICOS; i++) {
+            medicos.add(medicoRepository.save(new Medico(new DadosCadastroMedico(
+                    "Médico Concorrência " + i, "medico.conc" + sufixo + "." + i + "@voll.med", "11999990000",
+                    String.format("%06d", sufixo * 100 + 50 + i), Especialidade.ORTOPEDIA, endereco))));
+        }
+        for (int i = 0; i < THREADS; i++) {
+            pacientes.add(pacienteRepository.save(new Paciente(new DadosCadastroPaciente(
+                    "Paciente Concorrência " + i, "paciente.conc" + sufixo + "." + i + "@voll.med", "11999990000",
+                    String.format("%04d%07d", sufixo, 5_000_000 + i), endereco))));
+        }
+    }
+
+    @AfterAll
+    void removerDados() {
+        consultaRepository.deleteAllById(consultas);
+        pacienteRepository.deleteAll(pacientes);
+        medicoRepository.deleteAll(medicos);
+    }
+
+    @Test
+    void mesmoMedicoNoMesmoHorarioDeveTerExatamenteUmAgendamento() throws InterruptedException {
+        var data = LocalDate.now().plusWeeks(3).with(TemporalAdjusters.next(DayOfWeek.TUESDAY)).atTime(10, 0);
+        var idMedico = medicos.get(0).getId();
+
+        var resultado = disputar(i -> new DadosAgendamentoConsulta(idMedico, pacientes.get(i).getId(), data, null));
+
+        assertEquals(1, resultado.sucessos().get());
+        assertEquals(Map.of("Médico já possui outra consulta agendada nesse mesmo horário", THREADS - 1), resultado.rejeicoes());
+        assertEquals(1, consultaRepository.findAllById(consultas).stream()
+                .filter(consulta -> consulta.getData().equals(data))
+                .count());
+    }
+
+    @Test
+    void mesmoPacienteNoMesmoDiaDeveTerExatamenteUmAgendamento() throws InterruptedException {
+        var dia = LocalDate.now().plusWeeks(3).with(TemporalAdjusters.next(DayOfWeek.WEDNESDAY));
+        var idPaciente = pacientes.get(0).getId();
+
+        // cada thread usa um par (médico, horário) diferente: só a regra do paciente pode recusar
+        var resultado = disputar(i -> new DadosAgendamentoConsulta(
+                medicos.get(i % QUANTIDADE_MEDICOS).getId(), idPaciente, dia.atTime(7 + i / QUANTIDADE_MEDICOS, 0), null));
+
+        assertEquals(1, resultado.sucessos().get());
+        assertEquals(Map.of("Paciente já possui uma consulta agendada nesse dia", THREADS - 1), resultado.rejeicoes());
+    }
+
+    @Test
+    void horarioOcupadoForaDoIndiceDeveSerRecusadoPeloIndiceUnicoDoMedico() {
+        // arrange: gravada direto pelo repositório, a consulta não entra no índice em memória e os validadores a ignoram
+        var data = LocalDate.now().plusWeeks(3).with(TemporalAdjusters.next(DayOfWeek.THURSDAY)).atTime(10, 0);
+        gravarForaDoServico(medicos.get(1), pacientes.get(1), data);
+        var dados = new DadosAgendamentoConsulta(medicos.get(1).getId(), pacientes.get(2).getId(), data, null);
+
+        // act
+        var erro = assertThrows(ValidacaoException.class, () -> consultasService.agendar(dados));
+
+        // assert
+        assertEquals("Médico já possui outra consulta agendada nesse mesmo horário", erro.getMessage());
+    }
+
+    @Test
+    void diaOcupadoForaDoIndiceDeveSerRecusadoPeloIndiceUnicoDoPaciente() {
+        // arrange
+        var dia = LocalDate.now().plusWeeks(3).with(TemporalAdjusters.next(DayOfWeek.FRIDAY));
+        gravarForaDoServico(medicos.get(2), pacientes.get(3), dia.atTime(9, 0));
+        var dados = new DadosAgendamentoConsulta(medicos.get(3).getId(), pacientes.get(3).getId(), dia.atTime(14, 0), null);
+
+        // act
+        var erro = assertThrows(ValidacaoException.class, () -> consultasService.agendar(dados));
+
+        // assert
+        assertEquals("Paciente já possui uma consulta agendada nesse dia", erro.getMessage());
+    }
+
+    private void gravarForaDoServico(Medico medico, Paciente paciente, LocalDateTime data) {
+        consultas.add(consultaRepository.save(new Consulta(null, medico, paciente, data, null)).getId());
+    }
+
+    private Resultado disputar(IntFunction<DadosAgendamentoConsulta> requisicao) throws InterruptedException {
+        var largada = new CountDownLatch(1);
+        var sucessos = new AtomicInteger();
+        var rejeicoes = new ConcurrentHashMap<String, Integer>();
+        var erros = new CopyOnWriteArrayList<Throwable>();
+
+        var executor = Executors.newFixedThreadPool(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            var dados = requisicao.apply(i);
+            executor.submit(() -> {
+                try {
+                    largada.await();
+                    consultas.add(consultasService.agendar(dados).id());
+                    sucessos.incrementAndGet();
+                } catch (ValidacaoException e) {
+                    rejeicoes.merge(e.getMessage(), 1, Integer::sum);
+                } catch (Throwable e) {
+                    erros.add(e);
+                }
+                return null;
+            });
+        }
+        largada.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+
+        assertTrue(erros.isEmpty(), () -> "Falhas inesperadas: " + erros);
+        return new Resultado(sucessos, rejeicoes);
+    }
+
+    private record Resultado(AtomicInteger sucessos, Map<String, Integer> rejeicoes) {
+    }
+}
@@ -0,0 +1,122 @@
+package med.voll.api.services;
+
+import med.voll.api.dtos.DadosAgendamentoConsulta;
+import med.voll.api.dtos.DadosCadastroMedico;
+import med.voll.api.dtos.DadosCadastroPaciente;
+import med.voll.api.dtos.DadosEndereco;
+import med.voll.api.entities.Medico;
+import med.voll.api.entities.Paciente;
+import med.voll.api.enums.Especialidade;
+import med.voll.api.repositories.ConsultaRepository;
+import med.voll.api.repositories.MedicoRepository;
+import med.voll.api.repositories.PacienteRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Massa de dados e medições comuns aos benchmarks de agendamento. Cada subclasse sobe o contexto num modo do
+ * índice de ocupação (habilitado ou não pela propriedade, nunca alternado em execução), e o contexto é descartado
+ * ao fim da classe: as consultas removidas no {@code @AfterAll} continuariam marcadas no índice de um contexto
+ * reaproveitado.
+ */
+@Tag("benchmark")
+@ActiveProfiles("test")
+@DirtiesContext
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class AgendamentoConsultaBenchmark {
+
+    static final int QUANTIDADE_MEDICOS = 20;
+    static final int QUANTIDADE_PACIENTES = 200;
+    static final int HORARIOS_POR_DIA = 12;
+
+    @Autowired
+    ConsultasService consultasService;
+
+    @Autowired
+    MedicoRepository medicoRepository;
+
+    @Autowired
+    PacienteRepository pacienteRepository;
+
+    @Autowired
+    ConsultaRepository consultaRepository;
+
+    final List<Medico> medicos = new ArrayList<>();
+    final List<Paciente> pacientes = new ArrayList<>();
+    final List<Long> consultas = new ArrayList<>();
+
+    @BeforeAll
+    void cadastrarMedicosEPacientes() {
+        var sufixo = System.currentTimeMillis() % 10_000;
+        var endereco = new DadosEndereco("Rua Benchmark", "Centro", "01001000", "São Paulo", "SP", null, "1");
+
+        for (int i = 0; i < QUANTIDADE_MEDICOS; i++) {
+            medicos.add(medicoRepository.save(new Medico(new DadosCadastroMedico(
+                    "Médico Benchmark " + i, "medico.bench" + sufixo + "." + i + "@voll.med", "11999990000",
+                    String.format("%06d", sufixo * 100 + i), Especialidade.CARDIOLOGIA, endereco))));
+        }
+        for (int i = 0; i < QUANTIDADE_PACIENTES; i++) {
+            pacientes.add(pacienteRepository.save(new Paciente(new DadosCadastroPaciente(
+                    "Paciente Benchmark " + i, "paciente.bench" + sufixo + "." + i + "@voll.med", "11999990000",
+                    String.format("%04d%07d", sufixo, i), endereco))));
+        }
+    }
+
+    @AfterAll
+    void removerDadosDoBenchmark() {
+        consultaRepository.deleteAllById(consultas);
+        pacienteRepository.deleteAll(pacientes);
+        medicoRepository.deleteAll(medicos);
+    }
+
+    long[] medirAgendamentos(LocalDate dia) {
+        var latencias = new long[QUANTIDADE_PACIENTES];
+        for (int i = 0; i < QUANTIDADE_PACIENTES; i++) {
+            var data = LocalDateTime.of(dia, LocalTime.of(7 + i % HORARIOS_POR_DIA, 0));
+            var dados = new DadosAgendamentoConsulta(null, pacientes.get(i).getId(), data, Especialidade.CARDIOLOGIA);
+
+            var inicio = System.nanoTime();
+            consultas.add(consultasService.agendar(dados).id());
+            latencias[i] = System.nanoTime() - inicio;
+        }
+        return latencias;
+    }
+
+    DadosAgendamentoConsulta agendamentoNoDia(int i, LocalDate dia) {
+        // um horário distinto por médico (i / 20 vai de 0 a 9), então só o dia do paciente restringe
+        var data = LocalDateTime.of(dia, LocalTime.of(7 + i / QUANTIDADE_MEDICOS, 0));
+        return new DadosAgendamentoConsulta(medicos.get(i % QUANTIDADE_MEDICOS).getId(), pacientes.get(i).getId(), data, null);
+    }
+
+    static String media(long[] latencias) {
+        return milissegundos(Arrays.stream(latencias).average().orElse(0));
+    }
+
+    static String percentil(long[] latencias, int percentil) {
+        var ordenadas = latencias.clone();
+        Arrays.sort(ordenadas);
+        var posicao = Math.min(ordenadas.length - 1, (int) Math.ceil(percentil / 100.0 * ordenadas.length) - 1);
+        return milissegundos(ordenadas[Math.max(0, posicao)]);
+    }
+
+    static String porSegundo(long nanos) {
+        return String.format(Locale.ROOT, "%.0f", QUANTIDADE_PACIENTES / (nanos / 1_000_000_000.0));
+    }
+
+    private static String milissegundos(double nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,74 @@
+package med.voll.api.services;
+
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda;
+import med.voll.api.dtos.DadosAgendamentoConsulta;
+import med.voll.api.dtos.DadosResultadoAgendamentoLote;
+import med.voll.api.enums.Especialidade;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mede a latência de {@link ConsultasService#agendar} com o {@link IndiceOcupacaoAgenda} habilitado e a vazão de
+ * {@link ConsultasService#agendarEmLote} em relação a chamadas individuais. A linha de comparação sem o índice vem
+ * de {@link AgendamentoConsultaSemIndiceBenchmarkTest}.
+ * Executar com {@code mvn test -Pbenchmark} apontando para o banco de testes.
+ */
+@SpringBootTest
+class AgendamentoConsultaBenchmarkTest extends AgendamentoConsultaBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(AgendamentoConsultaBenchmarkTest.class);
+
+    @Autowired
+    private IndiceOcupacaoAgenda indiceOcupacaoAgenda;
+
+    @Test
+    void medirLatenciaDeAgendamentoComIndice() {
+        assertTrue(indiceOcupacaoAgenda.disponivel());
+        var tercaFeira = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.next(DayOfWeek.TUESDAY));
+
+        var latencias = medirAgendamentos(tercaFeira);
+
+        log.info("Agendamento com índice: média {} ms, p50 {} ms, p99 {} ms",
+                media(latencias), percentil(latencias, 50), percentil(latencias, 99));
+        assertTrue(consultas.size() >= QUANTIDADE_PACIENTES);
+    }
+
+    @Test
+    void compararVazaoDoLoteComChamadasIndividuais() {
+        var quintaFeira = LocalDate.now().plusWeeks(2).with(TemporalAdjusters.next(DayOfWeek.THURSDAY));
+
+        var individuais = new ArrayList<DadosAgendamentoConsulta>();
+        var lote = new ArrayList<DadosAgendamentoConsulta>();
+        for (int i = 0; i < QUANTIDADE_PACIENTES; i++) {
+            var horario = LocalTime.of(7 + i % HORARIOS_POR_DIA, 0);
+            individuais.add(new DadosAgendamentoConsulta(null, pacientes.get(i).getId(), LocalDateTime.of(quintaFeira, horario), Especialidade.CARDIOLOGIA));
+            lote.add(new DadosAgendamentoConsulta(null, pacientes.get(i).getId(), LocalDateTime.of(quintaFeira.plusDays(1), horario), Especialidade.CARDIOLOGIA));
+        }
+
+        var inicio = System.nanoTime();
+        individuais.forEach(dados -> consultas.add(consultasService.agendar(dados).id()));
+        var nanosIndividuais = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        var resultados = consultasService.agendarEmLote(lote);
+        var nanosLote = System.nanoTime() - inicio;
+        resultados.forEach(resultado -> consultas.add(resultado.consulta().id()));
+
+        log.info("Chamadas individuais: {} consultas/s", porSegundo(nanosIndividuais));
+        log.info("Lote:                 {} consultas/s", porSegundo(nanosLote));
+
+        assertTrue(resultados.stream().allMatch(DadosResultadoAgendamentoLote::agendada));
+    }
+}
@@ -0,0 +1,74 @@
+package med.voll.api.services;
+
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda;
+import med.voll.api.consulta.validacoes.agendamento.ValidadorAgendamentoDeConsulta;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mesmas medições de {@link AgendamentoConsultaBenchmarkTest} com o {@link IndiceOcupacaoAgenda} desabilitado,
+ * em que toda validação consulta o banco, e a vazão do insert direto protegido pelos índices únicos em relação ao
+ * antigo "verifica e depois insere".
+ * Executar com {@code mvn test -Pbenchmark} apontando para o banco de testes.
+ */
+@SpringBootTest(properties = "api.consulta.indice-ocupacao.habilitado=false")
+class AgendamentoConsultaSemIndiceBenchmarkTest extends AgendamentoConsultaBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(AgendamentoConsultaSemIndiceBenchmarkTest.class);
+
+    @Autowired
+    private IndiceOcupacaoAgenda indiceOcupacaoAgenda;
+
+    @Autowired
+    private List<ValidadorAgendamentoDeConsulta> validadores;
+
+    @Test
+    void medirLatenciaDeAgendamentoSemIndice() {
+        assertFalse(indiceOcupacaoAgenda.disponivel());
+        var segundaFeira = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+        var latencias = medirAgendamentos(segundaFeira);
+
+        log.info("Agendamento sem índice: média {} ms, p50 {} ms, p99 {} ms",
+                media(latencias), percentil(latencias, 50), percentil(latencias, 99));
+        assertTrue(consultas.size() >= QUANTIDADE_PACIENTES);
+    }
+
+    @Test
+    void compararVazaoDoInsertDiretoComVerificacaoPrevia() {
+        var sabado = LocalDate.now().plusWeeks(3).with(TemporalAdjusters.next(DayOfWeek.SATURDAY));
+
+        // caminho anterior: existsById + cada validador consultando o banco antes do insert
+        var inicio = System.nanoTime();
+        for (int i = 0; i < QUANTIDADE_PACIENTES; i++) {
+            var dados = agendamentoNoDia(i, sabado);
+            pacienteRepository.existsById(dados.idPaciente());
+            medicoRepository.existsById(dados.idMedico());
+            validadores.forEach(validador -> validador.validar(dados));
+            consultas.add(consultasService.agendar(dados).id());
+        }
+        var nanosComVerificacao = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < QUANTIDADE_PACIENTES; i++) {
+            consultas.add(consultasService.agendar(agendamentoNoDia(i, sabado.plusDays(2))).id());
+        }
+        var nanosInsertDireto = System.nanoTime() - inicio;
+
+        log.info("Verifica e insere: {} consultas/s", porSegundo(nanosComVerificacao));
+        log.info("Insert direto:     {} consultas/s", porSegundo(nanosInsertDireto));
+
+        assertTrue(consultas.size() >= QUANTIDADE_PACIENTES * 2);
+    }
+}
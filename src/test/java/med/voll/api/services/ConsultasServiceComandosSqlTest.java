@@ -0,0 +1,147 @@
+package med.voll.api.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import med.voll.api.dtos.DadosAgendamentoConsulta;
+import med.voll.api.dtos.DadosAgendamentoSerie;
+import med.voll.api.dtos.DadosCadastroMedico;
+import med.voll.api.dtos.DadosCadastroPaciente;
+import med.voll.api.dtos.DadosCancelamentoConsulta;
+import med.voll.api.dtos.DadosEndereco;
+import med.voll.api.dtos.FiltroConsultas;
+import med.voll.api.enums.Especialidade;
+import med.voll.api.enums.FrequenciaRecorrencia;
+import med.voll.api.enums.ModoAgendamentoSerie;
+import med.voll.api.enums.MotivoCancelamento;
+import med.voll.api.infra.sql.TesteComandosSql;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+import static med.voll.api.infra.sql.ComandosSql.nenhum;
+import static med.voll.api.infra.sql.ContadorSql.assertComandos;
+
+/**
+ * Quantidade exata de idas ao banco de cada método público de {@link ConsultasService}. Uma mudança que
+ * acrescente consultas (um N+1 numa associação lazy, por exemplo) quebra o teste correspondente.
+ */
+@TesteComandosSql
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConsultasServiceComandosSqlTest {
+
+    private static final DadosEndereco ENDERECO = new DadosEndereco("Rua SQL", "Centro", "01001000", "São Paulo", "SP", null, "1");
+    private static final LocalDate SEGUNDA = LocalDate.now().plusWeeks(2).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    @Autowired
+    private ConsultasService consultasService;
+
+    @Autowired
+    private MedicoService medicoService;
+
+    @Autowired
+    private PacienteService pacienteService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> medicos = new ArrayList<>();
+    private final List<Long> pacientes = new ArrayList<>();
+
+    @BeforeAll
+    void cadastrar() {
+        for (int i = 0; i < 3; i++) {
+            medicos.add(medicoService.cadastrar(new DadosCadastroMedico("Médico SQL " + i, "medico.sql" + i + "@voll.med",
+                    "11999990000", "70000" + i, Especialidade.CARDIOLOGIA, ENDERECO)).id());
+        }
+        for (int i = 0; i < 8; i++) {
+            pacientes.add(pacienteService.cadastrar(new DadosCadastroPaciente("Paciente SQL " + i, "paciente.sql" + i + "@voll.med",
+                    "11999990000", String.format("700000000%02d", i), ENDERECO)).id());
+        }
+        // aquece as sequências de consultas e de eventos (allocationSize 50, otimizador pooled): a primeira leitura
+        // devolve 1, um bloco com um único id, e só a segunda reserva os 50 seguintes. Com dois agendamentos aqui, os
+        // testes abaixo, que juntos gravam bem menos de 50 consultas e eventos, não buscam a sequência dentro da contagem
+        consultasService.agendar(agendamento(0, 0, SEGUNDA.atTime(7, 0)));
+        consultasService.agendar(agendamento(0, 1, SEGUNDA.atTime(8, 0)));
+    }
+
+    @BeforeEach
+    void limparCacheDeSegundoNivel() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    void agendarComMedico() throws Exception {
+        // a consulta e o evento ConsultaAgendada na caixa de saída
+        assertComandos(nenhum().selects(1).inserts(2),
+                () -> consultasService.agendar(agendamento(1, 1, SEGUNDA.plusDays(1).atTime(10, 0))));
+    }
+
+    @Test
+    void agendarPorEspecialidade() throws Exception {
+        var dados = new DadosAgendamentoConsulta(null, pacientes.get(2), SEGUNDA.plusDays(1).atTime(11, 0), Especialidade.CARDIOLOGIA);
+
+        assertComandos(nenhum().selects(1).inserts(2), () -> consultasService.agendar(dados));
+    }
+
+    @Test
+    void agendarEmLote() throws Exception {
+        var dia = SEGUNDA.plusDays(2);
+        var lote = List.of(agendamento(0, 3, dia.atTime(10, 0)), agendamento(1, 4, dia.atTime(10, 0)), agendamento(2, 5, dia.atTime(10, 0)));
+
+        // pacientes, médicos, horários ocupados e consultas dos pacientes no período; um lote JDBC de consultas e um de eventos
+        assertComandos(nenhum().selects(4).inserts(2), () -> consultasService.agendarEmLote(lote));
+    }
+
+    @Test
+    void agendarSerie() throws Exception {
+        var serie = new DadosAgendamentoSerie(agendamento(1, 7, SEGUNDA.plusDays(4).atTime(8, 0)),
+                FrequenciaRecorrencia.SEMANAL, 4, null, ModoAgendamentoSerie.TUDO_OU_NADA);
+
+        // as mesmas quatro consultas do lote, qualquer que seja o número de ocorrências; um lote JDBC de consultas e um de eventos
+        assertComandos(nenhum().selects(4).inserts(2), () -> consultasService.agendarSerie(serie));
+    }
+
+    @Test
+    void cancelar() throws Exception {
+        var consulta = consultasService.agendar(agendamento(2, 6, SEGUNDA.plusDays(3).atTime(9, 0)));
+
+        // existsById e o findById do validador de antecedência; o update e o evento ConsultaCancelada saem no commit
+        assertComandos(nenhum().selects(2).inserts(1).updates(1),
+                () -> consultasService.cancelar(new DadosCancelamentoConsulta(consulta.id(), MotivoCancelamento.PACIENTE_DESISTIU)));
+    }
+
+    @Test
+    void proximosHorarios() throws Exception {
+        // só os médicos da especialidade: a ocupação dos médicos e o dia do paciente vêm do índice em memória
+        assertComandos(nenhum().selects(1),
+                () -> consultasService.proximosHorarios(Especialidade.CARDIOLOGIA, SEGUNDA.atStartOfDay(), pacientes.get(7), 5));
+    }
+
+    @Test
+    void listar() throws Exception {
+        var filtro = new FiltroConsultas(SEGUNDA.atStartOfDay(), null, null, null);
+
+        assertComandos(nenhum().selects(1), () -> consultasService.listar(filtro, null, 2));
+    }
+
+    @Test
+    void exportar() throws Exception {
+        var filtro = new FiltroConsultas(SEGUNDA.atStartOfDay(), null, null, null);
+
+        assertComandos(nenhum().selects(1), () -> consultasService.exportar(filtro, new ByteArrayOutputStream()));
+    }
+
+    private DadosAgendamentoConsulta agendamento(int medico, int paciente, LocalDateTime data) {
+        return new DadosAgendamentoConsulta(medicos.get(medico), pacientes.get(paciente), data, null);
+    }
+}
@@ -0,0 +1,426 @@
+package med.voll.api.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import med.voll.api.consulta.agenda.VersoesAgendaMedicos;
+import med.voll.api.consulta.disponibilidade.BuscaProximoHorario;
+import med.voll.api.consulta.eventos.PublicadorEventosConsulta;
+import med.voll.api.consulta.lote.ItemLoteAgendamento;
+import med.voll.api.consulta.lote.PlanejadorAgendamentoEmLote;
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda;
+import med.voll.api.consulta.ocupacao.IndiceOcupacaoAgenda.SituacaoHorario;
+import med.voll.api.consulta.selecao.SelecaoMedicoLivre;
+import med.voll.api.consulta.validacoes.CadeiasValidacao;
+import med.voll.api.consulta.validacoes.agendamento.CarregadorContextoAgendamento;
+import med.voll.api.consulta.validacoes.agendamento.SituacaoAgendamento;
+import med.voll.api.consulta.validacoes.agendamento.ValidadorHorarioAntecedencia;
+import med.voll.api.consulta.validacoes.agendamento.ValidadorHorarioFuncionamentoClinica;
+import med.voll.api.consulta.validacoes.agendamento.ValidadorMedicoAtivo;
+import med.voll.api.consulta.validacoes.agendamento.ValidadorMedicoComOutraConsultaNoMesmoHorario;
+import med.voll.api.consulta.validacoes.agendamento.ValidadorPacienteAtivo;
+import med.voll.api.consulta.validacoes.agendamento.ValidadorPacienteSemOutraConsultaNoDia;
+import med.voll.api.dtos.DadosAgendamentoConsulta;
+import med.voll.api.dtos.DadosAgendamentoSerie;
+import med.voll.api.dtos.DadosResultadoAgendamentoLote;
+import med.voll.api.entities.Consulta;
+import med.voll.api.entities.Medico;
+import med.voll.api.entities.Paciente;
+import med.voll.api.enums.FrequenciaRecorrencia;
+import med.voll.api.enums.ModoAgendamentoSerie;
+import med.voll.api.infra.exceptions.ValidacaoException;
+import med.voll.api.repositories.ConsultaRepository;
+import med.voll.api.repositories.MedicoRepository;
+import med.voll.api.repositories.PacienteRepository;
+import med.voll.api.repositories.RepositoryFacade;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Garante que a cadeia de validação do agendamento faz uma única ida ao banco antes do insert:
+ * todas as verificações são respondidas pelo {@code ContextoAgendamento} e nenhum validador consulta
+ * os repositórios diretamente. Conflitos de horário descobertos no insert viram {@link ValidacaoException}.
+ */
+@ExtendWith(MockitoExtension.class)
+class ConsultasServiceTest {
+
+    private static final LocalDateTime DATA = LocalDate.now().plusWeeks(1)
+            .with(TemporalAdjusters.next(DayOfWeek.MONDAY)).atTime(10, 0);
+
+    @Mock
+    RepositoryFacade repositoryFacade;
+
+    @Mock
+    ConsultaRepository consultaRepository;
+
+    @Mock
+    MedicoRepository medicoRepository;
+
+    @Mock
+    PacienteRepository pacienteRepository;
+
+    @Mock
+    IndiceOcupacaoAgenda indiceOcupacaoAgenda;
+
+    @Mock
+    SelecaoMedicoLivre selecaoMedicoLivre;
+
+    @Mock
+    PlanejadorAgendamentoEmLote planejadorAgendamentoEmLote;
+
+    @Mock
+    PublicadorEventosConsulta publicadorEventosConsulta;
+
+    @Mock
+    BuscaProximoHorario buscaProximoHorario;
+
+    ConsultasService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(repositoryFacade.getConsultaRepository()).thenReturn(consultaRepository);
+        lenient().when(repositoryFacade.getMedicoRepository()).thenReturn(medicoRepository);
+        lenient().when(repositoryFacade.getPacienteRepository()).thenReturn(pacienteRepository);
+        lenient().when(indiceOcupacaoAgenda.situacaoMedico(anyLong(), any())).thenReturn(SituacaoHorario.INDETERMINADO);
+        lenient().when(indiceOcupacaoAgenda.situacaoPaciente(any(), any())).thenReturn(SituacaoHorario.INDETERMINADO);
+        lenient().when(consultaRepository.saveAndFlush(any(Consulta.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        var validadorMedicoAtivo = new ValidadorMedicoAtivo();
+        ReflectionTestUtils.setField(validadorMedicoAtivo, "medicoRepository", medicoRepository);
+        var validadorPacienteAtivo = new ValidadorPacienteAtivo();
+        ReflectionTestUtils.setField(validadorPacienteAtivo, "pacienteRepository", pacienteRepository);
+        var validadorMedicoOcupado = new ValidadorMedicoComOutraConsultaNoMesmoHorario();
+        ReflectionTestUtils.setField(validadorMedicoOcupado, "consultaRepository", consultaRepository);
+        ReflectionTestUtils.setField(validadorMedicoOcupado, "indiceOcupacaoAgenda", indiceOcupacaoAgenda);
+        var validadorPacienteOcupado = new ValidadorPacienteSemOutraConsultaNoDia();
+        ReflectionTestUtils.setField(validadorPacienteOcupado, "consultaRepository", consultaRepository);
+        ReflectionTestUtils.setField(validadorPacienteOcupado, "indiceOcupacaoAgenda", indiceOcupacaoAgenda);
+
+        var meterRegistry = new SimpleMeterRegistry();
+        var cadeiasValidacao = new CadeiasValidacao(
+                List.of(new ValidadorHorarioAntecedencia(), new ValidadorHorarioFuncionamentoClinica(),
+                        validadorMedicoAtivo, validadorPacienteAtivo, validadorMedicoOcupado, validadorPacienteOcupado),
+                List.of(),
+                meterRegistry);
+
+        service = new ConsultasService(
+                repositoryFacade,
+                cadeiasValidacao,
+                indiceOcupacaoAgenda,
+                selecaoMedicoLivre,
+                planejadorAgendamentoEmLote,
+                new ObjectMapper(),
+                new CarregadorContextoAgendamento(consultaRepository, indiceOcupacaoAgenda),
+                publicadorEventosConsulta,
+                buscaProximoHorario,
+                new VersoesAgendaMedicos(),
+                mock(PlatformTransactionManager.class),
+                meterRegistry);
+    }
+
+    @Test
+    void deveValidarAgendamentoComUmaUnicaConsultaAoBanco() {
+        // arrange
+        quandoSituacaoFor(1, 1);
+        when(medicoRepository.getReferenceById(1L)).thenReturn(medico(1L));
+        when(pacienteRepository.getReferenceById(2L)).thenReturn(paciente(2L));
+
+        // act
+        var consulta = service.agendar(new DadosAgendamentoConsulta(1L, 2L, DATA, null));
+
+        // assert
+        assertEquals(1L, consulta.idMedico());
+        assertEquals(2L, consulta.idPaciente());
+        verify(consultaRepository, times(1)).findSituacaoAgendamento(2L, 1L);
+        verify(consultaRepository).saveAndFlush(any(Consulta.class));
+        verifyNoMoreInteractions(consultaRepository);
+        verify(medicoRepository).getReferenceById(1L);
+        verifyNoMoreInteractions(medicoRepository);
+        verify(pacienteRepository).getReferenceById(2L);
+        verifyNoMoreInteractions(pacienteRepository);
+    }
+
+    @Test
+    void deveRejeitarConflitoJaConhecidoPeloIndiceAntesDoInsert() {
+        // arrange
+        when(indiceOcupacaoAgenda.situacaoPaciente(2L, DATA)).thenReturn(SituacaoHorario.OCUPADO);
+        quandoSituacaoFor(1, 1);
+
+        // act + assert
+        var erro = assertThrows(ValidacaoException.class,
+                () -> service.agendar(new DadosAgendamentoConsulta(1L, 2L, DATA, null)));
+        assertEquals("Paciente já possui uma consulta agendada nesse dia", erro.getMessage());
+        verify(consultaRepository, never()).existsByPacienteIdAndDataBetween(any(), any(), any());
+        verify(consultaRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void deveTraduzirViolacaoDoIndiceUnicoDoMedico() {
+        // arrange
+        quandoSituacaoFor(1, 1);
+        when(medicoRepository.getReferenceById(1L)).thenReturn(medico(1L));
+        when(pacienteRepository.getReferenceById(2L)).thenReturn(paciente(2L));
+        when(consultaRepository.saveAndFlush(any(Consulta.class))).thenThrow(violacao("consultas.uk_consultas_medico_data"));
+
+        // act + assert
+        var erro = assertThrows(ValidacaoException.class,
+                () -> service.agendar(new DadosAgendamentoConsulta(1L, 2L, DATA, null)));
+        assertEquals("Médico já possui outra consulta agendada nesse mesmo horário", erro.getMessage());
+        verifyNoInteractions(selecaoMedicoLivre);
+    }
+
+    @Test
+    void deveTraduzirViolacaoDoIndiceUnicoDoPaciente() {
+        // arrange
+        quandoSituacaoFor(1, 1);
+        when(medicoRepository.getReferenceById(1L)).thenReturn(medico(1L));
+        when(pacienteRepository.getReferenceById(2L)).thenReturn(paciente(2L));
+        when(consultaRepository.saveAndFlush(any(Consulta.class))).thenThrow(violacao("consultas.uk_consultas_paciente_dia"));
+
+        // act + assert
+        var erro = assertThrows(ValidacaoException.class,
+                () -> service.agendar(new DadosAgendamentoConsulta(1L, 2L, DATA, null)));
+        assertEquals("Paciente já possui uma consulta agendada nesse dia", erro.getMessage());
+    }
+
+    @Test
+    void naoDeveMascararOutrasViolacoesDeIntegridade() {
+        // arrange
+        quandoSituacaoFor(1, 1);
+        when(medicoRepository.getReferenceById(1L)).thenReturn(medico(1L));
+        when(pacienteRepository.getReferenceById(2L)).thenReturn(paciente(2L));
+        when(consultaRepository.saveAndFlush(any(Consulta.class))).thenThrow(violacao("fk_consultas_medico_id"));
+
+        // act + assert
+        assertThrows(DataIntegrityViolationException.class,
+                () -> service.agendar(new DadosAgendamentoConsulta(1L, 2L, DATA, null)));
+    }
+
+    @Test
+    void deveRejeitarPacienteInexistenteSemOutrasConsultas() {
+        // arrange
+        quandoSituacaoFor(null, 1);
+
+        // act + assert
+        var erro = assertThrows(ValidacaoException.class,
+                () -> service.agendar(new DadosAgendamentoConsulta(1L, 2L, DATA, null)));
+        assertEquals("Id do paciente informado não existe!", erro.getMessage());
+        verify(consultaRepository).findSituacaoAgendamento(2L, 1L);
+        verifyNoMoreInteractions(consultaRepository);
+        verifyNoInteractions(medicoRepository, pacienteRepository);
+    }
+
+    @Test
+    void deveRejeitarMedicoOcupadoUsandoOContexto() {
+        // arrange
+        when(indiceOcupacaoAgenda.situacaoMedico(1L, DATA)).thenReturn(SituacaoHorario.OCUPADO);
+        quandoSituacaoFor(1, 1);
+
+        // act + assert
+        var erro = assertThrows(ValidacaoException.class,
+                () -> service.agendar(new DadosAgendamentoConsulta(1L, 2L, DATA, null)));
+        assertEquals("Médico já possui outra consulta agendada nesse mesmo horário", erro.getMessage());
+        verify(consultaRepository, never()).existsByMedicoIdAndDataAndMotivoCancelamentoIsNull(any(), any());
+        verify(consultaRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void deveRejeitarPacienteInativoUsandoOContexto() {
+        // arrange
+        quandoSituacaoFor(0, 1);
+
+        // act + assert
+        var erro = assertThrows(ValidacaoException.class,
+                () -> service.agendar(new DadosAgendamentoConsulta(1L, 2L, DATA, null)));
+        assertEquals("Consulta não pode ser agendada com paciente excluído", erro.getMessage());
+        verify(pacienteRepository, never()).findAtivoById(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void serieDeveExpandirARecorrenciaAteADataFinal() {
+        // arrange
+        var serie = new DadosAgendamentoSerie(new DadosAgendamentoConsulta(1L, 2L, DATA, null),
+                FrequenciaRecorrencia.QUINZENAL, null, DATA.toLocalDate().plusWeeks(6), ModoAgendamentoSerie.MELHOR_ESFORCO);
+        when(planejadorAgendamentoEmLote.planejarSerie(anyList())).thenAnswer(invocacao -> {
+            List<DadosAgendamentoConsulta> ocorrencias = invocacao.getArgument(0);
+            return IntStream.range(0, ocorrencias.size())
+                    .mapToObj(posicao -> ItemLoteAgendamento.rejeitado(posicao, ocorrencias.get(posicao), "Paciente já possui uma consulta agendada nesse dia"))
+                    .toList();
+        });
+
+        // act
+        var resultado = service.agendarSerie(serie);
+
+        // assert
+        var captor = ArgumentCaptor.forClass(List.class);
+        verify(planejadorAgendamentoEmLote).planejarSerie(captor.capture());
+        assertEquals(List.of(DATA, DATA.plusWeeks(2), DATA.plusWeeks(4), DATA.plusWeeks(6)),
+                ((List<DadosAgendamentoConsulta>) captor.getValue()).stream().map(DadosAgendamentoConsulta::data).toList());
+        assertEquals(0, resultado.agendadas());
+        assertEquals(4, resultado.rejeitadas());
+    }
+
+    @Test
+    void serieTudoOuNadaComOcorrenciaRejeitadaNaoDeveInserirNada() {
+        // arrange
+        var serie = new DadosAgendamentoSerie(new DadosAgendamentoConsulta(1L, 2L, DATA, null),
+                FrequenciaRecorrencia.SEMANAL, 3, null, null);
+        when(planejadorAgendamentoEmLote.planejarSerie(anyList())).thenAnswer(invocacao -> planoComSegundaRejeitada(invocacao.getArgument(0)));
+
+        // act
+        var resultado = service.agendarSerie(serie);
+
+        // assert
+        assertEquals(0, resultado.agendadas());
+        assertEquals(3, resultado.rejeitadas());
+        assertEquals("Médico já possui outra consulta agendada nesse mesmo horário", resultado.ocorrencias().get(1).erro());
+        assertTrue(resultado.ocorrencias().get(0).erro().contains("tudo ou nada"));
+        verifyNoInteractions(consultaRepository, publicadorEventosConsulta);
+    }
+
+    @Test
+    void serieMelhorEsforcoDeveInserirAsOcorrenciasValidasNumUnicoLote() {
+        // arrange
+        var serie = new DadosAgendamentoSerie(new DadosAgendamentoConsulta(1L, 2L, DATA, null),
+                FrequenciaRecorrencia.SEMANAL, 3, null, ModoAgendamentoSerie.MELHOR_ESFORCO);
+        when(planejadorAgendamentoEmLote.planejarSerie(anyList())).thenAnswer(invocacao -> planoComSegundaRejeitada(invocacao.getArgument(0)));
+        when(medicoRepository.getReferenceById(1L)).thenReturn(medico(1L));
+        when(pacienteRepository.getReferenceById(2L)).thenReturn(paciente(2L));
+        when(consultaRepository.saveAllAndFlush(anyList())).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        // act
+        var resultado = service.agendarSerie(serie);
+
+        // assert
+        assertEquals(2, resultado.agendadas());
+        assertEquals(1, resultado.rejeitadas());
+        assertEquals(List.of(true, false, true), resultado.ocorrencias().stream().map(DadosResultadoAgendamentoLote::agendada).toList());
+        verify(consultaRepository, times(1)).saveAllAndFlush(anyList());
+        verify(consultaRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void serieMelhorEsforcoDeveGravarUmaAUmaQuandoOBancoRecusarOLote() {
+        // arrange
+        var serie = new DadosAgendamentoSerie(new DadosAgendamentoConsulta(1L, 2L, DATA, null),
+                FrequenciaRecorrencia.SEMANAL, 3, null, ModoAgendamentoSerie.MELHOR_ESFORCO);
+        when(planejadorAgendamentoEmLote.planejarSerie(anyList())).thenAnswer(invocacao -> planoComSegundaRejeitada(invocacao.getArgument(0)));
+        when(medicoRepository.getReferenceById(1L)).thenReturn(medico(1L));
+        when(pacienteRepository.getReferenceById(2L)).thenReturn(paciente(2L));
+        // outra requisição ocupou o horário da terceira ocorrência depois do planejamento
+        when(consultaRepository.saveAllAndFlush(anyList())).thenAnswer(invocacao -> {
+            List<Consulta> consultas = invocacao.getArgument(0);
+            if (consultas.size() > 1 || consultas.get(0).getData().equals(DATA.plusWeeks(2))) {
+                throw violacao("uk_consultas_medico_data");
+            }
+            return consultas;
+        });
+
+        // act
+        var resultado = service.agendarSerie(serie);
+
+        // assert
+        assertEquals(1, resultado.agendadas());
+        assertEquals(2, resultado.rejeitadas());
+        assertEquals(List.of(true, false, false), resultado.ocorrencias().stream().map(DadosResultadoAgendamentoLote::agendada).toList());
+        assertEquals("Médico já possui outra consulta agendada nesse mesmo horário", resultado.ocorrencias().get(2).erro());
+        verify(consultaRepository, times(3)).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void loteDeveGravarItemAItemQuandoOBancoRecusarOLote() {
+        // arrange
+        var lote = List.of(new DadosAgendamentoConsulta(1L, 2L, DATA, null),
+                new DadosAgendamentoConsulta(1L, 3L, DATA.plusHours(1), null),
+                new DadosAgendamentoConsulta(1L, 4L, DATA.plusHours(2), null));
+        when(planejadorAgendamentoEmLote.planejar(anyList())).thenAnswer(invocacao -> {
+            List<DadosAgendamentoConsulta> dados = invocacao.getArgument(0);
+            return IntStream.range(0, dados.size()).mapToObj(posicao -> ItemLoteAgendamento.aprovado(posicao, dados.get(posicao), 1L)).toList();
+        });
+        when(medicoRepository.getReferenceById(1L)).thenReturn(medico(1L));
+        when(pacienteRepository.getReferenceById(anyLong())).thenAnswer(invocacao -> paciente(invocacao.getArgument(0)));
+        // o paciente do segundo item ganhou outra consulta no mesmo dia depois do planejamento
+        when(consultaRepository.saveAllAndFlush(anyList())).thenAnswer(invocacao -> {
+            List<Consulta> consultas = invocacao.getArgument(0);
+            if (consultas.size() > 1 || consultas.get(0).getData().equals(DATA.plusHours(1))) {
+                throw violacao("uk_consultas_paciente_dia");
+            }
+            return consultas;
+        });
+
+        // act
+        var resultados = service.agendarEmLote(lote);
+
+        // assert
+        assertEquals(List.of(true, false, true), resultados.stream().map(DadosResultadoAgendamentoLote::agendada).toList());
+        assertEquals("Paciente já possui uma consulta agendada nesse dia", resultados.get(1).erro());
+        verify(consultaRepository, times(4)).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void serieDeveExigirQuantidadeOuDataFinal() {
+        // arrange
+        var serie = new DadosAgendamentoSerie(new DadosAgendamentoConsulta(1L, 2L, DATA, null),
+                FrequenciaRecorrencia.SEMANAL, 3, DATA.toLocalDate().plusWeeks(4), null);
+
+        // act + assert
+        assertThrows(ValidacaoException.class, () -> service.agendarSerie(serie));
+        verifyNoInteractions(planejadorAgendamentoEmLote);
+    }
+
+    private static List<ItemLoteAgendamento> planoComSegundaRejeitada(List<DadosAgendamentoConsulta> ocorrencias) {
+        return IntStream.range(0, ocorrencias.size())
+                .mapToObj(posicao -> posicao == 1
+                        ? ItemLoteAgendamento.rejeitado(posicao, ocorrencias.get(posicao), "Médico já possui outra consulta agendada nesse mesmo horário")
+                        : ItemLoteAgendamento.aprovado(posicao, ocorrencias.get(posicao), 1L))
+                .toList();
+    }
+
+    private void quandoSituacaoFor(Object pacienteAtivo, Object medicoAtivo) {
+        var situacao = mock(SituacaoAgendamento.class);
+        lenient().when(situacao.getPacienteAtivo()).thenReturn(pacienteAtivo);
+        lenient().when(situacao.getMedicoAtivo()).thenReturn(medicoAtivo);
+        when(consultaRepository.findSituacaoAgendamento(any(), any())).thenReturn(situacao);
+    }
+
+    private static DataIntegrityViolationException violacao(String restricao) {
+        var causa = new ConstraintViolationException("Duplicate entry", new SQLIntegrityConstraintViolationException(), restricao);
+        return new DataIntegrityViolationException("could not execute statement", causa);
+    }
+
+    private static Medico medico(Long id) {
+        var medico = new Medico();
+        medico.setId(id);
+        return medico;
+    }
+
+    private static Paciente paciente(Long id) {
+        var paciente = new Paciente();
+        paciente.setId(id);
+        return paciente;
+    }
+}
@@ -0,0 +1,161 @@
+package med.voll.api.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import med.voll.api.cadastro.exportacao.FormatoExportacao;
+import med.voll.api.cadastro.importacao.FormatoImportacao;
+import med.voll.api.dtos.CursorListagem;
+import med.voll.api.dtos.DadosAtualizacaoMedico;
+import med.voll.api.dtos.DadosCadastroMedico;
+import med.voll.api.dtos.DadosDetalhamentoMedico;
+import med.voll.api.dtos.DadosEndereco;
+import med.voll.api.enums.Especialidade;
+import med.voll.api.infra.cache.CacheDetalhamento;
+import med.voll.api.infra.sql.TesteComandosSql;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+import static med.voll.api.infra.sql.ComandosSql.nenhum;
+import static med.voll.api.infra.sql.ContadorSql.assertComandos;
+
+/**
+ * Quantidade exata de idas ao banco de cada método público de {@link MedicoService}, partindo sempre
+ * com o cache de segundo nível e o cache de detalhamento vazios.
+ */
+@TesteComandosSql
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MedicoServiceComandosSqlTest {
+
+    private static final DadosEndereco ENDERECO = new DadosEndereco("Rua SQL", "Centro", "01001000", "São Paulo", "SP", null, "1");
+
+    @Autowired
+    private MedicoService medicoService;
+
+    @Autowired
+    private CacheDetalhamento<DadosDetalhamentoMedico> cacheDetalhamento;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> medicos = new ArrayList<>();
+
+    @BeforeAll
+    void cadastrar() {
+        for (int i = 0; i < 4; i++) {
+            medicos.add(medicoService.cadastrar(dados(i)).id());
+        }
+    }
+
+    @BeforeEach
+    void limparCaches() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        cacheDetalhamento.limpar();
+    }
+
+    @Test
+    void cadastrarMedico() throws Exception {
+        assertComandos(nenhum().inserts(1), () -> medicoService.cadastrar(dados(10)));
+    }
+
+    @Test
+    void importar() throws Exception {
+        var csv = new StringBuilder("nome,email,telefone,crm,especialidade,logradouro,bairro,cep,cidade,uf\n");
+        for (int i = 0; i < 3; i++) {
+            csv.append(String.format("Médico Importado %d,medico.importado.sql%d@voll.med,11999990000,72%04d,ortopedia,Rua SQL,Centro,01001000,São Paulo,SP\n", i, i, i));
+        }
+
+        // uma consulta por coluna única e um único insert em lote, independente do número de registros
+        assertComandos(nenhum().selects(2).inserts(1),
+                () -> medicoService.importar(FormatoImportacao.CSV, new StringReader(csv.toString()), new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void exportar() throws Exception {
+        // um único cursor, com ou sem compressão
+        assertComandos(nenhum().selects(1), () -> medicoService.exportar(FormatoExportacao.CSV, true, new ByteArrayOutputStream()));
+        assertComandos(nenhum().selects(1), () -> medicoService.exportar(FormatoExportacao.NDJSON, false, new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void listar() throws Exception {
+        // página cheia: a listagem e o count(*)
+        assertComandos(nenhum().selects(2), () -> medicoService.listar(PageRequest.of(0, 2, Sort.by("nome"))));
+    }
+
+    @Test
+    void listarEmFatias() throws Exception {
+        var cursor = new CursorListagem("Médico SQL", 0L).codificar();
+
+        assertComandos(nenhum().selects(1), () -> medicoService.listarEmFatias(PageRequest.of(0, 2), null, false));
+        assertComandos(nenhum().selects(1), () -> medicoService.listarEmFatias(PageRequest.of(0, 2), cursor, false));
+    }
+
+    @Test
+    void listarEmFatiasComTotalContaUmaUnicaVez() throws Exception {
+        assertComandos(nenhum().selects(3), () -> {
+            medicoService.listarEmFatias(PageRequest.of(0, 2), null, true);
+            medicoService.listarEmFatias(PageRequest.of(0, 2), null, true);
+        });
+    }
+
+    @Test
+    void atualizar() throws Exception {
+        var dados = new DadosAtualizacaoMedico(medicos.get(0), "Médico SQL Atualizado", null, null);
+
+        assertComandos(nenhum().selects(1).updates(1), () -> medicoService.atualizar(dados));
+    }
+
+    @Test
+    void excluir() throws Exception {
+        var id = medicoService.cadastrar(dados(20)).id();
+
+        assertComandos(nenhum().selects(1).updates(1), () -> medicoService.excluir(id));
+    }
+
+    @Test
+    void detalharSoVaiAoBancoNaPrimeiraChamada() throws Exception {
+        assertComandos(nenhum().selects(1), () -> {
+            medicoService.detalhar(medicos.get(1));
+            medicoService.detalhar(medicos.get(1));
+        });
+    }
+
+    @Test
+    void etagDaAgendaNaoVaiAoBanco() throws Exception {
+        assertComandos(nenhum(), () -> medicoService.etagAgenda(medicos.get(1)));
+    }
+
+    @Test
+    void exportarAgendaIcs() throws Exception {
+        var medico = medicoService.detalhar(medicos.get(1));
+
+        assertComandos(nenhum().selects(1), () -> medicoService.exportarAgendaIcs(medico, new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void consultarDisponibilidade() throws Exception {
+        var segunda = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+        // só os médicos da especialidade; a ocupação vem do índice em memória
+        assertComandos(nenhum().selects(1),
+                () -> medicoService.consultarDisponibilidade(Especialidade.ORTOPEDIA, segunda, segunda.plusDays(13)));
+    }
+
+    private static DadosCadastroMedico dados(int i) {
+        return new DadosCadastroMedico("Médico SQL " + i, "medico.servico.sql" + i + "@voll.med", "11999990000",
+                String.format("71%04d", i), Especialidade.ORTOPEDIA, ENDERECO);
+    }
+}
@@ -0,0 +1,89 @@
+package med.voll.api.services;
+
+import med.voll.api.dtos.CursorListagem;
+import med.voll.api.dtos.DadosListagemMedico;
+import med.voll.api.enums.Especialidade;
+import med.voll.api.infra.cache.TotaisAproximados;
+import med.voll.api.infra.exceptions.ValidacaoException;
+import med.voll.api.repositories.MedicoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * A listagem em fatias nunca conta o conjunto de ativos: a primeira fatia é um {@code Slice} e as
+ * seguintes seguem o cursor {@code (nome, id)}.
+ */
+@ExtendWith(MockitoExtension.class)
+class MedicoServiceTest {
+
+    @Mock
+    MedicoRepository medicoRepository;
+
+    @Mock
+    TotaisAproximados totaisAproximados;
+
+    @InjectMocks
+    MedicoService service;
+
+    @Test
+    void primeiraFatiaNaoDeveContarENemBuscarTotalSemPedido() {
+        // arrange
+        var paginacao = PageRequest.of(0, 2);
+        when(medicoRepository.findFatiaListagemAtivos(PageRequest.of(0, 2, Sort.by("nome", "id"))))
+                .thenReturn(new SliceImpl<>(List.of(medico(1L, "Ana"), medico(2L, "Bruno")), paginacao, true));
+
+        // act
+        var fatia = service.listarEmFatias(paginacao, null, false);
+
+        // assert
+        assertEquals(2, fatia.conteudo().size());
+        assertTrue(fatia.temProxima());
+        assertEquals(new CursorListagem("Bruno", 2L), CursorListagem.decodificar(fatia.proximoCursor()));
+        assertNull(fatia.totalAproximado());
+        verify(medicoRepository, never()).countByAtivoTrue();
+        verify(medicoRepository, never()).findListagemAtivos(any());
+        verifyNoInteractions(totaisAproximados);
+    }
+
+    @Test
+    void fatiaPeloCursorDeveBuscarUmRegistroAMaisParaSaberSeHaProxima() {
+        // arrange
+        var cursor = new CursorListagem("Bruno | Silva", 2L).codificar();
+        when(medicoRepository.findFatiaListagemAposCursor("Bruno | Silva", 2L, Limit.of(3)))
+                .thenReturn(List.of(medico(3L, "Carla")));
+        when(totaisAproximados.medicosAtivos()).thenReturn(3L);
+
+        // act
+        var fatia = service.listarEmFatias(PageRequest.of(0, 2), cursor, true);
+
+        // assert
+        assertEquals(1, fatia.conteudo().size());
+        assertFalse(fatia.temProxima());
+        assertNull(fatia.proximoCursor());
+        assertEquals(3L, fatia.totalAproximado());
+        verify(medicoRepository, never()).countByAtivoTrue();
+    }
+
+    @Test
+    void cursorInvalidoDeveSerRecusado() {
+        assertThrows(ValidacaoException.class, () -> service.listarEmFatias(PageRequest.of(0, 2), "???", false));
+        verifyNoInteractions(medicoRepository);
+    }
+
+    private static DadosListagemMedico medico(Long id, String nome) {
+        return new DadosListagemMedico(id, nome, nome.toLowerCase() + "@voll.med", "123456", Especialidade.CARDIOLOGIA);
+    }
+}
@@ -0,0 +1,139 @@
+package med.voll.api.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import med.voll.api.cadastro.exportacao.FormatoExportacao;
+import med.voll.api.cadastro.importacao.FormatoImportacao;
+import med.voll.api.dtos.CursorListagem;
+import med.voll.api.dtos.DadosAtualizacaoPaciente;
+import med.voll.api.dtos.DadosCadastroPaciente;
+import med.voll.api.dtos.DadosDetalhamentoPaciente;
+import med.voll.api.dtos.DadosEndereco;
+import med.voll.api.infra.cache.CacheDetalhamento;
+import med.voll.api.infra.sql.TesteComandosSql;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static med.voll.api.infra.sql.ComandosSql.nenhum;
+import static med.voll.api.infra.sql.ContadorSql.assertComandos;
+
+/**
+ * Quantidade exata de idas ao banco de cada método público de {@link PacienteService}, partindo sempre
+ * com o cache de segundo nível e o cache de detalhamento vazios.
+ */
+@TesteComandosSql
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PacienteServiceComandosSqlTest {
+
+    private static final DadosEndereco ENDERECO = new DadosEndereco("Rua SQL", "Centro", "01001000", "São Paulo", "SP", null, "1");
+
+    @Autowired
+    private PacienteService pacienteService;
+
+    @Autowired
+    private CacheDetalhamento<DadosDetalhamentoPaciente> cacheDetalhamento;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> pacientes = new ArrayList<>();
+
+    @BeforeAll
+    void cadastrar() {
+        for (int i = 0; i < 4; i++) {
+            pacientes.add(pacienteService.cadastrar(dados(i)).id());
+        }
+    }
+
+    @BeforeEach
+    void limparCaches() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        cacheDetalhamento.limpar();
+    }
+
+    @Test
+    void cadastrarPaciente() throws Exception {
+        assertComandos(nenhum().inserts(1), () -> pacienteService.cadastrar(dados(10)));
+    }
+
+    @Test
+    void importar() throws Exception {
+        var ndjson = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            ndjson.append(String.format("""
+                    {"nome":"Paciente Importado %d","email":"paciente.importado.sql%d@voll.med","telefone":"11999990000",\
+                    "cpf":"720000000%02d","endereco":{"logradouro":"Rua SQL","bairro":"Centro","cep":"01001000","cidade":"São Paulo","uf":"SP"}}
+                    """, i, i, i));
+        }
+
+        // uma consulta por coluna única e um único insert em lote, independente do número de registros
+        assertComandos(nenhum().selects(2).inserts(1),
+                () -> pacienteService.importar(FormatoImportacao.NDJSON, new StringReader(ndjson.toString()), new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void exportar() throws Exception {
+        // um único cursor, com ou sem compressão
+        assertComandos(nenhum().selects(1), () -> pacienteService.exportar(FormatoExportacao.CSV, true, new ByteArrayOutputStream()));
+        assertComandos(nenhum().selects(1), () -> pacienteService.exportar(FormatoExportacao.NDJSON, false, new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void listar() throws Exception {
+        // página cheia: a listagem e o count(*)
+        assertComandos(nenhum().selects(2), () -> pacienteService.listar(PageRequest.of(0, 2, Sort.by("nome"))));
+    }
+
+    @Test
+    void listarEmFatias() throws Exception {
+        var cursor = new CursorListagem("Paciente SQL", 0L).codificar();
+
+        assertComandos(nenhum().selects(1), () -> pacienteService.listarEmFatias(PageRequest.of(0, 2), null, false));
+        assertComandos(nenhum().selects(1), () -> pacienteService.listarEmFatias(PageRequest.of(0, 2), cursor, false));
+    }
+
+    @Test
+    void listarEmFatiasComTotalContaUmaUnicaVez() throws Exception {
+        assertComandos(nenhum().selects(3), () -> {
+            pacienteService.listarEmFatias(PageRequest.of(0, 2), null, true);
+            pacienteService.listarEmFatias(PageRequest.of(0, 2), null, true);
+        });
+    }
+
+    @Test
+    void atualizar() throws Exception {
+        var dados = new DadosAtualizacaoPaciente(pacientes.get(0), "Paciente SQL Atualizado", null, null);
+
+        assertComandos(nenhum().selects(1).updates(1), () -> pacienteService.atualizar(dados));
+    }
+
+    @Test
+    void excluir() throws Exception {
+        var id = pacienteService.cadastrar(dados(20)).id();
+
+        assertComandos(nenhum().selects(1).updates(1), () -> pacienteService.excluir(id));
+    }
+
+    @Test
+    void detalharSoVaiAoBancoNaPrimeiraChamada() throws Exception {
+        assertComandos(nenhum().selects(1), () -> {
+            pacienteService.detalhar(pacientes.get(1));
+            pacienteService.detalhar(pacientes.get(1));
+        });
+    }
+
+    private static DadosCadastroPaciente dados(int i) {
+        return new DadosCadastroPaciente("Paciente SQL " + i, "paciente.servico.sql" + i + "@voll.med", "11999990000",
+                String.format("710000000%02d", i), ENDERECO);
+    }
+}
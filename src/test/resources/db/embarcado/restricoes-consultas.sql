@@ -0,0 +1,9 @@
+-- as mesmas colunas geradas e índices únicos da migration V10, na sintaxe do H2: o esquema embarcado vem das
+-- entidades, que não declaram essas restrições, e sem elas nenhum teste veria a tradução da violação no insert
+alter table consultas
+    add column medico_ativo_id bigint generated always as (case when motivo_cancelamento is null then medico_id end);
+alter table consultas
+    add column paciente_dia date generated always as (case when extract(hour from data) between 7 and 18 then cast(data as date) end);
+
+create unique index uk_consultas_medico_data on consultas(medico_ativo_id, data);
+create unique index uk_consultas_paciente_dia on consultas(paciente_id, paciente_dia);